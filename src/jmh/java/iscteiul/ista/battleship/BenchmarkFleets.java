@@ -0,0 +1,126 @@
+/**
+ *
+ */
+package iscteiul.ista.battleship;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Fleet layouts shared by the benchmarks. Layouts are drawn from a fixed seed,
+ * so runs taken before and after an engine change measure the same boards.
+ */
+final class BenchmarkFleets {
+    /**
+     * The kinds of the standard fleet, largest first
+     */
+    static final String[] STANDARD_MIX = {"galeao", "fragata", "nau", "nau", "caravela", "caravela", "caravela",
+            "barca", "barca", "barca", "barca"};
+
+    static final String STANDARD = "standard";
+
+    private static final Compass[] BEARINGS = {Compass.NORTH, Compass.SOUTH, Compass.EAST, Compass.WEST};
+    private static final int TRIES_PER_SHIP = 1000;
+
+    private BenchmarkFleets() {
+    }
+
+    /**
+     * A ship to be built: its kind, bearing and anchor position
+     */
+    static final class Placement {
+        final String kind;
+        final Compass bearing;
+        final int row;
+        final int column;
+
+        Placement(String kind, Compass bearing, int row, int column) {
+            this.kind = kind;
+            this.bearing = bearing;
+            this.row = row;
+            this.column = column;
+        }
+
+        Ship build() {
+            return Ship.buildShip(kind, bearing, new Position(row, column));
+        }
+    }
+
+    /**
+     * @param rows      board size (square board)
+     * @param fleetSize number of ships wanted
+     * @return the spec the benchmarks use for that board and fleet
+     */
+    static BoardSpec spec(int rows, int fleetSize) {
+        return BoardSpec.square(rows, fleetSize);
+    }
+
+    /**
+     * Draws a legal layout. Ships that find no room after a fixed number of
+     * random tries are left out, so small boards may get fewer ships than
+     * asked for
+     *
+     * @param spec      the board
+     * @param fleetSize number of ships wanted
+     * @param mix       "standard" for the standard composition, repeated as
+     *                  needed, or a single ship kind such as "galeao"
+     * @param seed      seed of the layout
+     * @return the placements, in the order they were accepted
+     */
+    static Placement[] layout(BoardSpec spec, int fleetSize, String mix, long seed) {
+        Random rnd = new Random(seed);
+        Fleet fleet = new Fleet(spec);
+        List<Placement> placements = new ArrayList<>();
+
+        for (int i = 0; i < fleetSize; i++) {
+            String kind = STANDARD.equals(mix) ? STANDARD_MIX[i % STANDARD_MIX.length] : mix;
+            for (int t = 0; t < TRIES_PER_SHIP; t++) {
+                Placement p = new Placement(kind, BEARINGS[rnd.nextInt(BEARINGS.length)],
+                        rnd.nextInt(spec.getRows()), rnd.nextInt(spec.getColumns()));
+                if (fleet.addShip(p.build())) {
+                    placements.add(p);
+                    break;
+                }
+            }
+        }
+        return placements.toArray(new Placement[0]);
+    }
+
+    /**
+     * @return fresh ships for the given placements
+     */
+    static Ship[] ships(Placement[] placements) {
+        Ship[] ships = new Ship[placements.length];
+        for (int i = 0; i < placements.length; i++)
+            ships[i] = placements[i].build();
+        return ships;
+    }
+
+    /**
+     * @return a new fleet holding fresh ships for the given placements
+     */
+    static Fleet fleet(BoardSpec spec, Placement[] placements) {
+        Fleet fleet = new Fleet(spec);
+        for (Placement p : placements)
+            fleet.addShip(p.build());
+        return fleet;
+    }
+
+    /**
+     * @return every cell of the board, in a seeded random order
+     */
+    static int[] shuffledCells(BoardSpec spec, long seed) {
+        int[] cells = new int[spec.getCells()];
+        for (int i = 0; i < cells.length; i++)
+            cells[i] = i;
+        Random rnd = new Random(seed);
+        for (int i = cells.length - 1; i > 0; i--) {
+            int j = rnd.nextInt(i + 1);
+            int t = cells[i];
+            cells[i] = cells[j];
+            cells[j] = t;
+        }
+        return cells;
+    }
+}
@@ -0,0 +1,88 @@
+/**
+ *
+ */
+package iscteiul.ista.battleship;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of printing a board with a third of its cells shot at to a PrintStream
+ * that discards its output, as System.out would be: one print per cell as
+ * Game.printBoard used to do, a whole frame from a BoardRenderer, and only the
+ * cells changed by one more shot in diff mode.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BoardRendererBenchmark {
+    @Param({"10", "100"})
+    public int size;
+
+    private BoardSpec spec;
+    private List<IPosition> shots;
+    private BoardRenderer renderer;
+    private PrintStream out;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        spec = BoardSpec.square(size, ShipKind.standardFleet().length);
+        Game game = new Game(new Fleet(spec));
+        SplittableRandom random = new SplittableRandom(42);
+        for (int i = 0; i < spec.getCells() / 3; i++)
+            game.fire(random.nextInt(size), random.nextInt(size));
+        shots = game.getShots();
+        renderer = new BoardRenderer(spec);
+        renderer.mark(shots, 'X');
+        out = new PrintStream(OutputStream.nullOutputStream(), true);
+    }
+
+    @Benchmark
+    public void perChar() {
+        char[][] map = new char[spec.getRows()][spec.getColumns()];
+        for (int r = 0; r < spec.getRows(); r++)
+            for (int c = 0; c < spec.getColumns(); c++)
+                map[r][c] = '.';
+        for (IPosition pos : shots)
+            map[pos.getRow()][pos.getColumn()] = 'X';
+        for (int row = 0; row < spec.getRows(); row++) {
+            for (int col = 0; col < spec.getColumns(); col++)
+                out.print(map[row][col]);
+            out.println();
+        }
+    }
+
+    @Benchmark
+    public void frame() throws IOException {
+        renderer.clear();
+        renderer.mark(shots, 'X');
+        renderer.render(out);
+    }
+
+    @Benchmark
+    public int changes() throws IOException {
+        int cell = next++ % spec.getCells();
+        renderer.mark(spec.rowOf(cell), spec.columnOf(cell), (next & 1) == 0 ? 'X' : '.');
+        return renderer.renderChanges(out);
+    }
+}
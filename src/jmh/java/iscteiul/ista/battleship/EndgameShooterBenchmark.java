@@ -0,0 +1,77 @@
+/**
+ *
+ */
+package iscteiul.ista.battleship;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The exact endgame search on standard games played by the density strategy
+ * up to the first move the search solves. Besides the time of a search, the
+ * nodes counter gives the nodes visited per second
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EndgameShooterBenchmark {
+    @Param({"1", "2", "3"})
+    public long seed;
+
+    private EndgameShooter shooter;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Counters {
+        public long nodes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            nodes = 0;
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        BoardSpec spec = BoardSpec.STANDARD;
+        shooter = new EndgameShooter(new ProbabilityShooter(), Long.MAX_VALUE);
+        SplittableRandom random = new SplittableRandom(seed);
+        Game game = new Game(new FleetGenerator().generate(random));
+        shooter.newGame(spec, ShipKind.standardFleet(), random);
+        while (shooter.solve() < 0) {
+            int cell = shooter.nextShot();
+            int row = spec.rowOf(cell);
+            int column = spec.columnOf(cell);
+            ShotResult result = game.fire(row, column);
+            shooter.shotFired(row, column, result, result == ShotResult.SUNK ? game.getLastSunkShip() : null);
+        }
+    }
+
+    /**
+     * One search from scratch: each search salts its cache keys, so nothing
+     * is reused from the one before
+     */
+    @Benchmark
+    public int solve(Counters counters) {
+        int cell = shooter.solve();
+        counters.nodes += shooter.getNodes();
+        return cell;
+    }
+}
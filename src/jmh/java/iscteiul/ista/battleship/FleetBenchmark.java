@@ -0,0 +1,97 @@
+/**
+ *
+ */
+package iscteiul.ista.battleship;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of Fleet.addShip and Fleet.shipAt as the board, the fleet and the mix
+ * of ships grow. Narrow a run with -p, e.g. {@code -p boardSize=10 -p mix=standard}
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FleetBenchmark {
+    private static final int LOOKUPS = 1024;
+
+    @Param({"10", "100", "1000", "10000"})
+    public int boardSize;
+
+    @Param({"11", "1000"})
+    public int fleetSize;
+
+    @Param({"standard", "barca", "caravela", "nau", "fragata", "galeao"})
+    public String mix;
+
+    private BoardSpec spec;
+    private Ship[] ships;
+    private Fleet fleet;
+    private IPosition[] targets;
+
+    @Setup
+    public void setUp() {
+        spec = BenchmarkFleets.spec(boardSize, fleetSize);
+        BenchmarkFleets.Placement[] placements = BenchmarkFleets.layout(spec, fleetSize, mix, 42);
+        ships = BenchmarkFleets.ships(placements);
+        fleet = BenchmarkFleets.fleet(spec, placements);
+
+        // half of the lookups land on ships, half on random cells
+        Random rnd = new Random(7);
+        targets = new IPosition[LOOKUPS];
+        for (int i = 0; i < LOOKUPS; i++) {
+            if (i % 2 == 0) {
+                Ship s = ships[rnd.nextInt(ships.length)];
+                IPosition p = s.getPositions().get(rnd.nextInt(s.getPositions().size()));
+                targets[i] = new Position(p.getRow(), p.getColumn());
+            } else {
+                targets[i] = new Position(rnd.nextInt(boardSize), rnd.nextInt(boardSize));
+            }
+        }
+    }
+
+    /**
+     * Building an empty fleet, to be subtracted from addAllShips
+     */
+    @Benchmark
+    public Fleet emptyFleet() {
+        return new Fleet(spec);
+    }
+
+    /**
+     * Adding every ship of the layout to an empty fleet (addShip does not
+     * change the ships, so the same ones are reused)
+     */
+    @Benchmark
+    public Fleet addAllShips() {
+        Fleet f = new Fleet(spec);
+        for (Ship s : ships)
+            f.addShip(s);
+        return f;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LOOKUPS)
+    public void shipAt(Blackhole bh) {
+        for (IPosition p : targets)
+            bh.consume(fleet.shipAt(p));
+    }
+}
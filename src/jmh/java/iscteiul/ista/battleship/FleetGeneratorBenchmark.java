@@ -0,0 +1,69 @@
+/**
+ *
+ */
+package iscteiul.ista.battleship;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fleets per second produced by FleetGenerator, with and without building the
+ * Ship and Fleet objects. The standard composition is repeated {@code copies}
+ * times, so crowding can be compared across board sizes
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FleetGeneratorBenchmark {
+    @Param({"10", "100", "1000"})
+    public int boardSize;
+
+    @Param({"1", "10"})
+    public int copies;
+
+    private FleetGenerator generator;
+    private SplittableRandom random;
+
+    @Setup
+    public void setUp() {
+        ShipKind[] standard = ShipKind.standardFleet();
+        ShipKind[] kinds = new ShipKind[standard.length * copies];
+        for (int i = 0; i < kinds.length; i++)
+            kinds[i] = standard[i / copies];
+
+        generator = new FleetGenerator(BoardSpec.square(boardSize, kinds.length), kinds);
+        random = new SplittableRandom(42);
+    }
+
+    /**
+     * Choosing the placements only
+     */
+    @Benchmark
+    public int layout() {
+        generator.layout(random);
+        return generator.getRow(0);
+    }
+
+    /**
+     * Choosing the placements and building the fleet
+     */
+    @Benchmark
+    public Fleet generate() {
+        return generator.generate(random);
+    }
+}
@@ -0,0 +1,97 @@
+/**
+ *
+ */
+package iscteiul.ista.battleship;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost per fleet of checking a dataset of standard fleet layouts with a
+ * single-threaded FleetLayoutLoader, against building each fleet ship by ship
+ * through Ship.buildShip and Fleet.addShip. One fleet in eight has a ship
+ * moved to a random spot, which usually makes it illegal.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FleetLayoutLoaderBenchmark {
+    private static final int FLEETS = 1 << 18;
+
+    private final int[][] layouts = new int[FLEETS][];
+    private final ShipKind[] kinds = ShipKind.standardFleet();
+    private final Compass[] bearings = Compass.values();
+    private final FleetLayoutLoader loader = new FleetLayoutLoader(1);
+    private Path file;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        SplittableRandom random = new SplittableRandom(42);
+        FleetGenerator generator = new FleetGenerator();
+        file = Files.createTempFile("frotas", ".bsf");
+        try (FleetLayoutWriter writer = FleetLayoutWriter.create(file, BoardSpec.STANDARD, kinds)) {
+            for (int f = 0; f < FLEETS; f++) {
+                Fleet fleet = generator.generate(random);
+                boolean moved = random.nextInt(8) == 0;
+                layouts[f] = new int[3 * kinds.length];
+                for (int s = 0; s < kinds.length; s++) {
+                    IShip ship = fleet.getShips().get(s);
+                    boolean move = moved && s == kinds.length - 1;
+                    int row = move ? random.nextInt(10) : ship.getPosition().getRow();
+                    int column = move ? random.nextInt(10) : ship.getPosition().getColumn();
+                    writer.ship(kinds[s], ship.getBearing(), row, column);
+                    layouts[f][3 * s] = ship.getBearing().ordinal();
+                    layouts[f][3 * s + 1] = row;
+                    layouts[f][3 * s + 2] = column;
+                }
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(FLEETS)
+    public long loader() throws IOException {
+        return loader.validate(file, new StringBuilder()).getValidFleets();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(FLEETS)
+    public long addShip() {
+        long valid = 0;
+        for (int[] layout : layouts) {
+            Fleet fleet = new Fleet();
+            boolean added = true;
+            for (int s = 0; s < kinds.length && added; s++)
+                added = fleet.addShip(kinds[s].build(bearings[layout[3 * s]], layout[3 * s + 1],
+                        layout[3 * s + 2]));
+            if (added)
+                valid++;
+        }
+        return valid;
+    }
+}
@@ -0,0 +1,131 @@
+/**
+ *
+ */
+package iscteiul.ista.battleship;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of Game.fire, of trying shots with makeShot and unmakeShot, and of
+ * whole games played by a scripted shooter that fires at every cell of the
+ * board in a fixed random order until the fleet is sunk
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GameBenchmark {
+    private static final int SHOTS = 1024;
+
+    @Param({"10", "100", "1000"})
+    public int boardSize;
+
+    @Param({"11", "1000"})
+    public int fleetSize;
+
+    @Param({"standard", "galeao"})
+    public String mix;
+
+    private BoardSpec spec;
+    private BenchmarkFleets.Placement[] placements;
+    private int[] order;
+    private Game game;
+
+    @Setup(Level.Trial)
+    public void setUpTrial() {
+        spec = BenchmarkFleets.spec(boardSize, fleetSize);
+        placements = BenchmarkFleets.layout(spec, fleetSize, mix, 42);
+        order = BenchmarkFleets.shuffledCells(spec, 7);
+    }
+
+    /**
+     * Ships are changed by the shots, so each batch gets a fresh game
+     */
+    @Setup(Level.Invocation)
+    public void setUpInvocation() {
+        game = new Game(BenchmarkFleets.fleet(spec, placements));
+    }
+
+    /**
+     * A batch of shots through fire(IPosition); on the 10 x 10 board most of
+     * them are repeats
+     */
+    @Benchmark
+    @OperationsPerInvocation(SHOTS)
+    public void fireAtPosition(Blackhole bh) {
+        for (int i = 0; i < SHOTS; i++) {
+            int cell = order[i % order.length];
+            bh.consume(game.fire(new Position(spec.rowOf(cell), spec.columnOf(cell))));
+        }
+    }
+
+    /**
+     * The same batch through the primitive fire(row, column)
+     */
+    @Benchmark
+    @OperationsPerInvocation(SHOTS)
+    public void fireAtCell(Blackhole bh) {
+        for (int i = 0; i < SHOTS; i++) {
+            int cell = order[i % order.length];
+            bh.consume(game.fire(spec.rowOf(cell), spec.columnOf(cell)));
+        }
+    }
+
+    /**
+     * The same batch through makeShot, then taken back with unmakeShot: the
+     * price of trying a shot in a search, per shot
+     */
+    @Benchmark
+    @OperationsPerInvocation(SHOTS)
+    public void makeUnmake(Blackhole bh) {
+        for (int i = 0; i < SHOTS; i++) {
+            int cell = order[i % order.length];
+            bh.consume(game.makeShot(spec.rowOf(cell), spec.columnOf(cell)));
+        }
+        for (int i = 0; i < SHOTS; i++)
+            game.unmakeShot();
+    }
+
+    /**
+     * What a search pays without unmakeShot: a fresh fleet and game to try
+     * each shot on
+     */
+    @Benchmark
+    public ShotResult rebuildAndFire() {
+        Game g = new Game(BenchmarkFleets.fleet(spec, placements));
+        return g.fire(spec.rowOf(order[0]), spec.columnOf(order[0]));
+    }
+
+    /**
+     * A whole game, fleet building included
+     *
+     * @return the number of shots needed to sink the fleet
+     */
+    @Benchmark
+    public int fullGame() {
+        Game g = new Game(BenchmarkFleets.fleet(spec, placements));
+        int shots = 0;
+        while (g.getRemainingShips() > 0 && shots < order.length) {
+            int cell = order[shots++];
+            g.fire(spec.rowOf(cell), spec.columnOf(cell));
+        }
+        return shots;
+    }
+}
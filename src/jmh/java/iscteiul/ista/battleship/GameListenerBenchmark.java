@@ -0,0 +1,104 @@
+/**
+ *
+ */
+package iscteiul.ista.battleship;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.Proxy;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost per shot of telling listeners what Game.fire did and what
+ * unmakeShot took back. Each invocation fires at every cell of a random
+ * fleet's board with makeShot and takes the shots back, so the games never
+ * run out: with no listener, with one and with two listeners on the game,
+ * and through a reflective proxy of IGame that reports each fire call to a
+ * listener. Run with -prof gc to see that only the proxy allocates.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GameListenerBenchmark {
+    private static final int SHOTS = 100;
+
+    private Game bare;
+    private Game one;
+    private Game two;
+    private IGame proxy;
+    private long events;
+
+    private Game newGame(SplittableRandom random) {
+        return new Game(new FleetGenerator().generate(random));
+    }
+
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        IGameListener counter = (row, column, result, ship) -> events += ship;
+        bare = newGame(random);
+        one = newGame(random);
+        one.addListener(counter);
+        two = newGame(random);
+        two.addListener(counter);
+        two.addListener((row, column, result, ship) -> events++);
+
+        Game target = newGame(random);
+        proxy = (IGame) Proxy.newProxyInstance(IGame.class.getClassLoader(), new Class<?>[]{IGame.class},
+                (self, method, args) -> {
+                    Object result = method.invoke(target, args);
+                    if (method.getName().equals("makeShot"))
+                        counter.shotFired((Integer) args[0], (Integer) args[1], (ShotResult) result,
+                                target.getLastSunkShip() == null ? -1 : 0);
+                    return result;
+                });
+    }
+
+    private long play(IGame game) {
+        long hits = 0;
+        for (int cell = 0; cell < SHOTS; cell++)
+            if (game.makeShot(cell / 10, cell % 10).isHit())
+                hits++;
+        for (int cell = 0; cell < SHOTS; cell++)
+            game.unmakeShot();
+        return hits + events;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SHOTS)
+    public long none() {
+        return play(bare);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SHOTS)
+    public long oneListener() {
+        return play(one);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SHOTS)
+    public long twoListeners() {
+        return play(two);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SHOTS)
+    public long reflectiveProxy() {
+        return play(proxy);
+    }
+}
@@ -0,0 +1,118 @@
+/**
+ *
+ */
+package iscteiul.ista.battleship;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost per shot of recording games with a JournalWriter, whose buffer goes to
+ * a channel that discards it, against writing the same shots as lines of
+ * text through a BufferedWriter. The shots are those of games played by the
+ * probability-density shooter.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JournalWriterBenchmark {
+    private static final int SHOTS = 1 << 14;
+
+    private final int[] rows = new int[SHOTS];
+    private final int[] columns = new int[SHOTS];
+    private final ShotResult[] results = new ShotResult[SHOTS];
+    private Fleet fleet;
+    private JournalWriter journal;
+    private BufferedWriter text;
+
+    /**
+     * Takes every byte and keeps none
+     */
+    private static final class Discard implements WritableByteChannel {
+        @Override
+        public int write(ByteBuffer source) {
+            int bytes = source.remaining();
+            source.position(source.limit());
+            return bytes;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return true;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        FleetGenerator generator = new FleetGenerator();
+        fleet = generator.generate(random);
+        int n = 0;
+        while (n < SHOTS) {
+            Game game = new Game(generator.generate(random));
+            IShooter shooter = new ProbabilityShooter();
+            shooter.newGame(BoardSpec.STANDARD, ShipKind.standardFleet(), random);
+            while (game.getRemainingShips() > 0 && n < SHOTS) {
+                int cell = shooter.nextShot();
+                rows[n] = BoardSpec.STANDARD.rowOf(cell);
+                columns[n] = BoardSpec.STANDARD.columnOf(cell);
+                results[n] = game.fire(rows[n], columns[n]);
+                shooter.shotFired(rows[n], columns[n], results[n],
+                        results[n] == ShotResult.SUNK ? game.getLastSunkShip() : null);
+                n++;
+            }
+        }
+        journal = new JournalWriter(new Discard(), JournalWriter.DEFAULT_BUFFER);
+        text = new BufferedWriter(new OutputStreamWriter(OutputStream.nullOutputStream(),
+                StandardCharsets.US_ASCII), JournalWriter.DEFAULT_BUFFER);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SHOTS)
+    public long journal() throws IOException {
+        journal.startGame(fleet);
+        for (int i = 0; i < SHOTS; i++)
+            journal.shot(rows[i], columns[i], results[i]);
+        return journal.getShots();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SHOTS)
+    public void text() throws IOException {
+        text.write(fleet.toString());
+        for (int i = 0; i < SHOTS; i++) {
+            text.write(Integer.toString(rows[i]));
+            text.write(' ');
+            text.write(Integer.toString(columns[i]));
+            text.write(' ');
+            text.write(results[i].name());
+            text.write('\n');
+        }
+    }
+}
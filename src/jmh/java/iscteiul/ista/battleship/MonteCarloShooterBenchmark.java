@@ -0,0 +1,68 @@
+/**
+ *
+ */
+package iscteiul.ista.battleship;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The time MonteCarloShooter takes to choose a shot in the middle of a game,
+ * with no time budget. Dividing the number of samples by it gives the samples
+ * drawn per second; run it with -Djava.util.concurrent.ForkJoinPool.common.parallelism=N
+ * to see how it scales with the threads
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MonteCarloShooterBenchmark {
+    @Param({"10", "100", "1000"})
+    public int boardSize;
+
+    @Param({"1000"})
+    public int samples;
+
+    private MonteCarloShooter midGame;
+
+    @Setup
+    public void setUp() {
+        BoardSpec spec = BoardSpec.square(boardSize, ShipKind.standardFleet().length);
+        FleetGenerator generator = new FleetGenerator(spec, ShipKind.standardFleet());
+
+        // a game where a third of the fleet is sunk, played by hunt and target
+        HuntTargetShooter player = new HuntTargetShooter();
+        midGame = new MonteCarloShooter(samples, 0);
+        player.newGame(spec, ShipKind.standardFleet(), new SplittableRandom(7));
+        midGame.newGame(spec, ShipKind.standardFleet(), new SplittableRandom(7));
+        Game game = new Game(generator.generate(new SplittableRandom(7)));
+        while (game.getRemainingShips() > 2 * ShipKind.standardFleet().length / 3) {
+            int cell = player.nextShot();
+            int row = spec.rowOf(cell);
+            int column = spec.columnOf(cell);
+            ShotResult result = game.fire(row, column);
+            IShip sunk = result == ShotResult.SUNK ? game.getLastSunkShip() : null;
+            player.shotFired(row, column, result, sunk);
+            midGame.shotFired(row, column, result, sunk);
+        }
+    }
+
+    @Benchmark
+    public int chooseShot() {
+        return midGame.nextShot();
+    }
+}
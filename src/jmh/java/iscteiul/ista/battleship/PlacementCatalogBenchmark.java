@@ -0,0 +1,73 @@
+/**
+ *
+ */
+package iscteiul.ista.battleship;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to build the placement tables of every ship kind, and to walk them.
+ * The size of the tables is printed once per trial; run with {@code -prof gc}
+ * to also see the bytes allocated per build (gc.alloc.rate.norm)
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PlacementCatalogBenchmark {
+    @Param({"10", "100", "256"})
+    public int boardSize;
+
+    private PlacementCatalog catalog;
+
+    @Setup
+    public void setUp() {
+        catalog = build();
+        System.out.printf("%n%dx%d: %d bytes%n", boardSize, boardSize, catalog.memoryBytes());
+    }
+
+    private PlacementCatalog build() {
+        PlacementCatalog fresh = new PlacementCatalog(boardSize, boardSize);
+        for (ShipKind kind : ShipKind.values())
+            fresh.get(kind);
+        return fresh;
+    }
+
+    /**
+     * Building all five tables from scratch
+     */
+    @Benchmark
+    public PlacementCatalog buildAll() {
+        return build();
+    }
+
+    /**
+     * Reading every footprint cell of every placement of every kind
+     */
+    @Benchmark
+    public void walkFootprints(Blackhole bh) {
+        for (ShipKind kind : ShipKind.values()) {
+            ShipPlacements table = catalog.get(kind);
+            int sum = 0;
+            for (int p = 0; p < table.getCount(); p++)
+                for (int i = 0; i < table.getSize(); i++)
+                    sum += table.getFootprintCell(p, i);
+            bh.consume(sum);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+/**
+ *
+ */
+package iscteiul.ista.battleship;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the Position operations the engine calls most
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PositionBenchmark {
+    private IPosition a = new Position(4, 7);
+    private IPosition same = new Position(4, 7);
+    private IPosition near = new Position(5, 8);
+    private IPosition far = new Position(9, 0);
+
+    @Benchmark
+    public boolean equalsSameCell() {
+        return a.equals(same);
+    }
+
+    @Benchmark
+    public boolean equalsOtherCell() {
+        return a.equals(far);
+    }
+
+    @Benchmark
+    public boolean adjacent() {
+        return a.isAdjacentTo(near);
+    }
+
+    @Benchmark
+    public boolean notAdjacent() {
+        return a.isAdjacentTo(far);
+    }
+}
@@ -0,0 +1,83 @@
+/**
+ *
+ */
+package iscteiul.ista.battleship;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ProbabilityShooter with incremental updates against recounting every
+ * placement after each shot: the time to choose a shot in the middle of a
+ * game, and the time of a whole game
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProbabilityShooterBenchmark {
+    @Param({"10", "100"})
+    public int boardSize;
+
+    @Param({"true", "false"})
+    public boolean incremental;
+
+    private BoardSpec spec;
+    private Simulator simulator;
+    private FleetGenerator generator;
+    private SplittableRandom random;
+    private ProbabilityShooter midGame;
+    private ProbabilityShooter shooter;
+
+    @Setup
+    public void setUp() {
+        spec = BoardSpec.square(boardSize, ShipKind.standardFleet().length);
+        simulator = new Simulator(spec, ShipKind.standardFleet(), 1);
+        generator = new FleetGenerator(spec, ShipKind.standardFleet());
+        random = new SplittableRandom(42);
+        shooter = new ProbabilityShooter(incremental);
+
+        // a game where half of the fleet is sunk
+        midGame = new ProbabilityShooter(incremental);
+        midGame.newGame(spec, ShipKind.standardFleet(), new SplittableRandom(7));
+        Game game = new Game(generator.generate(new SplittableRandom(7)));
+        while (game.getRemainingShips() > ShipKind.standardFleet().length / 2) {
+            int cell = midGame.nextShot();
+            ShotResult result = game.fire(spec.rowOf(cell), spec.columnOf(cell));
+            midGame.shotFired(spec.rowOf(cell), spec.columnOf(cell), result,
+                    result == ShotResult.SUNK ? game.getLastSunkShip() : null);
+        }
+    }
+
+    /**
+     * Choosing the next shot with no shot in between, so the counts are up to
+     * date and both variants do the same work here
+     */
+    @Benchmark
+    public int chooseShot() {
+        return midGame.nextShot();
+    }
+
+    /**
+     * A whole game, fleet generation included
+     */
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public int game() {
+        return simulator.play(shooter, generator, random);
+    }
+}
@@ -0,0 +1,132 @@
+/**
+ *
+ */
+package iscteiul.ista.battleship;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Scanner;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reading a game script of the given size with the ScriptParser, over a
+ * direct buffer as a mapped file would be, against reading it token by token
+ * with a Scanner as the interactive game does (next, nextInt and
+ * next().charAt(0)), and playing it through the ScriptPlayer. The script
+ * repeats games of a random fleet followed by rounds of shots at every cell.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgs = {"-Xmx2g"})
+public class ScriptParserBenchmark {
+    @Param({"100"})
+    public int megabytes;
+
+    private byte[] script;
+    private ByteBuffer direct;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        FleetGenerator generator = new FleetGenerator();
+        StringBuilder text = new StringBuilder();
+        long size = (long) megabytes << 20;
+        StringBuilder games = new StringBuilder();
+        while (games.length() < size) {
+            text.setLength(0);
+            text.append("nova\n");
+            for (IShip ship : generator.generate(random).getShips())
+                text.append(ShipKind.fromCategory(ship.getCategory()).getName()).append(' ')
+                        .append(ship.getPosition().getRow()).append(' ').append(ship.getPosition().getColumn())
+                        .append(' ').append(ship.getBearing()).append('\n');
+            for (int cell = 0; cell < 102; cell += ScriptPlayer.NUMBER_SHOTS) {
+                text.append("rajada");
+                for (int s = cell; s < cell + ScriptPlayer.NUMBER_SHOTS; s++)
+                    text.append(' ').append(s / 10).append(' ').append(s % 10);
+                text.append('\n');
+            }
+            text.append("estado\n");
+            games.append(text);
+        }
+        games.append("desisto\n");
+        script = games.toString().getBytes(StandardCharsets.US_ASCII);
+        direct = ByteBuffer.allocateDirect(script.length);
+        direct.put(script).flip();
+    }
+
+    /**
+     * Decodes every command with its arguments, as the game would
+     */
+    @Benchmark
+    public long parser() {
+        ScriptParser parser = new ScriptParser(direct);
+        long sum = 0;
+        while (parser.hasNext()) {
+            ScriptCommand command = parser.nextCommand();
+            if (command == ScriptCommand.NOVA) {
+                for (int i = 0; i <= Fleet.FLEET_SIZE; i++)
+                    sum += parser.nextKind().ordinal() + parser.nextInt() + parser.nextInt()
+                            + parser.nextBearing().ordinal();
+            } else if (command == ScriptCommand.RAJADA) {
+                for (int i = 0; i < 2 * ScriptPlayer.NUMBER_SHOTS; i++)
+                    sum += parser.nextInt();
+            }
+            sum += command.ordinal();
+        }
+        return sum;
+    }
+
+    /**
+     * The same decoding with a Scanner
+     */
+    @Benchmark
+    public long scanner() {
+        Scanner in = new Scanner(new ByteArrayInputStream(script), StandardCharsets.US_ASCII);
+        long sum = 0;
+        while (in.hasNext()) {
+            String word = in.next();
+            ScriptCommand command = ScriptCommand.UNKNOWN;
+            for (ScriptCommand c : ScriptCommand.values())
+                if (word.equals(c.getWord()))
+                    command = c;
+            if (command == ScriptCommand.NOVA) {
+                for (int i = 0; i <= Fleet.FLEET_SIZE; i++)
+                    sum += ShipKind.fromName(in.next()).ordinal() + in.nextInt() + in.nextInt()
+                            + Compass.charToCompass(in.next().charAt(0)).ordinal();
+            } else if (command == ScriptCommand.RAJADA) {
+                for (int i = 0; i < 2 * ScriptPlayer.NUMBER_SHOTS; i++)
+                    sum += in.nextInt();
+            }
+            sum += command.ordinal();
+        }
+        return sum;
+    }
+
+    /**
+     * Plays the whole script on the engine
+     */
+    @Benchmark
+    public int play() {
+        ScriptPlayer player = new ScriptPlayer(new ScriptParser(direct), false);
+        player.play();
+        return player.getGame().getHits();
+    }
+}
@@ -0,0 +1,78 @@
+/**
+ *
+ */
+package iscteiul.ista.battleship;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of building and querying each of the five ship classes
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ShipBenchmark {
+    @Param({"barca", "caravela", "nau", "fragata", "galeao"})
+    public String kind;
+
+    @Param({"NORTH", "EAST"})
+    public String bearing;
+
+    private Compass compass;
+    private Position anchor;
+    private Ship ship;
+    private Ship neighbour;
+    private IPosition lastCell;
+    private IPosition water;
+
+    @Setup
+    public void setUp() {
+        compass = Compass.valueOf(bearing);
+        anchor = new Position(4, 4);
+        ship = Ship.buildShip(kind, compass, anchor);
+        neighbour = Ship.buildShip("barca", Compass.NORTH, new Position(0, 9));
+        IPosition last = ship.getPositions().get(ship.getPositions().size() - 1);
+        lastCell = new Position(last.getRow(), last.getColumn());
+        water = new Position(9, 0);
+    }
+
+    @Benchmark
+    public Ship build() {
+        return Ship.buildShip(kind, compass, anchor);
+    }
+
+    @Benchmark
+    public boolean occupiesLastCell() {
+        return ship.occupies(lastCell);
+    }
+
+    @Benchmark
+    public boolean occupiesWater() {
+        return ship.occupies(water);
+    }
+
+    @Benchmark
+    public boolean tooCloseTo() {
+        return ship.tooCloseTo(neighbour);
+    }
+
+    @Benchmark
+    public boolean stillFloating() {
+        return ship.stillFloating();
+    }
+}
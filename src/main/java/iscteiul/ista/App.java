@@ -1,8 +1,16 @@
 package iscteiul.ista;
 
 import iscteiul.ista.battleship.Fleet;
+import iscteiul.ista.battleship.FleetLayoutLoader;
+import iscteiul.ista.battleship.ReplayVerifier;
+import iscteiul.ista.battleship.ScriptRunner;
+import iscteiul.ista.battleship.Simulator;
+import iscteiul.ista.battleship.Tournament;
 //import iscteiul.ista.battleship.Tasks;
 
+import java.io.IOException;
+import java.util.Arrays;
+
 /**
  * @author britoeabreu
  * @author adrianolopes
@@ -10,11 +18,41 @@ import iscteiul.ista.battleship.Fleet;
  */
 public class App
 {
-    public static void main( String[] args )
+    public static void main( String[] args ) throws IOException
     {
 
         System.out.printf("\n***  Battleship Game ***\n");
 
+        // "simular [jogos] [semente] [threads]" plays headless games
+        if (args.length > 0 && args[0].equals("simular")) {
+            Simulator.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+
+        // "torneio [rondas] [jogos] [semente] [threads] [todos|suico] [ficheiro]" plays strategies against each other
+        if (args.length > 0 && args[0].equals("torneio")) {
+            Tournament.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+
+        // "guioes [pasta] [threads] [ver]" plays every game script of a folder
+        if (args.length > 0 && args[0].equals("guioes")) {
+            ScriptRunner.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+
+        // "repetir [threads] [diarios...]" replays archived games and checks their outcomes
+        if (args.length > 0 && args[0].equals("repetir")) {
+            ReplayVerifier.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+
+        // "frotas [ficheiro] [threads]" checks a dataset of fleet layouts
+        if (args.length > 0 && args[0].equals("frotas")) {
+            FleetLayoutLoader.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+
         // Tasks.taskA();
         //Tasks.taskB();
         //	Tasks.taskC();
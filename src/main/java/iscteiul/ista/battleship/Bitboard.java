@@ -0,0 +1,122 @@
+/**
+ *
+ */
+package iscteiul.ista.battleship;
+
+import java.util.Arrays;
+
+/**
+ * A set of board cells stored as bits. Each row of the board takes a whole
+ * number of 64-bit words, so that bit (row, column) lives in word
+ * {@code row * wordsPerRow + column / 64}.
+ */
+class Bitboard implements IBitboard {
+    private final int rows;
+    private final int columns;
+    private final int wordsPerRow;
+    private final long[] words;
+
+    /**
+     * @param rows    number of rows of the board
+     * @param columns number of columns of the board
+     */
+    Bitboard(int rows, int columns) {
+        assert rows > 0 && columns > 0;
+
+        this.rows = rows;
+        this.columns = columns;
+        this.wordsPerRow = (columns + 63) >>> 6;
+        this.words = new long[rows * wordsPerRow];
+    }
+
+    @Override
+    public int getRows() {
+        return rows;
+    }
+
+    @Override
+    public int getColumns() {
+        return columns;
+    }
+
+    int getWordsPerRow() {
+        return wordsPerRow;
+    }
+
+    /**
+     * @return true if the cell (row, column) is set
+     */
+    @Override
+    public boolean get(int row, int column) {
+        return (words[row * wordsPerRow + (column >>> 6)] & (1L << column)) != 0;
+    }
+
+    /**
+     * Sets the cell (row, column)
+     */
+    @Override
+    public void set(int row, int column) {
+        words[row * wordsPerRow + (column >>> 6)] |= (1L << column);
+    }
+
+    /**
+     * Clears the cell (row, column)
+     */
+    @Override
+    public void clear(int row, int column) {
+        words[row * wordsPerRow + (column >>> 6)] &= ~(1L << column);
+    }
+
+    /**
+     * @param row  a row of the board
+     * @param word the index of the word within the row
+     * @return the 64 cells of the row starting at column {@code word * 64},
+     *         or 0 if the word lies beyond the last column
+     */
+    @Override
+    public long word(int row, int word) {
+        return word < wordsPerRow ? words[row * wordsPerRow + word] : 0L;
+    }
+
+    /**
+     * Sets the cells of a row given by the bits of a word. Bits beyond the last
+     * column are ignored
+     *
+     * @param row  a row of the board
+     * @param word the index of the word within the row
+     * @param bits the cells to set, bit i standing for column {@code word * 64 + i}
+     */
+    @Override
+    public void orWord(int row, int word, long bits) {
+        if (word < wordsPerRow)
+            words[row * wordsPerRow + word] |= bits & columnMask(columns, word);
+    }
+
+    /**
+     * @return the bits of the given word that fall inside a board with the
+     *         given number of columns
+     */
+    static long columnMask(int columns, int word) {
+        int used = columns - (word << 6);
+        return used >= 64 ? -1L : (1L << used) - 1;
+    }
+
+    /**
+     * Clears every cell of the board
+     */
+    @Override
+    public void clear() {
+        Arrays.fill(words, 0L);
+    }
+
+    /**
+     * @return the number of cells that are set
+     */
+    @Override
+    public int cardinality() {
+        int count = 0;
+        for (long w : words)
+            count += Long.bitCount(w);
+        return count;
+    }
+}
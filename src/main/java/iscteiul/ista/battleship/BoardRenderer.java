@@ -0,0 +1,218 @@
+/**
+ *
+ */
+package iscteiul.ista.battleship;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Draws a board as text, one character per cell and one line per row, '.'
+ * on the cells nothing was marked on. A frame is built in a buffer kept from
+ * frame to frame and goes out in a single call to an Appendable, or in as few
+ * writes as the channel takes.
+ * <p>
+ * For a live terminal, {@link #renderChanges(Appendable)} writes only the
+ * cells that changed since the frame it last wrote, each run of them after
+ * an ANSI cursor move, and only looks at the rows marked since; the first
+ * such frame clears the screen and draws the whole board. A renderer is not
+ * thread-safe.
+ */
+public class BoardRenderer {
+    static final char WATER = '.';
+
+    private static final String ESCAPE = "\u001b[";
+
+    /**
+     * A cursor move takes more bytes than redrawing a few unchanged cells
+     * between two changed ones
+     */
+    private static final int MAX_GAP = 6;
+
+    private final BoardSpec spec;
+    private final char[] cells;
+    private final boolean[] dirty;
+    private char[] shown;
+    private final StringBuilder text = new StringBuilder();
+    private ByteBuffer bytes;
+
+    /**
+     * @param spec the board to draw
+     */
+    public BoardRenderer(BoardSpec spec) {
+        assert spec != null;
+
+        this.spec = spec;
+        this.cells = new char[spec.getCells()];
+        this.dirty = new boolean[spec.getRows()];
+        Arrays.fill(cells, WATER);
+    }
+
+    public BoardSpec getBoardSpec() {
+        return spec;
+    }
+
+    /**
+     * Takes every mark off the board
+     */
+    public void clear() {
+        Arrays.fill(cells, WATER);
+        Arrays.fill(dirty, true);
+    }
+
+    /**
+     * @param row    a row of the board
+     * @param column a column of the board
+     * @param marker what to draw on the cell
+     * @throws IllegalArgumentException if the cell is not on the board
+     */
+    public void mark(int row, int column, char marker) throws IllegalArgumentException {
+        cells[cellOf(row, column)] = marker;
+        dirty[row] = true;
+    }
+
+    /**
+     * @param positions cells of the board
+     * @param marker    what to draw on each of them
+     * @throws IllegalArgumentException if a cell is not on the board
+     */
+    public void mark(List<IPosition> positions, char marker) throws IllegalArgumentException {
+        for (int i = 0; i < positions.size(); i++)
+            mark(positions.get(i).getRow(), positions.get(i).getColumn(), marker);
+    }
+
+    /**
+     * @param cell   a cell of the board, as an index
+     * @param marker what to draw on it
+     */
+    void mark(int cell, char marker) {
+        cells[cell] = marker;
+        dirty[spec.rowOf(cell)] = true;
+    }
+
+    /**
+     * @return what is drawn on a cell
+     * @throws IllegalArgumentException if the cell is not on the board
+     */
+    public char get(int row, int column) throws IllegalArgumentException {
+        return cells[cellOf(row, column)];
+    }
+
+    private int cellOf(int row, int column) throws IllegalArgumentException {
+        if (!spec.isInside(row, column))
+            throw new IllegalArgumentException("ERROR! cell off the board " + row + "," + column);
+        return spec.cell(row, column);
+    }
+
+    /**
+     * Writes the whole board, each row ended by the line separator
+     */
+    public void render(Appendable out) throws IOException {
+        frame();
+        out.append(text);
+    }
+
+    /**
+     * Writes the whole board as ASCII, each row ended by the line separator
+     */
+    public void render(WritableByteChannel out) throws IOException {
+        frame();
+        write(out);
+    }
+
+    /**
+     * Writes what changed since the last frame written by renderChanges, or
+     * the whole board on a cleared screen if there was none, and leaves the
+     * cursor on the line below the board
+     *
+     * @return the number of cells written
+     */
+    public int renderChanges(Appendable out) throws IOException {
+        int written = changes();
+        out.append(text);
+        return written;
+    }
+
+    /**
+     * As {@link #renderChanges(Appendable)}, in ASCII to a channel
+     *
+     * @return the number of cells written
+     */
+    public int renderChanges(WritableByteChannel out) throws IOException {
+        int written = changes();
+        write(out);
+        return written;
+    }
+
+    /**
+     * Makes the next renderChanges draw the whole board again, e.g. after
+     * something else was written to the terminal
+     */
+    public void forget() {
+        shown = null;
+    }
+
+    private void frame() {
+        text.setLength(0);
+        text.ensureCapacity(cells.length + spec.getRows() * (1 + System.lineSeparator().length()));
+        for (int row = 0, start = 0; row < spec.getRows(); row++, start += spec.getColumns())
+            text.append(cells, start, spec.getColumns()).append(System.lineSeparator());
+    }
+
+    private int changes() {
+        text.setLength(0);
+        if (shown == null) {
+            text.append(ESCAPE).append("2J").append(ESCAPE).append('H');
+            for (int row = 0, start = 0; row < spec.getRows(); row++, start += spec.getColumns())
+                text.append(cells, start, spec.getColumns()).append("\r\n");
+            shown = cells.clone();
+            Arrays.fill(dirty, false);
+            return cells.length;
+        }
+
+        // only the rows marked since the last frame can have changed
+        int written = 0;
+        int columns = spec.getColumns();
+        for (int row = 0, start = 0; row < spec.getRows(); row++, start += columns) {
+            if (!dirty[row])
+                continue;
+            dirty[row] = false;
+            int column = 0;
+            while (column < columns) {
+                if (cells[start + column] == shown[start + column]) {
+                    column++;
+                    continue;
+                }
+                // a run of changes, carried over gaps too short to be worth a
+                // cursor move
+                int first = column;
+                int last = column;
+                for (column++; column < columns && column - last <= MAX_GAP; column++)
+                    if (cells[start + column] != shown[start + column])
+                        last = column;
+                text.append(ESCAPE).append(row + 1).append(';').append(first + 1).append('H')
+                        .append(cells, start + first, last - first + 1);
+                System.arraycopy(cells, start + first, shown, start + first, last - first + 1);
+                written += last - first + 1;
+                column = last + 1;
+            }
+        }
+        if (written > 0)
+            text.append(ESCAPE).append(spec.getRows() + 1).append(";1H");
+        return written;
+    }
+
+    private void write(WritableByteChannel out) throws IOException {
+        if (bytes == null || bytes.capacity() < text.length())
+            bytes = ByteBuffer.allocate(Math.max(text.length(), 1 << 12));
+        bytes.clear();
+        for (int i = 0; i < text.length(); i++)
+            bytes.put((byte) text.charAt(i));
+        bytes.flip();
+        while (bytes.hasRemaining())
+            out.write(bytes);
+    }
+}
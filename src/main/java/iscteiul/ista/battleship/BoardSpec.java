@@ -0,0 +1,152 @@
+/**
+ *
+ */
+package iscteiul.ista.battleship;
+
+/**
+ * The rules a game is played by: the size of the board and the number of ships
+ * a fleet may hold. The standard game uses {@link #STANDARD}, built from the
+ * constants in {@link IFleet}; IFleet.FLEET_SIZE is one less than the number
+ * of ships a standard fleet may hold, which STANDARD turns into the real
+ * maximum.
+ * <p>
+ * Board storage scales with the spec: boards up to {@link #DENSE_LIMIT} cells
+ * use flat bit and cell arrays, larger ones use tiles allocated on demand.
+ */
+public class BoardSpec {
+    /**
+     * The classic 10 x 10 board
+     */
+    public static final BoardSpec STANDARD = new BoardSpec(IFleet.BOARD_SIZE, IFleet.BOARD_SIZE,
+            IFleet.FLEET_SIZE + 1);
+
+    /**
+     * Largest number of cells stored densely (a 1024 x 1024 board)
+     */
+    static final long DENSE_LIMIT = 1L << 20;
+
+    private final int rows;
+    private final int columns;
+    private final int maxShips;
+
+    /**
+     * @param rows     number of rows of the board
+     * @param columns  number of columns of the board
+     * @param maxShips the largest number of ships a fleet may hold
+     * @throws IllegalArgumentException if a dimension is not positive, the
+     *                                  board has more than Integer.MAX_VALUE
+     *                                  cells or maxShips is negative
+     */
+    public BoardSpec(int rows, int columns, int maxShips) throws IllegalArgumentException {
+        if (rows <= 0 || columns <= 0)
+            throw new IllegalArgumentException("ERROR! invalid board size " + rows + "x" + columns);
+        if ((long) rows * columns > Integer.MAX_VALUE)
+            throw new IllegalArgumentException("ERROR! board too large " + rows + "x" + columns);
+        if (maxShips < 0)
+            throw new IllegalArgumentException("ERROR! invalid number of ships " + maxShips);
+
+        this.rows = rows;
+        this.columns = columns;
+        this.maxShips = maxShips;
+    }
+
+    /**
+     * @param size     number of rows and columns of the board
+     * @param maxShips the largest number of ships a fleet may hold
+     * @return the spec of a square board
+     */
+    public static BoardSpec square(int size, int maxShips) {
+        return new BoardSpec(size, size, maxShips);
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getColumns() {
+        return columns;
+    }
+
+    /**
+     * @return the largest number of ships a fleet may hold
+     */
+    public int getMaxShips() {
+        return maxShips;
+    }
+
+    /**
+     * @return the number of cells of the board
+     */
+    public int getCells() {
+        return rows * columns;
+    }
+
+    /**
+     * @return true if (row, column) is a cell of the board
+     */
+    public boolean isInside(int row, int column) {
+        return row >= 0 && row < rows && column >= 0 && column < columns;
+    }
+
+    /**
+     * @return the index of the cell (row, column), counting row by row
+     */
+    public int cell(int row, int column) {
+        return row * columns + column;
+    }
+
+    /**
+     * @return the row of the cell with the given index
+     */
+    public int rowOf(int cell) {
+        return cell / columns;
+    }
+
+    /**
+     * @return the column of the cell with the given index
+     */
+    public int columnOf(int cell) {
+        return cell % columns;
+    }
+
+    /**
+     * @return true if the board is too large to be stored densely
+     */
+    boolean isSparse() {
+        return (long) rows * columns > DENSE_LIMIT;
+    }
+
+    /**
+     * @return an empty set of cells sized for this board
+     */
+    IBitboard newBitboard() {
+        return isSparse() ? new SparseBitboard(rows, columns) : new Bitboard(rows, columns);
+    }
+
+    /**
+     * @return an empty cell table sized for this board
+     */
+    CellTable newCellTable() {
+        return new CellTable(rows, columns, isSparse());
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other)
+            return true;
+        if (!(other instanceof BoardSpec))
+            return false;
+        BoardSpec spec = (BoardSpec) other;
+        return rows == spec.rows && columns == spec.columns && maxShips == spec.maxShips;
+    }
+
+    @Override
+    public int hashCode() {
+        return (rows * 31 + columns) * 31 + maxShips;
+    }
+
+    @Override
+    public String toString() {
+        return rows + "x" + columns + " (" + maxShips + " navios)";
+    }
+}
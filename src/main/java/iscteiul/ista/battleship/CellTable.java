@@ -0,0 +1,85 @@
+/**
+ *
+ */
+package iscteiul.ista.battleship;
+
+import java.util.Arrays;
+
+/**
+ * Maps each cell of a board to an int value, {@link #EMPTY} by default. Fleet
+ * uses it to find the index of the ship lying on a given cell.
+ * <p>
+ * A dense table keeps one int per cell. A sparse table, meant for very large
+ * boards, cuts the board into tiles of 64 x 64 cells and only allocates the
+ * tiles that hold a value.
+ */
+class CellTable {
+    static final int EMPTY = -1;
+
+    private static final int TILE_SHIFT = SparseBitboard.TILE_SHIFT;
+    private static final int TILE_MASK = (1 << TILE_SHIFT) - 1;
+
+    private final int columns;
+    private final int[] values;
+    private final int tileColumns;
+    private final int[][] tiles;
+
+    /**
+     * Builds a dense table
+     *
+     * @param rows    number of rows of the board
+     * @param columns number of columns of the board
+     */
+    CellTable(int rows, int columns) {
+        this(rows, columns, false);
+    }
+
+    /**
+     * @param rows    number of rows of the board
+     * @param columns number of columns of the board
+     * @param sparse  whether to allocate the table tile by tile
+     */
+    CellTable(int rows, int columns, boolean sparse) {
+        assert rows > 0 && columns > 0;
+
+        this.columns = columns;
+        if (sparse) {
+            this.values = null;
+            this.tileColumns = (columns + TILE_MASK) >>> TILE_SHIFT;
+            this.tiles = new int[((rows + TILE_MASK) >>> TILE_SHIFT) * tileColumns][];
+        } else {
+            this.values = new int[rows * columns];
+            this.tileColumns = 0;
+            this.tiles = null;
+            Arrays.fill(values, EMPTY);
+        }
+    }
+
+    /**
+     * @return the value stored for (row, column), or EMPTY
+     */
+    int get(int row, int column) {
+        if (values != null)
+            return values[row * columns + column];
+
+        int[] tile = tiles[(row >>> TILE_SHIFT) * tileColumns + (column >>> TILE_SHIFT)];
+        return tile == null ? EMPTY : tile[((row & TILE_MASK) << TILE_SHIFT) | (column & TILE_MASK)];
+    }
+
+    /**
+     * Stores a value for (row, column)
+     */
+    void put(int row, int column, int value) {
+        if (values != null) {
+            values[row * columns + column] = value;
+            return;
+        }
+
+        int t = (row >>> TILE_SHIFT) * tileColumns + (column >>> TILE_SHIFT);
+        if (tiles[t] == null) {
+            tiles[t] = new int[1 << (2 * TILE_SHIFT)];
+            Arrays.fill(tiles[t], EMPTY);
+        }
+        tiles[t][((row & TILE_MASK) << TILE_SHIFT) | (column & TILE_MASK)] = value;
+    }
+}
@@ -0,0 +1,56 @@
+/**
+ *
+ */
+package iscteiul.ista.battleship;
+
+import java.util.function.Supplier;
+
+/**
+ * A player of a {@link Tournament}: a shooting strategy and a placement
+ * strategy under one name. Shooters and placers keep state, so the
+ * contestant holds factories and each worker makes its own.
+ */
+public class Contestant {
+    private final String name;
+    private final Supplier<? extends IShooter> shooters;
+    private final Supplier<? extends IFleetPlacer> placers;
+
+    /**
+     * A contestant named after its shooter, which places its fleets at random
+     *
+     * @param shooters makes the shooters of the contestant
+     */
+    public Contestant(Supplier<? extends IShooter> shooters) {
+        this(shooters.get().getName(), shooters, RandomFleetPlacer::new);
+    }
+
+    /**
+     * @param name     the name of the contestant, unique in a tournament
+     * @param shooters makes the shooters of the contestant
+     * @param placers  makes the fleet placers of the contestant
+     */
+    public Contestant(String name, Supplier<? extends IShooter> shooters, Supplier<? extends IFleetPlacer> placers) {
+        assert name != null && shooters != null && placers != null;
+
+        this.name = name;
+        this.shooters = shooters;
+        this.placers = placers;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    IShooter newShooter() {
+        return shooters.get();
+    }
+
+    IFleetPlacer newPlacer() {
+        return placers.get();
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
@@ -0,0 +1,551 @@
+/**
+ *
+ */
+package iscteiul.ista.battleship;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Plays the end of a game exactly. Once at most {@value #MAX_SHIPS} ships are
+ * afloat and at most {@value #MAX_FLEETS} fleets of them agree with what the
+ * shots revealed, it fires the shot with the lowest expected number of shots
+ * left, taking every fleet as equally likely. Until then, and on boards too
+ * large for a {@link PlacementCatalog}, it plays like the strategy it was
+ * given.
+ * <p>
+ * The search is a depth-first search over the set of fleets still possible,
+ * kept as a 64-bit mask. A shot splits the set by what it would reveal: a
+ * miss, a hit, or the sinking of a given ship. The cost of a set is the sum,
+ * over its fleets, of the shots each one still needs, so a shot costs the size
+ * of the set plus the cost of its parts. A fleet needs at least one shot per
+ * intact cell, which bounds the cost of the parts not yet searched and prunes
+ * most shots early. Sets reached again through other shot orders are found in
+ * a {@link TranspositionCache}, keyed by the set and the cells hit on the way.
+ * A search that visits more than its node budget is dropped and the move is
+ * left to the other strategy.
+ */
+public class EndgameShooter implements IShooter {
+    static final int MAX_SHIPS = 2;
+    static final int MAX_FLEETS = 64;
+    private static final long ABORTED = -1;
+    private static final int CACHE_SIZE = 1 << 16;
+    private static final int CELL_BITS = 20;
+
+    private static final byte UNKNOWN = 0;
+    private static final byte MISS = 1;
+    private static final byte HIT = 2;
+    private static final byte SUNK = 3;
+    private static final byte WATER = 4;
+
+    private final IShooter delegate;
+    private final long maxNodes;
+    private final TranspositionCache cache = new TranspositionCache(CACHE_SIZE);
+
+    private BoardSpec spec;
+    private PlacementCatalog catalog;
+    private byte[] state;
+    private int[] stamps;
+    private int stamp;
+    private int[] numbers;
+    private final List<ShipKind> afloat = new ArrayList<>();
+    private int[] hits;
+    private int hitCount;
+
+    // the fleets, as one or two placements numbered from 0
+    private int fleets;
+    private final int[] firstShip = new int[MAX_FLEETS];
+    private final int[] secondShip = new int[MAX_FLEETS];
+    private int[] remaining;
+    private int[][] coveringPlacements;
+
+    // the unknown cells of those fleets, numbered from 0
+    private int cellCount;
+    private int[] boardCell;
+    private long[] coverMask;
+    private int[] occupant;
+    private boolean[] shot;
+    private int[][] order;
+
+    private long nodes;
+    private long searches;
+    private long salt;
+    private long total;
+
+    /**
+     * Falls back on the probability density strategy, with a budget of
+     * 200000 nodes a move
+     */
+    public EndgameShooter() {
+        this(new ProbabilityShooter(), 200_000);
+    }
+
+    /**
+     * @param delegate the strategy for the moves the search does not solve
+     * @param maxNodes the number of nodes a search may visit
+     * @throws IllegalArgumentException if maxNodes is not positive
+     */
+    public EndgameShooter(IShooter delegate, long maxNodes) throws IllegalArgumentException {
+        if (maxNodes <= 0)
+            throw new IllegalArgumentException("ERROR! invalid node budget " + maxNodes);
+        this.delegate = delegate;
+        this.maxNodes = maxNodes;
+    }
+
+    @Override
+    public String getName() {
+        return "final-exato";
+    }
+
+    @Override
+    public void newGame(BoardSpec spec, ShipKind[] fleet, SplittableRandom random) {
+        delegate.newGame(spec, fleet, random);
+        if (!spec.equals(this.spec)) {
+            this.spec = spec;
+            catalog = spec.getCells() <= PlacementCatalog.MAX_CELLS ? PlacementCatalog.of(spec) : null;
+            state = catalog == null ? null : new byte[spec.getCells()];
+            stamps = catalog == null ? null : new int[spec.getCells()];
+            numbers = catalog == null ? null : new int[spec.getCells()];
+            hits = new int[16];
+        }
+        if (state != null)
+            Arrays.fill(state, UNKNOWN);
+        afloat.clear();
+        afloat.addAll(Arrays.asList(fleet));
+        hitCount = 0;
+    }
+
+    @Override
+    public int nextShot() {
+        int cell = solve();
+        return cell >= 0 ? cell : delegate.nextShot();
+    }
+
+    @Override
+    public void shotFired(int row, int column, ShotResult result, IShip sunk) {
+        delegate.shotFired(row, column, result, sunk);
+        if (!spec.isInside(row, column))
+            return;
+
+        switch (result) {
+            case MISS:
+                if (state != null)
+                    state[spec.cell(row, column)] = MISS;
+                break;
+            case HIT:
+                if (state != null)
+                    state[spec.cell(row, column)] = HIT;
+                if (hitCount == hits.length)
+                    hits = Arrays.copyOf(hits, 2 * hitCount);
+                hits[hitCount++] = spec.cell(row, column);
+                break;
+            case SUNK:
+                sink(sunk);
+                break;
+            default:
+                break;
+        }
+    }
+
+    private void sink(IShip sunk) {
+        List<IPosition> positions = sunk.getPositions();
+        if (state != null) {
+            for (int i = 0; i < positions.size(); i++)
+                state[spec.cell(positions.get(i).getRow(), positions.get(i).getColumn())] = SUNK;
+            for (int i = 0; i < positions.size(); i++) {
+                IPosition pos = positions.get(i);
+                for (int r = pos.getRow() - 1; r <= pos.getRow() + 1; r++)
+                    for (int c = pos.getColumn() - 1; c <= pos.getColumn() + 1; c++)
+                        if (spec.isInside(r, c) && state[spec.cell(r, c)] == UNKNOWN)
+                            state[spec.cell(r, c)] = WATER;
+            }
+        }
+
+        int kept = 0;
+        for (int i = 0; i < hitCount; i++)
+            if (!sunk.occupies(new Position(spec.rowOf(hits[i]), spec.columnOf(hits[i]))))
+                hits[kept++] = hits[i];
+        hitCount = kept;
+
+        afloat.remove(ShipKind.fromCategory(sunk.getCategory()));
+    }
+
+    /**
+     * @return the number of nodes the last search visited
+     */
+    long getNodes() {
+        return nodes;
+    }
+
+    /**
+     * @return the number of fleets the last search started from
+     */
+    int getFleets() {
+        return fleets;
+    }
+
+    /**
+     * @return the expected number of shots left, shot included, after the
+     *         last search's choice
+     */
+    double getExpectedShots() {
+        return (double) total / fleets;
+    }
+
+    /**
+     * Searches the best shot, if the game is far enough for it
+     *
+     * @return the cell to fire at, or -1 if the search did not apply or ran
+     *         out of nodes
+     */
+    int solve() {
+        nodes = 0;
+        if (catalog == null || afloat.isEmpty() || afloat.size() > MAX_SHIPS || !enumerate() || fleets == 0)
+            return -1;
+
+        index();
+        salt = Zobrist.mix(++searches);
+        long set = fleets == MAX_FLEETS ? -1L : (1L << fleets) - 1;
+        int[] cells = order[0];
+        int count = sortCells(set, 0);
+        long best = Long.MAX_VALUE;
+        int bestCell = -1;
+        for (int i = 0; i < count; i++) {
+            int r = cells[i] & ((1 << CELL_BITS) - 1);
+            long cost = shoot(r, set, 0, 0, best);
+            if (cost == ABORTED)
+                return -1;
+            if (cost < best) {
+                best = cost;
+                bestCell = boardCell[r];
+            }
+        }
+        total = best;
+        return bestCell;
+    }
+
+    /**
+     * Lists the fleets of the ships afloat that agree with the shots, as long
+     * as there are no more than MAX_FLEETS of them
+     *
+     * @return false if there are more
+     */
+    private boolean enumerate() {
+        fleets = 0;
+        ShipPlacements first = catalog.get(afloat.get(0));
+        int[] firstCandidates = candidates(first, afloat.size() == 1);
+        if (afloat.size() == 1) {
+            if (firstCandidates.length > MAX_FLEETS)
+                return false;
+            for (int p : firstCandidates) {
+                firstShip[fleets] = p;
+                secondShip[fleets++] = -1;
+            }
+            return true;
+        }
+
+        ShipPlacements second = catalog.get(afloat.get(1));
+        boolean twins = afloat.get(0) == afloat.get(1);
+        int[] secondCandidates = twins ? firstCandidates : candidates(second, false);
+        for (int i = 0; i < firstCandidates.length; i++) {
+            int a = firstCandidates[i];
+            stamp++;
+            for (int j = 0; j < first.getSize(); j++)
+                stamps[first.getFootprintCell(a, j)] = stamp;
+            for (int j = 0; j < first.getHaloSize(a); j++)
+                stamps[first.getHaloCell(a, j)] = -stamp;
+
+            for (int k = twins ? i + 1 : 0; k < secondCandidates.length; k++) {
+                int b = secondCandidates[k];
+                if (!apart(second, b) || !coversHits(first, a, second, b))
+                    continue;
+                if (fleets == MAX_FLEETS)
+                    return false;
+                firstShip[fleets] = a;
+                secondShip[fleets++] = b;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return the placements lying on unknown or hit cells only, with at least
+     *         one unknown cell, and through every hit if required
+     */
+    private int[] candidates(ShipPlacements table, boolean throughHits) {
+        int[] found = new int[16];
+        int count = 0;
+        for (int p = 0; p < table.getCount(); p++) {
+            boolean open = false;
+            boolean fits = true;
+            for (int j = 0; j < table.getSize() && fits; j++) {
+                byte known = state[table.getFootprintCell(p, j)];
+                fits = known == UNKNOWN || known == HIT;
+                open |= known == UNKNOWN;
+            }
+            if (!fits || !open || (throughHits && !coversHits(table, p, null, -1)))
+                continue;
+            if (count == found.length)
+                found = Arrays.copyOf(found, 2 * count);
+            found[count++] = p;
+        }
+        return Arrays.copyOf(found, count);
+    }
+
+    /**
+     * @return true if placement b keeps clear of the placement stamped last
+     */
+    private boolean apart(ShipPlacements table, int b) {
+        for (int j = 0; j < table.getSize(); j++) {
+            int s = stamps[table.getFootprintCell(b, j)];
+            if (s == stamp || s == -stamp)
+                return false;
+        }
+        return true;
+    }
+
+    private boolean coversHits(ShipPlacements first, int a, ShipPlacements second, int b) {
+        for (int h = 0; h < hitCount; h++)
+            if (!covers(first, a, hits[h]) && (second == null || !covers(second, b, hits[h])))
+                return false;
+        return true;
+    }
+
+    private static boolean covers(ShipPlacements table, int p, int cell) {
+        for (int j = 0; j < table.getSize(); j++)
+            if (table.getFootprintCell(p, j) == cell)
+                return true;
+        return false;
+    }
+
+    /**
+     * Renumbers the placements of the fleets from 0, and their unknown cells
+     * from 0, and builds the tables the search runs on
+     */
+    private void index() {
+        ShipPlacements first = catalog.get(afloat.get(0));
+        ShipPlacements second = afloat.size() > 1 ? catalog.get(afloat.get(1)) : null;
+        int secondTable = second == first ? 0 : 1;
+
+        // placements: (table, index) pairs, numbered in order of appearance
+        int[] placementTable = new int[2 * fleets];
+        int[] placementIndex = new int[2 * fleets];
+        int placements = 0;
+        for (int f = 0; f < fleets; f++) {
+            firstShip[f] = number(0, firstShip[f], placementTable, placementIndex, placements);
+            if (firstShip[f] == placements)
+                placements++;
+            if (secondShip[f] >= 0) {
+                secondShip[f] = number(secondTable, secondShip[f], placementTable, placementIndex, placements);
+                if (secondShip[f] == placements)
+                    placements++;
+            }
+        }
+
+        // cells: the unknown cells of the placements, numbered as they are met
+        stamp++;
+        int[] cells = new int[16];
+        cellCount = 0;
+        int[][] placementCells = new int[placements][];
+        remaining = new int[placements];
+        int[] coverCount = new int[16];
+        for (int q = 0; q < placements; q++) {
+            ShipPlacements table = placementTable[q] == 0 ? first : second;
+            int p = placementIndex[q];
+            int[] own = new int[table.getSize()];
+            int n = 0;
+            for (int j = 0; j < table.getSize(); j++) {
+                int cell = table.getFootprintCell(p, j);
+                if (state[cell] != UNKNOWN)
+                    continue;
+                if (stamps[cell] != stamp) {
+                    if (cellCount == cells.length) {
+                        cells = Arrays.copyOf(cells, 2 * cellCount);
+                        coverCount = Arrays.copyOf(coverCount, 2 * cellCount);
+                    }
+                    stamps[cell] = stamp;
+                    numbers[cell] = cellCount;
+                    cells[cellCount++] = cell;
+                }
+                own[n++] = numbers[cell];
+                coverCount[numbers[cell]]++;
+            }
+            placementCells[q] = Arrays.copyOf(own, n);
+            remaining[q] = n;
+        }
+        boardCell = Arrays.copyOf(cells, cellCount);
+
+        coveringPlacements = new int[cellCount][];
+        for (int r = 0; r < cellCount; r++)
+            coveringPlacements[r] = new int[coverCount[r]];
+        Arrays.fill(coverCount, 0);
+        for (int q = 0; q < placements; q++)
+            for (int r : placementCells[q])
+                coveringPlacements[r][coverCount[r]++] = q;
+
+        coverMask = new long[cellCount];
+        occupant = new int[cellCount * MAX_FLEETS];
+        shot = new boolean[cellCount];
+        for (int f = 0; f < fleets; f++) {
+            for (int r : placementCells[firstShip[f]]) {
+                coverMask[r] |= 1L << f;
+                occupant[r * MAX_FLEETS + f] = firstShip[f];
+            }
+            if (secondShip[f] >= 0)
+                for (int r : placementCells[secondShip[f]]) {
+                    coverMask[r] |= 1L << f;
+                    occupant[r * MAX_FLEETS + f] = secondShip[f];
+                }
+        }
+
+        if (order == null || order.length < cellCount + 2 || order[0].length < cellCount)
+            order = new int[cellCount + 2][cellCount];
+    }
+
+    /**
+     * @return the number of placement p of the given table, which is the next
+     *         number if it was not seen yet
+     */
+    private static int number(int table, int p, int[] tables, int[] indexes, int count) {
+        for (int q = 0; q < count; q++)
+            if (tables[q] == table && indexes[q] == p)
+                return q;
+        tables[count] = table;
+        indexes[count] = p;
+        return count;
+    }
+
+    /**
+     * @return the number of intact cells of fleet f
+     */
+    private int intact(int f) {
+        return remaining[firstShip[f]] + (secondShip[f] >= 0 ? remaining[secondShip[f]] : 0);
+    }
+
+    /**
+     * Lists, in order[depth], the cells worth firing at, those of the most
+     * fleets first
+     *
+     * @return how many there are
+     */
+    private int sortCells(long set, int depth) {
+        int[] cells = order[depth];
+        int count = 0;
+        for (int r = 0; r < cellCount; r++) {
+            if (shot[r])
+                continue;
+            int covered = Long.bitCount(coverMask[r] & set);
+            if (covered > 0)
+                cells[count++] = ((MAX_FLEETS - covered) << CELL_BITS) | r;
+        }
+        Arrays.sort(cells, 0, count);
+        return count;
+    }
+
+    /**
+     * @param set     the fleets still possible
+     * @param hitHash the Zobrist keys of the cells hit during the search
+     * @return the least total, over the fleets of the set, of the shots each
+     *         one still needs, or ABORTED
+     */
+    private long search(long set, long hitHash, int depth) {
+        if (Long.bitCount(set) == 1)
+            return intact(Long.numberOfTrailingZeros(set));
+        long key = Zobrist.mix(set ^ salt) ^ hitHash;
+        long known = cache.get(key, ABORTED);
+        if (known != ABORTED)
+            return known;
+        if (++nodes > maxNodes)
+            return ABORTED;
+
+        int[] cells = order[depth];
+        int count = sortCells(set, depth);
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < count; i++) {
+            long cost = shoot(cells[i] & ((1 << CELL_BITS) - 1), set, hitHash, depth, best);
+            if (cost == ABORTED)
+                return ABORTED;
+            best = Math.min(best, cost);
+        }
+        cache.put(key, best);
+        return best;
+    }
+
+    /**
+     * Fires at cell r and searches what each outcome leaves
+     *
+     * @param bound the cost to beat
+     * @return the total cost of firing at r if it is below bound, otherwise
+     *         Long.MAX_VALUE or a value not below bound; ABORTED if the
+     *         search ran out of nodes
+     */
+    private long shoot(int r, long set, long hitHash, int depth, long bound) {
+        long covered = coverMask[r] & set;
+        shot[r] = true;
+        for (int q : coveringPlacements[r])
+            remaining[q]--;
+
+        long sunk = 0;
+        long lower = 0;
+        for (long rest = set; rest != 0; rest &= rest - 1) {
+            int f = Long.numberOfTrailingZeros(rest);
+            lower += intact(f);
+            if ((covered >>> f & 1) != 0 && remaining[occupant[r * MAX_FLEETS + f]] == 0)
+                sunk |= 1L << f;
+        }
+
+        long cost = Long.bitCount(set);
+        long result = part(set & ~covered, hitHash, depth, cost, lower, bound);
+        if (result != ABORTED && result < bound)
+            result = part(covered & ~sunk, hitHash ^ Zobrist.key(r, ShotResult.HIT), depth, result,
+                    lower - groupIntact(set & ~covered), bound);
+        long searched = (set & ~covered) | (covered & ~sunk);
+        long rest = sunk;
+        while (rest != 0 && result != ABORTED && result < bound) {
+            // the fleets where the same ship sinks, and the game ends or not
+            int f = Long.numberOfTrailingZeros(rest);
+            int placement = occupant[r * MAX_FLEETS + f];
+            boolean over = intact(f) == 0;
+            long group = 0;
+            for (long g = rest; g != 0; g &= g - 1) {
+                int h = Long.numberOfTrailingZeros(g);
+                if (occupant[r * MAX_FLEETS + h] == placement && (intact(h) == 0) == over)
+                    group |= 1L << h;
+            }
+            rest &= ~group;
+            result = part(group, hitHash ^ Zobrist.key(r, ShotResult.HIT), depth, result,
+                    lower - groupIntact(searched), bound);
+            searched |= group;
+        }
+
+        for (int q : coveringPlacements[r])
+            remaining[q]++;
+        shot[r] = false;
+        return result;
+    }
+
+    /**
+     * Adds the cost of one outcome to the cost so far, unless the bound shows
+     * it cannot win
+     *
+     * @param lower the intact cells of the fleets of this outcome and of those
+     *              still to search
+     */
+    private long part(long group, long hitHash, int depth, long cost, long lower, long bound) {
+        if (group == 0)
+            return cost;
+        if (cost + lower >= bound)
+            return Long.MAX_VALUE;
+        long sub = search(group, hitHash, depth + 1);
+        return sub == ABORTED ? ABORTED : cost + sub;
+    }
+
+    private long groupIntact(long group) {
+        long sum = 0;
+        for (long rest = group; rest != 0; rest &= rest - 1)
+            sum += intact(Long.numberOfTrailingZeros(rest));
+        return sum;
+    }
+}
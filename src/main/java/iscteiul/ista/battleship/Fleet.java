@@ -4,6 +4,8 @@
 package iscteiul.ista.battleship;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
 public class Fleet implements IFleet {
@@ -19,15 +21,66 @@ public class Fleet implements IFleet {
 
     // -----------------------------------------------------
 
+    private BoardSpec spec;
     private List<IShip> ships;
+    private IBitboard occupied;
+    private CellTable shipIndex;
+    private IBitboard forbidden;
+    private ShipMask footprint;
+    private ShipMask halo;
 
+    private int floatingCount;
+    private int[] shipCategory;
+    private List<String> categories;
+    private int[] floatingByCategory;
+    private int[] sunkByCategory;
+
+    /**
+     * Builds an empty fleet for the standard board
+     */
     public Fleet() {
+        this(BoardSpec.STANDARD);
+    }
+
+    /**
+     * Builds an empty fleet for the given board
+     *
+     * @param spec the board and fleet limits the fleet must respect
+     */
+    public Fleet(BoardSpec spec) {
+        assert spec != null;
+
+        this.spec = spec;
         ships = new ArrayList<>();
+        occupied = spec.newBitboard();
+        shipIndex = spec.newCellTable();
+        forbidden = spec.newBitboard();
+        footprint = new ShipMask();
+        halo = new ShipMask();
+        floatingCount = 0;
+        shipCategory = new int[Math.max(1, spec.getMaxShips())];
+        categories = new ArrayList<>();
+        floatingByCategory = new int[0];
+        sunkByCategory = new int[0];
     }
 
+    /*
+     * (non-Javadoc)
+     *
+     * @see battleship.IFleet#getBoardSpec()
+     */
+    @Override
+    public BoardSpec getBoardSpec() {
+        return spec;
+    }
+
+    /**
+     * The returned list is read-only: ships must be added through addShip so
+     * that the occupancy index stays in sync with the fleet
+     */
     @Override
     public List<IShip> getShips() {
-        return ships;
+        return Collections.unmodifiableList(ships);
     }
 
     /*
@@ -38,7 +91,10 @@ public class Fleet implements IFleet {
     @Override
     public boolean addShip(IShip s) {
         boolean result = false;
-        if ((ships.size() <= FLEET_SIZE) && (isInsideBoard(s)) && (!colisionRisk(s))) {
+        if ((ships.size() < spec.getMaxShips()) && (isInsideBoard(s)) && (!colisionRisk(s))) {
+            occupy(s, ships.size());
+            forbid(s);
+            count(s, ships.size());
             ships.add(s);
             result = true;
         }
@@ -82,23 +138,227 @@ public class Fleet implements IFleet {
      */
     @Override
     public IShip shipAt(IPosition pos) {
-        for (int i = 0; i < ships.size(); i++)
-            if (ships.get(i).occupies(pos))
-                return ships.get(i);
-        return null;
+        int row = pos.getRow();
+        int column = pos.getColumn();
+        if (!spec.isInside(row, column) || !occupied.get(row, column))
+            return null;
+        return ships.get(shipIndex.get(row, column));
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see battleship.IFleet#shoot(battleship.IPosition)
+     */
+    @Override
+    public IShip shoot(IPosition pos) {
+        return shoot(pos.getRow(), pos.getColumn());
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see battleship.IFleet#shoot(int, int)
+     */
+    @Override
+    public IShip shoot(int row, int column) {
+        if (!spec.isInside(row, column) || !occupied.get(row, column))
+            return null;
+
+        int index = shipIndex.get(row, column);
+        IShip s = ships.get(index);
+        if (s.stillFloating()) {
+            s.shoot(row, column);
+            if (!s.stillFloating())
+                shipSunk(index);
+        }
+        return s;
+    }
+
+    /**
+     * @return the index in getShips of the ship on the cell (row, column), or
+     *         -1 if there is none
+     */
+    @Override
+    public int shipIndexAt(int row, int column) {
+        if (!spec.isInside(row, column) || !occupied.get(row, column))
+            return -1;
+        return shipIndex.get(row, column);
+    }
+
+    /**
+     * Takes back a shot that hit a ship: the cell is no longer hit, and the
+     * ship floats again if that shot sank it. Does nothing on a cell no ship
+     * lies on
+     */
+    @Override
+    public void unshoot(int row, int column) {
+        if (!spec.isInside(row, column) || !occupied.get(row, column))
+            return;
+
+        int index = shipIndex.get(row, column);
+        IShip s = ships.get(index);
+        boolean sunk = !s.stillFloating();
+        s.unshoot(row, column);
+        if (sunk && s.stillFloating())
+            shipRefloated(index);
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see battleship.IFleet#getFloatingCount()
+     */
+    @Override
+    public int getFloatingCount() {
+        return floatingCount;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see battleship.IFleet#getSunkCount()
+     */
+    @Override
+    public int getSunkCount() {
+        return ships.size() - floatingCount;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see battleship.IFleet#getFloatingCount(java.lang.String)
+     */
+    @Override
+    public int getFloatingCount(String category) {
+        int c = categories.indexOf(category);
+        return c < 0 ? 0 : floatingByCategory[c];
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see battleship.IFleet#getSunkCount(java.lang.String)
+     */
+    @Override
+    public int getSunkCount(String category) {
+        int c = categories.indexOf(category);
+        return c < 0 ? 0 : sunkByCategory[c];
+    }
+
+    /**
+     * Adds a new ship to the floating and sunk tallies
+     *
+     * @param s     The ship being added
+     * @param index The index the ship will have in the fleet
+     */
+    private void count(IShip s, int index) {
+        int c = categories.indexOf(s.getCategory());
+        if (c < 0) {
+            c = categories.size();
+            categories.add(s.getCategory());
+            floatingByCategory = Arrays.copyOf(floatingByCategory, c + 1);
+            sunkByCategory = Arrays.copyOf(sunkByCategory, c + 1);
+        }
+        if (index == shipCategory.length)
+            shipCategory = Arrays.copyOf(shipCategory, index * 2);
+        shipCategory[index] = c;
+
+        if (s.stillFloating()) {
+            floatingCount++;
+            floatingByCategory[c]++;
+        } else {
+            sunkByCategory[c]++;
+        }
+    }
+
+    /**
+     * Moves a ship that has just been sunk from the floating to the sunk tally
+     *
+     * @param index The index of the ship in the fleet
+     */
+    private void shipSunk(int index) {
+        int c = shipCategory[index];
+        floatingCount--;
+        floatingByCategory[c]--;
+        sunkByCategory[c]++;
+    }
+
+    /**
+     * Moves a ship whose sinking shot was taken back to the floating tally
+     *
+     * @param index The index of the ship in the fleet
+     */
+    private void shipRefloated(int index) {
+        int c = shipCategory[index];
+        floatingCount++;
+        floatingByCategory[c]++;
+        sunkByCategory[c]--;
+    }
+
+    /**
+     * Records the cells of a ship in the occupancy index
+     *
+     * @param s     The ship being added
+     * @param index The index the ship will have in the fleet
+     */
+    private void occupy(IShip s, int index) {
+        List<IPosition> positions = s.getPositions();
+        for (int i = 0; i < positions.size(); i++) {
+            IPosition p = positions.get(i);
+            occupied.set(p.getRow(), p.getColumn());
+            shipIndex.put(p.getRow(), p.getColumn(), index);
+        }
     }
 
     private boolean isInsideBoard(IShip s) {
-        return (s.getLeftMostPos() >= 0 && s.getRightMostPos() <= BOARD_SIZE - 1 && s.getTopMostPos() >= 0
-                && s.getBottomMostPos() <= BOARD_SIZE - 1);
+        return (s.getLeftMostPos() >= 0 && s.getRightMostPos() <= spec.getColumns() - 1 && s.getTopMostPos() >= 0
+                && s.getBottomMostPos() <= spec.getRows() - 1);
     }
 
+    /**
+     * Checks the ship against the forbidden zone, i.e. the cells taken by the
+     * ships already in the fleet and the cells around them. This is the same
+     * rule as Ship.tooCloseTo, answered a few words at a time for ships that
+     * fit a ShipMask, whose footprint is then left in {@code footprint} for
+     * forbid to use, and cell by cell for taller or wider ships. Nothing of
+     * the fleet changes here
+     */
     private boolean colisionRisk(IShip s) {
-        for (int i = 0; i < ships.size(); i++) {
-            if (ships.get(i).tooCloseTo(s))
-                return true;
+        List<IPosition> positions = s.getPositions();
+        if (!fitsMask(s)) {
+            for (int i = 0; i < positions.size(); i++)
+                if (forbidden.get(positions.get(i).getRow(), positions.get(i).getColumn()))
+                    return true;
+            return false;
         }
-        return false;
+        footprint.reset(s.getTopMostPos(), s.getLeftMostPos());
+        for (int i = 0; i < positions.size(); i++)
+            footprint.set(positions.get(i).getRow(), positions.get(i).getColumn());
+        return footprint.intersects(forbidden);
+    }
+
+    /**
+     * Adds the cells of a ship that passed colisionRisk, and those around
+     * them, to the forbidden zone
+     */
+    private void forbid(IShip s) {
+        if (fitsMask(s)) {
+            footprint.dilate(halo, spec.getRows());
+            halo.orInto(forbidden);
+            return;
+        }
+        List<IPosition> positions = s.getPositions();
+        for (int i = 0; i < positions.size(); i++)
+            for (int row = positions.get(i).getRow() - 1; row <= positions.get(i).getRow() + 1; row++)
+                for (int column = positions.get(i).getColumn() - 1; column <= positions.get(i).getColumn() + 1;
+                     column++)
+                    if (spec.isInside(row, column))
+                        forbidden.set(row, column);
+    }
+
+    private static boolean fitsMask(IShip s) {
+        return ShipMask.fits(s.getTopMostPos(), s.getLeftMostPos(), s.getBottomMostPos(), s.getRightMostPos());
     }
 
 
@@ -0,0 +1,436 @@
+/**
+ *
+ */
+package iscteiul.ista.battleship;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Builds random legal fleets without going through trial and error on
+ * Fleet.addShip. Each ship kind and bearing is turned once into a shape: the
+ * bits of its cells row by row, and the bits of its cells plus the one-cell
+ * halo around them. Placing a ship then costs one word test per row of the
+ * shape against a bitboard of forbidden cells, and one word update per row of
+ * its halo.
+ * <p>
+ * Ships are placed in the given order. Each one samples a random bearing and
+ * position a few times; when every sample is blocked, the legal placements
+ * left are worked out 64 columns at a time with word shifts and one of them
+ * is drawn. Either way each ship is placed uniformly among the placements
+ * the ships before it left legal. A ship with no legal placement at all
+ * makes the generator take back the previous ship and place it again; after
+ * a few such steps it starts the whole fleet over. The output depends only
+ * on the random stream, so a seed reproduces a fleet.
+ * <p>
+ * A generator reuses its scratch between fleets and is not thread-safe.
+ */
+public class FleetGenerator {
+    private static final Compass[] BEARINGS = {Compass.NORTH, Compass.SOUTH, Compass.EAST, Compass.WEST};
+    private static final int SAMPLES = 32;
+    private static final int MAX_BACKTRACKS = 16;
+    private static final int MAX_RESTARTS = 10_000;
+    private static final int REFERENCE = 8;
+
+    private final BoardSpec spec;
+    private final ShipKind[] kinds;
+    private final Shape[][] shapes;
+    private final IBitboard forbidden;
+    private final int[] bearings;
+    private final int[] tops;
+    private final int[] lefts;
+    private final long[] placements;
+    private final boolean[] placed;
+    private IBitboard occupied;
+    private boolean sampled;
+
+    /**
+     * A generator for the standard game
+     */
+    public FleetGenerator() {
+        this(BoardSpec.STANDARD, ShipKind.standardFleet());
+    }
+
+    /**
+     * @param spec  the board to place the fleets on
+     * @param kinds the kinds of the ships of each fleet, placed in this order;
+     *              largest first needs the least backtracking
+     * @throws IllegalArgumentException if the fleet cannot fit the spec's
+     *                                  fleet limit
+     */
+    public FleetGenerator(BoardSpec spec, ShipKind[] kinds) throws IllegalArgumentException {
+        if (kinds.length > spec.getMaxShips())
+            throw new IllegalArgumentException("ERROR! fleet of " + kinds.length + " ships does not fit " + spec);
+
+        this.spec = spec;
+        this.kinds = kinds.clone();
+        this.shapes = new Shape[kinds.length][BEARINGS.length];
+        this.placements = new long[kinds.length];
+        for (int k = 0; k < kinds.length; k++)
+            for (int b = 0; b < BEARINGS.length; b++) {
+                shapes[k][b] = new Shape(kinds[k], BEARINGS[b], spec);
+                placements[k] += shapes[k][b].anchors;
+            }
+        this.forbidden = spec.newBitboard();
+        this.bearings = new int[kinds.length];
+        this.tops = new int[kinds.length];
+        this.lefts = new int[kinds.length];
+        this.placed = new boolean[kinds.length];
+    }
+
+    public BoardSpec getBoardSpec() {
+        return spec;
+    }
+
+    /**
+     * @param random the source of randomness
+     * @return a new fleet holding one ship of each given kind, none of them
+     *         touching another
+     * @throws IllegalStateException if no legal fleet was found
+     */
+    public Fleet generate(SplittableRandom random) throws IllegalStateException {
+        layout(random);
+
+        Fleet fleet = new Fleet(spec);
+        for (int k = 0; k < kinds.length; k++) {
+            boolean added = fleet.addShip(kinds[k].build(getBearing(k), getRow(k), getColumn(k)));
+            assert added;
+        }
+        return fleet;
+    }
+
+    /**
+     * Chooses a legal placement for every ship without building any; read the
+     * result with {@link #getBearing(int)}, {@link #getRow(int)} and
+     * {@link #getColumn(int)}
+     *
+     * @throws IllegalStateException if no legal fleet was found
+     */
+    void layout(SplittableRandom random) throws IllegalStateException {
+        for (int attempt = 0; attempt < MAX_RESTARTS; attempt++)
+            if (tryLayout(random))
+                return;
+        throw new IllegalStateException("ERROR! could not place the fleet on " + spec);
+    }
+
+    /**
+     * Places the ships in order, taking back the previous ship whenever one
+     * finds no room
+     *
+     * @return false if the backtracking budget ran out, which usually means
+     *         the first ships left no room for the others and it is better to
+     *         start over
+     */
+    private boolean tryLayout(SplittableRandom random) {
+        forbidden.clear();
+        sampled = false;
+        int backtracks = 0;
+        int k = 0;
+        while (k < kinds.length) {
+            if (place(k, random)) {
+                k++;
+                continue;
+            }
+            if (k == 0 || ++backtracks > MAX_BACKTRACKS)
+                return false;
+
+            k--;
+            forbidden.clear();
+            for (int i = 0; i < k; i++)
+                shapes[i][bearings[i]].mark(forbidden, tops[i], lefts[i]);
+        }
+        return true;
+    }
+
+    /**
+     * @return the bearing of ship k of the last layout
+     */
+    Compass getBearing(int k) {
+        return BEARINGS[bearings[k]];
+    }
+
+    /**
+     * @return the row of the position ship k of the last layout is built from
+     */
+    int getRow(int k) {
+        return tops[k] + shapes[k][bearings[k]].originRow;
+    }
+
+    /**
+     * @return the column of the position ship k of the last layout is built
+     *         from
+     */
+    int getColumn(int k) {
+        return lefts[k] + shapes[k][bearings[k]].originColumn;
+    }
+
+    /**
+     * @return the i-th cell, as an index, of ship k of the last layout
+     */
+    int getCell(int k, int i) {
+        Shape shape = shapes[k][bearings[k]];
+        return spec.cell(tops[k] + shape.offsets[2 * i], lefts[k] + shape.offsets[2 * i + 1]);
+    }
+
+    /**
+     * Draws a fleet consistent with what a shooter has seen: every ship
+     * avoids the blocked cells, and every hit is covered by some ship. Each
+     * uncovered hit in turn gets a random ship through it; the ships left are
+     * then placed at random. Nothing is taken back: when a ship finds no room
+     * in a few tries the attempt fails and the caller simply draws again. The
+     * fleets drawn this way favour the ships placed through the hits, so they
+     * are close to, but not exactly, uniform among the consistent fleets.
+     * Read the result as after {@link #layout(SplittableRandom)}.
+     *
+     * @param random   the source of randomness
+     * @param blocked  the cells known to hold no ship of the fleet
+     * @param hits     the cells, as indexes, known to hold a ship of the fleet
+     * @param hitCount the number of entries of hits in use
+     * @return false if this attempt failed
+     */
+    boolean sample(SplittableRandom random, IBitboard blocked, int[] hits, int hitCount) {
+        // on large boards, erasing the ships of the last sample is far cheaper
+        // than clearing the bitboards
+        if (occupied == null)
+            occupied = spec.newBitboard();
+        if (sampled) {
+            for (int k = 0; k < kinds.length; k++)
+                if (placed[k]) {
+                    shapes[k][bearings[k]].erase(forbidden, tops[k], lefts[k]);
+                    shapes[k][bearings[k]].erase(occupied, tops[k], lefts[k]);
+                }
+        } else {
+            forbidden.clear();
+            occupied.clear();
+            sampled = true;
+        }
+        Arrays.fill(placed, false);
+
+        for (int h = 0; h < hitCount; h++) {
+            int row = spec.rowOf(hits[h]);
+            int column = spec.columnOf(hits[h]);
+            if (!occupied.get(row, column) && !placeThrough(row, column, random, blocked))
+                return false;
+        }
+        for (int k = 0; k < kinds.length; k++)
+            if (!placed[k] && !placeAvoiding(k, random, blocked))
+                return false;
+        return true;
+    }
+
+    private boolean placeThrough(int row, int column, SplittableRandom random, IBitboard blocked) {
+        for (int t = 0; t < SAMPLES; t++) {
+            int k = random.nextInt(kinds.length);
+            if (placed[k])
+                continue;
+            int b = random.nextInt(BEARINGS.length);
+            Shape shape = shapes[k][b];
+            int i = random.nextInt(kinds[k].getSize());
+            int top = row - shape.offsets[2 * i];
+            int left = column - shape.offsets[2 * i + 1];
+            if (top >= 0 && left >= 0 && top < shape.anchorRows && left < shape.anchorColumns
+                    && shape.fits(forbidden, top, left) && shape.fits(blocked, top, left)) {
+                occupy(k, b, top, left);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean placeAvoiding(int k, SplittableRandom random, IBitboard blocked) {
+        Shape[] options = shapes[k];
+        for (int t = 0; t < SAMPLES && placements[k] > 0; t++) {
+            long p = random.nextLong(placements[k]);
+            int b = 0;
+            while (p >= options[b].anchors)
+                p -= options[b++].anchors;
+            Shape shape = options[b];
+            int top = (int) (p / shape.anchorColumns);
+            int left = (int) (p % shape.anchorColumns);
+            if (shape.fits(forbidden, top, left) && shape.fits(blocked, top, left)) {
+                occupy(k, b, top, left);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void occupy(int k, int b, int top, int left) {
+        commit(k, b, top, left);
+        placed[k] = true;
+        Shape shape = shapes[k][b];
+        for (int i = 0; i < shape.height; i++)
+            occupied.orWindow(top + i, left, shape.cells[i]);
+    }
+
+    /**
+     * Places ship k on a free spot, if there is one left. Every placement of
+     * every bearing has the same chance of being chosen among those still
+     * legal
+     */
+    private boolean place(int k, SplittableRandom random) {
+        Shape[] options = shapes[k];
+        long total = placements[k];
+        if (total == 0)
+            return false;
+
+        for (int t = 0; t < SAMPLES; t++) {
+            long p = random.nextLong(total);
+            int b = 0;
+            while (p >= options[b].anchors)
+                p -= options[b++].anchors;
+            Shape shape = options[b];
+            int top = (int) (p / shape.anchorColumns);
+            int left = (int) (p % shape.anchorColumns);
+            if (shape.fits(forbidden, top, left)) {
+                commit(k, b, top, left);
+                return true;
+            }
+        }
+
+        // the board is crowded: count the legal anchors 64 at a time and draw
+        // one of them
+        long legal = 0;
+        for (Shape shape : options)
+            for (int top = 0; top < shape.anchorRows; top++)
+                for (int chunk = 0; chunk < shape.anchorChunks; chunk++)
+                    legal += Long.bitCount(shape.legal(forbidden, top, chunk));
+        if (legal == 0)
+            return false;
+
+        long chosen = random.nextLong(legal);
+        for (int b = 0; b < options.length; b++) {
+            Shape shape = options[b];
+            for (int top = 0; top < shape.anchorRows; top++)
+                for (int chunk = 0; chunk < shape.anchorChunks; chunk++) {
+                    long anchors = shape.legal(forbidden, top, chunk);
+                    int count = Long.bitCount(anchors);
+                    if (chosen >= count) {
+                        chosen -= count;
+                        continue;
+                    }
+                    for (; chosen > 0; chosen--)
+                        anchors &= anchors - 1;
+                    commit(k, b, top, (chunk << 6) + Long.numberOfTrailingZeros(anchors));
+                    return true;
+                }
+        }
+        throw new AssertionError("legal placement not found");
+    }
+
+    private void commit(int k, int b, int top, int left) {
+        bearings[k] = b;
+        tops[k] = top;
+        lefts[k] = left;
+        shapes[k][b].mark(forbidden, top, left);
+    }
+
+    /**
+     * The cells of one ship kind with one bearing, anchored at the top left
+     * corner of its bounding box, and the anchors that keep it on the board
+     */
+    static final class Shape {
+        final int height;
+        final int width;
+        final int originRow;
+        final int originColumn;
+        final long[] cells;
+        final long[] halo;
+        final int[] offsets;
+        final int anchorRows;
+        final int anchorColumns;
+        final int anchorChunks;
+        final long anchors;
+
+        Shape(ShipKind kind, Compass bearing, BoardSpec spec) {
+            Ship ship = kind.build(bearing, REFERENCE, REFERENCE);
+            int top = ship.getTopMostPos();
+            int left = ship.getLeftMostPos();
+            height = ship.getBottomMostPos() - top + 1;
+            width = ship.getRightMostPos() - left + 1;
+            originRow = REFERENCE - top;
+            originColumn = REFERENCE - left;
+            anchorRows = Math.max(0, spec.getRows() - height + 1);
+            anchorColumns = Math.max(0, spec.getColumns() - width + 1);
+            anchorChunks = (anchorColumns + 63) >>> 6;
+            anchors = (long) anchorRows * anchorColumns;
+
+            cells = new long[height];
+            offsets = new int[2 * ship.getPositions().size()];
+            for (int i = 0; i < ship.getPositions().size(); i++) {
+                IPosition pos = ship.getPositions().get(i);
+                cells[pos.getRow() - top] |= 1L << (pos.getColumn() - left);
+                offsets[2 * i] = pos.getRow() - top;
+                offsets[2 * i + 1] = pos.getColumn() - left;
+            }
+
+            // halo row i covers board row top + i - 1, bit j covers column left + j - 1
+            halo = new long[height + 2];
+            for (int i = 0; i < height; i++) {
+                long wide = cells[i] | (cells[i] << 1) | (cells[i] << 2);
+                halo[i] |= wide;
+                halo[i + 1] |= wide;
+                halo[i + 2] |= wide;
+            }
+        }
+
+        boolean fits(IBitboard forbidden, int top, int left) {
+            for (int i = 0; i < height; i++)
+                if ((forbidden.window(top + i, left) & cells[i]) != 0)
+                    return false;
+            return true;
+        }
+
+        void mark(IBitboard forbidden, int top, int left) {
+            int first = Math.max(0, top - 1);
+            int last = Math.min(forbidden.getRows() - 1, top + height);
+            for (int row = first; row <= last; row++)
+                forbidden.orWindow(row, left - 1, halo[row - top + 1]);
+        }
+
+        /**
+         * Clears the cells marked by {@link #mark}
+         */
+        void erase(IBitboard board, int top, int left) {
+            int lastRow = Math.min(board.getRows() - 1, top + height);
+            int lastColumn = Math.min(board.getColumns() - 1, left + width);
+            for (int row = Math.max(0, top - 1); row <= lastRow; row++)
+                for (int column = Math.max(0, left - 1); column <= lastColumn; column++)
+                    board.clear(row, column);
+        }
+
+        /**
+         * @return the anchors of row top, from column chunk * 64 on, where the
+         *         shape touches no forbidden cell
+         */
+        long legal(IBitboard forbidden, int top, int chunk) {
+            int first = chunk << 6;
+            long blocked = 0;
+            for (int i = 0; i < height; i++)
+                for (long bits = cells[i]; bits != 0; bits &= bits - 1)
+                    blocked |= forbidden.window(top + i, first + Long.numberOfTrailingZeros(bits));
+            return ~blocked & Bitboard.columnMask(anchorColumns, chunk);
+        }
+    }
+
+    /**
+     * Reports how many fleets per second a single generator produces
+     *
+     * @param args number of fleets (default 1000000) and seed (default 1)
+     */
+    public static void main(String[] args) {
+        long fleets = args.length > 0 ? Long.parseLong(args[0]) : 1_000_000;
+        long seed = args.length > 1 ? Long.parseLong(args[1]) : 1;
+
+        FleetGenerator generator = new FleetGenerator();
+        SplittableRandom random = new SplittableRandom(seed);
+        long start = System.nanoTime();
+        long ships = 0;
+        for (long i = 0; i < fleets; i++)
+            ships += generator.generate(random).getShips().size();
+        long elapsed = System.nanoTime() - start;
+
+        System.out.printf("%d frotas (%d navios) em %.2f s: %.0f frotas/s%n", fleets, ships, elapsed / 1e9,
+                fleets * 1e9 / elapsed);
+    }
+}
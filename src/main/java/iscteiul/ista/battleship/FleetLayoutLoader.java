@@ -0,0 +1,264 @@
+/**
+ *
+ */
+package iscteiul.ista.battleship;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Checks a dataset of fleet layouts, written by a {@link FleetLayoutWriter},
+ * against the rules of Fleet.addShip and the fleet composition of the file:
+ * every ship of a known kind and bearing, every ship inside the board, no ship
+ * overlapping or touching another, and the ships of the kinds the header asks
+ * for. No ship or fleet is built: the ships are the shapes of
+ * {@link FleetGenerator}, tested and marked a few words at a time on a
+ * bitboard of forbidden cells.
+ * <p>
+ * The file is mapped to memory a chunk of records at a time, and the records
+ * of a chunk are checked in parallel with a ForkJoinPool. Each worker thread
+ * keeps its own scratch from chunk to chunk. Between chunks the rejected
+ * records are written out in file order, one line each: the index of the
+ * record, the {@link FleetRejection} and the index of the ship at fault, or
+ * -1 if no single ship is.
+ */
+public class FleetLayoutLoader {
+    private static final int CHUNK = 1 << 20;
+    private static final int BATCH = 1 << 12;
+    private static final ShipKind[] KINDS = ShipKind.values();
+    private static final Compass[] BEARINGS = {Compass.NORTH, Compass.SOUTH, Compass.EAST, Compass.WEST};
+    private static final FleetRejection[] REJECTIONS = FleetRejection.values();
+
+    private final int parallelism;
+
+    /**
+     * @param parallelism the number of worker threads
+     * @throws IllegalArgumentException if parallelism is not positive
+     */
+    public FleetLayoutLoader(int parallelism) throws IllegalArgumentException {
+        if (parallelism <= 0)
+            throw new IllegalArgumentException("ERROR! invalid parallelism " + parallelism);
+
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * @param file     a dataset of fleet layouts
+     * @param rejected where the rejected records go, one line each
+     * @return how many fleets were checked and why some were rejected
+     * @throws IOException           if the file cannot be read or the
+     *                               rejected records written
+     * @throws IllegalStateException if the file does not start with a valid
+     *                               header
+     */
+    public FleetLayoutReport validate(Path file, Appendable rejected) throws IOException, IllegalStateException {
+        long start = System.nanoTime();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            Layout layout = new Layout(channel.map(FileChannel.MapMode.READ_ONLY, 0,
+                    Math.min(size, Integer.MAX_VALUE)));
+            long records = (size - layout.headerBytes) / layout.recordBytes;
+            int chunk = Math.min(CHUNK, Integer.MAX_VALUE / layout.recordBytes);
+            int[] outcomes = new int[(int) Math.min(chunk, records)];
+            long[] counts = new long[REJECTIONS.length];
+
+            ThreadLocal<Validator> scratch = ThreadLocal.withInitial(() -> new Validator(layout));
+            ForkJoinPool pool = new ForkJoinPool(parallelism);
+            try {
+                for (long first = 0; first < records; first += chunk) {
+                    int count = (int) Math.min(chunk, records - first);
+                    ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY,
+                            layout.headerBytes + first * layout.recordBytes, (long) count * layout.recordBytes);
+                    pool.invoke(new Check(buffer, layout.recordBytes, scratch, outcomes, 0, count));
+                    for (int i = 0; i < count; i++)
+                        if (outcomes[i] != 0)
+                            reject(rejected, first + i, outcomes[i], counts);
+                }
+            } finally {
+                pool.shutdown();
+            }
+            if ((size - layout.headerBytes) % layout.recordBytes != 0)
+                reject(rejected, records++, outcome(FleetRejection.MALFORMED, -1), counts);
+            return new FleetLayoutReport(records, counts, System.nanoTime() - start);
+        }
+    }
+
+    private static void reject(Appendable rejected, long record, int outcome, long[] counts) throws IOException {
+        FleetRejection reason = REJECTIONS[(outcome & 0xFF) - 1];
+        counts[reason.ordinal()]++;
+        rejected.append(Long.toString(record)).append(' ').append(reason.name()).append(' ')
+                .append(Integer.toString((outcome >> 8) - 1)).append('\n');
+    }
+
+    /**
+     * @return a record's reason of rejection and ship at fault packed in an
+     *         int, never 0
+     */
+    private static int outcome(FleetRejection reason, int ship) {
+        return (ship + 1) << 8 | (reason.ordinal() + 1);
+    }
+
+    /**
+     * What the header of a dataset says
+     */
+    private static final class Layout {
+        private final BoardSpec spec;
+        private final int shipCount;
+        private final int[] composition = new int[KINDS.length];
+        private final int cellBytes;
+        private final int headerBytes;
+        private final int recordBytes;
+
+        Layout(ByteBuffer header) throws IllegalStateException {
+            try {
+                byte[] magic = new byte[FleetLayoutWriter.MAGIC.length];
+                header.get(magic);
+                if (!Arrays.equals(magic, FleetLayoutWriter.MAGIC))
+                    throw new IllegalStateException("ERROR! not a fleet layout file, or of another version");
+
+                spec = new BoardSpec(header.getInt(), header.getInt(), header.getInt());
+                shipCount = header.getInt();
+                if (shipCount <= 0 || shipCount > spec.getMaxShips())
+                    throw new IllegalStateException("ERROR! fleet of " + shipCount + " ships does not fit " + spec);
+                for (int i = 0; i < shipCount; i++) {
+                    int kind = header.get();
+                    if (kind < 0 || kind >= KINDS.length)
+                        throw new IllegalStateException("ERROR! unknown ship kind " + kind + " in the header");
+                    composition[kind]++;
+                }
+            } catch (BufferUnderflowException | IllegalArgumentException e) {
+                throw new IllegalStateException("ERROR! damaged fleet layout header");
+            }
+            cellBytes = FleetLayoutWriter.cellBytes(spec);
+            headerBytes = FleetLayoutWriter.headerBytes(shipCount);
+            recordBytes = shipCount * (1 + cellBytes);
+        }
+    }
+
+    /**
+     * The scratch a worker thread checks records with
+     */
+    private static final class Validator {
+        private final Layout layout;
+        private final BoardSpec spec;
+        private final FleetGenerator.Shape[][] shapes;
+        private final IBitboard forbidden;
+        private final int[] counts = new int[KINDS.length];
+        private final FleetGenerator.Shape[] ships;
+        private final int[] cells;
+
+        Validator(Layout layout) {
+            this.layout = layout;
+            this.spec = layout.spec;
+            this.shapes = new FleetGenerator.Shape[KINDS.length][BEARINGS.length];
+            for (int k = 0; k < KINDS.length; k++)
+                for (int b = 0; b < BEARINGS.length; b++)
+                    shapes[k][b] = new FleetGenerator.Shape(KINDS[k], BEARINGS[b], spec);
+            this.forbidden = spec.newBitboard();
+            this.ships = new FleetGenerator.Shape[layout.shipCount];
+            this.cells = new int[layout.shipCount];
+        }
+
+        /**
+         * @param buffer the records
+         * @param offset the offset of the record to check
+         * @return 0 if the fleet is valid, else its outcome
+         */
+        int check(ByteBuffer buffer, int offset) {
+            Arrays.fill(counts, 0);
+            int position = offset;
+            for (int s = 0; s < ships.length; s++) {
+                int ship = buffer.get(position++) & 0xFF;
+                int kind = ship >>> FleetLayoutWriter.BEARING_BITS;
+                int bearing = ship & ((1 << FleetLayoutWriter.BEARING_BITS) - 1);
+                if (kind >= KINDS.length || bearing >= BEARINGS.length)
+                    return outcome(FleetRejection.MALFORMED, s);
+
+                int cell = 0;
+                for (int i = 0; i < layout.cellBytes; i++)
+                    cell |= (buffer.get(position++) & 0xFF) << (8 * i);
+                if (cell < 0 || cell >= spec.getCells())
+                    return outcome(FleetRejection.OUT_OF_BOUNDS, s);
+                ships[s] = shapes[kind][bearing];
+                cells[s] = cell;
+                counts[kind]++;
+            }
+            if (!Arrays.equals(counts, layout.composition))
+                return outcome(FleetRejection.COMPOSITION, -1);
+
+            forbidden.clear();
+            for (int s = 0; s < ships.length; s++) {
+                FleetGenerator.Shape shape = ships[s];
+                int top = spec.rowOf(cells[s]) - shape.originRow;
+                int left = spec.columnOf(cells[s]) - shape.originColumn;
+                if (top < 0 || left < 0 || top >= shape.anchorRows || left >= shape.anchorColumns)
+                    return outcome(FleetRejection.OUT_OF_BOUNDS, s);
+                if (!shape.fits(forbidden, top, left))
+                    return outcome(FleetRejection.TOO_CLOSE, s);
+                shape.mark(forbidden, top, left);
+            }
+            return 0;
+        }
+    }
+
+    /**
+     * A range of records, split in halves until it is small enough to be
+     * checked by a single worker
+     */
+    private static final class Check extends RecursiveAction {
+        private final ByteBuffer buffer;
+        private final int recordBytes;
+        private final ThreadLocal<Validator> scratch;
+        private final int[] outcomes;
+        private final int from;
+        private final int to;
+
+        Check(ByteBuffer buffer, int recordBytes, ThreadLocal<Validator> scratch, int[] outcomes, int from, int to) {
+            this.buffer = buffer;
+            this.recordBytes = recordBytes;
+            this.scratch = scratch;
+            this.outcomes = outcomes;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > BATCH) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new Check(buffer, recordBytes, scratch, outcomes, from, middle),
+                        new Check(buffer, recordBytes, scratch, outcomes, middle, to));
+                return;
+            }
+
+            Validator validator = scratch.get();
+            for (int i = from; i < to; i++)
+                outcomes[i] = validator.check(buffer, i * recordBytes);
+        }
+    }
+
+    /**
+     * Checks a dataset of fleet layouts, prints the rejected records and then
+     * the totals
+     *
+     * @param args the dataset file and the number of threads (default: all
+     *             cores)
+     */
+    public static void main(String[] args) throws IOException {
+        Path file = Path.of(args.length > 0 ? args[0] : "frotas.bsf");
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+
+        PrintWriter out = new PrintWriter(System.out);
+        FleetLayoutReport report = new FleetLayoutLoader(threads).validate(file, out);
+        out.println(report);
+        out.flush();
+    }
+}
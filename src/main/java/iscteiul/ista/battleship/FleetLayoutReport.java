@@ -0,0 +1,60 @@
+/**
+ *
+ */
+package iscteiul.ista.battleship;
+
+/**
+ * The outcome of checking a dataset of fleet layouts with a
+ * {@link FleetLayoutLoader}: how many fleets were read, how fast, and how
+ * many were rejected for each {@link FleetRejection}.
+ */
+public class FleetLayoutReport {
+    private final long fleets;
+    private final long[] rejected;
+    private final long elapsedNanos;
+
+    FleetLayoutReport(long fleets, long[] rejected, long elapsedNanos) {
+        this.fleets = fleets;
+        this.rejected = rejected.clone();
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    /**
+     * @return the number of records read, rejected ones included
+     */
+    public long getFleets() {
+        return fleets;
+    }
+
+    public long getRejected(FleetRejection reason) {
+        return rejected[reason.ordinal()];
+    }
+
+    public long getRejected() {
+        long total = 0;
+        for (long count : rejected)
+            total += count;
+        return total;
+    }
+
+    public long getValidFleets() {
+        return fleets - getRejected();
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    public double getFleetsPerSecond() {
+        return elapsedNanos == 0 ? 0 : fleets * 1e9 / elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("frotas=%d validas=%d rejeitadas=%d (malformadas=%d composicao=%d fora=%d encostadas=%d) "
+                        + "%.0f frotas/s", fleets, getValidFleets(), getRejected(),
+                getRejected(FleetRejection.MALFORMED), getRejected(FleetRejection.COMPOSITION),
+                getRejected(FleetRejection.OUT_OF_BOUNDS), getRejected(FleetRejection.TOO_CLOSE),
+                getFleetsPerSecond());
+    }
+}
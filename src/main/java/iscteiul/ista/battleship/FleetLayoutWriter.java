@@ -0,0 +1,200 @@
+/**
+ *
+ */
+package iscteiul.ista.battleship;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Writes a dataset of fleet layouts, read back by a {@link FleetLayoutLoader}.
+ * The file starts with a header: the bytes 'B' 'S' 'F' and the format
+ * version, the rows and columns of the board, the largest number of ships
+ * of its fleets and the number of ships of a fleet, as 4-byte big-endian
+ * integers, then the ShipKind ordinal of each ship a fleet must hold, one
+ * byte each.
+ * <p>
+ * Every fleet then takes the same number of bytes, so that a record is found
+ * from its index alone. Each ship of a fleet is one byte holding its ShipKind
+ * ordinal in the high bits and its Compass ordinal in the three low bits,
+ * followed by the cell of its anchor position (see
+ * {@link BoardSpec#cell(int, int)}) in as few little-endian bytes as the
+ * board needs: two bytes a ship on the standard board.
+ */
+public final class FleetLayoutWriter implements Closeable, Flushable {
+    static final byte[] MAGIC = {'B', 'S', 'F', 2};
+    static final int BEARING_BITS = 3;
+
+    private static final int BUFFER = 1 << 16;
+
+    private final WritableByteChannel channel;
+    private final BoardSpec spec;
+    private final int shipCount;
+    private final int[] composition = new int[ShipKind.values().length];
+    private final int[] written = new int[composition.length];
+    private final int cellBytes;
+    private final ByteBuffer buffer;
+    private int ships;
+    private long fleets;
+
+    /**
+     * @param channel where the layouts go; the header is written first
+     * @param spec    the board of the fleets
+     * @param kinds   the kinds of the ships of every fleet
+     * @throws IllegalArgumentException if there are no kinds or more than the
+     *                                  spec's fleet limit allows
+     */
+    public FleetLayoutWriter(WritableByteChannel channel, BoardSpec spec, ShipKind[] kinds)
+            throws IllegalArgumentException {
+        if (kinds.length == 0 || kinds.length > spec.getMaxShips())
+            throw new IllegalArgumentException("ERROR! fleet of " + kinds.length + " ships does not fit " + spec);
+
+        this.channel = channel;
+        this.spec = spec;
+        this.shipCount = kinds.length;
+        this.cellBytes = cellBytes(spec);
+        this.buffer = ByteBuffer.allocate(Math.max(BUFFER, headerBytes(shipCount)));
+        buffer.put(MAGIC).putInt(spec.getRows()).putInt(spec.getColumns()).putInt(spec.getMaxShips())
+                .putInt(shipCount);
+        for (ShipKind kind : kinds) {
+            buffer.put((byte) kind.ordinal());
+            composition[kind.ordinal()]++;
+        }
+    }
+
+    /**
+     * @param file  the dataset file, replaced if it exists
+     * @param spec  the board of the fleets
+     * @param kinds the kinds of the ships of every fleet
+     * @return a writer of a new dataset
+     * @throws IOException if the file cannot be created
+     */
+    public static FleetLayoutWriter create(Path file, BoardSpec spec, ShipKind[] kinds) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        try {
+            return new FleetLayoutWriter(channel, spec, kinds);
+        } catch (IllegalArgumentException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * @return the number of bytes of the anchor cell of a ship on the board
+     */
+    static int cellBytes(BoardSpec spec) {
+        int bits = 64 - Long.numberOfLeadingZeros(spec.getCells() - 1L);
+        return Math.max(1, (bits + 7) >>> 3);
+    }
+
+    static int headerBytes(int shipCount) {
+        return MAGIC.length + 4 * Integer.BYTES + shipCount;
+    }
+
+    /**
+     * Adds a ship to the fleet being written; the fleet is complete once it
+     * has as many ships as the header says. The ships of a fleet may come in
+     * any order, but as many of each kind as the header holds
+     *
+     * @param kind    the kind of the ship
+     * @param bearing the bearing of the ship
+     * @param row     the row of the anchor position of the ship
+     * @param column  the column of the anchor position of the ship
+     * @throws IllegalArgumentException if the anchor position is not on the
+     *                                  board, the bearing is UNKNOWN or the
+     *                                  fleet already has all the ships of
+     *                                  that kind the header holds
+     */
+    public void ship(ShipKind kind, Compass bearing, int row, int column) throws IOException,
+            IllegalArgumentException {
+        if (!spec.isInside(row, column))
+            throw new IllegalArgumentException("ERROR! anchor off the board " + row + "," + column);
+        if (bearing == Compass.UNKNOWN)
+            throw new IllegalArgumentException("ERROR! ship with no bearing");
+        if (written[kind.ordinal()] == composition[kind.ordinal()])
+            throw new IllegalArgumentException("ERROR! one " + kind + " too many for the fleets of the header");
+
+        if (buffer.remaining() < 1 + cellBytes)
+            drain();
+        buffer.put((byte) (kind.ordinal() << BEARING_BITS | bearing.ordinal()));
+        int cell = spec.cell(row, column);
+        for (int i = 0; i < cellBytes; i++, cell >>>= 8)
+            buffer.put((byte) cell);
+        written[kind.ordinal()]++;
+        if (++ships == shipCount) {
+            ships = 0;
+            fleets++;
+            Arrays.fill(written, 0);
+        }
+    }
+
+    /**
+     * Writes a whole fleet, its ships in order
+     *
+     * @param fleet a fleet with the ships the header says, all of a ShipKind
+     * @throws IllegalArgumentException if the fleet has other ships, or one
+     *                                  with no bearing; nothing is written
+     *                                  then
+     */
+    public void fleet(IFleet fleet) throws IOException, IllegalArgumentException {
+        if (fleet.getShips().size() != shipCount || ships != 0)
+            throw new IllegalArgumentException("ERROR! fleet of " + fleet.getShips().size() + " ships, expected "
+                    + shipCount);
+        int[] kinds = new int[composition.length];
+        for (IShip ship : fleet.getShips()) {
+            ShipKind kind = ShipKind.fromCategory(ship.getCategory());
+            if (kind == null || ship.getBearing() == Compass.UNKNOWN
+                    || !spec.isInside(ship.getPosition().getRow(), ship.getPosition().getColumn()))
+                throw new IllegalArgumentException("ERROR! ship that cannot be written " + ship);
+            kinds[kind.ordinal()]++;
+        }
+        if (!Arrays.equals(kinds, composition))
+            throw new IllegalArgumentException("ERROR! fleet of other kinds of ships than the header");
+
+        for (IShip ship : fleet.getShips())
+            ship(ShipKind.fromCategory(ship.getCategory()), ship.getBearing(), ship.getPosition().getRow(),
+                    ship.getPosition().getColumn());
+    }
+
+    /**
+     * @return the number of whole fleets written
+     */
+    public long getFleets() {
+        return fleets;
+    }
+
+    /**
+     * Writes the buffered layouts to the channel
+     */
+    @Override
+    public void flush() throws IOException {
+        drain();
+    }
+
+    /**
+     * Flushes the layouts and closes the channel
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            drain();
+        } finally {
+            channel.close();
+        }
+    }
+
+    private void drain() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining())
+            channel.write(buffer);
+        buffer.clear();
+    }
+}
@@ -0,0 +1,26 @@
+/**
+ *
+ */
+package iscteiul.ista.battleship;
+
+/**
+ * Why a fleet layout was rejected by a {@link FleetLayoutLoader}
+ */
+public enum FleetRejection {
+    /**
+     * A ship has no known kind or bearing, or the record is cut short
+     */
+    MALFORMED,
+    /**
+     * The kinds of the ships are not those the file asks for
+     */
+    COMPOSITION,
+    /**
+     * A ship does not fit inside the board
+     */
+    OUT_OF_BOUNDS,
+    /**
+     * A ship overlaps or touches a ship before it
+     */
+    TOO_CLOSE
+}
@@ -3,30 +3,56 @@
  */
 package iscteiul.ista.battleship;
 
-import java.util.ArrayList;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.AbstractList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.RandomAccess;
 
 /**
  * @author fba
  *
  */
 public class Game implements IGame {
+    private static final int INITIAL_SHOT_CAPACITY = 1024;
+
     private IFleet fleet;
+    private BoardSpec spec;
     private List<IPosition> shots;
+    private IBitboard shotMap;
+    private int[] shotCells;
+    private int shotCount;
+    private IShip lastSunk;
+    private long observationHash;
+
+    private int countInvalidShots;
+    private int countRepeatedShots;
+    private int countHits;
+    private int countSinks;
 
-    private Integer countInvalidShots;
-    private Integer countRepeatedShots;
-    private Integer countHits;
-    private Integer countSinks;
+    private ShotResult[] madeResults;
+    private IShip[] madeLastSunk;
+    private long[] madeHashes;
+    private long[] madeTargets;
+    private int madeCount;
 
+    private IGameListener listener;
+    private BoardRenderer renderer;
 
     /**
      * @param fleet
      */
     public Game(IFleet fleet) {
-        shots = new ArrayList<>();
+        spec = fleet.getBoardSpec();
+        shots = new ShotList();
+        shotMap = spec.newBitboard();
+        shotCells = new int[Math.min(spec.getCells(), INITIAL_SHOT_CAPACITY)];
+        shotCount = 0;
         countInvalidShots = 0;
         countRepeatedShots = 0;
+        countHits = 0;
+        countSinks = 0;
         this.fleet = fleet;
     }
 
@@ -37,31 +63,215 @@ public class Game implements IGame {
      */
     @Override
     public IShip fire(IPosition pos) {
-        if (!validShot(pos))
+        return fire(pos.getRow(), pos.getColumn()) == ShotResult.SUNK ? lastSunk : null;
+    }
+
+    /**
+     * Fires at the cell (row, column). This is the allocation-free form of
+     * fire(IPosition): it updates the same counters and shot registry, and
+     * reports the outcome as a constant instead of the sunk ship, which is
+     * available from getLastSunkShip
+     *
+     * @param row    the row to fire at
+     * @param column the column to fire at
+     * @return what the shot did
+     */
+    @Override
+    public ShotResult fire(int row, int column) {
+        if (!validShot(row, column)) {
             countInvalidShots++;
-        else { // valid shot!
-            if (repeatedShot(pos))
-                countRepeatedShots++;
-            else {
-                shots.add(pos);
-                IShip s = fleet.shipAt(pos);
-                if (s != null) {
-                    s.shoot(pos);
-                    countHits++;
-                    if (!s.stillFloating()) {
-                        countSinks++;
-                        return s;
-                    }
+            return fired(row, column, ShotResult.INVALID);
+        }
+        if (repeatedShot(row, column)) {
+            countRepeatedShots++;
+            return fired(row, column, ShotResult.REPEAT);
+        }
+
+        registerShot(row, column);
+        int cell = spec.cell(row, column);
+        IShip s = fleet.shoot(row, column);
+        if (s == null) {
+            observationHash ^= Zobrist.key(cell, ShotResult.MISS);
+            return fired(row, column, ShotResult.MISS);
+        }
+        countHits++;
+        observationHash ^= Zobrist.key(cell, ShotResult.HIT);
+        if (s.stillFloating())
+            return fired(row, column, ShotResult.HIT);
+        countSinks++;
+        lastSunk = s;
+        List<IPosition> positions = s.getPositions();
+        for (int i = 0; i < positions.size(); i++)
+            observationHash ^= Zobrist.sink(spec.cell(positions.get(i).getRow(), positions.get(i).getColumn()));
+        return fired(row, column, ShotResult.SUNK);
+    }
+
+    /**
+     * Tells the listeners, if any, of a shot. With no listener this is one
+     * null test, and the ship is only looked up when someone listens
+     */
+    private ShotResult fired(int row, int column, ShotResult result) {
+        if (listener != null)
+            listener.shotFired(row, column, result, result.isHit() ? fleet.shipIndexAt(row, column) : -1);
+        return result;
+    }
+
+    /**
+     * Adds a listener told of every shot fired from now on, makeShot
+     * included, and of every such shot unmakeShot takes back. A single
+     * listener is called directly, several through an array, in the order
+     * they were added, and in the reverse order when a shot is taken back
+     */
+    @Override
+    public void addListener(IGameListener listener) {
+        assert listener != null;
+
+        if (this.listener == null)
+            this.listener = listener;
+        else if (this.listener instanceof Listeners)
+            this.listener = ((Listeners) this.listener).with(listener);
+        else
+            this.listener = new Listeners(new IGameListener[]{this.listener, listener});
+    }
+
+    /**
+     * Removes a listener, if it was added
+     */
+    @Override
+    public void removeListener(IGameListener listener) {
+        if (this.listener == listener)
+            this.listener = null;
+        else if (this.listener instanceof Listeners)
+            this.listener = ((Listeners) this.listener).without(listener);
+    }
+
+    /**
+     * Several listeners behind one, told in turn
+     */
+    private static final class Listeners implements IGameListener {
+        private final IGameListener[] listeners;
+
+        Listeners(IGameListener[] listeners) {
+            this.listeners = listeners;
+        }
+
+        @Override
+        public void shotFired(int row, int column, ShotResult result, int shipIndex) {
+            for (IGameListener listener : listeners)
+                listener.shotFired(row, column, result, shipIndex);
+        }
+
+        @Override
+        public void shotTakenBack(int row, int column, ShotResult result, int shipIndex) {
+            for (int i = listeners.length - 1; i >= 0; i--)
+                listeners[i].shotTakenBack(row, column, result, shipIndex);
+        }
+
+        Listeners with(IGameListener listener) {
+            IGameListener[] more = Arrays.copyOf(listeners, listeners.length + 1);
+            more[listeners.length] = listener;
+            return new Listeners(more);
+        }
+
+        /**
+         * @return the listeners left, as one listener
+         */
+        IGameListener without(IGameListener listener) {
+            for (int i = 0; i < listeners.length; i++)
+                if (listeners[i] == listener) {
+                    if (listeners.length == 2)
+                        return listeners[1 - i];
+                    IGameListener[] fewer = new IGameListener[listeners.length - 1];
+                    System.arraycopy(listeners, 0, fewer, 0, i);
+                    System.arraycopy(listeners, i + 1, fewer, i, fewer.length - i);
+                    return new Listeners(fewer);
                 }
+            return this;
+        }
+    }
+
+    /**
+     * Fires at (row, column) like fire(row, column), and remembers how to take
+     * the shot back. Meant for searches that try a shot, look ahead and then
+     * return to where they were, without copying the fleet and the game
+     *
+     * @param row    the row to fire at
+     * @param column the column to fire at
+     * @return what the shot did
+     */
+    @Override
+    public ShotResult makeShot(int row, int column) {
+        if (madeResults == null) {
+            madeResults = new ShotResult[64];
+            madeLastSunk = new IShip[64];
+            madeHashes = new long[64];
+            madeTargets = new long[64];
+        } else if (madeCount == madeResults.length) {
+            madeResults = Arrays.copyOf(madeResults, madeCount * 2);
+            madeLastSunk = Arrays.copyOf(madeLastSunk, madeCount * 2);
+            madeHashes = Arrays.copyOf(madeHashes, madeCount * 2);
+            madeTargets = Arrays.copyOf(madeTargets, madeCount * 2);
+        }
+        IShip sunkBefore = lastSunk;
+        madeHashes[madeCount] = observationHash;
+        madeTargets[madeCount] = (long) row << 32 | (column & 0xFFFFFFFFL);
+        ShotResult result = fire(row, column);
+        madeResults[madeCount] = result;
+        madeLastSunk[madeCount++] = sunkBefore;
+        return result;
+    }
+
+    /**
+     * Takes back the last shot fired with makeShot: the shot registry, the
+     * counters, the observation hash, the hit flags of the ship and the fleet
+     * tallies are as they were before it, in constant time, and then the
+     * listeners are told. No other shot may have been fired in between
+     *
+     * @throws IllegalStateException if there is no shot to take back
+     */
+    @Override
+    public void unmakeShot() throws IllegalStateException {
+        if (madeCount == 0)
+            throw new IllegalStateException("ERROR! no shot to take back");
+
+        madeCount--;
+        ShotResult result = madeResults[madeCount];
+        lastSunk = madeLastSunk[madeCount];
+        madeLastSunk[madeCount] = null;
+        observationHash = madeHashes[madeCount];
+        int row = (int) (madeTargets[madeCount] >> 32);
+        int column = (int) madeTargets[madeCount];
+        if (result == ShotResult.INVALID) {
+            countInvalidShots--;
+        } else if (result == ShotResult.REPEAT) {
+            countRepeatedShots--;
+        } else {
+            shotCount--;
+            shotMap.clear(row, column);
+            if (result.isHit()) {
+                countHits--;
+                if (result == ShotResult.SUNK)
+                    countSinks--;
+                fleet.unshoot(row, column);
             }
         }
-        return null;
+        if (listener != null)
+            listener.shotTakenBack(row, column, result, result.isHit() ? fleet.shipIndexAt(row, column) : -1);
     }
 
     /*
      * (non-Javadoc)
      *
-     * @see battleship.IGame#getShots()
+     * @see battleship.IGame#getLastSunkShip()
+     */
+    @Override
+    public IShip getLastSunkShip() {
+        return lastSunk;
+    }
+
+    /**
+     * The valid shots, in the order they were fired. The list is a read-only
+     * view over the shot registry
      */
     @Override
     public List<IPosition> getShots() {
@@ -115,39 +325,61 @@ public class Game implements IGame {
      */
     @Override
     public int getRemainingShips() {
-        List<IShip> floatingShips = fleet.getFloatingShips();
-        return floatingShips.size();
+        return fleet.getFloatingCount();
     }
 
-    private boolean validShot(IPosition pos) {
-        return (pos.getRow() >= 0 && pos.getRow() <= Fleet.BOARD_SIZE && pos.getColumn() >= 0
-                && pos.getColumn() <= Fleet.BOARD_SIZE);
+    /**
+     * A 64-bit hash of what the shots revealed: which cells were missed, hit,
+     * or belong to a sunk ship (see {@link Zobrist}). It is kept up to date
+     * by every shot, and two games that revealed the same cells have the same
+     * hash, whatever the order of the shots
+     */
+    @Override
+    public long getObservationHash() {
+        return observationHash;
     }
 
-    private boolean repeatedShot(IPosition pos) {
-        for (int i = 0; i < shots.size(); i++)
-            if (shots.get(i).equals(pos))
-                return true;
-        return false;
+    private boolean validShot(int row, int column) {
+        return spec.isInside(row, column);
     }
 
+    private boolean repeatedShot(int row, int column) {
+        return shotMap.get(row, column);
+    }
 
-    public void printBoard(List<IPosition> positions, Character marker) {
-        char[][] map = new char[Fleet.BOARD_SIZE][Fleet.BOARD_SIZE];
-
-        for (int r = 0; r < Fleet.BOARD_SIZE; r++)
-            for (int c = 0; c < Fleet.BOARD_SIZE; c++)
-                map[r][c] = '.';
+    private void registerShot(int row, int column) {
+        shotMap.set(row, column);
+        if (shotCount == shotCells.length)
+            shotCells = Arrays.copyOf(shotCells, Math.min(spec.getCells(), shotCount * 2));
+        shotCells[shotCount++] = spec.cell(row, column);
+    }
 
-        for (IPosition pos : positions)
-            map[pos.getRow()][pos.getColumn()] = marker;
+    /**
+     * Read-only list of the valid shots, built on demand from the shot registry
+     */
+    private class ShotList extends AbstractList<IPosition> implements RandomAccess {
+        @Override
+        public IPosition get(int index) {
+            if (index < 0 || index >= shotCount)
+                throw new IndexOutOfBoundsException(index);
+            int cell = shotCells[index];
+            return new Position(spec.rowOf(cell), spec.columnOf(cell));
+        }
 
-        for (int row = 0; row < Fleet.BOARD_SIZE; row++) {
-            for (int col = 0; col < Fleet.BOARD_SIZE; col++)
-                System.out.print(map[row][col]);
-            System.out.println();
+        @Override
+        public int size() {
+            return shotCount;
         }
+    }
+
 
+    /**
+     * Prints the board with the given cells marked, in one write
+     */
+    public void printBoard(List<IPosition> positions, Character marker) {
+        BoardRenderer board = renderer();
+        board.mark(positions, marker);
+        print(board);
     }
 
 
@@ -155,7 +387,10 @@ public class Game implements IGame {
      * Prints the board showing valid shots that have been fired
      */
     public void printValidShots() {
-        printBoard(getShots(), 'X');
+        BoardRenderer board = renderer();
+        for (int i = 0; i < shotCount; i++)
+            board.mark(shotCells[i], 'X');
+        print(board);
     }
 
 
@@ -163,12 +398,28 @@ public class Game implements IGame {
      * Prints the board showing the fleet
      */
     public void printFleet() {
-        List<IPosition> shipPositions = new ArrayList<IPosition>();
-
+        BoardRenderer board = renderer();
         for (IShip s : fleet.getShips())
-            shipPositions.addAll(s.getPositions());
+            board.mark(s.getPositions(), '#');
+        print(board);
+    }
 
-        printBoard(shipPositions, '#');
+    /**
+     * @return the renderer of this game, cleared
+     */
+    private BoardRenderer renderer() {
+        if (renderer == null)
+            renderer = new BoardRenderer(spec);
+        renderer.clear();
+        return renderer;
+    }
+
+    private static void print(BoardRenderer board) {
+        try {
+            board.render(System.out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
     }
 
 }
@@ -0,0 +1,94 @@
+/**
+ *
+ */
+package iscteiul.ista.battleship;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * The classic hunt and target strategy. While hunting it fires at random
+ * unknown cells. After a hit it tries the cells next to it, row and column
+ * first, until the ship sinks. Ships never touch, so once a ship sinks every
+ * cell around it is known to be water and is never fired at.
+ */
+public class HuntTargetShooter implements IShooter {
+    private BoardSpec spec;
+    private SplittableRandom random;
+    private IBitboard known;
+    private int[] cells;
+    private int next;
+    private int[] targets;
+    private int targetCount;
+
+    @Override
+    public String getName() {
+        return "caca-e-alvo";
+    }
+
+    @Override
+    public void newGame(BoardSpec spec, ShipKind[] fleet, SplittableRandom random) {
+        if (!spec.equals(this.spec)) {
+            this.spec = spec;
+            known = spec.newBitboard();
+            cells = new int[spec.getCells()];
+            for (int i = 0; i < cells.length; i++)
+                cells[i] = i;
+            targets = new int[64];
+        } else {
+            known.clear();
+        }
+        this.random = random;
+        next = 0;
+        targetCount = 0;
+    }
+
+    @Override
+    public int nextShot() {
+        while (targetCount > 0) {
+            int cell = targets[--targetCount];
+            if (!known.get(spec.rowOf(cell), spec.columnOf(cell)))
+                return cell;
+        }
+        while (next < cells.length) {
+            int j = next + random.nextInt(cells.length - next);
+            int cell = cells[j];
+            cells[j] = cells[next];
+            cells[next++] = cell;
+            if (!known.get(spec.rowOf(cell), spec.columnOf(cell)))
+                return cell;
+        }
+        return 0;
+    }
+
+    @Override
+    public void shotFired(int row, int column, ShotResult result, IShip sunk) {
+        if (!spec.isInside(row, column))
+            return;
+        known.set(row, column);
+        if (result == ShotResult.HIT) {
+            push(row, column - 1);
+            push(row, column + 1);
+            push(row - 1, column);
+            push(row + 1, column);
+        } else if (result == ShotResult.SUNK) {
+            List<IPosition> positions = sunk.getPositions();
+            for (int i = 0; i < positions.size(); i++) {
+                IPosition p = positions.get(i);
+                for (int r = p.getRow() - 1; r <= p.getRow() + 1; r++)
+                    for (int c = p.getColumn() - 1; c <= p.getColumn() + 1; c++)
+                        if (spec.isInside(r, c))
+                            known.set(r, c);
+            }
+        }
+    }
+
+    private void push(int row, int column) {
+        if (!spec.isInside(row, column) || known.get(row, column))
+            return;
+        if (targetCount == targets.length)
+            targets = Arrays.copyOf(targets, targetCount * 2);
+        targets[targetCount++] = spec.cell(row, column);
+    }
+}
@@ -0,0 +1,59 @@
+/**
+ *
+ */
+package iscteiul.ista.battleship;
+
+/**
+ * A set of board cells. Rows are read and written 64 columns at a time
+ * through {@link #word(int, int)} and {@link #orWord(int, int, long)}, word i
+ * of a row standing for columns {@code i * 64} to {@code i * 64 + 63}.
+ */
+interface IBitboard {
+    int getRows();
+
+    int getColumns();
+
+    boolean get(int row, int column);
+
+    void set(int row, int column);
+
+    void clear(int row, int column);
+
+    void clear();
+
+    long word(int row, int word);
+
+    void orWord(int row, int word, long bits);
+
+    int cardinality();
+
+    /**
+     * @return the 64 cells of a row starting at any column, bit i standing for
+     *         column {@code column + i}; cells beyond the last column read as 0
+     */
+    default long window(int row, int column) {
+        int word = column >>> 6;
+        int shift = column & 63;
+        long bits = word(row, word) >>> shift;
+        return shift == 0 ? bits : bits | (word(row, word + 1) << (64 - shift));
+    }
+
+    /**
+     * Sets the cells of a row given by the bits of a window starting at any
+     * column, bit i standing for column {@code column + i}. The column may be
+     * negative; bits that fall outside the board are ignored
+     */
+    default void orWindow(int row, int column, long bits) {
+        if (column < 0) {
+            if (column <= -64)
+                return;
+            bits >>>= -column;
+            column = 0;
+        }
+        int word = column >>> 6;
+        int shift = column & 63;
+        orWord(row, word, bits << shift);
+        if (shift != 0)
+            orWord(row, word + 1, bits >>> (64 - shift));
+    }
+}
@@ -9,6 +9,8 @@ public interface IFleet {
     Integer BOARD_SIZE = 10;
     Integer FLEET_SIZE = 10;
 
+    BoardSpec getBoardSpec();
+
     List<IShip> getShips();
 
     boolean addShip(IShip s);
@@ -19,5 +21,21 @@ public interface IFleet {
 
     IShip shipAt(IPosition pos);
 
+    IShip shoot(IPosition pos);
+
+    IShip shoot(int row, int column);
+
+    void unshoot(int row, int column);
+
+    int shipIndexAt(int row, int column);
+
+    int getFloatingCount();
+
+    int getSunkCount();
+
+    int getFloatingCount(String category);
+
+    int getSunkCount(String category);
+
     void printStatus();
 }
@@ -0,0 +1,23 @@
+/**
+ *
+ */
+package iscteiul.ista.battleship;
+
+import java.util.SplittableRandom;
+
+/**
+ * A strategy for laying out the fleet the other side fires at. Like a
+ * shooter, a placer may keep state between fleets and is not thread-safe; the
+ * tournament gives each worker its own.
+ */
+public interface IFleetPlacer {
+    String getName();
+
+    /**
+     * @param spec   the board to place the fleet on
+     * @param kinds  the kinds of the ships, one entry per ship
+     * @param random the source of randomness for this fleet
+     * @return a legal fleet of those ships
+     */
+    IFleet place(BoardSpec spec, ShipKind[] kinds, SplittableRandom random);
+}
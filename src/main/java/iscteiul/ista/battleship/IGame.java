@@ -8,6 +8,14 @@ import java.util.List;
 public interface IGame {
     IShip fire(IPosition pos);
 
+    ShotResult fire(int row, int column);
+
+    ShotResult makeShot(int row, int column);
+
+    void unmakeShot();
+
+    IShip getLastSunkShip();
+
     List<IPosition> getShots();
 
     int getRepeatedShots();
@@ -20,6 +28,12 @@ public interface IGame {
 
     int getRemainingShips();
 
+    long getObservationHash();
+
+    void addListener(IGameListener listener);
+
+    void removeListener(IGameListener listener);
+
     void printValidShots();
 
     void printFleet();
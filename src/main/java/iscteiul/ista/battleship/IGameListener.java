@@ -0,0 +1,35 @@
+/**
+ *
+ */
+package iscteiul.ista.battleship;
+
+/**
+ * Told of every shot fired at a game it listens to (see
+ * {@link IGame#addListener(IGameListener)}), after the shot has changed the
+ * game, and of every shot fired with makeShot that unmakeShot takes back.
+ * The arguments are primitives and constants, so telling a listener
+ * allocates nothing.
+ */
+@FunctionalInterface
+public interface IGameListener {
+    /**
+     * @param row       the row fired at
+     * @param column    the column fired at
+     * @param result    what the shot did
+     * @param shipIndex the index, in IFleet.getShips, of the ship the shot hit
+     *                  or sank, or -1 if it hit none
+     */
+    void shotFired(int row, int column, ShotResult result, int shipIndex);
+
+    /**
+     * Called once the game is back to where it was before a shot fired with
+     * makeShot; by default nothing is done
+     *
+     * @param row       the row the shot was fired at
+     * @param column    the column the shot was fired at
+     * @param result    what the shot had done
+     * @param shipIndex the index of the ship the shot had hit or sunk, or -1
+     */
+    default void shotTakenBack(int row, int column, ShotResult result, int shipIndex) {
+    }
+}
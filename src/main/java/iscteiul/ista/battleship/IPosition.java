@@ -19,6 +19,8 @@ public interface IPosition {
 
     void shoot();
 
+    void unshoot();
+
     boolean isOccupied();
 
     boolean isHit();
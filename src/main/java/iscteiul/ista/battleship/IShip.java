@@ -33,4 +33,8 @@ public interface IShip {
     boolean tooCloseTo(IPosition pos);
 
     void shoot(IPosition pos);
+
+    void shoot(int row, int column);
+
+    void unshoot(int row, int column);
 }
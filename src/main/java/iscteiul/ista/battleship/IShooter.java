@@ -0,0 +1,42 @@
+/**
+ *
+ */
+package iscteiul.ista.battleship;
+
+import java.util.SplittableRandom;
+
+/**
+ * A firing strategy that plays without a human: it chooses where to shoot and
+ * is told what each shot did. Cells are given as indexes, see
+ * {@link BoardSpec#cell(int, int)}.
+ * <p>
+ * A shooter keeps state for one game at a time and is not thread-safe; the
+ * simulator gives each worker its own shooter.
+ */
+public interface IShooter {
+    String getName();
+
+    /**
+     * Forgets the previous game and prepares for a new one
+     *
+     * @param spec   the board being fired at
+     * @param fleet  the kinds of the ships to be found, one entry per ship
+     * @param random the source of randomness for this game
+     */
+    void newGame(BoardSpec spec, ShipKind[] fleet, SplittableRandom random);
+
+    /**
+     * @return the index of the cell to fire at next
+     */
+    int nextShot();
+
+    /**
+     * Reports the outcome of the last shot
+     *
+     * @param row    the row fired at
+     * @param column the column fired at
+     * @param result what the shot did
+     * @param sunk   the ship sunk by the shot when result is SUNK, null otherwise
+     */
+    void shotFired(int row, int column, ShotResult result, IShip sunk);
+}
@@ -0,0 +1,266 @@
+/**
+ *
+ */
+package iscteiul.ista.battleship;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reads a journal written by a {@link JournalWriter}, one record at a time,
+ * straight from a buffer, which may map the journal file. After a GAME record
+ * the reader knows the board and the ships of the game; after a SHOT record
+ * it knows the shot, its outcome and its index in the game.
+ */
+public final class JournalReader {
+    /**
+     * The kinds of record of a journal
+     */
+    public enum Record {
+        GAME, SHOT
+    }
+
+    private static final ShipKind[] KINDS = ShipKind.values();
+    private static final Compass[] BEARINGS = Compass.values();
+    private static final ShotResult[] RESULTS = ShotResult.values();
+
+    private final ByteBuffer buffer;
+    private final int limit;
+    private int position;
+
+    private BoardSpec spec;
+    private int shipCount;
+    private int[] ships = new int[4 * 16];
+    private long previous;
+    private int row;
+    private int column;
+    private ShotResult result;
+    private long shotIndex;
+    private boolean cut;
+
+    /**
+     * @param buffer the journal, from its position to its limit, header
+     *               included; the buffer's position is left unchanged
+     * @throws IllegalStateException if the journal does not start with the
+     *                               header
+     */
+    public JournalReader(ByteBuffer buffer) throws IllegalStateException {
+        this(buffer, buffer.position(), buffer.limit());
+        for (int i = 0; i < JournalWriter.MAGIC.length; i++)
+            if (position >= limit || buffer.get(position++) != JournalWriter.MAGIC[i])
+                throw new IllegalStateException("ERROR! not a journal, or of another version");
+    }
+
+    /**
+     * A reader of part of a journal, which must begin with a GAME record
+     *
+     * @param buffer the journal
+     * @param from   the offset of the first record to read
+     * @param to     the offset past the last record to read
+     */
+    JournalReader(ByteBuffer buffer, int from, int to) {
+        this.buffer = buffer;
+        this.position = from;
+        this.limit = to;
+    }
+
+    /**
+     * @param file a journal file
+     * @return a reader over the file mapped to memory
+     * @throws IOException              if the file cannot be read
+     * @throws IllegalStateException    if the file is not a journal
+     * @throws IllegalArgumentException if the file is 2 GB or larger
+     */
+    public static JournalReader open(Path file) throws IOException, IllegalStateException,
+            IllegalArgumentException {
+        return new JournalReader(map(file));
+    }
+
+    static ByteBuffer map(Path file) throws IOException, IllegalArgumentException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE)
+                throw new IllegalArgumentException("ERROR! journal too large " + file);
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        }
+    }
+
+    /**
+     * @return the offset of the next record
+     */
+    public int getPosition() {
+        return position;
+    }
+
+    /**
+     * Reads the next record
+     *
+     * @return the kind of the record, or null at the end of the journal
+     * @throws IllegalStateException if the journal is damaged, or has a shot
+     *                               before any game
+     */
+    public Record next() throws IllegalStateException {
+        if (position >= limit)
+            return null;
+        cut = false;
+        int start = position;
+        long token = varint();
+        int type = (int) (token & ((1 << JournalWriter.TYPE_BITS) - 1));
+        if (type == JournalWriter.GAME) {
+            readGame(start);
+            return Record.GAME;
+        }
+        if (type >= RESULTS.length || spec == null)
+            throw damaged(start);
+
+        result = RESULTS[type];
+        shotIndex++;
+        if (result == ShotResult.INVALID) {
+            row = (int) unzigzag(varint());
+            column = (int) unzigzag(varint());
+            return Record.SHOT;
+        }
+        long cell = previous + unzigzag(token >>> JournalWriter.TYPE_BITS);
+        if (cell < 0 || cell >= spec.getCells())
+            throw damaged(start);
+        previous = cell;
+        row = spec.rowOf((int) cell);
+        column = spec.columnOf((int) cell);
+        return Record.SHOT;
+    }
+
+    private void readGame(int start) {
+        try {
+            spec = new BoardSpec(intVarint(start), intVarint(start), intVarint(start));
+        } catch (IllegalArgumentException e) {
+            throw damaged(start);
+        }
+        shipCount = intVarint(start);
+        if (shipCount > spec.getMaxShips())
+            throw damaged(start);
+        // every ship takes at least four bytes
+        if (shipCount > (limit - position) / 4) {
+            cut = true;
+            throw damaged(start);
+        }
+        if (ships.length < 4 * shipCount)
+            ships = new int[4 * shipCount];
+        for (int i = 0; i < 4 * shipCount; i += 4) {
+            ships[i] = intVarint(start);
+            ships[i + 1] = intVarint(start);
+            ships[i + 2] = intVarint(start);
+            ships[i + 3] = intVarint(start);
+            if (ships[i] >= KINDS.length || ships[i + 1] >= BEARINGS.length)
+                throw damaged(start);
+        }
+        previous = 0;
+        shotIndex = 0;
+    }
+
+    /**
+     * @return the board of the current game
+     */
+    public BoardSpec getSpec() {
+        return spec;
+    }
+
+    public int getShipCount() {
+        return shipCount;
+    }
+
+    public ShipKind getKind(int ship) {
+        return KINDS[ships[4 * ship]];
+    }
+
+    public Compass getBearing(int ship) {
+        return BEARINGS[ships[4 * ship + 1]];
+    }
+
+    public int getAnchorRow(int ship) {
+        return ships[4 * ship + 2];
+    }
+
+    public int getAnchorColumn(int ship) {
+        return ships[4 * ship + 3];
+    }
+
+    /**
+     * @return a new fleet of the ships of the current game, in the order they
+     *         were recorded; ships that do not fit are left out
+     */
+    public Fleet buildFleet() {
+        Fleet fleet = new Fleet(spec);
+        for (int i = 0; i < shipCount; i++) {
+            try {
+                fleet.addShip(getKind(i).build(getBearing(i), getAnchorRow(i), getAnchorColumn(i)));
+            } catch (IllegalArgumentException | NullPointerException e) {
+                // a ship with no valid bearing cannot be built
+            }
+        }
+        return fleet;
+    }
+
+    public int getRow() {
+        return row;
+    }
+
+    public int getColumn() {
+        return column;
+    }
+
+    public ShotResult getResult() {
+        return result;
+    }
+
+    /**
+     * @return the index of the last shot read in its game, the first being 0
+     */
+    public long getShotIndex() {
+        return shotIndex - 1;
+    }
+
+    /**
+     * @return true if the last record could not be read because the buffer
+     *         ended before it did, as when a window of a journal cuts it
+     */
+    boolean isCut() {
+        return cut;
+    }
+
+    private IllegalStateException damaged(int offset) {
+        return new IllegalStateException("ERROR! damaged journal at byte " + offset);
+    }
+
+    /**
+     * @return a varint that must fit a non-negative int
+     */
+    private int intVarint(int start) {
+        long value = varint();
+        if (value < 0 || value > Integer.MAX_VALUE)
+            throw damaged(start);
+        return (int) value;
+    }
+
+    private long varint() {
+        int start = position;
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            if (position >= limit) {
+                cut = true;
+                throw damaged(start);
+            }
+            byte b = buffer.get(position++);
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0)
+                return value;
+        }
+        throw damaged(start);
+    }
+
+    static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
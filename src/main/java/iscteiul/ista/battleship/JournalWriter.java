@@ -0,0 +1,201 @@
+/**
+ *
+ */
+package iscteiul.ista.battleship;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Writes games to an append-only binary journal, read back by a
+ * {@link JournalReader}. A journal starts with the bytes 'B' 'S' 'J' and the
+ * format version, then holds records, each opened by an unsigned LEB128
+ * varint whose three low bits give its type:
+ * <ul>
+ * <li>{@value #GAME}, a new game: the rows and columns of the board and the
+ * largest number of ships of its fleets, the number of ships, then for each
+ * ship its ShipKind ordinal, its Compass ordinal and the row and column of
+ * its anchor, all varints;</li>
+ * <li>a ShotResult ordinal, a shot of the current game: the other bits hold
+ * the difference between the cell of the shot and that of the game's
+ * previous shot (see {@link BoardSpec#cell(int, int)}), zigzag-encoded so
+ * that small steps either way take one or two bytes. An INVALID shot, which
+ * has no cell, stores no difference but is followed by its row and column,
+ * zigzag-encoded.</li>
+ * </ul>
+ * Records are encoded into a buffer that only goes to the channel when it is
+ * full, on {@link #flush()} or on {@link #close()}, so a group of thousands of
+ * shots costs one write. Nothing reaches the channel before that: a journal
+ * cut short by a crash loses the shots of the last group at most.
+ */
+public final class JournalWriter implements Closeable, Flushable {
+    static final byte[] MAGIC = {'B', 'S', 'J', 2};
+    static final int GAME = 7;
+    static final int TYPE_BITS = 3;
+    static final int DEFAULT_BUFFER = 1 << 16;
+
+    /**
+     * The longest encoding of a record without ships: the type and two
+     * varints of up to ten bytes each
+     */
+    private static final int MAX_SHOT_BYTES = 32;
+
+    private final WritableByteChannel channel;
+    private final byte[] bytes;
+    private final ByteBuffer wrapper;
+    private int size;
+
+    private BoardSpec spec;
+    private long previous;
+    private long shots;
+
+    /**
+     * @param channel    where the journal goes, already holding the header if
+     *                   it is appended to
+     * @param bufferSize the number of bytes gathered before a write
+     * @throws IllegalArgumentException if the buffer is smaller than 64 bytes
+     */
+    public JournalWriter(WritableByteChannel channel, int bufferSize) throws IllegalArgumentException {
+        if (bufferSize < 64)
+            throw new IllegalArgumentException("ERROR! journal buffer too small " + bufferSize);
+
+        this.channel = channel;
+        this.bytes = new byte[bufferSize];
+        this.wrapper = ByteBuffer.wrap(bytes);
+    }
+
+    /**
+     * @param file a journal file, created with its header if it does not
+     *             exist or is empty
+     * @return a writer appending to the file
+     * @throws IOException if the file cannot be opened
+     */
+    public static JournalWriter append(Path file) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+        JournalWriter writer = new JournalWriter(channel, DEFAULT_BUFFER);
+        if (channel.size() == 0)
+            writer.writeHeader();
+        return writer;
+    }
+
+    /**
+     * Writes the header a journal starts with
+     */
+    public void writeHeader() throws IOException {
+        reserve(MAGIC.length);
+        System.arraycopy(MAGIC, 0, bytes, size, MAGIC.length);
+        size += MAGIC.length;
+    }
+
+    /**
+     * Starts a game: the shots that follow are fired at this fleet
+     *
+     * @param fleet the fleet of the game, whose ships are all of a ShipKind
+     */
+    public void startGame(IFleet fleet) throws IOException {
+        spec = fleet.getBoardSpec();
+        previous = 0;
+        List<IShip> ships = fleet.getShips();
+
+        reserve(MAX_SHOT_BYTES + 5);
+        putVarint(GAME);
+        putVarint(spec.getRows());
+        putVarint(spec.getColumns());
+        putVarint(spec.getMaxShips());
+        putVarint(ships.size());
+        for (int i = 0; i < ships.size(); i++) {
+            IShip ship = ships.get(i);
+            ShipKind kind = ShipKind.fromCategory(ship.getCategory());
+            assert kind != null;
+
+            reserve(MAX_SHOT_BYTES);
+            putVarint(kind.ordinal());
+            putVarint(ship.getBearing().ordinal());
+            putVarint(ship.getPosition().getRow());
+            putVarint(ship.getPosition().getColumn());
+        }
+    }
+
+    /**
+     * Records a shot of the current game
+     *
+     * @param row    the row fired at
+     * @param column the column fired at
+     * @param result what the shot did
+     */
+    public void shot(int row, int column, ShotResult result) throws IOException {
+        assert spec != null;
+
+        if (size + MAX_SHOT_BYTES > bytes.length)
+            drain();
+        shots++;
+        if (result == ShotResult.INVALID) {
+            putVarint(result.ordinal());
+            putVarint(zigzag(row));
+            putVarint(zigzag(column));
+            return;
+        }
+        long cell = spec.cell(row, column);
+        putVarint((zigzag(cell - previous) << TYPE_BITS) | result.ordinal());
+        previous = cell;
+    }
+
+    /**
+     * @return the number of shots recorded by this writer
+     */
+    public long getShots() {
+        return shots;
+    }
+
+    /**
+     * Writes the buffered records to the channel
+     */
+    @Override
+    public void flush() throws IOException {
+        drain();
+    }
+
+    /**
+     * Flushes the journal and closes the channel
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            drain();
+        } finally {
+            channel.close();
+        }
+    }
+
+    static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private void reserve(int needed) throws IOException {
+        if (size + needed > bytes.length)
+            drain();
+    }
+
+    private void drain() throws IOException {
+        wrapper.clear().limit(size);
+        while (wrapper.hasRemaining())
+            channel.write(wrapper);
+        size = 0;
+    }
+
+    private void putVarint(long value) {
+        while ((value & ~0x7FL) != 0) {
+            bytes[size++] = (byte) (value | 0x80);
+            value >>>= 7;
+        }
+        bytes[size++] = (byte) value;
+    }
+}
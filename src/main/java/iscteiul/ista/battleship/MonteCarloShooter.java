@@ -0,0 +1,300 @@
+/**
+ *
+ */
+package iscteiul.ista.battleship;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * A Monte Carlo strategy. Before each shot it draws many random fleets of the
+ * ships still afloat that agree with what the shots revealed (see
+ * {@link FleetGenerator#sample}) and fires at the unknown cell covered by the
+ * most of them. Nothing is tabulated per placement, so it works on boards and
+ * fleets of any size.
+ * <p>
+ * The samples of a shot are cut in chunks of {@value #CHUNK}, each with its
+ * own random stream split from the game's, and the chunks are spread over a
+ * ForkJoinPool: the pool of the calling thread when there is one, such as the
+ * Simulator's, the common pool otherwise. Chunks always get the same streams,
+ * so with no time budget the shots do not depend on the number of threads.
+ * With a time budget each chunk stops drawing once the budget is spent, and
+ * the shots then depend on the speed of the machine.
+ * <p>
+ * Each group of chunks keeps its generator and its counts from one shot to
+ * the next, so a shot allocates next to nothing even on the largest boards.
+ */
+public class MonteCarloShooter implements IShooter {
+    static final int CHUNK = 64;
+    private static final int CHUNKS_PER_TASK = 2;
+    private static final int DENSE_COUNTS = 1 << 12;
+
+    private final int samples;
+    private final long budgetNanos;
+
+    private BoardSpec spec;
+    private SplittableRandom random;
+    private final List<ShipKind> afloat = new ArrayList<>();
+    private IBitboard shot;
+    private IBitboard blocked;
+    private int[] hits;
+    private int hitCount;
+    private ShipKind[] kinds;
+    private FleetGenerator[] generators;
+    private Counts[] counts;
+
+    /**
+     * 1000 samples a shot, within 20 ms. The number of samples then depends
+     * on the speed of the machine, so runs with the same seed may differ
+     */
+    public MonteCarloShooter() {
+        this(1000, 20_000_000L);
+    }
+
+    /**
+     * @param samples     the number of fleets drawn before each shot
+     * @param budgetNanos the time allowed for each shot, or 0 for no limit
+     *                    and games that replay exactly from their seed
+     * @throws IllegalArgumentException if samples is not positive or the
+     *                                  budget is negative
+     */
+    public MonteCarloShooter(int samples, long budgetNanos) throws IllegalArgumentException {
+        if (samples <= 0 || budgetNanos < 0)
+            throw new IllegalArgumentException("ERROR! invalid Monte Carlo settings " + samples + " " + budgetNanos);
+        this.samples = samples;
+        this.budgetNanos = budgetNanos;
+    }
+
+    @Override
+    public String getName() {
+        return "monte-carlo";
+    }
+
+    @Override
+    public void newGame(BoardSpec spec, ShipKind[] fleet, SplittableRandom random) {
+        if (!spec.equals(this.spec)) {
+            this.spec = spec;
+            shot = spec.newBitboard();
+            blocked = spec.newBitboard();
+            hits = new int[16];
+            counts = new Counts[0];
+        } else {
+            shot.clear();
+            blocked.clear();
+        }
+        this.random = random;
+        afloat.clear();
+        afloat.addAll(Arrays.asList(fleet));
+        afloat.sort((a, b) -> b.getSize() - a.getSize());
+        kinds = afloat.toArray(new ShipKind[0]);
+        generators = new FleetGenerator[0];
+        hitCount = 0;
+    }
+
+    @Override
+    public int nextShot() {
+        if (!afloat.isEmpty()) {
+            int chunks = (samples + CHUNK - 1) / CHUNK;
+            SplittableRandom[] streams = new SplittableRandom[chunks];
+            for (int i = 0; i < chunks; i++)
+                streams[i] = random.split();
+            long deadline = budgetNanos == 0 ? Long.MAX_VALUE : System.nanoTime() + budgetNanos;
+            if (generators.length < chunks)
+                generators = Arrays.copyOf(generators, chunks);
+            if (counts.length < chunks)
+                counts = Arrays.copyOf(counts, chunks);
+
+            int best = new Sampling(streams, 0, chunks, deadline).invoke().best();
+            if (best >= 0)
+                return best;
+        }
+        return fallback();
+    }
+
+    @Override
+    public void shotFired(int row, int column, ShotResult result, IShip sunk) {
+        if (!spec.isInside(row, column))
+            return;
+
+        switch (result) {
+            case MISS:
+                shot.set(row, column);
+                blocked.set(row, column);
+                break;
+            case HIT:
+                shot.set(row, column);
+                if (hitCount == hits.length)
+                    hits = Arrays.copyOf(hits, 2 * hitCount);
+                hits[hitCount++] = spec.cell(row, column);
+                break;
+            case SUNK:
+                shot.set(row, column);
+                sink(sunk);
+                break;
+            default:
+                break;
+        }
+    }
+
+    private void sink(IShip sunk) {
+        List<IPosition> positions = sunk.getPositions();
+        for (int i = 0; i < positions.size(); i++) {
+            IPosition pos = positions.get(i);
+            for (int r = pos.getRow() - 1; r <= pos.getRow() + 1; r++)
+                for (int c = pos.getColumn() - 1; c <= pos.getColumn() + 1; c++)
+                    if (spec.isInside(r, c))
+                        blocked.set(r, c);
+        }
+
+        int kept = 0;
+        for (int i = 0; i < hitCount; i++)
+            if (!blocked.get(spec.rowOf(hits[i]), spec.columnOf(hits[i])))
+                hits[kept++] = hits[i];
+        hitCount = kept;
+
+        afloat.remove(ShipKind.fromCategory(sunk.getCategory()));
+        kinds = afloat.toArray(new ShipKind[0]);
+        generators = new FleetGenerator[0];
+    }
+
+    private boolean unknown(int row, int column) {
+        return !shot.get(row, column) && !blocked.get(row, column);
+    }
+
+    /**
+     * Used when no sample agrees with the shots: a cell next to a pending hit,
+     * or else a random unknown cell
+     */
+    private int fallback() {
+        for (int h = 0; h < hitCount; h++) {
+            int row = spec.rowOf(hits[h]);
+            int column = spec.columnOf(hits[h]);
+            int[][] around = {{row - 1, column}, {row + 1, column}, {row, column - 1}, {row, column + 1}};
+            for (int[] cell : around)
+                if (spec.isInside(cell[0], cell[1]) && unknown(cell[0], cell[1]))
+                    return spec.cell(cell[0], cell[1]);
+        }
+        for (int t = 0; t < 64; t++) {
+            int cell = random.nextInt(spec.getCells());
+            if (unknown(spec.rowOf(cell), spec.columnOf(cell)))
+                return cell;
+        }
+        for (int cell = 0; cell < spec.getCells(); cell++)
+            if (unknown(spec.rowOf(cell), spec.columnOf(cell)))
+                return cell;
+        return 0;
+    }
+
+    /**
+     * How many samples covered each unknown cell, with the list of cells
+     * covered at least once, so it can be cleared without a pass over the
+     * board
+     */
+    private final class Counts {
+        private final CellTable table = new CellTable(spec.getRows(), spec.getColumns(),
+                spec.getCells() > DENSE_COUNTS);
+        private int[] touched = new int[256];
+        private int size;
+
+        void add(int cell, int count) {
+            int row = spec.rowOf(cell);
+            int column = spec.columnOf(cell);
+            int old = table.get(row, column);
+            if (old == CellTable.EMPTY) {
+                if (size == touched.length)
+                    touched = Arrays.copyOf(touched, 2 * size);
+                touched[size++] = cell;
+                old = 0;
+            }
+            table.put(row, column, old + count);
+        }
+
+        void reset() {
+            for (int i = 0; i < size; i++)
+                table.put(spec.rowOf(touched[i]), spec.columnOf(touched[i]), CellTable.EMPTY);
+            size = 0;
+        }
+
+        void merge(Counts other) {
+            for (int i = 0; i < other.size; i++) {
+                int cell = other.touched[i];
+                add(cell, other.table.get(spec.rowOf(cell), spec.columnOf(cell)));
+            }
+        }
+
+        /**
+         * @return the cell covered by the most samples, the lowest index on
+         *         ties, or -1 if no sample succeeded
+         */
+        int best() {
+            int best = -1;
+            int bestCount = 0;
+            for (int i = 0; i < size; i++) {
+                int cell = touched[i];
+                int count = table.get(spec.rowOf(cell), spec.columnOf(cell));
+                if (count > bestCount || (count == bestCount && cell < best)) {
+                    best = cell;
+                    bestCount = count;
+                }
+            }
+            return best;
+        }
+    }
+
+    /**
+     * A range of chunks, split in halves until it is small enough for one
+     * worker, which then draws the samples with the generator and counts kept
+     * for its first chunk
+     */
+    private final class Sampling extends RecursiveTask<Counts> {
+        private final SplittableRandom[] streams;
+        private final int from;
+        private final int to;
+        private final long deadline;
+
+        Sampling(SplittableRandom[] streams, int from, int to, long deadline) {
+            this.streams = streams;
+            this.from = from;
+            this.to = to;
+            this.deadline = deadline;
+        }
+
+        @Override
+        protected Counts compute() {
+            if (to - from > CHUNKS_PER_TASK) {
+                int middle = (from + to) >>> 1;
+                Sampling left = new Sampling(streams, from, middle, deadline);
+                left.fork();
+                Counts tally = new Sampling(streams, middle, to, deadline).compute();
+                tally.merge(left.join());
+                return tally;
+            }
+
+            if (generators[from] == null)
+                generators[from] = new FleetGenerator(spec, kinds);
+            if (counts[from] == null)
+                counts[from] = new Counts();
+            FleetGenerator generator = generators[from];
+            Counts tally = counts[from];
+            tally.reset();
+            for (int chunk = from; chunk < to; chunk++) {
+                SplittableRandom stream = streams[chunk];
+                int draws = Math.min(CHUNK, samples - chunk * CHUNK);
+                for (int d = 0; d < draws && System.nanoTime() < deadline; d++) {
+                    if (!generator.sample(stream, blocked, hits, hitCount))
+                        continue;
+                    for (int k = 0; k < kinds.length; k++)
+                        for (int i = 0; i < kinds[k].getSize(); i++) {
+                            int cell = generator.getCell(k, i);
+                            if (unknown(spec.rowOf(cell), spec.columnOf(cell)))
+                                tally.add(cell, 1);
+                        }
+                }
+            }
+            return tally;
+        }
+    }
+}
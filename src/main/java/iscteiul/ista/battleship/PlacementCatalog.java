@@ -0,0 +1,86 @@
+/**
+ *
+ */
+package iscteiul.ista.battleship;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * The placements of every ship kind on a board of a given size, see
+ * {@link ShipPlacements}. There is one catalog per board size, shared by every
+ * game, shooter and generator that asks for it; the table of each kind is
+ * only built the first time it is asked for.
+ * <p>
+ * A catalog is safe to use from several threads. Two threads asking for the
+ * same kind at once may both build it, but only one table is kept.
+ */
+public class PlacementCatalog {
+    /**
+     * The largest board, in cells, a catalog is built for; tables grow with
+     * the number of cells times the ship sizes
+     */
+    public static final int MAX_CELLS = 1 << 16;
+
+    private static final Map<Long, PlacementCatalog> CATALOGS = new ConcurrentHashMap<>();
+
+    private final int rows;
+    private final int columns;
+    private final AtomicReferenceArray<ShipPlacements> tables;
+
+    /**
+     * Builds an empty catalog, outside of the shared cache
+     */
+    PlacementCatalog(int rows, int columns) {
+        assert rows > 0 && columns > 0;
+
+        this.rows = rows;
+        this.columns = columns;
+        this.tables = new AtomicReferenceArray<>(ShipKind.values().length);
+    }
+
+    /**
+     * @param spec a board
+     * @return the shared catalog for boards of that size
+     * @throws IllegalArgumentException if the board has more than MAX_CELLS
+     *                                  cells
+     */
+    public static PlacementCatalog of(BoardSpec spec) throws IllegalArgumentException {
+        if (spec.getCells() > MAX_CELLS)
+            throw new IllegalArgumentException("ERROR! board too large for a placement catalog: " + spec);
+        long key = ((long) spec.getRows() << 32) | spec.getColumns();
+        return CATALOGS.computeIfAbsent(key, k -> new PlacementCatalog(spec.getRows(), spec.getColumns()));
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getColumns() {
+        return columns;
+    }
+
+    /**
+     * @return the placements of a ship kind, built on first use
+     */
+    public ShipPlacements get(ShipKind kind) {
+        ShipPlacements table = tables.get(kind.ordinal());
+        if (table == null) {
+            tables.compareAndSet(kind.ordinal(), null, new ShipPlacements(kind, rows, columns));
+            table = tables.get(kind.ordinal());
+        }
+        return table;
+    }
+
+    /**
+     * @return the approximate number of bytes held by the tables built so far
+     */
+    public long memoryBytes() {
+        long bytes = 0;
+        for (int i = 0; i < tables.length(); i++)
+            if (tables.get(i) != null)
+                bytes += tables.get(i).memoryBytes();
+        return bytes;
+    }
+}
@@ -3,8 +3,6 @@
  */
 package iscteiul.ista.battleship;
 
-import java.util.Objects;
-
 public class Position implements IPosition {
     private int row;
     private int column;
@@ -42,9 +40,13 @@ public class Position implements IPosition {
     }
 
 
+    /**
+     * Depends on the coordinates only, like equals: a position does not change
+     * hash bucket when it is occupied or hit
+     */
     @Override
     public int hashCode() {
-        return Objects.hash(column, isHit, isOccupied, row);
+        return 31 * row + column;
     }
 
     /*
@@ -94,6 +96,16 @@ public class Position implements IPosition {
         isHit = true;
     }
 
+    /*
+     * (non-Javadoc)
+     *
+     * @see battleship.IPosition#unshoot()
+     */
+    @Override
+    public void unshoot() {
+        isHit = false;
+    }
+
     /*
      * (non-Javadoc)
      *
@@ -0,0 +1,325 @@
+/**
+ *
+ */
+package iscteiul.ista.battleship;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * The probability density strategy. For every cell it counts the placements
+ * of the ships still afloat that are consistent with what the shots revealed,
+ * and fires at the cell covered by the most. A placement stops being
+ * consistent when it covers a miss, a sunk ship or the water around a sunk
+ * ship. While there are hits that belong to no sunk ship, only placements
+ * through those hits are counted.
+ * <p>
+ * The placements come from the {@link PlacementCatalog} of the board. The
+ * counts are kept up to date shot by shot: a miss only visits the placements
+ * through that cell, and a sinking only visits the cells of the ship and its
+ * halo, plus one pass over the board for the kind that left the fleet.
+ */
+public class ProbabilityShooter implements IShooter {
+    private static final byte UNKNOWN = 0;
+    private static final byte MISS = 1;
+    private static final byte HIT = 2;
+    private static final byte SUNK = 3;
+    private static final byte WATER = 4;
+    private static final int BLOCK_SHIFT = 6;
+    private static final int BLOCK_SIZE = 1 << BLOCK_SHIFT;
+
+    private final boolean incremental;
+
+    private BoardSpec spec;
+    private SplittableRandom random;
+    private ShipKind[] kinds;
+    private ShipPlacements[] tables;
+    private boolean[][] valid;
+    private int[][] cover;
+    private int[] remaining;
+    private int[] density;
+    private byte[] state;
+    private int[] hits;
+    private int hitCount;
+    private int[] score;
+    private int[] touched;
+    private int[] blockBest;
+    private boolean[] dirty;
+    private int offset;
+
+    public ProbabilityShooter() {
+        this(true);
+    }
+
+    /**
+     * @param incremental false to recount every placement after each shot,
+     *                    which gives the same shots and is kept to measure
+     *                    what the incremental updates save
+     */
+    ProbabilityShooter(boolean incremental) {
+        this.incremental = incremental;
+    }
+
+    @Override
+    public String getName() {
+        return "densidade";
+    }
+
+    /**
+     * @throws IllegalArgumentException if the board is too large for a
+     *                                  placement catalog
+     */
+    @Override
+    public void newGame(BoardSpec spec, ShipKind[] fleet, SplittableRandom random) throws IllegalArgumentException {
+        if (!spec.equals(this.spec)) {
+            PlacementCatalog catalog = PlacementCatalog.of(spec);
+            this.spec = spec;
+            kinds = ShipKind.values();
+            tables = new ShipPlacements[kinds.length];
+            valid = new boolean[kinds.length][];
+            cover = new int[kinds.length][spec.getCells()];
+            for (int k = 0; k < kinds.length; k++) {
+                tables[k] = catalog.get(kinds[k]);
+                valid[k] = new boolean[tables[k].getCount()];
+            }
+            remaining = new int[kinds.length];
+            density = new int[spec.getCells()];
+            state = new byte[spec.getCells()];
+            hits = new int[spec.getCells()];
+            score = new int[spec.getCells()];
+            touched = new int[spec.getCells()];
+            int blocks = (spec.getCells() + BLOCK_SIZE - 1) >>> BLOCK_SHIFT;
+            blockBest = new int[blocks];
+            dirty = new boolean[blocks];
+        }
+        this.random = random;
+        offset = random.nextInt(BLOCK_SIZE);
+        Arrays.fill(state, UNKNOWN);
+        Arrays.fill(remaining, 0);
+        for (ShipKind kind : fleet)
+            remaining[kind.ordinal()]++;
+        hitCount = 0;
+        recount();
+    }
+
+    @Override
+    public int nextShot() {
+        if (hitCount > 0) {
+            int cell = target();
+            if (cell >= 0)
+                return cell;
+        }
+        return hunt();
+    }
+
+    @Override
+    public void shotFired(int row, int column, ShotResult result, IShip sunk) {
+        if (!spec.isInside(row, column))
+            return;
+        int cell = spec.cell(row, column);
+
+        switch (result) {
+            case MISS:
+                mark(cell, MISS);
+                break;
+            case HIT:
+                state[cell] = HIT;
+                dirty[cell >>> BLOCK_SHIFT] = true;
+                hits[hitCount++] = cell;
+                break;
+            case SUNK:
+                sink(sunk);
+                break;
+            default:
+                return;
+        }
+        if (!incremental)
+            recount();
+    }
+
+    /**
+     * @return how many consistent placements of the ships afloat cover a cell
+     */
+    int getDensity(int row, int column) {
+        return density[spec.cell(row, column)];
+    }
+
+    /**
+     * Records what a cell is known to hold and drops the placements through it
+     */
+    private void mark(int cell, byte known) {
+        state[cell] = known;
+        dirty[cell >>> BLOCK_SHIFT] = true;
+        if (!incremental)
+            return;
+
+        for (int k = 0; k < kinds.length; k++) {
+            ShipPlacements table = tables[k];
+            boolean[] ok = valid[k];
+            int[] counts = cover[k];
+            int weight = remaining[k];
+            for (int i = table.getCoverCount(cell) - 1; i >= 0; i--) {
+                int p = table.getCoveringPlacement(cell, i);
+                if (ok[p]) {
+                    ok[p] = false;
+                    for (int j = 0; j < table.getSize(); j++) {
+                        int c = table.getFootprintCell(p, j);
+                        counts[c]--;
+                        density[c] -= weight;
+                        dirty[c >>> BLOCK_SHIFT] = true;
+                    }
+                }
+            }
+        }
+    }
+
+    private void sink(IShip sunk) {
+        List<IPosition> positions = sunk.getPositions();
+        for (int i = 0; i < positions.size(); i++) {
+            IPosition pos = positions.get(i);
+            mark(spec.cell(pos.getRow(), pos.getColumn()), SUNK);
+        }
+        for (int i = 0; i < positions.size(); i++) {
+            IPosition pos = positions.get(i);
+            for (int r = pos.getRow() - 1; r <= pos.getRow() + 1; r++)
+                for (int c = pos.getColumn() - 1; c <= pos.getColumn() + 1; c++)
+                    if (spec.isInside(r, c) && state[spec.cell(r, c)] == UNKNOWN)
+                        mark(spec.cell(r, c), WATER);
+        }
+
+        // the hits of this ship are resolved
+        int kept = 0;
+        for (int i = 0; i < hitCount; i++)
+            if (state[hits[i]] == HIT)
+                hits[kept++] = hits[i];
+        hitCount = kept;
+
+        ShipKind kind = ShipKind.fromCategory(sunk.getCategory());
+        if (kind != null && remaining[kind.ordinal()] > 0) {
+            int k = kind.ordinal();
+            remaining[k]--;
+            if (incremental) {
+                int[] counts = cover[k];
+                for (int c = 0; c < density.length; c++)
+                    density[c] -= counts[c];
+                Arrays.fill(dirty, true);
+            }
+        }
+    }
+
+    /**
+     * Rebuilds every count from the known cells
+     */
+    private void recount() {
+        Arrays.fill(density, 0);
+        Arrays.fill(dirty, true);
+        for (int k = 0; k < kinds.length; k++) {
+            ShipPlacements table = tables[k];
+            boolean[] ok = valid[k];
+            int[] counts = cover[k];
+            Arrays.fill(counts, 0);
+            for (int p = 0; p < ok.length; p++) {
+                boolean fits = true;
+                for (int j = 0; j < table.getSize() && fits; j++) {
+                    byte known = state[table.getFootprintCell(p, j)];
+                    fits = known == UNKNOWN || known == HIT;
+                }
+                ok[p] = fits;
+                if (fits)
+                    for (int j = 0; j < table.getSize(); j++)
+                        counts[table.getFootprintCell(p, j)]++;
+            }
+            if (remaining[k] > 0)
+                for (int c = 0; c < density.length; c++)
+                    density[c] += remaining[k] * counts[c];
+        }
+    }
+
+    /**
+     * The board is cut in blocks of 64 cells that remember their best cell, so
+     * a shot only rescans the blocks whose counts changed since the last one.
+     * Ties are broken by a random starting block, and inside each block by a
+     * starting cell drawn once per game
+     *
+     * @return the unknown cell with the highest density
+     */
+    private int hunt() {
+        int blocks = blockBest.length;
+        int start = random.nextInt(blocks);
+        int best = -1;
+        int bestDensity = -1;
+        for (int i = 0; i < blocks; i++) {
+            int b = start + i < blocks ? start + i : start + i - blocks;
+            if (dirty[b])
+                rescan(b);
+            int c = blockBest[b];
+            if (c >= 0 && density[c] > bestDensity) {
+                best = c;
+                bestDensity = density[c];
+            }
+        }
+        return best < 0 ? 0 : best;
+    }
+
+    private void rescan(int block) {
+        int first = block << BLOCK_SHIFT;
+        int size = Math.min(BLOCK_SIZE, density.length - first);
+        int best = -1;
+        int bestDensity = -1;
+        for (int i = 0; i < size; i++) {
+            int c = first + (offset + i) % size;
+            if (state[c] == UNKNOWN && density[c] > bestDensity) {
+                best = c;
+                bestDensity = density[c];
+            }
+        }
+        blockBest[block] = best;
+        dirty[block] = false;
+    }
+
+    /**
+     * Scores the unknown cells by the placements of the ships afloat that go
+     * through the pending hits
+     *
+     * @return the best cell, or -1 if no placement goes through the hits
+     */
+    private int target() {
+        int touchedCount = 0;
+        for (int h = 0; h < hitCount; h++) {
+            int hit = hits[h];
+            for (int k = 0; k < kinds.length; k++) {
+                int weight = remaining[k];
+                if (weight == 0)
+                    continue;
+                ShipPlacements table = tables[k];
+                boolean[] ok = valid[k];
+                for (int i = table.getCoverCount(hit) - 1; i >= 0; i--) {
+                    int p = table.getCoveringPlacement(hit, i);
+                    if (!ok[p])
+                        continue;
+                    for (int j = 0; j < table.getSize(); j++) {
+                        int c = table.getFootprintCell(p, j);
+                        if (state[c] == UNKNOWN) {
+                            if (score[c] == 0)
+                                touched[touchedCount++] = c;
+                            score[c] += weight;
+                        }
+                    }
+                }
+            }
+        }
+
+        int best = -1;
+        int bestScore = 0;
+        for (int i = 0; i < touchedCount; i++) {
+            int c = touched[i];
+            if (score[c] > bestScore || (score[c] == bestScore && c < best)) {
+                best = c;
+                bestScore = score[c];
+            }
+            score[c] = 0;
+        }
+        return best;
+    }
+}
@@ -0,0 +1,32 @@
+/**
+ *
+ */
+package iscteiul.ista.battleship;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Places fleets uniformly at random with a {@link FleetGenerator}, kept from
+ * one fleet to the next while the board and the ships stay the same
+ */
+public class RandomFleetPlacer implements IFleetPlacer {
+    private FleetGenerator generator;
+    private BoardSpec spec;
+    private ShipKind[] kinds;
+
+    @Override
+    public String getName() {
+        return "aleatoria";
+    }
+
+    @Override
+    public IFleet place(BoardSpec spec, ShipKind[] kinds, SplittableRandom random) {
+        if (!spec.equals(this.spec) || !Arrays.equals(kinds, this.kinds)) {
+            generator = new FleetGenerator(spec, kinds);
+            this.spec = spec;
+            this.kinds = kinds.clone();
+        }
+        return generator.generate(random);
+    }
+}
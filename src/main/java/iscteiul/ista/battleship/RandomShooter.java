@@ -0,0 +1,53 @@
+/**
+ *
+ */
+package iscteiul.ista.battleship;
+
+import java.util.SplittableRandom;
+
+/**
+ * Fires at the cells of the board in a random order, never twice at the same
+ * cell. It keeps a permutation of all cells, so it is meant for boards that
+ * are stored densely.
+ */
+public class RandomShooter implements IShooter {
+    private int[] cells;
+    private int next;
+    private SplittableRandom random;
+
+    @Override
+    public String getName() {
+        return "aleatorio";
+    }
+
+    @Override
+    public void newGame(BoardSpec spec, ShipKind[] fleet, SplittableRandom random) {
+        if (cells == null || cells.length != spec.getCells()) {
+            cells = new int[spec.getCells()];
+            for (int i = 0; i < cells.length; i++)
+                cells[i] = i;
+        }
+        next = 0;
+        this.random = random;
+    }
+
+    /**
+     * One step of a Fisher-Yates shuffle: any permutation left over from the
+     * previous game is as good a starting point as the identity
+     */
+    @Override
+    public int nextShot() {
+        if (next == cells.length)
+            next = 0;
+        int j = next + random.nextInt(cells.length - next);
+        int cell = cells[j];
+        cells[j] = cells[next];
+        cells[next++] = cell;
+        return cell;
+    }
+
+    @Override
+    public void shotFired(int row, int column, ShotResult result, IShip sunk) {
+        // shots are chosen blindly
+    }
+}
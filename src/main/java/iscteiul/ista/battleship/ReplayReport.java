@@ -0,0 +1,150 @@
+/**
+ *
+ */
+package iscteiul.ista.battleship;
+
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * The outcome of replaying archived games (see {@link ReplayVerifier}): how
+ * many games, shots and bytes were checked, how fast, and where the engine
+ * no longer agrees with the archive. Only the first
+ * {@value ReplayVerifier#MAX_DIVERGENCES} divergences are kept, those of the
+ * replayed games in archive order followed by damaged archives, but all are
+ * counted.
+ */
+public class ReplayReport {
+    private final long games;
+    private final long shots;
+    private final long bytes;
+    private final long divergenceCount;
+    private final List<Divergence> divergences;
+    private final long elapsedNanos;
+
+    ReplayReport(long games, long shots, long bytes, long divergenceCount, List<Divergence> divergences,
+                 long elapsedNanos) {
+        this.games = games;
+        this.shots = shots;
+        this.bytes = bytes;
+        this.divergenceCount = divergenceCount;
+        this.divergences = List.copyOf(divergences);
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public long getGames() {
+        return games;
+    }
+
+    public long getShots() {
+        return shots;
+    }
+
+    /**
+     * @return the size of the archives read
+     */
+    public long getBytes() {
+        return bytes;
+    }
+
+    /**
+     * @return the number of divergences found, kept or not
+     */
+    public long getDivergenceCount() {
+        return divergenceCount;
+    }
+
+    /**
+     * @return the first divergences found
+     */
+    public List<Divergence> getDivergences() {
+        return divergences;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    public double getShotsPerSecond() {
+        return elapsedNanos == 0 ? 0 : shots * 1e9 / elapsedNanos;
+    }
+
+    public double getMegabytesPerSecond() {
+        return elapsedNanos == 0 ? 0 : bytes * 1e9 / (1 << 20) / elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder(String.format(
+                "jogos=%d tiros=%d %.0f tiros/s %.1f MB/s | divergencias=%d", games, shots, getShotsPerSecond(),
+                getMegabytesPerSecond(), divergenceCount));
+        for (Divergence divergence : divergences)
+            text.append(System.lineSeparator()).append(divergence);
+        return text.toString();
+    }
+
+    /**
+     * Where and how a replayed game departed from its record
+     */
+    public static class Divergence {
+        private final Path archive;
+        private final long game;
+        private final long shot;
+        private final ShotResult recorded;
+        private final ShotResult replayed;
+        private final String message;
+
+        Divergence(Path archive, long game, long shot, ShotResult recorded, ShotResult replayed, String message) {
+            this.archive = archive;
+            this.game = game;
+            this.shot = shot;
+            this.recorded = recorded;
+            this.replayed = replayed;
+            this.message = message;
+        }
+
+        public Path getArchive() {
+            return archive;
+        }
+
+        /**
+         * @return the index of the game in its archive, the first being 0
+         */
+        public long getGame() {
+            return game;
+        }
+
+        /**
+         * @return the index of the shot in its game, the first being 0, or -1
+         *         if the game diverged before its first shot
+         */
+        public long getShot() {
+            return shot;
+        }
+
+        /**
+         * @return the outcome in the archive, or null if the divergence is not
+         *         about the outcome of a shot
+         */
+        public ShotResult getRecorded() {
+            return recorded;
+        }
+
+        /**
+         * @return the outcome given by the engine, or null if the divergence
+         *         is not about the outcome of a shot
+         */
+        public ShotResult getReplayed() {
+            return replayed;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s jogo %d tiro %d: %s", archive.getFileName(), game, shot, message);
+        }
+    }
+}
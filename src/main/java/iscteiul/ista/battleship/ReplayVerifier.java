@@ -0,0 +1,385 @@
+/**
+ *
+ */
+package iscteiul.ista.battleship;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Replays archived games, journals written by a {@link JournalWriter},
+ * through Fleet and Game, and checks that every shot still has the outcome
+ * it was recorded with and that the counts of the game (hits, invalid and
+ * repeated shots, sunk and remaining ships) agree with the record at its
+ * end. The first shot of a game that diverges is reported with its index,
+ * and the rest of that game is skipped.
+ * <p>
+ * Archives are mapped to memory and decoded in place. A first pass reads
+ * each archive once, through windows of at most {@value #WINDOW} bytes so
+ * that archives of any size can be mapped, and cuts it into segments of whole
+ * games; the segments are then mapped again and replayed in parallel with a
+ * ForkJoinPool, each worker on its own segment, and their results merged in
+ * archive order.
+ */
+public class ReplayVerifier {
+    static final int MAX_DIVERGENCES = 1000;
+    static final int WINDOW = 1 << 30;
+    private static final long MAX_SEGMENT = 1L << 28;
+    private static final long MIN_SEGMENT = 1L << 16;
+
+    private final int parallelism;
+    private final int window;
+    private final long segmentBytes;
+
+    /**
+     * @param parallelism the number of worker threads
+     * @throws IllegalArgumentException if parallelism is not positive
+     */
+    public ReplayVerifier(int parallelism) throws IllegalArgumentException {
+        this(parallelism, WINDOW, 0);
+    }
+
+    /**
+     * @param window       the largest part of an archive mapped at once by
+     *                     the first pass
+     * @param segmentBytes the size of the segments replayed by a worker, or 0
+     *                     to choose it from the size of the archives
+     */
+    ReplayVerifier(int parallelism, int window, long segmentBytes) throws IllegalArgumentException {
+        if (parallelism <= 0)
+            throw new IllegalArgumentException("ERROR! invalid parallelism " + parallelism);
+        assert window >= 256 && segmentBytes >= 0;
+
+        this.parallelism = parallelism;
+        this.window = window;
+        this.segmentBytes = segmentBytes;
+    }
+
+    /**
+     * @param archives the journal files to check
+     * @return what was checked and where the engine diverged
+     * @throws IOException if an archive cannot be read
+     */
+    public ReplayReport verify(List<Path> archives) throws IOException {
+        long start = System.nanoTime();
+        long bytes = 0;
+        for (Path archive : archives)
+            try (FileChannel channel = FileChannel.open(archive, StandardOpenOption.READ)) {
+                bytes += channel.size();
+            }
+        long target = segmentBytes > 0 ? segmentBytes
+                : Math.max(MIN_SEGMENT, Math.min(MAX_SEGMENT, bytes / (4L * parallelism) + 1));
+
+        List<Segment> segments = new ArrayList<>();
+        Tally damage = new Tally();
+        for (Path archive : archives)
+            index(archive, target, segments, damage);
+
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            Tally tally = pool.invoke(new Replay(segments, 0, segments.size()));
+            tally.merge(damage);
+            return new ReplayReport(tally.games, tally.shots, bytes, tally.divergenceCount, tally.divergences,
+                    System.nanoTime() - start);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Part of an archive holding whole games
+     */
+    private static final class Segment {
+        private final Path archive;
+        private final long offset;
+        private final int length;
+        private final long firstGame;
+
+        Segment(Path archive, long offset, long length, long firstGame) {
+            assert length <= Integer.MAX_VALUE;
+
+            this.archive = archive;
+            this.offset = offset;
+            this.length = (int) length;
+            this.firstGame = firstGame;
+        }
+    }
+
+    /**
+     * Reads an archive once to cut it in segments of about target bytes that
+     * start at a game. Windows are mapped one after the other, each read to
+     * its end. A record cut by the end of the window is read again from the
+     * next one, which starts at that record if it is a game, or else at the
+     * last game seen, so that every shot is read after its game. A game too
+     * large to fit a window, or a record the reader rejects, ends the
+     * archive.
+     */
+    private void index(Path archive, long target, List<Segment> segments, Tally damage) throws IOException {
+        try (FileChannel channel = FileChannel.open(archive, StandardOpenOption.READ)) {
+            long size = channel.size();
+            try {
+                new JournalReader(channel.map(FileChannel.MapMode.READ_ONLY, 0,
+                        Math.min(size, JournalWriter.MAGIC.length)));
+            } catch (IllegalStateException e) {
+                damage.diverge(new ReplayReport.Divergence(archive, 0, -1, null, null, "nao e um diario"));
+                return;
+            }
+
+            long base = JournalWriter.MAGIC.length;
+            long segmentStart = base;
+            long segmentGame = 0;
+            long games = 0;
+            long gameStart = base;
+            while (base < size) {
+                int length = (int) Math.min(size - base, window);
+                boolean last = base + length == size;
+                ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, base, length);
+                JournalReader reader = new JournalReader(buffer, 0, length);
+                int recordStart;
+                boolean failed = false;
+                boolean orphan = false;
+                while (true) {
+                    recordStart = reader.getPosition();
+                    JournalReader.Record record;
+                    try {
+                        record = reader.next();
+                    } catch (IllegalStateException e) {
+                        failed = true;
+                        break;
+                    }
+                    if (record == null)
+                        break;
+                    long offset = base + recordStart;
+                    if (record == JournalReader.Record.GAME) {
+                        if (offset - segmentStart >= target) {
+                            segments.add(new Segment(archive, segmentStart, offset - segmentStart, segmentGame));
+                            segmentStart = offset;
+                            segmentGame = games;
+                        }
+                        gameStart = offset;
+                        games++;
+                    } else if (games == 0) {
+                        orphan = true;
+                        break;
+                    }
+                }
+                if (last && !failed && !orphan)
+                    break;
+
+                boolean newGame = recordStart < length
+                        && (buffer.get(recordStart) & ((1 << JournalWriter.TYPE_BITS) - 1)) == JournalWriter.GAME;
+                long next = newGame ? base + recordStart : gameStart;
+                boolean cut = !last && !orphan && (!failed || reader.isCut());
+                if (cut && next > base) {
+                    // the game of the record is read again from the next window
+                    if (!newGame)
+                        games--;
+                    base = next;
+                    continue;
+                }
+                String reason = cut ? "jogo maior do que a janela de leitura"
+                        : "diario danificado depois do byte " + (newGame ? base + recordStart : gameStart);
+                damage.diverge(new ReplayReport.Divergence(archive, newGame ? games : Math.max(0, games - 1), -1,
+                        null, null, reason));
+                size = newGame ? base + recordStart : gameStart;
+                break;
+            }
+            if (size > segmentStart)
+                segments.add(new Segment(archive, segmentStart, size - segmentStart, segmentGame));
+        }
+    }
+
+    /**
+     * What a range of segments showed, merged in archive order
+     */
+    private static final class Tally {
+        private long games;
+        private long shots;
+        private long divergenceCount;
+        private final List<ReplayReport.Divergence> divergences = new ArrayList<>();
+
+        void diverge(ReplayReport.Divergence divergence) {
+            divergenceCount++;
+            if (divergences.size() < MAX_DIVERGENCES)
+                divergences.add(divergence);
+        }
+
+        void merge(Tally other) {
+            games += other.games;
+            shots += other.shots;
+            divergenceCount += other.divergenceCount;
+            for (ReplayReport.Divergence divergence : other.divergences)
+                if (divergences.size() < MAX_DIVERGENCES)
+                    divergences.add(divergence);
+        }
+    }
+
+    /**
+     * A range of segments, split in halves until a single segment is left
+     */
+    private class Replay extends RecursiveTask<Tally> {
+        private final List<Segment> segments;
+        private final int from;
+        private final int to;
+
+        Replay(List<Segment> segments, int from, int to) {
+            this.segments = segments;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Tally compute() {
+            if (to - from > 1) {
+                int middle = (from + to) >>> 1;
+                Replay left = new Replay(segments, from, middle);
+                left.fork();
+                Tally right = new Replay(segments, middle, to).compute();
+                Tally tally = left.join();
+                tally.merge(right);
+                return tally;
+            }
+
+            Tally tally = new Tally();
+            if (from < to) {
+                try {
+                    replay(segments.get(from), tally);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+            return tally;
+        }
+    }
+
+    private static void replay(Segment segment, Tally tally) throws IOException {
+        ByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(segment.archive, StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, segment.offset, segment.length);
+        }
+        new GameReplay(segment, tally).run(new JournalReader(buffer, 0, segment.length));
+    }
+
+    /**
+     * Replays the games of a segment one after the other
+     */
+    private static final class GameReplay {
+        private final Segment segment;
+        private final Tally tally;
+
+        private long gameIndex;
+        private Game game;
+        private int ships;
+        private boolean diverged;
+        private int hits;
+        private int invalid;
+        private int repeated;
+        private int sunk;
+        private long lastShot;
+
+        GameReplay(Segment segment, Tally tally) {
+            this.segment = segment;
+            this.tally = tally;
+            this.gameIndex = segment.firstGame - 1;
+        }
+
+        void run(JournalReader reader) {
+            for (JournalReader.Record record = reader.next(); record != null; record = reader.next()) {
+                if (record == JournalReader.Record.GAME) {
+                    finish();
+                    start(reader);
+                } else {
+                    shot(reader);
+                }
+            }
+            finish();
+        }
+
+        private void start(JournalReader reader) {
+            gameIndex++;
+            tally.games++;
+            Fleet fleet = reader.buildFleet();
+            game = new Game(fleet);
+            ships = reader.getShipCount();
+            hits = invalid = repeated = sunk = 0;
+            lastShot = -1;
+            diverged = fleet.getShips().size() != ships;
+            if (diverged)
+                diverge(-1, null, null, "a frota ja nao e valida: " + fleet.getShips().size() + " de " + ships
+                        + " navios");
+        }
+
+        private void shot(JournalReader reader) {
+            tally.shots++;
+            if (diverged)
+                return;
+            ShotResult recorded = reader.getResult();
+            ShotResult replayed = game.fire(reader.getRow(), reader.getColumn());
+            lastShot = reader.getShotIndex();
+            if (replayed != recorded) {
+                diverged = true;
+                diverge(lastShot, recorded, replayed, String.format("(%d, %d) foi %s e agora e %s",
+                        reader.getRow(), reader.getColumn(), recorded, replayed));
+                return;
+            }
+            switch (recorded) {
+                case INVALID:
+                    invalid++;
+                    break;
+                case REPEAT:
+                    repeated++;
+                    break;
+                case SUNK:
+                    sunk++;
+                    hits++;
+                    break;
+                case HIT:
+                    hits++;
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        private void finish() {
+            if (game == null || diverged)
+                return;
+            if (game.getHits() != hits || game.getInvalidShots() != invalid || game.getRepeatedShots() != repeated
+                    || game.getSunkShips() != sunk || game.getRemainingShips() != ships - sunk)
+                diverge(lastShot, null, null, String.format(
+                        "contagens: hits %d/%d inv %d/%d rep %d/%d afundados %d/%d restam %d/%d", game.getHits(),
+                        hits, game.getInvalidShots(), invalid, game.getRepeatedShots(), repeated,
+                        game.getSunkShips(), sunk, game.getRemainingShips(), ships - sunk));
+        }
+
+        private void diverge(long shot, ShotResult recorded, ShotResult replayed, String message) {
+            tally.diverge(new ReplayReport.Divergence(segment.archive, gameIndex, shot, recorded, replayed,
+                    message));
+        }
+    }
+
+    /**
+     * Replays the games of journal files and prints the totals and the
+     * divergences found
+     *
+     * @param args the number of threads, then the journal files
+     */
+    public static void main(String[] args) throws IOException {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : Runtime.getRuntime().availableProcessors();
+        List<Path> archives = new ArrayList<>();
+        for (int i = 1; i < args.length; i++)
+            archives.add(Path.of(args[i]));
+
+        System.out.println(new ReplayVerifier(threads).verify(archives));
+    }
+}
@@ -0,0 +1,35 @@
+/**
+ *
+ */
+package iscteiul.ista.battleship;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * The commands a player types during a game, as read by a
+ * {@link ScriptParser}
+ */
+public enum ScriptCommand {
+    NOVA("nova"), RAJADA("rajada"), VER("ver"), ESTADO("estado"), MAPA("mapa"), DESISTO("desisto"),
+    UNKNOWN(null);
+
+    private final String word;
+    private final byte[] bytes;
+
+    ScriptCommand(String word) {
+        this.word = word;
+        this.bytes = word == null ? new byte[0] : word.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * @return the word of the command as typed by the player, e.g. "rajada",
+     *         or null for UNKNOWN
+     */
+    public String getWord() {
+        return word;
+    }
+
+    byte[] bytes() {
+        return bytes;
+    }
+}
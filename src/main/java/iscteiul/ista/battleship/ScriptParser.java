@@ -0,0 +1,203 @@
+/**
+ *
+ */
+package iscteiul.ista.battleship;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.InputMismatchException;
+import java.util.NoSuchElementException;
+
+/**
+ * Reads game scripts, the commands a player would type (see
+ * {@link ScriptCommand}) with their ships, positions and bearings, straight
+ * from the bytes of a buffer. Tokens are runs of bytes between whitespace, as
+ * with a Scanner, but they are compared and decoded in place: no token is
+ * copied into a String and nothing is allocated per token, which makes
+ * scripts of hundreds of megabytes cheap to read, above all when the buffer
+ * maps the file (see {@link #open(Path)}).
+ * <p>
+ * The vocabulary is ASCII; any other byte is part of a token and only ever
+ * makes a word unknown. Like a Scanner, the parser throws
+ * NoSuchElementException when the script ends too soon and
+ * InputMismatchException, leaving the token unread, when a number is
+ * expected and not found.
+ */
+public final class ScriptParser {
+    private static final ScriptCommand[] COMMANDS = ScriptCommand.values();
+    private static final ShipKind[] KINDS = ShipKind.values();
+    private static final byte[][] KIND_NAMES = new byte[KINDS.length][];
+
+    static {
+        for (ShipKind kind : KINDS)
+            KIND_NAMES[kind.ordinal()] = kind.getName().getBytes(StandardCharsets.US_ASCII);
+    }
+
+    private final ByteBuffer buffer;
+    private final int limit;
+    private int position;
+
+    /**
+     * @param buffer the script, from its position to its limit; the buffer is
+     *               read in place and its position is left unchanged
+     */
+    public ScriptParser(ByteBuffer buffer) {
+        this.buffer = buffer;
+        this.position = buffer.position();
+        this.limit = buffer.limit();
+    }
+
+    /**
+     * @param file a script file
+     * @return a parser over the file mapped to memory
+     * @throws IOException              if the file cannot be read
+     * @throws IllegalArgumentException if the file is 2 GB or larger
+     */
+    public static ScriptParser open(Path file) throws IOException, IllegalArgumentException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE)
+                throw new IllegalArgumentException("ERROR! script too large " + file);
+            return new ScriptParser(channel.map(FileChannel.MapMode.READ_ONLY, 0, size));
+        }
+    }
+
+    /**
+     * @return the offset in the buffer of the next byte to read
+     */
+    public int getPosition() {
+        return position;
+    }
+
+    /**
+     * @return true if there is another token
+     */
+    public boolean hasNext() {
+        skipWhitespace();
+        return position < limit;
+    }
+
+    /**
+     * @return the command of the next token, UNKNOWN if it is no command
+     * @throws NoSuchElementException if there is no token left
+     */
+    public ScriptCommand nextCommand() throws NoSuchElementException {
+        int start = tokenStart();
+        int end = tokenEnd(start);
+        position = end;
+        for (ScriptCommand command : COMMANDS)
+            if (matches(start, end, command.bytes()))
+                return command;
+        return ScriptCommand.UNKNOWN;
+    }
+
+    /**
+     * @return the ship kind named by the next token, such as "nau", or null if
+     *         it names no kind
+     * @throws NoSuchElementException if there is no token left
+     */
+    public ShipKind nextKind() throws NoSuchElementException {
+        int start = tokenStart();
+        int end = tokenEnd(start);
+        position = end;
+        for (ShipKind kind : KINDS)
+            if (matches(start, end, KIND_NAMES[kind.ordinal()]))
+                return kind;
+        return null;
+    }
+
+    /**
+     * @return the bearing given by the first character of the next token, as
+     *         Compass.charToCompass reads it
+     * @throws NoSuchElementException if there is no token left
+     */
+    public Compass nextBearing() throws NoSuchElementException {
+        int start = tokenStart();
+        position = tokenEnd(start);
+        return Compass.charToCompass((char) (buffer.get(start) & 0xFF));
+    }
+
+    /**
+     * @return the decimal integer of the next token, with an optional sign
+     * @throws NoSuchElementException if there is no token left
+     * @throws InputMismatchException if the token is not an int; it is then
+     *                                left unread
+     */
+    public int nextInt() throws NoSuchElementException, InputMismatchException {
+        int start = tokenStart();
+        int end = tokenEnd(start);
+        int i = start;
+        boolean negative = false;
+        byte first = buffer.get(i);
+        if (first == '-' || first == '+') {
+            negative = first == '-';
+            i++;
+        }
+        if (i == end)
+            throw mismatch(start, end);
+
+        // accumulated as a negative number, whose range includes Integer.MIN_VALUE
+        int value = 0;
+        for (; i < end; i++) {
+            int digit = buffer.get(i) - '0';
+            if (digit < 0 || digit > 9 || value < (Integer.MIN_VALUE + digit) / 10)
+                throw mismatch(start, end);
+            value = value * 10 - digit;
+        }
+        if (!negative && value == Integer.MIN_VALUE)
+            throw mismatch(start, end);
+        position = end;
+        return negative ? value : -value;
+    }
+
+    /**
+     * Reads past the next token, whatever it is
+     *
+     * @throws NoSuchElementException if there is no token left
+     */
+    public void skipToken() throws NoSuchElementException {
+        position = tokenEnd(tokenStart());
+    }
+
+    private InputMismatchException mismatch(int start, int end) {
+        byte[] token = new byte[end - start];
+        buffer.get(start, token);
+        return new InputMismatchException("ERROR! not an int: " + new String(token, StandardCharsets.UTF_8));
+    }
+
+    private boolean matches(int start, int end, byte[] word) {
+        if (end - start != word.length || word.length == 0)
+            return false;
+        for (int i = 0; i < word.length; i++)
+            if (buffer.get(start + i) != word[i])
+                return false;
+        return true;
+    }
+
+    private int tokenStart() throws NoSuchElementException {
+        skipWhitespace();
+        if (position == limit)
+            throw new NoSuchElementException("ERROR! script ended too soon");
+        return position;
+    }
+
+    private int tokenEnd(int start) {
+        int end = start;
+        while (end < limit && !isWhitespace(buffer.get(end)))
+            end++;
+        return end;
+    }
+
+    private void skipWhitespace() {
+        while (position < limit && isWhitespace(buffer.get(position)))
+            position++;
+    }
+
+    private static boolean isWhitespace(byte b) {
+        return b == ' ' || (b >= '\t' && b <= '\r') || (b >= 0x1C && b <= 0x1F);
+    }
+}
@@ -0,0 +1,168 @@
+/**
+ *
+ */
+package iscteiul.ista.battleship;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.InputMismatchException;
+import java.util.NoSuchElementException;
+
+/**
+ * Plays a game script read by a {@link ScriptParser}, the way the interactive
+ * game does: "nova" is followed by the ships of a fleet, each as a kind, a
+ * row, a column and a bearing, until Fleet.FLEET_SIZE + 1 of them have been
+ * added; "rajada" by the {@value #NUMBER_SHOTS} positions of a round of shots;
+ * "estado", "mapa" and "ver" show the fleet, the map and the shots; and
+ * "desisto" ends the script. Ships that cannot be built or added are counted
+ * and skipped, as are unknown commands.
+ * <p>
+ * Unless verbose, the player only keeps count and shows nothing, so scripts
+ * can be run in bulk.
+ */
+public class ScriptPlayer {
+    private static final Logger LOGGER = LogManager.getLogger(ScriptPlayer.class);
+
+    static final int NUMBER_SHOTS = 3;
+
+    private final ScriptParser parser;
+    private final boolean verbose;
+
+    private IFleet fleet;
+    private IGame game;
+    private int rejectedShips;
+    private int unknownCommands;
+    private boolean gaveUp;
+
+    /**
+     * @param parser  the script
+     * @param verbose true to log what happens and show the boards asked for
+     */
+    public ScriptPlayer(ScriptParser parser, boolean verbose) {
+        assert parser != null;
+
+        this.parser = parser;
+        this.verbose = verbose;
+    }
+
+    /**
+     * Plays the script until "desisto" or its end
+     *
+     * @throws NoSuchElementException if the script ends inside a command
+     * @throws InputMismatchException if a position is not a pair of numbers
+     */
+    public void play() throws NoSuchElementException, InputMismatchException {
+        while (!gaveUp && parser.hasNext()) {
+            ScriptCommand command = parser.nextCommand();
+            switch (command) {
+                case NOVA:
+                    fleet = buildFleet();
+                    game = new Game(fleet);
+                    break;
+                case ESTADO:
+                    if (verbose && fleet != null)
+                        fleet.printStatus();
+                    break;
+                case MAPA:
+                    if (verbose && game != null)
+                        game.printFleet();
+                    break;
+                case RAJADA:
+                    if (game != null)
+                        firingRound();
+                    break;
+                case VER:
+                    if (verbose && game != null)
+                        game.printValidShots();
+                    break;
+                case DESISTO:
+                    gaveUp = true;
+                    if (verbose)
+                        LOGGER.info("Bons ventos!");
+                    break;
+                default:
+                    unknownCommands++;
+                    if (verbose)
+                        LOGGER.info("Que comando é esse??? Repete ...");
+            }
+        }
+    }
+
+    private IFleet buildFleet() {
+        Fleet built = new Fleet();
+        int added = 0;
+        while (added <= Fleet.FLEET_SIZE) {
+            ShipKind kind = parser.nextKind();
+            int row = parser.nextInt();
+            int column = parser.nextInt();
+            Compass bearing = parser.nextBearing();
+
+            IShip ship = null;
+            if (kind != null) {
+                try {
+                    ship = kind.build(bearing, row, column);
+                } catch (IllegalArgumentException | NullPointerException e) {
+                    ship = null;
+                }
+            }
+            if (ship != null && built.addShip(ship)) {
+                added++;
+            } else {
+                rejectedShips++;
+                if (verbose)
+                    LOGGER.info("Falha na criacao de {} {} {} {}", kind, row, column, bearing);
+            }
+        }
+        if (verbose)
+            LOGGER.info("{} navios adicionados com sucesso!", added);
+        return built;
+    }
+
+    private void firingRound() {
+        for (int i = 0; i < NUMBER_SHOTS; i++) {
+            int row = parser.nextInt();
+            int column = parser.nextInt();
+            if (game.fire(row, column) == ShotResult.SUNK && verbose)
+                LOGGER.info("Mas... mas... {}s nao sao a prova de bala? :-(", game.getLastSunkShip().getCategory());
+        }
+        if (verbose) {
+            LOGGER.info("Hits: {} Inv: {} Rep: {} Restam {} navios.", game.getHits(), game.getInvalidShots(),
+                    game.getRepeatedShots(), game.getRemainingShips());
+            if (game.getRemainingShips() == 0)
+                LOGGER.info("Maldito sejas, Java Sparrow, eu voltarei, glub glub glub...");
+        }
+    }
+
+    /**
+     * @return the game of the last "nova", or null if there was none
+     */
+    public IGame getGame() {
+        return game;
+    }
+
+    /**
+     * @return the fleet of the last "nova", or null if there was none
+     */
+    public IFleet getFleet() {
+        return fleet;
+    }
+
+    /**
+     * @return the number of ships that could not be built or added
+     */
+    public int getRejectedShips() {
+        return rejectedShips;
+    }
+
+    public int getUnknownCommands() {
+        return unknownCommands;
+    }
+
+    /**
+     * @return true if the script ended with "desisto"
+     */
+    public boolean hasGivenUp() {
+        return gaveUp;
+    }
+}
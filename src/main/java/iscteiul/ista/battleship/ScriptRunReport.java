@@ -0,0 +1,160 @@
+/**
+ *
+ */
+package iscteiul.ista.battleship;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * What a batch of game scripts did (see {@link ScriptRunner}): one outcome
+ * per script, in the order the scripts were given, with the totals over all
+ * of them and how fast they were played.
+ */
+public class ScriptRunReport {
+    private final List<Outcome> outcomes;
+    private final long elapsedNanos;
+
+    ScriptRunReport(List<Outcome> outcomes, long elapsedNanos) {
+        this.outcomes = List.copyOf(outcomes);
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public List<Outcome> getOutcomes() {
+        return outcomes;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    public double getScriptsPerSecond() {
+        return elapsedNanos == 0 ? 0 : outcomes.size() * 1e9 / elapsedNanos;
+    }
+
+    /**
+     * @return the number of scripts that could not be played to their end
+     */
+    public long getFailedScripts() {
+        return outcomes.stream().filter(o -> o.getError() != null).count();
+    }
+
+    /**
+     * @return the number of scripts whose fleet was sunk
+     */
+    public long getWonScripts() {
+        return outcomes.stream().filter(o -> o.getRemainingShips() == 0).count();
+    }
+
+    /**
+     * Writes a line per script
+     *
+     * @param out where to write the table
+     * @throws UncheckedIOException if out fails
+     */
+    public void writeTable(Appendable out) throws UncheckedIOException {
+        try {
+            out.append(String.format("%-30s %6s %6s %6s %6s %7s %s%n", "guiao", "hits", "inv", "rep", "afund",
+                    "restam", "erro"));
+            for (Outcome outcome : outcomes)
+                out.append(outcome.toString()).append(System.lineSeparator());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        long hits = 0;
+        long invalid = 0;
+        long repeated = 0;
+        for (Outcome outcome : outcomes) {
+            hits += outcome.getHits();
+            invalid += outcome.getInvalidShots();
+            repeated += outcome.getRepeatedShots();
+        }
+        return String.format("guioes=%d (%d afundaram a frota, %d com erro) %.0f guioes/s | hits=%d inv=%d rep=%d",
+                outcomes.size(), getWonScripts(), getFailedScripts(), getScriptsPerSecond(), hits, invalid,
+                repeated);
+    }
+
+    /**
+     * What one script did. A script stopped by an error keeps the counts it
+     * had reached.
+     */
+    public static class Outcome {
+        private final Path script;
+        private final int hits;
+        private final int invalidShots;
+        private final int repeatedShots;
+        private final int sunkShips;
+        private final int remainingShips;
+        private final int rejectedShips;
+        private final int unknownCommands;
+        private final String error;
+
+        Outcome(Path script, ScriptPlayer player, String error) {
+            IGame game = player == null ? null : player.getGame();
+            this.script = script;
+            this.hits = game == null ? 0 : game.getHits();
+            this.invalidShots = game == null ? 0 : game.getInvalidShots();
+            this.repeatedShots = game == null ? 0 : game.getRepeatedShots();
+            this.sunkShips = game == null ? 0 : game.getSunkShips();
+            this.remainingShips = game == null ? -1 : game.getRemainingShips();
+            this.rejectedShips = player == null ? 0 : player.getRejectedShips();
+            this.unknownCommands = player == null ? 0 : player.getUnknownCommands();
+            this.error = error;
+        }
+
+        public Path getScript() {
+            return script;
+        }
+
+        public int getHits() {
+            return hits;
+        }
+
+        public int getInvalidShots() {
+            return invalidShots;
+        }
+
+        public int getRepeatedShots() {
+            return repeatedShots;
+        }
+
+        public int getSunkShips() {
+            return sunkShips;
+        }
+
+        /**
+         * @return the ships still afloat at the end, or -1 if the script built
+         *         no fleet
+         */
+        public int getRemainingShips() {
+            return remainingShips;
+        }
+
+        public int getRejectedShips() {
+            return rejectedShips;
+        }
+
+        public int getUnknownCommands() {
+            return unknownCommands;
+        }
+
+        /**
+         * @return why the script could not be played to its end, or null
+         */
+        public String getError() {
+            return error;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%-30s %6d %6d %6d %6d %7d %s", script.getFileName(), hits, invalidShots,
+                    repeatedShots, sunkShips, remainingShips, error == null ? "" : error);
+        }
+    }
+}
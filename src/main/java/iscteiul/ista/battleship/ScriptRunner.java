@@ -0,0 +1,172 @@
+/**
+ *
+ */
+package iscteiul.ista.battleship;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.InputMismatchException;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.stream.Stream;
+
+/**
+ * Plays many game scripts without a human, one game per file, and gathers
+ * what each one did in a {@link ScriptRunReport}. Scripts are spread over the
+ * cores with a ForkJoinPool. Each leaf task reads its small scripts into one
+ * buffer of its own, reused from file to file, and maps the large ones to
+ * memory, so a run over tens of thousands of files allocates little besides
+ * the games themselves.
+ * <p>
+ * A script that cannot be read or ends inside a command does not stop the
+ * run: its outcome records the error.
+ */
+public class ScriptRunner {
+    private static final int BATCH = 64;
+    private static final int MAPPED_SIZE = 1 << 20;
+
+    private final int parallelism;
+    private final boolean verbose;
+
+    /**
+     * @param parallelism the number of worker threads
+     * @param verbose     true to let the scripts log and show boards, which
+     *                    interleave when several threads run
+     * @throws IllegalArgumentException if parallelism is not positive
+     */
+    public ScriptRunner(int parallelism, boolean verbose) throws IllegalArgumentException {
+        if (parallelism <= 0)
+            throw new IllegalArgumentException("ERROR! invalid parallelism " + parallelism);
+
+        this.parallelism = parallelism;
+        this.verbose = verbose;
+    }
+
+    /**
+     * @param directory a directory of scripts
+     * @return the regular files of the directory, sorted by name
+     * @throws IOException if the directory cannot be listed
+     */
+    public static List<Path> scriptsIn(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(Files::isRegularFile).sorted().toList();
+        }
+    }
+
+    /**
+     * @param scripts the script files, one game each
+     * @return the outcomes of the scripts, in the same order
+     */
+    public ScriptRunReport run(List<Path> scripts) {
+        Path[] files = scripts.toArray(new Path[0]);
+        ScriptRunReport.Outcome[] outcomes = new ScriptRunReport.Outcome[files.length];
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            long start = System.nanoTime();
+            pool.invoke(new Batch(files, outcomes, 0, files.length));
+            return new ScriptRunReport(List.of(outcomes), System.nanoTime() - start);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Plays one script
+     *
+     * @param file    the script
+     * @param scratch holds the buffer small scripts are read into, replaced
+     *                when too small
+     * @return the outcome of the script
+     */
+    ScriptRunReport.Outcome play(Path file, ByteBuffer[] scratch) {
+        ScriptPlayer player = null;
+        String error = null;
+        try {
+            player = new ScriptPlayer(new ScriptParser(read(file, scratch)), verbose);
+            player.play();
+        } catch (InputMismatchException e) {
+            error = "posicao invalida";
+        } catch (NoSuchElementException e) {
+            error = "guiao incompleto";
+        } catch (IOException | IllegalArgumentException e) {
+            error = "ilegivel";
+        }
+        return new ScriptRunReport.Outcome(file, player, error);
+    }
+
+    private static ByteBuffer read(Path file, ByteBuffer[] scratch) throws IOException, IllegalArgumentException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE)
+                throw new IllegalArgumentException("ERROR! script too large " + file);
+            if (size >= MAPPED_SIZE)
+                return channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+
+            ByteBuffer buffer = scratch[0];
+            if (buffer == null || buffer.capacity() < size)
+                buffer = scratch[0] = ByteBuffer.allocate(Math.max((int) size, 1 << 12));
+            buffer.clear().limit((int) size);
+            while (buffer.hasRemaining())
+                if (channel.read(buffer) < 0)
+                    break;
+            return buffer.flip();
+        }
+    }
+
+    /**
+     * A range of scripts, split in halves until it is small enough to be
+     * played by a single worker
+     */
+    private class Batch extends RecursiveAction {
+        private final Path[] files;
+        private final ScriptRunReport.Outcome[] outcomes;
+        private final int from;
+        private final int to;
+
+        Batch(Path[] files, ScriptRunReport.Outcome[] outcomes, int from, int to) {
+            this.files = files;
+            this.outcomes = outcomes;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > BATCH) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new Batch(files, outcomes, from, middle), new Batch(files, outcomes, middle, to));
+                return;
+            }
+
+            ByteBuffer[] scratch = new ByteBuffer[1];
+            for (int i = from; i < to; i++)
+                outcomes[i] = play(files[i], scratch);
+        }
+    }
+
+    /**
+     * Plays every script of a directory and prints a line per script and the
+     * totals
+     *
+     * @param args the directory, the number of threads (default: all cores)
+     *             and "ver" to show what the scripts show
+     */
+    public static void main(String[] args) throws IOException {
+        Path directory = Path.of(args.length > 0 ? args[0] : ".");
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        boolean verbose = args.length > 2 && args[2].equals("ver");
+
+        ScriptRunReport report = new ScriptRunner(threads, verbose).run(scriptsIn(directory));
+        PrintWriter out = new PrintWriter(System.out);
+        report.writeTable(out);
+        out.println(report);
+        out.flush();
+    }
+}
@@ -0,0 +1,50 @@
+/**
+ *
+ */
+package iscteiul.ista.battleship;
+
+import java.util.SplittableRandom;
+
+/**
+ * Where every random stream of a run comes from. Game i of a run with seed s
+ * gets its own {@link SplittableRandom}, seeded from (s, i) alone, so a game
+ * plays the same whichever thread plays it and whatever was played before it;
+ * anything a game needs, such as its fleet, the shooter's tie-breaks or Monte
+ * Carlo samples, is drawn or split from that stream in a fixed order. Workers
+ * never share a generator, so there is nothing to contend for.
+ * <p>
+ * This holds for strategies with no time budget. A shooter that stops
+ * sampling when its time is up, as a MonteCarloShooter with a budget does,
+ * draws as many samples as the machine allows and may play differently from
+ * run to run.
+ * <p>
+ * Seeds are well mixed (by the finalizer of SplitMix64) before they start a
+ * stream. Adding a multiple of the stream's own increment to the run seed, as
+ * a plain seed + i * gamma would, makes game i replay game 0 shifted by i
+ * values.
+ */
+public final class Seeds {
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    private Seeds() {
+    }
+
+    /**
+     * @param seed  a seed
+     * @param index the index of a child, e.g. of a game or a round
+     * @return the seed of that child, as unrelated to those of its siblings as
+     *         to the parent seed
+     */
+    public static long derive(long seed, long index) {
+        return Zobrist.mix(Zobrist.mix(seed) + (index + 1) * GOLDEN_GAMMA);
+    }
+
+    /**
+     * @param runSeed   the seed of the run
+     * @param gameIndex the index of the game in the run
+     * @return a new stream for that game, the same on every call
+     */
+    public static SplittableRandom forGame(long runSeed, long gameIndex) {
+        return new SplittableRandom(derive(runSeed, gameIndex));
+    }
+}
@@ -46,10 +46,13 @@ public abstract class Ship implements IShip {
     }
 
 
+    private static final int NOT_COUNTED = -1;
+
     private String category;
     private Compass bearing;
     private IPosition pos;
     protected List<IPosition> positions;
+    private int remaining;
 
 
     /**
@@ -65,6 +68,7 @@ public abstract class Ship implements IShip {
         this.bearing = bearing;
         this.pos = pos;
         positions = new ArrayList<>();
+        remaining = NOT_COUNTED;
     }
 
     /*
@@ -111,10 +115,25 @@ public abstract class Ship implements IShip {
      */
     @Override
     public boolean stillFloating() {
-        for (int i = 0; i < getSize(); i++)
-            if (!getPositions().get(i).isHit())
-                return true;
-        return false;
+        return remainingCells() > 0;
+    }
+
+    /**
+     * The number of cells not yet hit. Subclasses fill in the positions after
+     * this constructor runs, so the counter is set up from the positions the
+     * first time it is needed and then kept up to date by shoot
+     *
+     * @return the number of cells of the ship that have not been hit
+     */
+    int remainingCells() {
+        if (remaining == NOT_COUNTED) {
+            int count = 0;
+            for (int i = 0; i < getSize(); i++)
+                if (!getPositions().get(i).isHit())
+                    count++;
+            remaining = count;
+        }
+        return remaining;
     }
 
     /*
@@ -228,9 +247,41 @@ public abstract class Ship implements IShip {
     public void shoot(IPosition pos) {
         assert pos != null;
 
-        for (IPosition position : getPositions()) {
-            if (position.equals(pos))
+        shoot(pos.getRow(), pos.getColumn());
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see battleship.IShip#shoot(int, int)
+     */
+    @Override
+    public void shoot(int row, int column) {
+        remainingCells();
+        for (int i = 0; i < getPositions().size(); i++) {
+            IPosition position = getPositions().get(i);
+            if (position.getRow() == row && position.getColumn() == column && !position.isHit()) {
                 position.shoot();
+                remaining--;
+            }
+        }
+    }
+
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see battleship.IShip#unshoot(int, int)
+     */
+    @Override
+    public void unshoot(int row, int column) {
+        remainingCells();
+        for (int i = 0; i < getPositions().size(); i++) {
+            IPosition position = getPositions().get(i);
+            if (position.getRow() == row && position.getColumn() == column && position.isHit()) {
+                position.unshoot();
+                remaining++;
+            }
         }
     }
 
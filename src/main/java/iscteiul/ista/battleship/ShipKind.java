@@ -0,0 +1,89 @@
+/**
+ *
+ */
+package iscteiul.ista.battleship;
+
+/**
+ * The five kinds of ship, with the name used to build them through
+ * Ship.buildShip and the category reported by IShip.getCategory
+ */
+public enum ShipKind {
+    GALLEON("galeao", "Galeao", 5),
+    FRIGATE("fragata", "Fragata", 4),
+    CARRACK("nau", "Nau", 3),
+    CARAVEL("caravela", "Caravela", 2),
+    BARGE("barca", "Barca", 1);
+
+    private static final ShipKind[] STANDARD_FLEET = {GALLEON, FRIGATE, CARRACK, CARRACK, CARAVEL, CARAVEL, CARAVEL,
+            BARGE, BARGE, BARGE, BARGE};
+
+    private final String name;
+    private final String category;
+    private final int size;
+
+    ShipKind(String name, String category, int size) {
+        this.name = name;
+        this.category = category;
+        this.size = size;
+    }
+
+    /**
+     * @return the name of the kind as typed by the player, e.g. "galeao"
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return the category of the ships of this kind, e.g. "Galeao"
+     */
+    public String getCategory() {
+        return category;
+    }
+
+    /**
+     * @return the number of cells of a ship of this kind
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * @param bearing the bearing of the ship
+     * @param row     the row of the anchor position of the ship
+     * @param column  the column of the anchor position of the ship
+     * @return a new ship of this kind
+     */
+    public Ship build(Compass bearing, int row, int column) {
+        return Ship.buildShip(name, bearing, new Position(row, column));
+    }
+
+    /**
+     * @return the kinds of the standard fleet, one entry per ship, largest first
+     */
+    public static ShipKind[] standardFleet() {
+        return STANDARD_FLEET.clone();
+    }
+
+    /**
+     * @param category a category as returned by IShip.getCategory
+     * @return the kind with that category, or null if there is none
+     */
+    public static ShipKind fromCategory(String category) {
+        for (ShipKind kind : values())
+            if (kind.category.equals(category))
+                return kind;
+        return null;
+    }
+
+    /**
+     * @param name a kind name such as "nau"
+     * @return the kind with that name, or null if there is none
+     */
+    public static ShipKind fromName(String name) {
+        for (ShipKind kind : values())
+            if (kind.name.equals(name))
+                return kind;
+        return null;
+    }
+}
@@ -0,0 +1,141 @@
+/**
+ *
+ */
+package iscteiul.ista.battleship;
+
+import java.util.Arrays;
+
+/**
+ * The cells of a single ship, or of the area around it, as a small window of
+ * board words. The window starts at row {@link #getTop()} and covers two
+ * consecutive words of each row, which is enough for any ship narrower than
+ * 62 columns together with its one-cell halo. Masks are meant to be reused:
+ * {@link #reset(int, int)} empties a mask without allocating.
+ */
+class ShipMask {
+    static final int MAX_ROWS = 8;
+
+    private int top;
+    private int rows;
+    private int word;
+    private final long[] lo = new long[MAX_ROWS];
+    private final long[] hi = new long[MAX_ROWS];
+
+    /**
+     * Empties the mask and anchors its window
+     *
+     * @param top  the topmost row the mask will hold
+     * @param left the leftmost column the mask will hold; the window keeps one
+     *             spare column to its left for the halo
+     */
+    void reset(int top, int left) {
+        this.top = top;
+        this.rows = 0;
+        this.word = Math.max(0, left - 1) >>> 6;
+        Arrays.fill(lo, 0L);
+        Arrays.fill(hi, 0L);
+    }
+
+    /**
+     * @return true if a ship whose cells span the given rows and columns fits
+     *         a mask together with its one-cell halo, so that neither
+     *         {@link #set(int, int)} nor {@link #dilate(ShipMask, int)} can
+     *         fail on it
+     */
+    static boolean fits(int top, int left, int bottom, int right) {
+        int word = Math.max(0, left - 1) >>> 6;
+        return bottom - top + 3 <= MAX_ROWS && right + 1 - (word << 6) < 128;
+    }
+
+    int getTop() {
+        return top;
+    }
+
+    int getRows() {
+        return rows;
+    }
+
+    /**
+     * Adds the cell (row, column) to the mask
+     *
+     * @throws IllegalArgumentException if the cell does not fit the window
+     */
+    void set(int row, int column) {
+        int i = row - top;
+        int bit = column - (word << 6);
+        if (i < 0 || i >= MAX_ROWS || bit < 0 || bit >= 128)
+            throw new IllegalArgumentException("ERROR! cell outside ship mask: " + row + " " + column);
+
+        if (bit < 64)
+            lo[i] |= 1L << bit;
+        else
+            hi[i] |= 1L << (bit - 64);
+        rows = Math.max(rows, i + 1);
+    }
+
+    /**
+     * @return true if the mask holds the cell (row, column)
+     */
+    boolean get(int row, int column) {
+        int i = row - top;
+        int bit = column - (word << 6);
+        if (i < 0 || i >= rows || bit < 0 || bit >= 128)
+            return false;
+        return ((bit < 64 ? lo[i] >>> bit : hi[i] >>> (bit - 64)) & 1L) != 0;
+    }
+
+    /**
+     * @return true if any cell of the mask is set on the board
+     */
+    boolean intersects(IBitboard board) {
+        for (int i = 0; i < rows; i++) {
+            int row = top + i;
+            if (((board.word(row, word) & lo[i]) | (board.word(row, word + 1) & hi[i])) != 0)
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * Sets every cell of the mask on the board
+     */
+    void orInto(IBitboard board) {
+        for (int i = 0; i < rows; i++) {
+            board.orWord(top + i, word, lo[i]);
+            if (hi[i] != 0)
+                board.orWord(top + i, word + 1, hi[i]);
+        }
+    }
+
+    /**
+     * Writes into {@code halo} this mask grown by one cell in every direction,
+     * diagonals included, and clipped to the board rows
+     *
+     * @param halo      the mask to overwrite
+     * @param boardRows number of rows of the board
+     */
+    void dilate(ShipMask halo, int boardRows) {
+        assert halo != this;
+
+        halo.top = Math.max(0, top - 1);
+        halo.word = word;
+        Arrays.fill(halo.lo, 0L);
+        Arrays.fill(halo.hi, 0L);
+        int last = Math.min(boardRows - 1, top + rows);
+        halo.rows = last - halo.top + 1;
+        if (halo.rows > MAX_ROWS)
+            throw new IllegalArgumentException("ERROR! ship too tall for its halo mask");
+
+        for (int i = 0; i < rows; i++) {
+            long wideLo = lo[i] | (lo[i] << 1) | (lo[i] >>> 1) | (hi[i] << 63);
+            long wideHi = hi[i] | (hi[i] << 1) | (hi[i] >>> 1) | (lo[i] >>> 63);
+            for (int row = top + i - 1; row <= top + i + 1; row++) {
+                int j = row - halo.top;
+                if (j >= 0 && j < halo.rows) {
+                    halo.lo[j] |= wideLo;
+                    halo.hi[j] |= wideHi;
+                }
+            }
+        }
+    }
+}
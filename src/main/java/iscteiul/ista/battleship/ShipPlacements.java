@@ -0,0 +1,240 @@
+/**
+ *
+ */
+package iscteiul.ista.battleship;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Every in-bounds placement of one ship kind on a board of a given size.
+ * Placement p is described by the cells it covers (its footprint), the cells
+ * around them that no other ship may take (its halo, clipped to the board) and
+ * the bearing and origin the ship is built from. Cells are given as indexes,
+ * see {@link BoardSpec#cell(int, int)}.
+ * <p>
+ * Bearings that give the same cells (all four for a barge, north/south and
+ * east/west for straight ships) are listed once, under the first of them in
+ * NORTH, SOUTH, EAST, WEST order. Placements are numbered bearing by bearing,
+ * each in row-major order of their top left corner.
+ * <p>
+ * The table also keeps the reverse index, the placements covering each cell.
+ * Everything lives in flat int arrays, so iterating allocates nothing.
+ * Instances are immutable and can be shared between threads.
+ */
+public class ShipPlacements {
+    private static final Compass[] BEARINGS = {Compass.NORTH, Compass.SOUTH, Compass.EAST, Compass.WEST};
+    private static final int REFERENCE = 8;
+
+    private final ShipKind kind;
+    private final int columns;
+    private final int size;
+    private final int count;
+    private final byte[] bearings;
+    private final int[] origins;
+    private final int[] footprint;
+    private final int[] haloStart;
+    private final int[] halo;
+    private final int[] coverStart;
+    private final int[] cover;
+
+    /**
+     * Lists the placements of a ship kind
+     *
+     * @param kind    the kind of ship
+     * @param rows    number of rows of the board
+     * @param columns number of columns of the board
+     */
+    ShipPlacements(ShipKind kind, int rows, int columns) {
+        assert rows > 0 && columns > 0;
+
+        this.kind = kind;
+        this.columns = columns;
+        this.size = kind.getSize();
+
+        // the distinct shapes, as (row, column) offsets from the top left corner
+        List<int[]> shapes = new ArrayList<>();
+        List<Integer> shapeBearings = new ArrayList<>();
+        List<int[]> shapeOrigins = new ArrayList<>();
+        for (int b = 0; b < BEARINGS.length; b++) {
+            Ship ship = kind.build(BEARINGS[b], REFERENCE, REFERENCE);
+            int top = ship.getTopMostPos();
+            int left = ship.getLeftMostPos();
+            int[] offsets = new int[2 * size];
+            int[] keys = new int[size];
+            for (int i = 0; i < size; i++) {
+                IPosition pos = ship.getPositions().get(i);
+                keys[i] = (pos.getRow() - top) * REFERENCE + (pos.getColumn() - left);
+            }
+            Arrays.sort(keys);
+            for (int i = 0; i < size; i++) {
+                offsets[2 * i] = keys[i] / REFERENCE;
+                offsets[2 * i + 1] = keys[i] % REFERENCE;
+            }
+            if (shapes.stream().noneMatch(s -> Arrays.equals(s, offsets))) {
+                shapes.add(offsets);
+                shapeBearings.add(b);
+                shapeOrigins.add(new int[]{REFERENCE - top, REFERENCE - left});
+            }
+        }
+
+        int total = 0;
+        for (int[] shape : shapes)
+            total += anchors(shape, rows, columns);
+        this.count = total;
+        this.bearings = new byte[total];
+        this.origins = new int[total];
+        this.footprint = new int[total * size];
+        this.haloStart = new int[total + 1];
+
+        int[] haloCells = new int[Math.max(16, total * 4 * size)];
+        int haloCount = 0;
+        boolean[] seen = new boolean[rows * columns];
+        int p = 0;
+        for (int s = 0; s < shapes.size(); s++) {
+            int[] shape = shapes.get(s);
+            int height = extent(shape, 0);
+            int width = extent(shape, 1);
+            for (int top = 0; top + height <= rows; top++)
+                for (int left = 0; left + width <= columns; left++, p++) {
+                    bearings[p] = shapeBearings.get(s).byteValue();
+                    origins[p] = (top + shapeOrigins.get(s)[0]) * columns + left + shapeOrigins.get(s)[1];
+                    for (int i = 0; i < size; i++) {
+                        int cell = (top + shape[2 * i]) * columns + left + shape[2 * i + 1];
+                        footprint[p * size + i] = cell;
+                        seen[cell] = true;
+                    }
+                    haloStart[p] = haloCount;
+                    for (int i = 0; i < size; i++)
+                        for (int r = top + shape[2 * i] - 1; r <= top + shape[2 * i] + 1; r++)
+                            for (int c = left + shape[2 * i + 1] - 1; c <= left + shape[2 * i + 1] + 1; c++)
+                                if (r >= 0 && r < rows && c >= 0 && c < columns && !seen[r * columns + c]) {
+                                    seen[r * columns + c] = true;
+                                    if (haloCount == haloCells.length)
+                                        haloCells = Arrays.copyOf(haloCells, 2 * haloCount);
+                                    haloCells[haloCount++] = r * columns + c;
+                                }
+                    for (int i = haloStart[p]; i < haloCount; i++)
+                        seen[haloCells[i]] = false;
+                    for (int i = 0; i < size; i++)
+                        seen[footprint[p * size + i]] = false;
+                }
+        }
+        haloStart[total] = haloCount;
+        this.halo = Arrays.copyOf(haloCells, haloCount);
+        for (int q = 0; q < total; q++)
+            Arrays.sort(halo, haloStart[q], haloStart[q + 1]);
+
+        // reverse index: counting sort of the footprint cells
+        this.coverStart = new int[rows * columns + 1];
+        for (int cell : footprint)
+            coverStart[cell + 1]++;
+        for (int c = 0; c < rows * columns; c++)
+            coverStart[c + 1] += coverStart[c];
+        this.cover = new int[footprint.length];
+        int[] next = Arrays.copyOf(coverStart, rows * columns);
+        for (int q = 0; q < total; q++)
+            for (int i = 0; i < size; i++)
+                cover[next[footprint[q * size + i]]++] = q;
+    }
+
+    private static int extent(int[] shape, int axis) {
+        int max = 0;
+        for (int i = axis; i < shape.length; i += 2)
+            max = Math.max(max, shape[i]);
+        return max + 1;
+    }
+
+    private static int anchors(int[] shape, int rows, int columns) {
+        return Math.max(0, rows - extent(shape, 0) + 1) * Math.max(0, columns - extent(shape, 1) + 1);
+    }
+
+    public ShipKind getKind() {
+        return kind;
+    }
+
+    /**
+     * @return the number of cells of each placement
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * @return the number of placements
+     */
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     * @return the bearing placement p is built with
+     */
+    public Compass getBearing(int p) {
+        return BEARINGS[bearings[p]];
+    }
+
+    /**
+     * @return the cell of the position placement p is built from
+     */
+    public int getOrigin(int p) {
+        return origins[p];
+    }
+
+    /**
+     * @param p a placement
+     * @param i a number from 0 to getSize() - 1
+     * @return the i-th cell covered by placement p, in increasing order
+     */
+    public int getFootprintCell(int p, int i) {
+        return footprint[p * size + i];
+    }
+
+    /**
+     * @return the number of cells around placement p that are on the board
+     */
+    public int getHaloSize(int p) {
+        return haloStart[p + 1] - haloStart[p];
+    }
+
+    /**
+     * @param p a placement
+     * @param i a number from 0 to getHaloSize(p) - 1
+     * @return the i-th cell around placement p, in increasing order
+     */
+    public int getHaloCell(int p, int i) {
+        return halo[haloStart[p] + i];
+    }
+
+    /**
+     * @return the number of placements that cover a cell
+     */
+    public int getCoverCount(int cell) {
+        return coverStart[cell + 1] - coverStart[cell];
+    }
+
+    /**
+     * @param cell a cell of the board
+     * @param i    a number from 0 to getCoverCount(cell) - 1
+     * @return the i-th placement covering the cell, in increasing order
+     */
+    public int getCoveringPlacement(int cell, int i) {
+        return cover[coverStart[cell] + i];
+    }
+
+    /**
+     * @return a new ship lying on placement p
+     */
+    public Ship build(int p) {
+        return kind.build(getBearing(p), origins[p] / columns, origins[p] % columns);
+    }
+
+    /**
+     * @return the approximate number of bytes held by the table
+     */
+    public long memoryBytes() {
+        return bearings.length + 4L * (origins.length + footprint.length + haloStart.length + halo.length
+                + coverStart.length + cover.length);
+    }
+}
@@ -0,0 +1,37 @@
+/**
+ *
+ */
+package iscteiul.ista.battleship;
+
+/**
+ * What happened to a shot fired through {@link IGame#fire(int, int)}
+ */
+public enum ShotResult {
+    /**
+     * The shot fell outside the board
+     */
+    INVALID,
+    /**
+     * The cell had already been shot at
+     */
+    REPEAT,
+    /**
+     * The shot fell on water
+     */
+    MISS,
+    /**
+     * The shot hit a ship that is still floating
+     */
+    HIT,
+    /**
+     * The shot hit the last intact cell of a ship
+     */
+    SUNK;
+
+    /**
+     * @return true if the shot hit a ship, whether or not it sank it
+     */
+    public boolean isHit() {
+        return this == HIT || this == SUNK;
+    }
+}
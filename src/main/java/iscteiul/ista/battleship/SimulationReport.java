@@ -0,0 +1,185 @@
+/**
+ *
+ */
+package iscteiul.ista.battleship;
+
+/**
+ * The outcome of a batch of simulated games played by one strategy: how fast
+ * they were played and how many shots each game took to sink the whole fleet.
+ * Games that reached the shot limit without sinking the fleet are counted as
+ * unfinished and left out of the shot statistics.
+ */
+public class SimulationReport {
+    private final String strategy;
+    private final long games;
+    private final long unfinished;
+    private final long totalShots;
+    private final double sumSquares;
+    private final int minShots;
+    private final int maxShots;
+    private final int bucketWidth;
+    private final long[] histogram;
+    private final long elapsedNanos;
+
+    SimulationReport(String strategy, Tally tally, long elapsedNanos) {
+        this.strategy = strategy;
+        this.games = tally.games;
+        this.unfinished = tally.unfinished;
+        this.totalShots = tally.totalShots;
+        this.sumSquares = tally.sumSquares;
+        this.minShots = tally.minShots;
+        this.maxShots = tally.maxShots;
+        this.bucketWidth = tally.bucketWidth;
+        this.histogram = tally.histogram.clone();
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public String getStrategy() {
+        return strategy;
+    }
+
+    /**
+     * @return the number of games played, unfinished ones included
+     */
+    public long getGames() {
+        return games;
+    }
+
+    public long getUnfinishedGames() {
+        return unfinished;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    public double getGamesPerSecond() {
+        return elapsedNanos == 0 ? 0 : games * 1e9 / elapsedNanos;
+    }
+
+    private long finished() {
+        return games - unfinished;
+    }
+
+    /**
+     * @return the mean number of shots needed to win
+     */
+    public double getMeanShots() {
+        return finished() == 0 ? 0 : (double) totalShots / finished();
+    }
+
+    /**
+     * @return the standard deviation of the number of shots needed to win
+     */
+    public double getStdDevShots() {
+        if (finished() < 2)
+            return 0;
+        double mean = getMeanShots();
+        return Math.sqrt(Math.max(0, (sumSquares - finished() * mean * mean) / (finished() - 1)));
+    }
+
+    public int getMinShots() {
+        return finished() == 0 ? 0 : minShots;
+    }
+
+    public int getMaxShots() {
+        return maxShots;
+    }
+
+    /**
+     * @return the number of distinct shot counts grouped in each histogram
+     *         entry (1 unless the board is very large)
+     */
+    public int getBucketWidth() {
+        return bucketWidth;
+    }
+
+    /**
+     * @return how many games were won with each number of shots: entry i counts
+     *         the games won with i * bucketWidth to (i + 1) * bucketWidth - 1
+     *         shots
+     */
+    public long[] getHistogram() {
+        return histogram.clone();
+    }
+
+    /**
+     * @param fraction a value between 0 and 1, e.g. 0.5 for the median
+     * @return the smallest shot count (up to the bucket width) not exceeded by
+     *         that fraction of the finished games
+     */
+    public int getPercentile(double fraction) {
+        long wanted = (long) Math.ceil(fraction * finished());
+        long seen = 0;
+        for (int i = 0; i < histogram.length; i++) {
+            seen += histogram[i];
+            if (seen >= wanted && seen > 0)
+                return i * bucketWidth;
+        }
+        return maxShots;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%-14s jogos=%d (%d por acabar) %.0f jogos/s | tiros: media=%.2f dp=%.2f min=%d "
+                        + "p50=%d p90=%d max=%d", strategy, games, unfinished, getGamesPerSecond(), getMeanShots(),
+                getStdDevShots(), getMinShots(), getPercentile(0.5), getPercentile(0.9), getMaxShots());
+    }
+
+    /**
+     * Mutable accumulator filled by one worker and merged with the others
+     */
+    static class Tally {
+        private static final int MAX_BUCKETS = 4096;
+
+        private long games;
+        private long unfinished;
+        private long totalShots;
+        private double sumSquares;
+        private int minShots = Integer.MAX_VALUE;
+        private int maxShots;
+        private final int bucketWidth;
+        private final long[] histogram;
+
+        /**
+         * @param shotLimit the largest number of shots a game may take
+         */
+        Tally(int shotLimit) {
+            bucketWidth = Math.max(1, (int) (((long) shotLimit + MAX_BUCKETS) / MAX_BUCKETS));
+            histogram = new long[shotLimit / bucketWidth + 1];
+        }
+
+        /**
+         * Records a game won after the given number of shots
+         */
+        void won(int shots) {
+            games++;
+            totalShots += shots;
+            sumSquares += (double) shots * shots;
+            minShots = Math.min(minShots, shots);
+            maxShots = Math.max(maxShots, shots);
+            histogram[Math.min(histogram.length - 1, shots / bucketWidth)]++;
+        }
+
+        /**
+         * Records a game that reached the shot limit
+         */
+        void gaveUp() {
+            games++;
+            unfinished++;
+        }
+
+        void merge(Tally other) {
+            assert bucketWidth == other.bucketWidth && histogram.length == other.histogram.length;
+
+            games += other.games;
+            unfinished += other.unfinished;
+            totalShots += other.totalShots;
+            sumSquares += other.sumSquares;
+            minShots = Math.min(minShots, other.minShots);
+            maxShots = Math.max(maxShots, other.maxShots);
+            for (int i = 0; i < histogram.length; i++)
+                histogram[i] += other.histogram[i];
+        }
+    }
+}
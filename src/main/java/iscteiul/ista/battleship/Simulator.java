@@ -0,0 +1,233 @@
+/**
+ *
+ */
+package iscteiul.ista.battleship;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Supplier;
+
+/**
+ * Plays complete games without a human: each game gets a random legal fleet
+ * from a {@link FleetGenerator}, and a shooter fires at it through
+ * Game.fire(row, column) until the fleet is sunk. Games are spread over the
+ * cores with a ForkJoinPool; every leaf task has its own shooter and its own
+ * tally, so workers share nothing while they play.
+ * <p>
+ * Game i of a run always gets the same fleet and the same random stream (see
+ * {@link Seeds}), and the tallies are merged in the same order whatever the
+ * number of threads, so a run can be reproduced from its seed down to the
+ * last bit.
+ */
+public class Simulator {
+    private static final int BATCH = 256;
+
+    private final BoardSpec spec;
+    private final ShipKind[] fleet;
+    private final int parallelism;
+
+    /**
+     * A simulator for the standard game using every core
+     */
+    public Simulator() {
+        this(BoardSpec.STANDARD, ShipKind.standardFleet(), Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param spec        the board to play on
+     * @param fleet       the kinds of the ships of each fleet
+     * @param parallelism the number of worker threads
+     * @throws IllegalArgumentException if the fleet cannot fit the spec's
+     *                                  fleet limit or parallelism is not
+     *                                  positive
+     */
+    public Simulator(BoardSpec spec, ShipKind[] fleet, int parallelism) throws IllegalArgumentException {
+        if (fleet.length > spec.getMaxShips())
+            throw new IllegalArgumentException("ERROR! fleet of " + fleet.length + " ships does not fit " + spec);
+        if (parallelism <= 0)
+            throw new IllegalArgumentException("ERROR! invalid parallelism " + parallelism);
+
+        this.spec = spec;
+        this.fleet = fleet.clone();
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Plays a batch of games with one strategy
+     *
+     * @param shooters makes the shooters, one per worker task
+     * @param games    the number of games to play
+     * @param seed     the seed of the run
+     * @return the statistics of the run
+     */
+    public SimulationReport run(Supplier<? extends IShooter> shooters, long games, long seed) {
+        String name = shooters.get().getName();
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            long start = System.nanoTime();
+            SimulationReport.Tally tally = pool.invoke(new Batch(shooters, seed, 0, games));
+            return new SimulationReport(name, tally, System.nanoTime() - start);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Plays a batch of games one after the other and records them
+     *
+     * @param shooter the shooter of every game
+     * @param games   the number of games to play
+     * @param seed    the seed of the run, giving the same games as run
+     * @param journal where the games are recorded
+     * @return the statistics of the run
+     * @throws IOException if the journal cannot be written
+     */
+    public SimulationReport record(IShooter shooter, long games, long seed, JournalWriter journal)
+            throws IOException {
+        long start = System.nanoTime();
+        FleetGenerator generator = new FleetGenerator(spec, fleet);
+        SimulationReport.Tally tally = new SimulationReport.Tally(shotLimit());
+        for (long i = 0; i < games; i++) {
+            SplittableRandom random = Seeds.forGame(seed, i);
+            int shots = play(shooter, generator.generate(random), random, journal);
+            if (shots < 0)
+                tally.gaveUp();
+            else
+                tally.won(shots);
+        }
+        return new SimulationReport(shooter.getName(), tally, System.nanoTime() - start);
+    }
+
+    /**
+     * @return the number of shots after which a game is given up
+     */
+    int shotLimit() {
+        return (int) Math.min(Integer.MAX_VALUE - 1, 2L * spec.getCells());
+    }
+
+    /**
+     * Plays one game
+     *
+     * @param shooter   the shooter, prepared here for a new game
+     * @param generator builds the fleet to fire at
+     * @param random    the random stream of the game
+     * @return the number of shots fired to sink the fleet, or -1 if the shot
+     *         limit was reached first
+     */
+    int play(IShooter shooter, FleetGenerator generator, SplittableRandom random) {
+        return play(shooter, generator.generate(random), random);
+    }
+
+    /**
+     * Plays one game against a given fleet
+     *
+     * @param shooter the shooter, prepared here for a new game
+     * @param target  the fleet to fire at, of the kinds of this simulator
+     * @param random  the random stream of the shooter
+     * @return the number of shots fired to sink the fleet, or -1 if the shot
+     *         limit was reached first
+     */
+    int play(IShooter shooter, IFleet target, SplittableRandom random) {
+        try {
+            return play(shooter, target, random, null);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Plays one game against a given fleet, recording it
+     *
+     * @param journal where the fleet and the shots are recorded, or null
+     * @throws IOException if the journal cannot be written
+     */
+    int play(IShooter shooter, IFleet target, SplittableRandom random, JournalWriter journal) throws IOException {
+        Game game = new Game(target);
+        if (journal != null)
+            journal.startGame(target);
+        shooter.newGame(spec, fleet.clone(), random);
+
+        int limit = shotLimit();
+        int shots = 0;
+        while (game.getRemainingShips() > 0) {
+            if (shots == limit)
+                return -1;
+            int cell = shooter.nextShot();
+            int row = spec.rowOf(cell);
+            int column = spec.columnOf(cell);
+            ShotResult result = game.fire(row, column);
+            shots++;
+            if (journal != null)
+                journal.shot(row, column, result);
+            shooter.shotFired(row, column, result, result == ShotResult.SUNK ? game.getLastSunkShip() : null);
+        }
+        return shots;
+    }
+
+    /**
+     * A range of games, split in halves until it is small enough to be played
+     * by a single worker
+     */
+    private class Batch extends RecursiveTask<SimulationReport.Tally> {
+        private final Supplier<? extends IShooter> shooters;
+        private final long seed;
+        private final long from;
+        private final long to;
+
+        Batch(Supplier<? extends IShooter> shooters, long seed, long from, long to) {
+            this.shooters = shooters;
+            this.seed = seed;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected SimulationReport.Tally compute() {
+            if (to - from <= BATCH) {
+                IShooter shooter = shooters.get();
+                FleetGenerator generator = new FleetGenerator(spec, fleet);
+                SimulationReport.Tally tally = new SimulationReport.Tally(shotLimit());
+                for (long i = from; i < to; i++) {
+                    int shots = play(shooter, generator, Seeds.forGame(seed, i));
+                    if (shots < 0)
+                        tally.gaveUp();
+                    else
+                        tally.won(shots);
+                }
+                return tally;
+            }
+
+            long middle = (from + to) >>> 1;
+            Batch left = new Batch(shooters, seed, from, middle);
+            left.fork();
+            SimulationReport.Tally tally = new Batch(shooters, seed, middle, to).compute();
+            tally.merge(left.join());
+            return tally;
+        }
+    }
+
+    /**
+     * Plays the built-in strategies against each other's statistics. The
+     * slower ones play fewer games: the endgame search one in ten, the Monte
+     * Carlo strategy one in a hundred, with no time budget so that a seed
+     * gives the same results on any machine
+     *
+     * @param args number of games (default 100000), seed (default 1) and
+     *             number of threads (default: all cores)
+     */
+    public static void main(String[] args) {
+        long games = args.length > 0 ? Long.parseLong(args[0]) : 100_000;
+        long seed = args.length > 1 ? Long.parseLong(args[1]) : 1;
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+
+        Simulator simulator = new Simulator(BoardSpec.STANDARD, ShipKind.standardFleet(), threads);
+        System.out.println(simulator.run(RandomShooter::new, games, seed));
+        System.out.println(simulator.run(HuntTargetShooter::new, games, seed));
+        System.out.println(simulator.run(ProbabilityShooter::new, games, seed));
+        System.out.println(simulator.run(EndgameShooter::new, Math.max(1, games / 10), seed));
+        System.out.println(simulator.run(() -> new MonteCarloShooter(1000, 0), Math.max(1, games / 100), seed));
+    }
+}
@@ -0,0 +1,120 @@
+/**
+ *
+ */
+package iscteiul.ista.battleship;
+
+import java.util.Arrays;
+
+/**
+ * A set of cells for very large boards. The board is cut into tiles of 64 x 64
+ * cells and a tile is only allocated once one of its cells is set, so memory
+ * follows the ships and shots rather than the size of the board. Each row of
+ * a tile is a single word, which keeps {@link #word(int, int)} as cheap as in
+ * a dense {@link Bitboard}.
+ */
+class SparseBitboard implements IBitboard {
+    static final int TILE_SHIFT = 6;
+    static final int TILE_SIZE = 1 << TILE_SHIFT;
+
+    private final int rows;
+    private final int columns;
+    private final int tileColumns;
+    private final long[][] tiles;
+
+    /**
+     * @param rows    number of rows of the board
+     * @param columns number of columns of the board
+     */
+    SparseBitboard(int rows, int columns) {
+        assert rows > 0 && columns > 0;
+
+        this.rows = rows;
+        this.columns = columns;
+        this.tileColumns = (columns + TILE_SIZE - 1) >>> TILE_SHIFT;
+        int tileRows = (rows + TILE_SIZE - 1) >>> TILE_SHIFT;
+        this.tiles = new long[tileRows * tileColumns][];
+    }
+
+    @Override
+    public int getRows() {
+        return rows;
+    }
+
+    @Override
+    public int getColumns() {
+        return columns;
+    }
+
+    /**
+     * @return the number of tiles holding at least one cell so far
+     */
+    int allocatedTiles() {
+        int count = 0;
+        for (long[] tile : tiles)
+            if (tile != null)
+                count++;
+        return count;
+    }
+
+    private long[] tile(int row, int word) {
+        return tiles[(row >>> TILE_SHIFT) * tileColumns + word];
+    }
+
+    private long[] tileForUpdate(int row, int word) {
+        int t = (row >>> TILE_SHIFT) * tileColumns + word;
+        if (tiles[t] == null)
+            tiles[t] = new long[TILE_SIZE];
+        return tiles[t];
+    }
+
+    @Override
+    public boolean get(int row, int column) {
+        long[] tile = tile(row, column >>> 6);
+        return tile != null && (tile[row & (TILE_SIZE - 1)] & (1L << column)) != 0;
+    }
+
+    @Override
+    public void set(int row, int column) {
+        tileForUpdate(row, column >>> 6)[row & (TILE_SIZE - 1)] |= (1L << column);
+    }
+
+    @Override
+    public void clear(int row, int column) {
+        long[] tile = tile(row, column >>> 6);
+        if (tile != null)
+            tile[row & (TILE_SIZE - 1)] &= ~(1L << column);
+    }
+
+    /**
+     * Clears every cell of the board and releases all tiles
+     */
+    @Override
+    public void clear() {
+        Arrays.fill(tiles, null);
+    }
+
+    @Override
+    public long word(int row, int word) {
+        if (word >= tileColumns)
+            return 0L;
+        long[] tile = tile(row, word);
+        return tile == null ? 0L : tile[row & (TILE_SIZE - 1)];
+    }
+
+    @Override
+    public void orWord(int row, int word, long bits) {
+        bits &= Bitboard.columnMask(columns, word);
+        if (word < tileColumns && bits != 0)
+            tileForUpdate(row, word)[row & (TILE_SIZE - 1)] |= bits;
+    }
+
+    @Override
+    public int cardinality() {
+        int count = 0;
+        for (long[] tile : tiles)
+            if (tile != null)
+                for (long w : tile)
+                    count += Long.bitCount(w);
+        return count;
+    }
+}
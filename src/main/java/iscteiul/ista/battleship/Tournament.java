@@ -0,0 +1,411 @@
+/**
+ *
+ */
+package iscteiul.ista.battleship;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Properties;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Plays contestants against each other, round by round. In a game both sides
+ * place a fleet and fire at the other's with the same number of shots
+ * allowed; the side that sinks the other's fleet in fewer shots wins, and
+ * equal counts are a draw. Each pairing of a round plays a fixed number of
+ * such games.
+ * <p>
+ * Pairings are either round-robin, every contestant meeting every other one
+ * each round, or Swiss: contestants are sorted by points, then rating, and
+ * each one meets the best-placed opponent it has not met yet, the last one
+ * sitting out when their number is odd.
+ * <p>
+ * The games of a round are spread over the cores with a ForkJoinPool, every
+ * leaf task keeping its own shooters and placers. Ratings are then updated
+ * with the Elo formula one game at a time in game order, and game i of round r
+ * always gets the same random streams, so a tournament gives the same ratings
+ * whatever the number of threads. After each round the standings can be
+ * written to a checkpoint file, from which a stopped tournament resumes.
+ */
+public class Tournament {
+    /**
+     * How contestants are paired in each round
+     */
+    public enum Format {
+        ROUND_ROBIN, SWISS
+    }
+
+    static final double INITIAL_RATING = 1500;
+    static final double K_FACTOR = 16;
+    private static final int BATCH = 16;
+
+    private final Simulator simulator;
+    private final BoardSpec spec;
+    private final ShipKind[] fleet;
+    private final List<Contestant> contestants;
+    private final Format format;
+    private final int rounds;
+    private final int gamesPerPairing;
+    private final int parallelism;
+
+    /**
+     * @param spec            the board to play on
+     * @param fleet           the kinds of the ships of each fleet
+     * @param contestants     the players, at least two, with distinct names
+     * @param format          how contestants are paired
+     * @param rounds          the number of rounds to play
+     * @param gamesPerPairing the number of games each pairing plays in a round
+     * @param parallelism     the number of worker threads
+     * @throws IllegalArgumentException if there are fewer than two
+     *                                  contestants, two share a name, or a
+     *                                  count is not positive
+     */
+    public Tournament(BoardSpec spec, ShipKind[] fleet, List<Contestant> contestants, Format format, int rounds,
+                      int gamesPerPairing, int parallelism) throws IllegalArgumentException {
+        assert format != null;
+
+        if (contestants.size() < 2)
+            throw new IllegalArgumentException("ERROR! a tournament needs at least two contestants");
+        HashSet<String> names = new HashSet<>();
+        for (Contestant contestant : contestants)
+            if (!names.add(contestant.getName()))
+                throw new IllegalArgumentException("ERROR! two contestants named " + contestant.getName());
+        if (rounds <= 0 || gamesPerPairing <= 0)
+            throw new IllegalArgumentException("ERROR! invalid tournament size " + rounds + " " + gamesPerPairing);
+
+        this.simulator = new Simulator(spec, fleet, parallelism);
+        this.spec = spec;
+        this.fleet = fleet.clone();
+        this.contestants = List.copyOf(contestants);
+        this.format = format;
+        this.rounds = rounds;
+        this.gamesPerPairing = gamesPerPairing;
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Plays the rounds not played yet
+     *
+     * @param seed       the seed of the tournament
+     * @param checkpoint the file the standings are saved to after each round
+     *                   and resumed from if it exists, or null for none
+     * @return the final standings
+     * @throws IOException           if the checkpoint cannot be read or written
+     * @throws IllegalStateException if the checkpoint belongs to another
+     *                               tournament
+     */
+    public TournamentReport run(long seed, Path checkpoint) throws IOException, IllegalStateException {
+        Standings standings = checkpoint != null && Files.exists(checkpoint)
+                ? load(checkpoint, seed) : new Standings(contestants.size());
+
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        long played = 0;
+        long start = System.nanoTime();
+        try {
+            while (standings.round < rounds) {
+                int[][] pairings = format == Format.SWISS ? swiss(standings) : roundRobin();
+                int games = pairings.length * gamesPerPairing;
+                int[] shots = new int[2 * games];
+                pool.invoke(new Round(pairings, seed, standings.round, shots, 0, games));
+
+                for (int g = 0; g < games; g++)
+                    standings.record(pairings[g / gamesPerPairing], shots[2 * g], shots[2 * g + 1]);
+                for (int[] pair : pairings)
+                    standings.met[pair[0]][pair[1]] = standings.met[pair[1]][pair[0]] = true;
+                standings.round++;
+                played += games;
+
+                if (checkpoint != null)
+                    save(checkpoint, seed, standings);
+            }
+        } finally {
+            pool.shutdown();
+        }
+        return report(standings, played, System.nanoTime() - start);
+    }
+
+    private TournamentReport report(Standings standings, long played, long elapsedNanos) {
+        List<TournamentReport.Entry> entries = new ArrayList<>();
+        for (int i = 0; i < contestants.size(); i++)
+            entries.add(new TournamentReport.Entry(contestants.get(i).getName(), standings.rating[i],
+                    standings.wins[i], standings.draws[i], standings.losses[i], standings.unfinished[i],
+                    standings.shots[i], standings.sumSquares[i]));
+        return new TournamentReport(format, standings.round, entries, played, elapsedNanos);
+    }
+
+    private int[][] roundRobin() {
+        int n = contestants.size();
+        int[][] pairings = new int[n * (n - 1) / 2][];
+        int p = 0;
+        for (int a = 0; a < n; a++)
+            for (int b = a + 1; b < n; b++)
+                pairings[p++] = new int[]{a, b};
+        return pairings;
+    }
+
+    private int[][] swiss(Standings standings) {
+        int n = contestants.size();
+        Integer[] order = new Integer[n];
+        for (int i = 0; i < n; i++)
+            order[i] = i;
+        Arrays.sort(order, (a, b) -> {
+            int byPoints = Long.compare(standings.points2(b), standings.points2(a));
+            if (byPoints != 0)
+                return byPoints;
+            int byRating = Double.compare(standings.rating[b], standings.rating[a]);
+            return byRating != 0 ? byRating : Integer.compare(a, b);
+        });
+
+        boolean[] paired = new boolean[n];
+        List<int[]> pairings = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            int a = order[i];
+            if (paired[a])
+                continue;
+            int opponent = -1;
+            for (int j = i + 1; j < n && opponent < 0; j++)
+                if (!paired[order[j]] && !standings.met[a][order[j]])
+                    opponent = order[j];
+            for (int j = i + 1; j < n && opponent < 0; j++)
+                if (!paired[order[j]])
+                    opponent = order[j];
+            if (opponent < 0)
+                continue;
+            paired[a] = paired[opponent] = true;
+            pairings.add(new int[]{a, opponent});
+        }
+        return pairings.toArray(new int[0][]);
+    }
+
+    /**
+     * A range of the games of a round, split in halves until it is small
+     * enough for one worker, which makes the shooters and placers of a
+     * contestant the first time it needs them
+     */
+    private class Round extends RecursiveAction {
+        private final int[][] pairings;
+        private final long seed;
+        private final int round;
+        private final int[] shots;
+        private final int from;
+        private final int to;
+
+        Round(int[][] pairings, long seed, int round, int[] shots, int from, int to) {
+            this.pairings = pairings;
+            this.seed = seed;
+            this.round = round;
+            this.shots = shots;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > BATCH) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new Round(pairings, seed, round, shots, from, middle),
+                        new Round(pairings, seed, round, shots, middle, to));
+                return;
+            }
+
+            IShooter[] shooters = new IShooter[contestants.size()];
+            IFleetPlacer[] placers = new IFleetPlacer[contestants.size()];
+            for (int g = from; g < to; g++) {
+                int[] pair = pairings[g / gamesPerPairing];
+                for (int side : pair)
+                    if (shooters[side] == null) {
+                        shooters[side] = contestants.get(side).newShooter();
+                        placers[side] = contestants.get(side).newPlacer();
+                    }
+
+                SplittableRandom random = Seeds.forGame(Seeds.derive(seed, round), g);
+                IFleet first = placers[pair[0]].place(spec, fleet.clone(), random.split());
+                IFleet second = placers[pair[1]].place(spec, fleet.clone(), random.split());
+                SplittableRandom firstShots = random.split();
+                SplittableRandom secondShots = random.split();
+                shots[2 * g] = simulator.play(shooters[pair[0]], second, firstShots);
+                shots[2 * g + 1] = simulator.play(shooters[pair[1]], first, secondShots);
+            }
+        }
+    }
+
+    /**
+     * The results so far, which are all a checkpoint holds
+     */
+    private static final class Standings {
+        private int round;
+        private final double[] rating;
+        private final long[] wins;
+        private final long[] draws;
+        private final long[] losses;
+        private final long[] unfinished;
+        private final long[] shots;
+        private final double[] sumSquares;
+        private final boolean[][] met;
+
+        Standings(int n) {
+            rating = new double[n];
+            Arrays.fill(rating, INITIAL_RATING);
+            wins = new long[n];
+            draws = new long[n];
+            losses = new long[n];
+            unfinished = new long[n];
+            shots = new long[n];
+            sumSquares = new double[n];
+            met = new boolean[n][n];
+        }
+
+        /**
+         * @return twice the points of a contestant, a win being one point and
+         *         a draw half a point
+         */
+        long points2(int i) {
+            return 2 * wins[i] + draws[i];
+        }
+
+        void record(int[] pair, int firstShots, int secondShots) {
+            int a = pair[0];
+            int b = pair[1];
+            tally(a, firstShots);
+            tally(b, secondShots);
+
+            // a game given up is as good as infinitely many shots
+            long first = firstShots < 0 ? Long.MAX_VALUE : firstShots;
+            long second = secondShots < 0 ? Long.MAX_VALUE : secondShots;
+            double score;
+            if (first < second) {
+                wins[a]++;
+                losses[b]++;
+                score = 1;
+            } else if (first > second) {
+                losses[a]++;
+                wins[b]++;
+                score = 0;
+            } else {
+                draws[a]++;
+                draws[b]++;
+                score = 0.5;
+            }
+
+            double expected = 1 / (1 + Math.pow(10, (rating[b] - rating[a]) / 400));
+            double change = K_FACTOR * (score - expected);
+            rating[a] += change;
+            rating[b] -= change;
+        }
+
+        private void tally(int i, int fired) {
+            if (fired < 0) {
+                unfinished[i]++;
+                return;
+            }
+            shots[i] += fired;
+            sumSquares[i] += (double) fired * fired;
+        }
+    }
+
+    private static final String[] COUNTERS = {"wins", "draws", "losses", "unfinished", "shots"};
+
+    private void save(Path checkpoint, long seed, Standings standings) throws IOException {
+        Properties properties = new Properties();
+        properties.setProperty("seed", Long.toString(seed));
+        properties.setProperty("format", format.name());
+        properties.setProperty("games", Integer.toString(gamesPerPairing));
+        properties.setProperty("board", spec.toString());
+        properties.setProperty("fleet", Arrays.toString(fleet));
+        properties.setProperty("contestants", names());
+        properties.setProperty("round", Integer.toString(standings.round));
+        long[][] counters = {standings.wins, standings.draws, standings.losses, standings.unfinished, standings.shots};
+        for (int i = 0; i < contestants.size(); i++) {
+            // Double.toString gives back the very same double when parsed
+            properties.setProperty("rating." + i, Double.toString(standings.rating[i]));
+            properties.setProperty("squares." + i, Double.toString(standings.sumSquares[i]));
+            for (int c = 0; c < COUNTERS.length; c++)
+                properties.setProperty(COUNTERS[c] + "." + i, Long.toString(counters[c][i]));
+            StringBuilder met = new StringBuilder();
+            for (boolean m : standings.met[i])
+                met.append(m ? '1' : '0');
+            properties.setProperty("met." + i, met.toString());
+        }
+
+        Path temporary = checkpoint.resolveSibling(checkpoint.getFileName() + ".tmp");
+        try (Writer writer = Files.newBufferedWriter(temporary, StandardCharsets.UTF_8)) {
+            properties.store(writer, "torneio");
+        }
+        Files.move(temporary, checkpoint, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private Standings load(Path checkpoint, long seed) throws IOException, IllegalStateException {
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(checkpoint, StandardCharsets.UTF_8)) {
+            properties.load(reader);
+        }
+        if (!Long.toString(seed).equals(properties.getProperty("seed"))
+                || !format.name().equals(properties.getProperty("format"))
+                || !Integer.toString(gamesPerPairing).equals(properties.getProperty("games"))
+                || !spec.toString().equals(properties.getProperty("board"))
+                || !Arrays.toString(fleet).equals(properties.getProperty("fleet"))
+                || !names().equals(properties.getProperty("contestants")))
+            throw new IllegalStateException("ERROR! checkpoint " + checkpoint + " belongs to another tournament");
+
+        try {
+            Standings standings = new Standings(contestants.size());
+            standings.round = Integer.parseInt(properties.getProperty("round"));
+            long[][] counters = {standings.wins, standings.draws, standings.losses, standings.unfinished,
+                    standings.shots};
+            for (int i = 0; i < contestants.size(); i++) {
+                standings.rating[i] = Double.parseDouble(properties.getProperty("rating." + i));
+                standings.sumSquares[i] = Double.parseDouble(properties.getProperty("squares." + i));
+                for (int c = 0; c < COUNTERS.length; c++)
+                    counters[c][i] = Long.parseLong(properties.getProperty(COUNTERS[c] + "." + i));
+                String met = properties.getProperty("met." + i);
+                for (int j = 0; j < contestants.size(); j++)
+                    standings.met[i][j] = met.charAt(j) == '1';
+            }
+            return standings;
+        } catch (NullPointerException | IndexOutOfBoundsException | NumberFormatException e) {
+            throw new IllegalStateException("ERROR! checkpoint " + checkpoint + " is damaged", e);
+        }
+    }
+
+    private String names() {
+        StringBuilder names = new StringBuilder();
+        for (Contestant contestant : contestants)
+            names.append(names.length() == 0 ? "" : ",").append(contestant.getName());
+        return names.toString();
+    }
+
+    /**
+     * Plays the built-in strategies against each other
+     *
+     * @param args number of rounds (default 10), games per pairing (default
+     *             100), seed (default 1), number of threads (default: all
+     *             cores), format, "todos" or "suico" (default "todos"), and
+     *             the checkpoint file (default: none)
+     */
+    public static void main(String[] args) throws IOException {
+        int rounds = args.length > 0 ? Integer.parseInt(args[0]) : 10;
+        int games = args.length > 1 ? Integer.parseInt(args[1]) : 100;
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : 1;
+        int threads = args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+        Format format = args.length > 4 && args[4].equals("suico") ? Format.SWISS : Format.ROUND_ROBIN;
+        Path checkpoint = args.length > 5 ? Path.of(args[5]) : null;
+
+        List<Contestant> contestants = List.of(new Contestant(RandomShooter::new),
+                new Contestant(HuntTargetShooter::new), new Contestant(ProbabilityShooter::new),
+                new Contestant(EndgameShooter::new));
+        Tournament tournament = new Tournament(BoardSpec.STANDARD, ShipKind.standardFleet(), contestants, format,
+                rounds, games, threads);
+        System.out.print(tournament.run(seed, checkpoint));
+    }
+}
@@ -0,0 +1,208 @@
+/**
+ *
+ */
+package iscteiul.ista.battleship;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * The standings of a {@link Tournament}: for each contestant its Elo rating,
+ * its score with a 95% confidence interval, also given in rating points, and
+ * the mean number of shots it needed with its own interval, together with how
+ * fast the games of this run were played. Entries are sorted by rating, best
+ * first.
+ */
+public class TournamentReport {
+    private static final double Z95 = 1.96;
+
+    private final Tournament.Format format;
+    private final int rounds;
+    private final List<Entry> entries;
+    private final long games;
+    private final long elapsedNanos;
+
+    TournamentReport(Tournament.Format format, int rounds, List<Entry> entries, long games, long elapsedNanos) {
+        this.format = format;
+        this.rounds = rounds;
+        List<Entry> sorted = new ArrayList<>(entries);
+        sorted.sort(Comparator.comparingDouble(Entry::getRating).reversed());
+        this.entries = List.copyOf(sorted);
+        this.games = games;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public Tournament.Format getFormat() {
+        return format;
+    }
+
+    /**
+     * @return the number of rounds played, in this run and the ones it
+     *         resumed
+     */
+    public int getRounds() {
+        return rounds;
+    }
+
+    public List<Entry> getEntries() {
+        return entries;
+    }
+
+    /**
+     * @return the entry of the named contestant
+     * @throws IllegalArgumentException if no contestant has that name
+     */
+    public Entry getEntry(String name) throws IllegalArgumentException {
+        for (Entry entry : entries)
+            if (entry.getName().equals(name))
+                return entry;
+        throw new IllegalArgumentException("ERROR! no contestant named " + name);
+    }
+
+    /**
+     * @return the number of games played by this run, not counting those of
+     *         a resumed checkpoint
+     */
+    public long getGames() {
+        return games;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    public double getGamesPerSecond() {
+        return elapsedNanos == 0 ? 0 : games * 1e9 / elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder(String.format("torneio %s, %d rondas, %d jogos, %.0f jogos/s%n",
+                format == Tournament.Format.SWISS ? "suico" : "todos contra todos", rounds, games,
+                getGamesPerSecond()));
+        text.append(String.format("%-14s %13s %6s %6s %6s %12s %15s%n", "", "elo", "v", "e", "d", "pontos %",
+                "tiros"));
+        for (Entry entry : entries)
+            text.append(entry).append(System.lineSeparator());
+        return text.toString();
+    }
+
+    /**
+     * The results of one contestant
+     */
+    public static class Entry {
+        private final String name;
+        private final double rating;
+        private final long wins;
+        private final long draws;
+        private final long losses;
+        private final long unfinished;
+        private final long totalShots;
+        private final double sumSquares;
+
+        Entry(String name, double rating, long wins, long draws, long losses, long unfinished, long totalShots,
+              double sumSquares) {
+            this.name = name;
+            this.rating = rating;
+            this.wins = wins;
+            this.draws = draws;
+            this.losses = losses;
+            this.unfinished = unfinished;
+            this.totalShots = totalShots;
+            this.sumSquares = sumSquares;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public double getRating() {
+            return rating;
+        }
+
+        public long getWins() {
+            return wins;
+        }
+
+        public long getDraws() {
+            return draws;
+        }
+
+        public long getLosses() {
+            return losses;
+        }
+
+        public long getGames() {
+            return wins + draws + losses;
+        }
+
+        public long getUnfinishedGames() {
+            return unfinished;
+        }
+
+        /**
+         * @return the fraction of the points played for that were won, a draw
+         *         being half a point
+         */
+        public double getScore() {
+            return getGames() == 0 ? 0 : (wins + 0.5 * draws) / getGames();
+        }
+
+        /**
+         * @return the half-width of the 95% confidence interval of the score
+         */
+        public double getScoreMargin() {
+            if (getGames() == 0)
+                return 0;
+            double score = getScore();
+            double variance = (wins + 0.25 * draws) / getGames() - score * score;
+            return Z95 * Math.sqrt(Math.max(0, variance) / getGames());
+        }
+
+        /**
+         * @return the half-width of the 95% confidence interval of the score,
+         *         in Elo points
+         */
+        public double getRatingMargin() {
+            double score = getScore();
+            double margin = getScoreMargin();
+            return (elo(score + margin) - elo(score - margin)) / 2;
+        }
+
+        private static double elo(double score) {
+            double clamped = Math.min(0.999, Math.max(0.001, score));
+            return -400 * Math.log10(1 / clamped - 1);
+        }
+
+        private long finished() {
+            return getGames() - unfinished;
+        }
+
+        /**
+         * @return the mean number of shots needed to sink the other fleet
+         */
+        public double getMeanShots() {
+            return finished() == 0 ? 0 : (double) totalShots / finished();
+        }
+
+        /**
+         * @return the half-width of the 95% confidence interval of the mean
+         *         number of shots
+         */
+        public double getShotsMargin() {
+            if (finished() < 2)
+                return 0;
+            double mean = getMeanShots();
+            double variance = Math.max(0, (sumSquares - finished() * mean * mean) / (finished() - 1));
+            return Z95 * Math.sqrt(variance / finished());
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%-14s %6.1f+-%5.1f %6d %6d %6d %5.1f+-%4.1f%% %7.2f+-%5.2f", name, rating,
+                    getRatingMargin(), wins, draws, losses, 100 * getScore(), 100 * getScoreMargin(), getMeanShots(),
+                    getShotsMargin());
+        }
+    }
+}
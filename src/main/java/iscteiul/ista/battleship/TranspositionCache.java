@@ -0,0 +1,83 @@
+/**
+ *
+ */
+package iscteiul.ista.battleship;
+
+/**
+ * A fixed-size table of values keyed by 64-bit hashes, such as the
+ * observation hash of a game ({@link IGame#getObservationHash()}), for
+ * strategies to remember what they worked out about a position and reuse it
+ * when the same position comes up again, in the same search or in a later
+ * game. Values are longs; a strategy packs whatever it stores into them.
+ * <p>
+ * Each hash has one slot, picked by its low bits, and a new entry simply
+ * replaces the one in its slot. A slot keeps its value and the hash xor'ed
+ * with the value, so that a lookup only matches the hash it was stored under.
+ * That same check makes the cache safe to share between threads without
+ * locks: a lookup racing a store into the same slot sees a mismatch and
+ * reports a miss, never a value stored for another hash.
+ */
+public class TranspositionCache {
+    static final int MAX_CAPACITY = 1 << 30;
+
+    private final long[] locks;
+    private final long[] values;
+    private final int mask;
+
+    /**
+     * @param capacity the number of entries, rounded up to a power of two of
+     *                 at least 2
+     * @throws IllegalArgumentException if capacity is not positive or above
+     *                                  {@value #MAX_CAPACITY}
+     */
+    public TranspositionCache(int capacity) throws IllegalArgumentException {
+        if (capacity <= 0 || capacity > MAX_CAPACITY)
+            throw new IllegalArgumentException("ERROR! invalid cache capacity " + capacity);
+
+        int size = Math.max(2, Integer.highestOneBit(capacity));
+        if (size < capacity)
+            size <<= 1;
+        this.locks = new long[size];
+        this.values = new long[size];
+        this.mask = size - 1;
+        clear();
+    }
+
+    /**
+     * @return the number of entries the cache can hold
+     */
+    public int getCapacity() {
+        return values.length;
+    }
+
+    /**
+     * @param hash    the hash the value was stored under
+     * @param missing what to return when there is no such entry
+     * @return the value stored for the hash, or missing
+     */
+    public long get(long hash, long missing) {
+        int slot = (int) hash & mask;
+        long value = values[slot];
+        return (locks[slot] ^ value) == hash ? value : missing;
+    }
+
+    /**
+     * Stores a value for a hash, replacing whatever its slot held
+     */
+    public void put(long hash, long value) {
+        int slot = (int) hash & mask;
+        values[slot] = value;
+        locks[slot] = hash ^ value;
+    }
+
+    /**
+     * Forgets every entry
+     */
+    public void clear() {
+        // an empty slot only matches a hash whose low bits pick another slot
+        for (int slot = 0; slot < locks.length; slot++) {
+            values[slot] = 0;
+            locks[slot] = ~slot & mask | ~(long) mask;
+        }
+    }
+}
@@ -0,0 +1,51 @@
+/**
+ *
+ */
+package iscteiul.ista.battleship;
+
+/**
+ * Zobrist keys for what a player has seen of a board: each cell known to be a
+ * miss, a hit or part of a sunk ship has a random 64-bit key, and an
+ * observation hashes to the exclusive or of the keys of its cells. Firing a
+ * shot or sinking a ship then updates the hash with a few exclusive ors, and
+ * the same cells seen in any order give the same hash. The empty observation
+ * hashes to 0.
+ * <p>
+ * Boards can hold far more cells than a key table could, so instead of being
+ * drawn and stored the keys are computed from the cell and its state by a
+ * fixed mixing function (the finalizer of SplitMix64), which gives keys just
+ * as well spread at no memory cost.
+ */
+public final class Zobrist {
+    private static final long SEED = 0x2545F4914F6CDD1DL;
+
+    private Zobrist() {
+    }
+
+    /**
+     * @param cell  a cell, as an index (see {@link BoardSpec#cell(int, int)})
+     * @param state what is known of the cell: MISS, HIT or SUNK
+     * @return the key of the cell in that state
+     */
+    public static long key(int cell, ShotResult state) {
+        assert state == ShotResult.MISS || state == ShotResult.HIT || state == ShotResult.SUNK;
+
+        return mix(SEED + (((long) cell << 3) | state.ordinal()) * 0x9E3779B97F4A7C15L);
+    }
+
+    /**
+     * @return the bits of z well mixed, by the finalizer of SplitMix64
+     */
+    static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * @return how the hash changes when a cell of a ship goes from hit to sunk
+     */
+    static long sink(int cell) {
+        return key(cell, ShotResult.HIT) ^ key(cell, ShotResult.SUNK);
+    }
+}
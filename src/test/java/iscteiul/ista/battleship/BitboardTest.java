@@ -0,0 +1,124 @@
+package iscteiul.ista.battleship;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BitboardTest {
+
+    @Test
+    @DisplayName("Novo bitboard começa sem células marcadas")
+    void newBitboardIsEmpty() {
+        Bitboard b = new Bitboard(10, 10);
+
+        assertEquals(10, b.getRows());
+        assertEquals(10, b.getColumns());
+        assertEquals(0, b.cardinality());
+        assertFalse(b.get(0, 0));
+        assertFalse(b.get(9, 9));
+    }
+
+    @Test
+    @DisplayName("set e clear alteram apenas a célula indicada")
+    void setAndClearSingleCell() {
+        Bitboard b = new Bitboard(10, 10);
+
+        b.set(3, 4);
+        assertTrue(b.get(3, 4));
+        assertFalse(b.get(3, 5));
+        assertFalse(b.get(4, 4));
+        assertEquals(1, b.cardinality());
+
+        b.clear(3, 4);
+        assertFalse(b.get(3, 4));
+        assertEquals(0, b.cardinality());
+    }
+
+    @Test
+    @DisplayName("Linhas com mais de 64 colunas ocupam várias palavras")
+    void wideRowsSpanSeveralWords() {
+        Bitboard b = new Bitboard(3, 130);
+
+        b.set(1, 0);
+        b.set(1, 63);
+        b.set(1, 64);
+        b.set(1, 129);
+
+        assertTrue(b.get(1, 0));
+        assertTrue(b.get(1, 63));
+        assertTrue(b.get(1, 64));
+        assertTrue(b.get(1, 129));
+        assertFalse(b.get(0, 129));
+        assertFalse(b.get(2, 0));
+        assertEquals(4, b.cardinality());
+    }
+
+    @Test
+    @DisplayName("clear() limpa todas as células")
+    void clearAll() {
+        Bitboard b = new Bitboard(10, 10);
+        b.set(0, 0);
+        b.set(9, 9);
+
+        b.clear();
+
+        assertEquals(0, b.cardinality());
+    }
+
+    @Test
+    @DisplayName("word devolve as 64 colunas de uma linha e 0 para além da última palavra")
+    void wordReadsRowBits() {
+        Bitboard b = new Bitboard(4, 70);
+        b.set(2, 1);
+        b.set(2, 65);
+
+        assertEquals(1L << 1, b.word(2, 0));
+        assertEquals(1L << 1, b.word(2, 1));
+        assertEquals(0L, b.word(2, 2));
+        assertEquals(0L, b.word(1, 0));
+    }
+
+    @Test
+    @DisplayName("orWord ignora bits para além da última coluna")
+    void orWordClipsToBoard() {
+        Bitboard b = new Bitboard(10, 10);
+
+        b.orWord(0, 0, -1L);
+        b.orWord(1, 1, -1L);
+
+        assertEquals(10, b.cardinality());
+        assertTrue(b.get(0, 9));
+        assertFalse(b.get(1, 0));
+    }
+
+    @Test
+    @DisplayName("window lê 64 colunas a partir de qualquer coluna")
+    void windowReadsAcrossWords() {
+        Bitboard b = new Bitboard(3, 130);
+        b.set(1, 60);
+        b.set(1, 64);
+        b.set(1, 129);
+
+        assertEquals(0b10001L, b.window(1, 60));
+        assertEquals(1L, b.window(1, 64));
+        assertEquals(1L << 59, b.window(1, 70));
+        assertEquals(1L, b.window(1, 129));
+        assertEquals(0L, b.window(0, 60));
+    }
+
+    @Test
+    @DisplayName("orWindow escreve a partir de qualquer coluna e corta fora do tabuleiro")
+    void orWindowWritesAcrossWords() {
+        Bitboard b = new Bitboard(2, 70);
+
+        b.orWindow(0, 62, 0b1111L);
+        b.orWindow(1, -1, 0b111L);
+        b.orWindow(1, 68, 0b111L);
+
+        assertTrue(b.get(0, 62) && b.get(0, 63) && b.get(0, 64) && b.get(0, 65));
+        assertTrue(b.get(1, 0) && b.get(1, 1));
+        assertTrue(b.get(1, 68) && b.get(1, 69));
+        assertEquals(8, b.cardinality());
+    }
+}
@@ -0,0 +1,99 @@
+package iscteiul.ista.battleship;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoardRendererTest {
+    private static final String NL = System.lineSeparator();
+    private static final String ESC = "\u001b[";
+
+    private static BoardRenderer small() {
+        BoardRenderer board = new BoardRenderer(new BoardSpec(3, 4, 1));
+        board.mark(0, 0, 'X');
+        board.mark(List.of(new Position(1, 2), new Position(2, 3)), '#');
+        return board;
+    }
+
+    @Test
+    @DisplayName("Desenha o tabuleiro inteiro, um carácter por célula")
+    void wholeFrame() throws Exception {
+        StringBuilder out = new StringBuilder();
+        small().render(out);
+        assertEquals("X..." + NL + "..#." + NL + "...#" + NL, out.toString());
+    }
+
+    @Test
+    @DisplayName("Um canal recebe os mesmos bytes")
+    void channel() throws Exception {
+        BoardRenderer board = small();
+        StringBuilder text = new StringBuilder();
+        board.render(text);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        board.render(Channels.newChannel(bytes));
+        assertEquals(text.toString(), bytes.toString(StandardCharsets.US_ASCII));
+    }
+
+    @Test
+    @DisplayName("Limpar tira todas as marcas e o buffer é reutilizado entre frames")
+    void clear() throws Exception {
+        BoardRenderer board = small();
+        board.clear();
+        board.mark(2, 0, 'o');
+        StringBuilder out = new StringBuilder();
+        board.render(out);
+        board.render(out);
+        String frame = "...." + NL + "...." + NL + "o..." + NL;
+        assertEquals(frame + frame, out.toString());
+        assertEquals('o', board.get(2, 0));
+    }
+
+    @Test
+    @DisplayName("Marcar fora do tabuleiro é um erro, e não passa para a linha seguinte")
+    void rejectsCellsOffTheBoard() {
+        BoardRenderer board = small();
+        assertThrows(IllegalArgumentException.class, () -> board.mark(0, 4, 'x'));
+        assertThrows(IllegalArgumentException.class, () -> board.mark(3, 0, 'x'));
+        assertThrows(IllegalArgumentException.class, () -> board.mark(-1, 2, 'x'));
+        assertThrows(IllegalArgumentException.class, () -> board.get(0, -1));
+        assertEquals('.', board.get(1, 0));
+    }
+
+    @Test
+    @DisplayName("O primeiro frame de diferenças limpa o ecrã e desenha tudo")
+    void firstChangesDrawEverything() throws Exception {
+        StringBuilder out = new StringBuilder();
+        assertEquals(12, small().renderChanges(out));
+        assertEquals(ESC + "2J" + ESC + "HX...\r\n..#.\r\n...#\r\n", out.toString());
+    }
+
+    @Test
+    @DisplayName("Depois só saem as células que mudaram, com o cursor movido até elas")
+    void onlyChangesAfterwards() throws Exception {
+        BoardRenderer board = new BoardRenderer(new BoardSpec(3, 20, 1));
+        board.renderChanges(new StringBuilder());
+
+        StringBuilder out = new StringBuilder();
+        assertEquals(0, board.renderChanges(out));
+        assertEquals("", out.toString());
+
+        board.mark(1, 2, 'X');
+        board.mark(1, 4, '*');
+        board.mark(1, 18, 'X');
+        board.mark(2, 0, 'X');
+        out.setLength(0);
+        assertEquals(5, board.renderChanges(out));
+        assertEquals(ESC + "2;3HX.*" + ESC + "2;19HX" + ESC + "3;1HX" + ESC + "4;1H", out.toString());
+
+        out.setLength(0);
+        assertEquals(0, board.renderChanges(out));
+        board.forget();
+        assertEquals(60, board.renderChanges(out));
+    }
+}
@@ -0,0 +1,59 @@
+package iscteiul.ista.battleship;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoardSpecTest {
+
+    @Test
+    @DisplayName("STANDARD usa as constantes de IFleet")
+    void standardUsesFleetConstants() {
+        assertEquals(IFleet.BOARD_SIZE, BoardSpec.STANDARD.getRows());
+        assertEquals(IFleet.BOARD_SIZE, BoardSpec.STANDARD.getColumns());
+        assertEquals(IFleet.FLEET_SIZE + 1, BoardSpec.STANDARD.getMaxShips());
+        assertEquals(100, BoardSpec.STANDARD.getCells());
+        assertFalse(BoardSpec.STANDARD.isSparse());
+    }
+
+    @Test
+    @DisplayName("isInside aceita apenas células do tabuleiro")
+    void isInside() {
+        BoardSpec spec = new BoardSpec(5, 8, 3);
+
+        assertTrue(spec.isInside(0, 0));
+        assertTrue(spec.isInside(4, 7));
+        assertFalse(spec.isInside(5, 0));
+        assertFalse(spec.isInside(0, 8));
+        assertFalse(spec.isInside(-1, 0));
+        assertFalse(spec.isInside(0, -1));
+    }
+
+    @Test
+    @DisplayName("Construtor rejeita dimensões inválidas")
+    void constructorRejectsInvalidSizes() {
+        assertThrows(IllegalArgumentException.class, () -> new BoardSpec(0, 10, 10));
+        assertThrows(IllegalArgumentException.class, () -> new BoardSpec(10, -1, 10));
+        assertThrows(IllegalArgumentException.class, () -> new BoardSpec(10, 10, -1));
+        assertThrows(IllegalArgumentException.class, () -> BoardSpec.square(50_000, 10));
+    }
+
+    @Test
+    @DisplayName("Tabuleiros grandes usam armazenamento esparso")
+    void largeBoardsAreSparse() {
+        assertTrue(BoardSpec.square(100, 100).newBitboard() instanceof Bitboard);
+        assertTrue(BoardSpec.square(10_000, 1000).isSparse());
+        assertTrue(BoardSpec.square(10_000, 1000).newBitboard() instanceof SparseBitboard);
+    }
+
+    @Test
+    @DisplayName("equals e hashCode comparam dimensões e tamanho da frota")
+    void equalsAndHashCode() {
+        assertEquals(BoardSpec.STANDARD, BoardSpec.square(10, 11));
+        assertEquals(BoardSpec.STANDARD.hashCode(), BoardSpec.square(10, 11).hashCode());
+        assertNotEquals(BoardSpec.STANDARD, BoardSpec.square(10, 10));
+        assertNotEquals(BoardSpec.STANDARD, new BoardSpec(10, 11, 11));
+        assertNotEquals(BoardSpec.STANDARD, "10x10");
+    }
+}
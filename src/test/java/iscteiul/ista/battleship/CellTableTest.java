@@ -0,0 +1,43 @@
+package iscteiul.ista.battleship;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CellTableTest {
+
+    @Test
+    @DisplayName("Células começam com o valor EMPTY")
+    void cellsStartEmpty() {
+        CellTable t = new CellTable(10, 10);
+
+        assertEquals(CellTable.EMPTY, t.get(0, 0));
+        assertEquals(CellTable.EMPTY, t.get(9, 9));
+    }
+
+    @Test
+    @DisplayName("put guarda o valor apenas na célula indicada")
+    void putStoresValue() {
+        CellTable t = new CellTable(10, 10);
+
+        t.put(2, 7, 4);
+
+        assertEquals(4, t.get(2, 7));
+        assertEquals(CellTable.EMPTY, t.get(7, 2));
+    }
+
+    @Test
+    @DisplayName("Tabela esparsa guarda valores em tabuleiros muito grandes")
+    void sparseTable() {
+        CellTable t = new CellTable(10_000, 10_000, true);
+
+        assertEquals(CellTable.EMPTY, t.get(9_999, 9_999));
+        t.put(9_999, 9_999, 7);
+        t.put(64, 63, 3);
+
+        assertEquals(7, t.get(9_999, 9_999));
+        assertEquals(3, t.get(64, 63));
+        assertEquals(CellTable.EMPTY, t.get(63, 64));
+    }
+}
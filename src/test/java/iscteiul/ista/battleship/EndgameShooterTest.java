@@ -0,0 +1,165 @@
+package iscteiul.ista.battleship;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EndgameShooterTest {
+
+    /**
+     * Every legal fleet of the given kinds, each as the list of the cell sets
+     * of its ships, the same fleet being listed once
+     */
+    private static List<List<Set<Integer>>> allFleets(BoardSpec spec, ShipKind[] kinds) {
+        Set<Set<Set<Integer>>> seen = new HashSet<>();
+        List<List<Set<Integer>>> fleets = new ArrayList<>();
+        collect(spec, kinds, 0, new Fleet(spec), new ArrayList<>(), seen, fleets);
+        return fleets;
+    }
+
+    private static void collect(BoardSpec spec, ShipKind[] kinds, int k, Fleet fleet, List<Set<Integer>> ships,
+                                Set<Set<Set<Integer>>> seen, List<List<Set<Integer>>> fleets) {
+        if (k == kinds.length) {
+            if (seen.add(new HashSet<>(ships)))
+                fleets.add(new ArrayList<>(ships));
+            return;
+        }
+        for (Compass bearing : new Compass[]{Compass.NORTH, Compass.SOUTH, Compass.EAST, Compass.WEST})
+            for (int r = 0; r < spec.getRows(); r++)
+                for (int c = 0; c < spec.getColumns(); c++) {
+                    Fleet copy = new Fleet(spec);
+                    for (IShip s : fleet.getShips())
+                        copy.addShip(s);
+                    Ship ship = kinds[k].build(bearing, r, c);
+                    if (!copy.addShip(ship))
+                        continue;
+                    Set<Integer> cells = new TreeSet<>();
+                    for (IPosition p : ship.getPositions())
+                        cells.add(spec.cell(p.getRow(), p.getColumn()));
+                    ships.add(cells);
+                    collect(spec, kinds, k + 1, copy, ships, seen, fleets);
+                    ships.remove(ships.size() - 1);
+                }
+    }
+
+    /**
+     * The least total number of shots the fleets still need, searched by brute
+     * force over every shot order
+     */
+    private static int bruteForce(List<List<Set<Integer>>> fleets, Set<Integer> shots, Map<String, Integer> memo) {
+        String key = fleets + "|" + shots;
+        Integer known = memo.get(key);
+        if (known != null)
+            return known;
+
+        Set<Integer> cells = new TreeSet<>();
+        for (List<Set<Integer>> fleet : fleets)
+            for (Set<Integer> ship : fleet)
+                for (int cell : ship)
+                    if (!shots.contains(cell))
+                        cells.add(cell);
+        if (fleets.size() == 1)
+            return cells.size();
+
+        int best = Integer.MAX_VALUE;
+        for (int cell : cells) {
+            Map<String, List<List<Set<Integer>>>> outcomes = new HashMap<>();
+            Set<Integer> after = new TreeSet<>(shots);
+            after.add(cell);
+            for (List<Set<Integer>> fleet : fleets) {
+                String outcome = "agua";
+                for (Set<Integer> ship : fleet)
+                    if (ship.contains(cell))
+                        outcome = after.containsAll(ship) ? "afundado " + ship : "certeiro";
+                boolean over = true;
+                for (Set<Integer> ship : fleet)
+                    over &= after.containsAll(ship);
+                outcomes.computeIfAbsent(outcome + over, o -> new ArrayList<>()).add(fleet);
+            }
+            int cost = fleets.size();
+            for (List<List<Set<Integer>>> part : outcomes.values())
+                cost += bruteForce(part, after, memo);
+            best = Math.min(best, cost);
+        }
+        memo.put(key, best);
+        return best;
+    }
+
+    @Test
+    @DisplayName("Uma barca escondida em n células precisa em média de (n + 1) / 2 tiros")
+    void singleBarge() {
+        BoardSpec spec = new BoardSpec(1, 5, 1);
+        EndgameShooter shooter = new EndgameShooter();
+        shooter.newGame(spec, new ShipKind[]{ShipKind.BARGE}, new SplittableRandom(1));
+
+        assertTrue(shooter.solve() >= 0);
+        assertEquals(5, shooter.getFleets());
+        assertEquals(3.0, shooter.getExpectedShots(), 1e-9);
+    }
+
+    @Test
+    @DisplayName("Com dois navios, o valor da pesquisa é o da força bruta")
+    void matchesBruteForce() {
+        BoardSpec spec = new BoardSpec(2, 5, 2);
+        ShipKind[] kinds = {ShipKind.CARAVEL, ShipKind.BARGE};
+        List<List<Set<Integer>>> fleets = allFleets(spec, kinds);
+        assertTrue(fleets.size() <= EndgameShooter.MAX_FLEETS);
+
+        EndgameShooter shooter = new EndgameShooter();
+        shooter.newGame(spec, kinds, new SplittableRandom(1));
+        assertTrue(shooter.solve() >= 0);
+
+        assertEquals(fleets.size(), shooter.getFleets());
+        int expected = bruteForce(fleets, new TreeSet<>(), new HashMap<>());
+        assertEquals((double) expected / fleets.size(), shooter.getExpectedShots(), 1e-9);
+    }
+
+    @Test
+    @DisplayName("Depois de alguns tiros, continua a concordar com a força bruta")
+    void matchesBruteForceAfterShots() {
+        BoardSpec spec = new BoardSpec(3, 4, 2);
+        ShipKind[] kinds = {ShipKind.BARGE, ShipKind.BARGE};
+        EndgameShooter shooter = new EndgameShooter();
+        shooter.newGame(spec, kinds, new SplittableRandom(1));
+        shooter.shotFired(0, 0, ShotResult.MISS, null);
+        shooter.shotFired(1, 2, ShotResult.MISS, null);
+
+        List<List<Set<Integer>>> fleets = new ArrayList<>();
+        for (List<Set<Integer>> fleet : allFleets(spec, kinds))
+            if (fleet.stream().noneMatch(s -> s.contains(spec.cell(0, 0)) || s.contains(spec.cell(1, 2))))
+                fleets.add(fleet);
+        Set<Integer> shots = new TreeSet<>(List.of(spec.cell(0, 0), spec.cell(1, 2)));
+
+        assertTrue(shooter.solve() >= 0);
+        assertEquals(fleets.size(), shooter.getFleets());
+        assertEquals((double) bruteForce(fleets, shots, new HashMap<>()) / fleets.size(),
+                shooter.getExpectedShots(), 1e-9);
+    }
+
+    @Test
+    @DisplayName("Joga jogos completos sem repetir tiros e resolve o final")
+    void playsWholeGames() {
+        Simulator simulator = new Simulator(BoardSpec.STANDARD, ShipKind.standardFleet(), 1);
+        SimulationReport endgame = simulator.run(EndgameShooter::new, 100, 5);
+        SimulationReport density = simulator.run(ProbabilityShooter::new, 100, 5);
+
+        assertEquals(0, endgame.getUnfinishedGames());
+        assertTrue(endgame.getMeanShots() <= density.getMeanShots() + 0.5);
+    }
+
+    @Test
+    @DisplayName("Rejeita orçamentos de nós inválidos")
+    void rejectsInvalidBudget() {
+        assertThrows(IllegalArgumentException.class, () -> new EndgameShooter(new RandomShooter(), 0));
+    }
+}
@@ -0,0 +1,135 @@
+package iscteiul.ista.battleship;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FleetGeneratorTest {
+
+    private static void assertLegal(IFleet fleet, int ships) {
+        List<IShip> all = fleet.getShips();
+        assertEquals(ships, all.size());
+        for (IShip a : all) {
+            for (IPosition p : a.getPositions())
+                assertTrue(fleet.getBoardSpec().isInside(p.getRow(), p.getColumn()));
+            for (IShip b : all)
+                if (a != b)
+                    assertFalse(a.tooCloseTo(b), a + " toca " + b);
+        }
+    }
+
+    @Test
+    @DisplayName("Gera frotas padrão legais")
+    void generatesLegalFleets() {
+        FleetGenerator generator = new FleetGenerator();
+        SplittableRandom random = new SplittableRandom(1);
+
+        for (int i = 0; i < 500; i++)
+            assertLegal(generator.generate(random), IFleet.FLEET_SIZE + 1);
+    }
+
+    @Test
+    @DisplayName("A mesma semente reproduz a mesma frota")
+    void sameSeedSameFleet() {
+        Fleet a = new FleetGenerator().generate(new SplittableRandom(77));
+        Fleet b = new FleetGenerator().generate(new SplittableRandom(77));
+
+        for (int i = 0; i < a.getShips().size(); i++) {
+            IShip x = a.getShips().get(i);
+            IShip y = b.getShips().get(i);
+            assertEquals(x.getCategory(), y.getCategory());
+            assertEquals(x.getBearing(), y.getBearing());
+            assertEquals(x.getPosition(), y.getPosition());
+        }
+    }
+
+    @Test
+    @DisplayName("Todas as orientações e posições do galeão acabam por ser usadas")
+    void coversBearingsAndCorners() {
+        FleetGenerator generator = new FleetGenerator(BoardSpec.STANDARD, new ShipKind[]{ShipKind.GALLEON});
+        SplittableRandom random = new SplittableRandom(3);
+        boolean[] bearings = new boolean[4];
+        boolean[][] covered = new boolean[IFleet.BOARD_SIZE][IFleet.BOARD_SIZE];
+
+        for (int i = 0; i < 5000; i++) {
+            IShip ship = generator.generate(random).getShips().get(0);
+            bearings[ship.getBearing().ordinal()] = true;
+            for (IPosition p : ship.getPositions())
+                covered[p.getRow()][p.getColumn()] = true;
+        }
+
+        for (int b = 0; b < 4; b++)
+            assertTrue(bearings[b]);
+        for (boolean[] row : covered)
+            for (boolean cell : row)
+                assertTrue(cell);
+    }
+
+    @Test
+    @DisplayName("Tabuleiros apertados recorrem à contagem e ao retrocesso")
+    void crowdedBoards() {
+        FleetGenerator generator = new FleetGenerator(new BoardSpec(8, 8, IFleet.FLEET_SIZE + 1),
+                ShipKind.standardFleet());
+        SplittableRandom random = new SplittableRandom(5);
+
+        for (int i = 0; i < 50; i++)
+            assertLegal(generator.generate(random), IFleet.FLEET_SIZE + 1);
+    }
+
+    @Test
+    @DisplayName("Tabuleiros grandes e esparsos")
+    void largeBoard() {
+        ShipKind[] kinds = new ShipKind[500];
+        for (int i = 0; i < kinds.length; i++)
+            kinds[i] = ShipKind.values()[i % ShipKind.values().length];
+        FleetGenerator generator = new FleetGenerator(BoardSpec.square(5000, 500), kinds);
+
+        Fleet fleet = generator.generate(new SplittableRandom(9));
+        assertEquals(500, fleet.getShips().size());
+    }
+
+    @Test
+    @DisplayName("Falha quando a frota não cabe")
+    void impossibleFleets() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new FleetGenerator(new BoardSpec(10, 10, 3), ShipKind.standardFleet()));
+
+        FleetGenerator tooSmall = new FleetGenerator(new BoardSpec(3, 3, 3),
+                new ShipKind[]{ShipKind.GALLEON, ShipKind.BARGE});
+        assertThrows(IllegalStateException.class, () -> tooSmall.generate(new SplittableRandom(1)));
+    }
+
+    @Test
+    @DisplayName("As amostras cobrem os tiros certeiros e evitam as células bloqueadas")
+    void samplesAgreeWithTheShots() {
+        BoardSpec spec = BoardSpec.STANDARD;
+        FleetGenerator generator = new FleetGenerator();
+        SplittableRandom random = new SplittableRandom(9);
+        IBitboard blocked = spec.newBitboard();
+        for (int c = 0; c < spec.getColumns(); c++)
+            blocked.set(5, c);
+        int[] hits = {spec.cell(2, 3), spec.cell(8, 8)};
+
+        int drawn = 0;
+        for (int attempt = 0; attempt < 2000 && drawn < 200; attempt++) {
+            if (!generator.sample(random, blocked, hits, hits.length))
+                continue;
+            drawn++;
+            boolean[] covered = new boolean[hits.length];
+            for (int k = 0; k < ShipKind.standardFleet().length; k++)
+                for (int i = 0; i < ShipKind.standardFleet()[k].getSize(); i++) {
+                    int cell = generator.getCell(k, i);
+                    assertFalse(blocked.get(spec.rowOf(cell), spec.columnOf(cell)));
+                    for (int h = 0; h < hits.length; h++)
+                        covered[h] |= cell == hits[h];
+                }
+            for (boolean c : covered)
+                assertTrue(c);
+        }
+        assertEquals(200, drawn);
+    }
+}
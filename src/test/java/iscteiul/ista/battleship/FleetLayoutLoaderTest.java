@@ -0,0 +1,176 @@
+package iscteiul.ista.battleship;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FleetLayoutLoaderTest {
+    private static final ShipKind[] KINDS = ShipKind.values();
+
+    /**
+     * Overwrites the kind and bearing of a ship of a dataset on the standard
+     * board, to forge what the writer refuses to write
+     */
+    private static void forge(byte[] bytes, int shipCount, int record, int ship, ShipKind kind, Compass bearing) {
+        int offset = FleetLayoutWriter.headerBytes(shipCount)
+                + (record * shipCount + ship) * (1 + FleetLayoutWriter.cellBytes(BoardSpec.STANDARD));
+        bytes[offset] = (byte) (kind.ordinal() << FleetLayoutWriter.BEARING_BITS | bearing.ordinal());
+    }
+
+    @Test
+    @DisplayName("As frotas do gerador são todas válidas")
+    void generatedFleetsPass(@TempDir Path directory) throws Exception {
+        Path file = directory.resolve("frotas.bsf");
+        FleetGenerator generator = new FleetGenerator();
+        SplittableRandom random = new SplittableRandom(1);
+        try (FleetLayoutWriter writer = FleetLayoutWriter.create(file, BoardSpec.STANDARD,
+                ShipKind.standardFleet())) {
+            for (int i = 0; i < 10_000; i++)
+                writer.fleet(generator.generate(random));
+        }
+
+        StringBuilder rejected = new StringBuilder();
+        FleetLayoutReport report = new FleetLayoutLoader(2).validate(file, rejected);
+        assertEquals(10_000, report.getFleets());
+        assertEquals(10_000, report.getValidFleets());
+        assertEquals("", rejected.toString());
+    }
+
+    @Test
+    @DisplayName("Aceita exatamente as frotas que Fleet.addShip aceita com a composição pedida")
+    void agreesWithFleet(@TempDir Path directory) throws Exception {
+        Path file = directory.resolve("frotas.bsf");
+        ShipKind[] fleet = ShipKind.standardFleet();
+        SplittableRandom random = new SplittableRandom(2);
+        FleetGenerator generator = new FleetGenerator();
+        StringBuilder expected = new StringBuilder();
+        int records = 20_000;
+        List<int[]> forged = new ArrayList<>();
+        try (FleetLayoutWriter writer = FleetLayoutWriter.create(file, BoardSpec.STANDARD, fleet)) {
+            for (int r = 0; r < records; r++) {
+                IFleet layout = generator.generate(random);
+                Fleet built = new Fleet();
+                int[] counts = new int[KINDS.length];
+                boolean valid = true;
+                int s = 0;
+                for (IShip original : layout.getShips()) {
+                    ShipKind kind = ShipKind.fromCategory(original.getCategory());
+                    Compass bearing = original.getBearing();
+                    int row = original.getPosition().getRow();
+                    int column = original.getPosition().getColumn();
+                    if (random.nextInt(8) == 0) {
+                        bearing = Compass.values()[random.nextInt(4)];
+                        row = random.nextInt(10);
+                        column = random.nextInt(10);
+                    }
+                    writer.ship(kind, bearing, row, column);
+                    if (random.nextInt(64) == 0) {
+                        kind = KINDS[random.nextInt(KINDS.length)];
+                        forged.add(new int[]{r, s, kind.ordinal(), bearing.ordinal()});
+                    }
+                    counts[kind.ordinal()]++;
+                    valid &= built.addShip(kind.build(bearing, row, column));
+                    s++;
+                }
+                int[] composition = new int[KINDS.length];
+                for (ShipKind kind : fleet)
+                    composition[kind.ordinal()]++;
+                if (!valid || !Arrays.equals(counts, composition))
+                    expected.append(r).append(' ');
+            }
+        }
+        byte[] bytes = Files.readAllBytes(file);
+        for (int[] ship : forged)
+            forge(bytes, fleet.length, ship[0], ship[1], KINDS[ship[2]], Compass.values()[ship[3]]);
+        Files.write(file, bytes);
+
+        StringBuilder rejected = new StringBuilder();
+        FleetLayoutReport report = new FleetLayoutLoader(3).validate(file, rejected);
+        StringBuilder indexes = new StringBuilder();
+        for (String line : rejected.toString().split("\n"))
+            indexes.append(line, 0, line.indexOf(' ')).append(' ');
+        assertEquals(records, report.getFleets());
+        assertTrue(report.getRejected() > records / 4 && report.getValidFleets() > records / 10);
+        assertEquals(expected.toString(), indexes.toString());
+    }
+
+    @Test
+    @DisplayName("Cada frota rejeitada sai com o motivo e o navio em falta")
+    void reasons(@TempDir Path directory) throws Exception {
+        Path file = directory.resolve("frotas.bsf");
+        try (FleetLayoutWriter writer = FleetLayoutWriter.create(file, BoardSpec.STANDARD,
+                new ShipKind[]{ShipKind.GALLEON, ShipKind.BARGE})) {
+            writer.ship(ShipKind.GALLEON, Compass.NORTH, 0, 0);
+            writer.ship(ShipKind.BARGE, Compass.NORTH, 9, 9);
+
+            writer.ship(ShipKind.GALLEON, Compass.NORTH, 0, 0);
+            writer.ship(ShipKind.BARGE, Compass.NORTH, 1, 0);
+
+            writer.ship(ShipKind.BARGE, Compass.NORTH, 5, 5);
+            writer.ship(ShipKind.GALLEON, Compass.EAST, 0, 0);
+
+            writer.ship(ShipKind.GALLEON, Compass.NORTH, 0, 0);
+            writer.ship(ShipKind.BARGE, Compass.NORTH, 5, 5);
+
+            writer.ship(ShipKind.GALLEON, Compass.NORTH, 0, 0);
+            writer.ship(ShipKind.BARGE, Compass.NORTH, 9, 9);
+
+            writer.ship(ShipKind.GALLEON, Compass.NORTH, 0, 0);
+        }
+        // a caravel where the header wants a barge, and a ship with no bearing
+        byte[] bytes = Files.readAllBytes(file);
+        forge(bytes, 2, 3, 1, ShipKind.CARAVEL, Compass.NORTH);
+        forge(bytes, 2, 4, 0, ShipKind.GALLEON, Compass.UNKNOWN);
+        Files.write(file, bytes);
+
+        StringBuilder rejected = new StringBuilder();
+        FleetLayoutReport report = new FleetLayoutLoader(1).validate(file, rejected);
+        assertEquals("1 TOO_CLOSE 1\n2 OUT_OF_BOUNDS 1\n3 COMPOSITION -1\n4 MALFORMED 0\n5 MALFORMED -1\n",
+                rejected.toString());
+        assertEquals(6, report.getFleets());
+        assertEquals(1, report.getValidFleets());
+        assertEquals(2, report.getRejected(FleetRejection.MALFORMED));
+    }
+
+    @Test
+    @DisplayName("O resultado não depende do número de threads")
+    void sameResultWithAnyParallelism(@TempDir Path directory) throws Exception {
+        Path file = directory.resolve("frotas.bsf");
+        SplittableRandom random = new SplittableRandom(3);
+        BoardSpec spec = new BoardSpec(12, 20, 10);
+        ShipKind[] kinds = {ShipKind.GALLEON, ShipKind.CARRACK, ShipKind.BARGE};
+        try (FleetLayoutWriter writer = FleetLayoutWriter.create(file, spec, kinds)) {
+            for (int r = 0; r < 30_000; r++)
+                for (ShipKind kind : kinds)
+                    writer.ship(kind, Compass.values()[random.nextInt(4)], random.nextInt(12), random.nextInt(20));
+        }
+
+        StringBuilder one = new StringBuilder();
+        StringBuilder many = new StringBuilder();
+        FleetLayoutReport sequential = new FleetLayoutLoader(1).validate(file, one);
+        FleetLayoutReport parallel = new FleetLayoutLoader(4).validate(file, many);
+        assertEquals(one.toString(), many.toString());
+        assertEquals(sequential.getRejected(), parallel.getRejected());
+        assertTrue(sequential.getValidFleets() > 0);
+    }
+
+    @Test
+    @DisplayName("Rejeita ficheiros que não são de frotas e paralelismo inválido")
+    void rejectsOtherFiles(@TempDir Path directory) throws Exception {
+        Path other = Files.write(directory.resolve("a.txt"), "nova galeao n 1 1".getBytes());
+        FleetLayoutLoader loader = new FleetLayoutLoader(1);
+        assertThrows(IllegalStateException.class, () -> loader.validate(other, new StringBuilder()));
+        Path empty = Files.write(directory.resolve("b.bsf"), FleetLayoutWriter.MAGIC);
+        assertThrows(IllegalStateException.class, () -> loader.validate(empty, new StringBuilder()));
+        assertThrows(IllegalArgumentException.class, () -> new FleetLayoutLoader(0));
+    }
+}
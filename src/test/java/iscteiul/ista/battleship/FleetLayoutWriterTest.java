@@ -0,0 +1,92 @@
+package iscteiul.ista.battleship;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FleetLayoutWriterTest {
+
+    @Test
+    @DisplayName("Cada navio da frota normal ocupa dois bytes")
+    void compactRecords(@TempDir Path directory) throws Exception {
+        Path file = directory.resolve("frotas.bsf");
+        FleetGenerator generator = new FleetGenerator();
+        SplittableRandom random = new SplittableRandom(1);
+        try (FleetLayoutWriter writer = FleetLayoutWriter.create(file, BoardSpec.STANDARD,
+                ShipKind.standardFleet())) {
+            for (int i = 0; i < 100; i++)
+                writer.fleet(generator.generate(random));
+            assertEquals(100, writer.getFleets());
+        }
+
+        int ships = ShipKind.standardFleet().length;
+        assertEquals(FleetLayoutWriter.headerBytes(ships) + 100 * ships * 2, Files.size(file));
+    }
+
+    @Test
+    @DisplayName("O cabeçalho guarda o tabuleiro e a composição da frota")
+    void header(@TempDir Path directory) throws Exception {
+        Path file = directory.resolve("frotas.bsf");
+        ShipKind[] kinds = {ShipKind.CARAVEL, ShipKind.BARGE};
+        new FleetLayoutWriter(Files.newByteChannel(file, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE), new BoardSpec(7, 9, 3), kinds).close();
+
+        ByteBuffer header = ByteBuffer.wrap(Files.readAllBytes(file));
+        for (byte b : FleetLayoutWriter.MAGIC)
+            assertEquals(b, header.get());
+        assertEquals(7, header.getInt());
+        assertEquals(9, header.getInt());
+        assertEquals(3, header.getInt());
+        assertEquals(2, header.getInt());
+        assertEquals(ShipKind.CARAVEL.ordinal(), header.get());
+        assertEquals(ShipKind.BARGE.ordinal(), header.get());
+        assertFalse(header.hasRemaining());
+    }
+
+    @Test
+    @DisplayName("A célula da âncora usa só os bytes de que o tabuleiro precisa")
+    void cellBytes() {
+        assertEquals(1, FleetLayoutWriter.cellBytes(new BoardSpec(1, 1, 0)));
+        assertEquals(1, FleetLayoutWriter.cellBytes(BoardSpec.STANDARD));
+        assertEquals(1, FleetLayoutWriter.cellBytes(new BoardSpec(16, 16, 10)));
+        assertEquals(2, FleetLayoutWriter.cellBytes(new BoardSpec(16, 17, 10)));
+        assertEquals(3, FleetLayoutWriter.cellBytes(new BoardSpec(1024, 1024, 10)));
+    }
+
+    @Test
+    @DisplayName("Rejeita âncoras fora do tabuleiro e frotas com outro número de navios")
+    void rejectsWhatCannotBeWritten(@TempDir Path directory) throws Exception {
+        try (FleetLayoutWriter writer = FleetLayoutWriter.create(directory.resolve("frotas.bsf"),
+                BoardSpec.STANDARD, new ShipKind[]{ShipKind.BARGE})) {
+            assertThrows(IllegalArgumentException.class, () -> writer.ship(ShipKind.BARGE, Compass.NORTH, 10, 0));
+            assertThrows(IllegalArgumentException.class, () -> writer.fleet(new FleetGenerator().generate(
+                    new SplittableRandom(2))));
+            assertEquals(0, writer.getFleets());
+        }
+        assertThrows(IllegalArgumentException.class, () -> FleetLayoutWriter.create(directory.resolve("x.bsf"),
+                new BoardSpec(10, 10, 0), new ShipKind[]{ShipKind.BARGE, ShipKind.BARGE}));
+    }
+
+    @Test
+    @DisplayName("Rejeita navios sem direção e navios a mais de um tipo")
+    void rejectsShipsOutsideTheComposition(@TempDir Path directory) throws Exception {
+        try (FleetLayoutWriter writer = FleetLayoutWriter.create(directory.resolve("frotas.bsf"),
+                BoardSpec.STANDARD, new ShipKind[]{ShipKind.BARGE, ShipKind.CARAVEL})) {
+            assertThrows(IllegalArgumentException.class, () -> writer.ship(ShipKind.CARAVEL, Compass.UNKNOWN, 0, 0));
+            assertThrows(IllegalArgumentException.class, () -> writer.ship(ShipKind.GALLEON, Compass.NORTH, 0, 0));
+            writer.ship(ShipKind.CARAVEL, Compass.EAST, 0, 0);
+            assertThrows(IllegalArgumentException.class, () -> writer.ship(ShipKind.CARAVEL, Compass.EAST, 5, 0));
+            writer.ship(ShipKind.BARGE, Compass.NORTH, 5, 5);
+            writer.ship(ShipKind.BARGE, Compass.NORTH, 9, 9);
+            assertEquals(1, writer.getFleets());
+        }
+    }
+}
@@ -51,6 +51,17 @@ class FleetTest {
         assertEquals(1, fleet.getShips().size());
     }
 
+    @Test
+    @DisplayName("shipIndexAt: index of the ship on a cell, -1 on water or off the board")
+    void shipIndexAt() {
+        fleet.addShip(new TestShip("Fragata", true, false, pos(2, 2), pos(2, 3)));
+        fleet.addShip(new TestShip("Barca", true, false, pos(5, 5)));
+        assertEquals(0, fleet.shipIndexAt(2, 3));
+        assertEquals(1, fleet.shipIndexAt(5, 5));
+        assertEquals(-1, fleet.shipIndexAt(0, 0));
+        assertEquals(-1, fleet.shipIndexAt(-1, 5));
+    }
+
     @Test
     @DisplayName("addShip: fail when leftMostPos < 0 (outside board)")
     void addShipFailsLeftOut() {
@@ -90,13 +101,44 @@ class FleetTest {
     @Test
     @DisplayName("addShip: fail when there is collision risk")
     void addShipFailsCollision() {
-        // existing ship will report tooCloseTo==true
-        TestShip a = new TestShip("Galeao", true, true, pos(1, 1));
+        TestShip a = new TestShip("Galeao", true, false, pos(1, 1), pos(1, 2));
         assertTrue(fleet.addShip(a));
 
-        // new ship is valid but should be rejected due to collisionRisk
-        TestShip b = new TestShip("Galeao", true, false, pos(5, 5));
+        // diagonal neighbour of (1,2)
+        TestShip b = new TestShip("Galeao", true, false, pos(2, 3));
         assertFalse(fleet.addShip(b));
+        assertEquals(1, fleet.getShips().size());
+    }
+
+    @Test
+    @DisplayName("addShip: fail when ships overlap")
+    void addShipFailsOverlap() {
+        assertTrue(fleet.addShip(new TestShip("Nau", true, false, pos(4, 4), pos(5, 4), pos(6, 4))));
+
+        assertFalse(fleet.addShip(new TestShip("Caravela", true, false, pos(5, 3), pos(5, 4))));
+    }
+
+    @Test
+    @DisplayName("addShip: success when ships are one cell apart")
+    void addShipSucceedsWithGap() {
+        assertTrue(fleet.addShip(new TestShip("Nau", true, false, pos(4, 4), pos(5, 4), pos(6, 4))));
+
+        assertTrue(fleet.addShip(new TestShip("Caravela", true, false, pos(8, 4), pos(8, 5))));
+        assertTrue(fleet.addShip(new TestShip("Barca", true, false, pos(4, 6))));
+        assertTrue(fleet.addShip(new TestShip("Barca", true, false, pos(2, 2))));
+        assertEquals(4, fleet.getShips().size());
+    }
+
+    @Test
+    @DisplayName("addShip: halo stops at the board edges")
+    void addShipHaloAtEdges() {
+        assertTrue(fleet.addShip(new TestShip("Barca", true, false, pos(0, 9))));
+        assertTrue(fleet.addShip(new TestShip("Barca", true, false, pos(9, 0))));
+
+        assertFalse(fleet.addShip(new TestShip("Barca", true, false, pos(1, 8))));
+        assertFalse(fleet.addShip(new TestShip("Barca", true, false, pos(8, 1))));
+        assertTrue(fleet.addShip(new TestShip("Barca", true, false, pos(0, 7))));
+        assertTrue(fleet.addShip(new TestShip("Barca", true, false, pos(9, 2))));
     }
 
     @Test
@@ -138,6 +180,167 @@ class FleetTest {
         assertNull(fleet.shipAt(pos(0, 0)));
     }
 
+    @Test
+    @DisplayName("shipAt finds each ship of a fleet with several ships")
+    void shipAtWithSeveralShips() {
+        TestShip a = new TestShip("Nau", true, false, pos(0, 0), pos(0, 1), pos(0, 2));
+        TestShip b = new TestShip("Caravela", true, false, pos(5, 7), pos(6, 7));
+        TestShip c = new TestShip("Barca", true, false, pos(9, 9));
+        fleet.addShip(a);
+        fleet.addShip(b);
+        fleet.addShip(c);
+
+        assertSame(a, fleet.shipAt(pos(0, 2)));
+        assertSame(b, fleet.shipAt(pos(6, 7)));
+        assertSame(c, fleet.shipAt(pos(9, 9)));
+        assertNull(fleet.shipAt(pos(5, 6)));
+    }
+
+    @Test
+    @DisplayName("shipAt returns null for positions outside the board")
+    void shipAtOutsideBoard() {
+        fleet.addShip(new TestShip("Barca", true, false, pos(0, 0)));
+
+        assertNull(fleet.shipAt(pos(-1, 0)));
+        assertNull(fleet.shipAt(pos(0, -1)));
+        assertNull(fleet.shipAt(pos(IFleet.BOARD_SIZE, 0)));
+        assertNull(fleet.shipAt(pos(0, IFleet.BOARD_SIZE)));
+    }
+
+    @Test
+    @DisplayName("shipAt ignores ships rejected by addShip")
+    void shipAtIgnoresRejectedShips() {
+        TestShip outside = new TestShip("Nau", true, false, pos(9, 8), pos(9, 10));
+        assertFalse(fleet.addShip(outside));
+
+        assertNull(fleet.shipAt(pos(9, 8)));
+    }
+
+    @Test
+    @DisplayName("getShips is a read-only view")
+    void getShipsIsReadOnly() {
+        assertThrows(UnsupportedOperationException.class,
+                () -> fleet.getShips().add(new TestShip("Barca", true, false, pos(0, 0))));
+    }
+
+    @Test
+    @DisplayName("default fleet uses the standard board spec")
+    void defaultSpec() {
+        assertEquals(BoardSpec.STANDARD, fleet.getBoardSpec());
+    }
+
+    @Test
+    @DisplayName("fleet on a large board checks bounds and collisions against its own spec")
+    void largeBoardFleet() {
+        Fleet big = new Fleet(BoardSpec.square(10_000, 2000));
+
+        TestShip far = new TestShip("Nau", true, false, pos(9_998, 9_997), pos(9_998, 9_998), pos(9_998, 9_999));
+        assertTrue(big.addShip(far));
+        assertSame(far, big.shipAt(pos(9_998, 9_999)));
+        assertNull(big.shipAt(pos(9_999, 9_999)));
+
+        assertFalse(big.addShip(new TestShip("Barca", true, false, pos(9_999, 9_996))));
+        assertFalse(big.addShip(new TestShip("Barca", true, false, pos(10_000, 0))));
+        assertTrue(big.addShip(new TestShip("Barca", true, false, pos(20, 5_000))));
+    }
+
+    @Test
+    @DisplayName("fleet limit comes from the board spec")
+    void fleetLimitFromSpec() {
+        Fleet small = new Fleet(new BoardSpec(10, 10, 2));
+
+        assertTrue(small.addShip(new TestShip("Barca", true, false, pos(0, 0))));
+        assertTrue(small.addShip(new TestShip("Barca", true, false, pos(0, 2))));
+        assertFalse(small.addShip(new TestShip("Barca", true, false, pos(0, 4))));
+    }
+
+    @Test
+    @DisplayName("addShip: a ship taller than the collision mask is accepted and checked cell by cell")
+    void addShipTallShip() {
+        TestPosition[] cells = new TestPosition[7];
+        for (int i = 0; i < cells.length; i++)
+            cells[i] = pos(1 + i, 3);
+        TestShip tall = new TestShip("Nau", true, false, cells);
+
+        assertTrue(fleet.addShip(tall));
+        assertSame(tall, fleet.shipAt(new TestPosition(4, 3)));
+        assertFalse(fleet.addShip(new TestShip("Barca", true, false, pos(8, 4))));
+        assertFalse(fleet.addShip(new TestShip("Barca", true, false, pos(0, 2))));
+        assertTrue(fleet.addShip(new TestShip("Barca", true, false, pos(4, 5))));
+        assertEquals(2, fleet.getShips().size());
+        assertEquals(1, fleet.shipIndexAt(4, 5));
+    }
+
+    @Test
+    @DisplayName("addShip: a ship wider than the collision mask is accepted and checked cell by cell")
+    void addShipWideShip() {
+        Fleet wide = new Fleet(new BoardSpec(5, 200, 10));
+        TestPosition[] cells = new TestPosition[150];
+        for (int i = 0; i < cells.length; i++)
+            cells[i] = pos(2, 20 + i);
+        TestShip ship = new TestShip("Galeao", true, false, cells);
+
+        assertTrue(wide.addShip(ship));
+        assertSame(ship, wide.shipAt(new TestPosition(2, 160)));
+        assertFalse(wide.addShip(new TestShip("Barca", true, false, pos(3, 170))));
+        assertFalse(wide.addShip(new TestShip("Barca", true, false, pos(1, 19))));
+        assertTrue(wide.addShip(new TestShip("Barca", true, false, pos(0, 100))));
+        assertTrue(wide.addShip(new TestShip("Barca", true, false, pos(2, 171))));
+        assertEquals(3, wide.getShips().size());
+    }
+
+    @Test
+    @DisplayName("floating and sunk tallies follow the ships added")
+    void talliesOnAdd() {
+        fleet.addShip(new TestShip("Fragata", true, false, pos(0, 0)));
+        fleet.addShip(new TestShip("Fragata", false, false, pos(0, 2)));
+        fleet.addShip(new TestShip("Barca", true, false, pos(0, 4)));
+
+        assertEquals(2, fleet.getFloatingCount());
+        assertEquals(1, fleet.getSunkCount());
+        assertEquals(1, fleet.getFloatingCount("Fragata"));
+        assertEquals(1, fleet.getSunkCount("Fragata"));
+        assertEquals(1, fleet.getFloatingCount("Barca"));
+        assertEquals(0, fleet.getSunkCount("Barca"));
+        assertEquals(0, fleet.getFloatingCount("Galeao"));
+        assertEquals(0, fleet.getSunkCount("Galeao"));
+        assertEquals(fleet.getFloatingShips().size(), fleet.getFloatingCount());
+    }
+
+    @Test
+    @DisplayName("shoot delivers the shot to the ship at the position")
+    void shootHitsShipAtPosition() {
+        TestShip s = new TestShip("Caravela", true, false, pos(3, 3), pos(3, 4));
+        fleet.addShip(s);
+
+        assertSame(s, fleet.shoot(pos(3, 4)));
+        assertTrue(s.getPositions().get(1).isHit());
+        assertFalse(s.getPositions().get(0).isHit());
+        assertNull(fleet.shoot(pos(5, 5)));
+        assertNull(fleet.shoot(pos(-1, 3)));
+    }
+
+    @Test
+    @DisplayName("unshoot takes back the hit and refloats the ship it sank")
+    void unshootRefloatsShip() {
+        Fleet real = new Fleet();
+        Caravel c = new Caravel(Compass.EAST, new Position(3, 3));
+        real.addShip(c);
+        real.shoot(3, 3);
+        real.shoot(3, 4);
+        assertEquals(0, real.getFloatingCount("Caravela"));
+
+        real.unshoot(3, 4);
+        real.unshoot(5, 5);
+        real.unshoot(-1, 3);
+
+        assertEquals(1, real.getFloatingCount());
+        assertEquals(1, real.getFloatingCount("Caravela"));
+        assertEquals(0, real.getSunkCount("Caravela"));
+        assertTrue(c.getPositions().get(0).isHit());
+        assertFalse(c.getPositions().get(1).isHit());
+    }
+
     @Test
     @DisplayName("printing helpers do not throw")
     void printingHelpersDoNotThrow() {
@@ -208,6 +411,11 @@ class FleetTest {
             hit = true;
         }
 
+        @Override
+        public void unshoot() {
+            hit = false;
+        }
+
         @Override
         public boolean isOccupied() {
             return occupied;
@@ -365,6 +573,20 @@ class FleetTest {
             }
         }
 
+        @Override
+        public void shoot(int row, int column) {
+            shoot(new TestPosition(row, column));
+        }
+
+        @Override
+        public void unshoot(int row, int column) {
+            for (TestPosition tp : positions) {
+                if (tp.row == row && tp.col == column) {
+                    tp.unshoot();
+                }
+            }
+        }
+
         @Override
         public String toString() {
             return "TestShip{" + category + " " + positions + "}";
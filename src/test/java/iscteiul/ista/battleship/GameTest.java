@@ -4,6 +4,9 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
 import java.lang.reflect.Field;
 import java.util.List;
 
@@ -29,6 +32,10 @@ class GameTest {
     // ------------------------------------------------------------
 
     private void initHitAndSinkCounters() {
+        initHitAndSinkCounters(game);
+    }
+
+    private static void initHitAndSinkCounters(Game game) {
         try {
             Field hits = Game.class.getDeclaredField("countHits");
             hits.setAccessible(true);
@@ -124,16 +131,28 @@ class GameTest {
     // ------------------------------------------------------------
 
     @Test
-    @DisplayName("Disparo em (BOARD_SIZE, BOARD_SIZE) é considerado válido pelo código actual")
-    void fireAcceptsBoundaryCell() {
+    @DisplayName("Disparo em (BOARD_SIZE, BOARD_SIZE) fica fora do tabuleiro e é inválido")
+    void fireRejectsBoundaryCell() {
         IPosition boundary = pos(IFleet.BOARD_SIZE, IFleet.BOARD_SIZE);
 
         IShip result = game.fire(boundary);
 
+        assertNull(result);
+        assertEquals(1, game.getInvalidShots());
+        assertTrue(game.getShots().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Disparo na última célula (BOARD_SIZE - 1, BOARD_SIZE - 1) é válido")
+    void fireAcceptsLastCell() {
+        IPosition last = pos(IFleet.BOARD_SIZE - 1, IFleet.BOARD_SIZE - 1);
+
+        IShip result = game.fire(last);
+
         assertNull(result);
         assertEquals(0, game.getInvalidShots());
         assertEquals(1, game.getShots().size());
-        assertEquals(boundary, game.getShots().get(0));
+        assertEquals(last, game.getShots().get(0));
     }
 
     // ------------------------------------------------------------
@@ -170,6 +189,40 @@ class GameTest {
         assertEquals(1, game.getShots().size());
     }
 
+    @Test
+    @DisplayName("getShots mantém a ordem dos tiros e ignora os repetidos")
+    void getShotsKeepsOrderWithoutRepeats() {
+        game.fire(pos(4, 4));
+        game.fire(pos(0, 9));
+        game.fire(pos(4, 4));
+        game.fire(pos(7, 1));
+
+        List<IPosition> shots = game.getShots();
+        assertEquals(3, shots.size());
+        assertEquals(pos(4, 4), shots.get(0));
+        assertEquals(pos(0, 9), shots.get(1));
+        assertEquals(pos(7, 1), shots.get(2));
+        assertEquals(1, game.getRepeatedShots());
+    }
+
+    @Test
+    @DisplayName("Cada célula do tabuleiro só é registada uma vez")
+    void everyCellIsRegisteredOnce() {
+        for (int round = 0; round < 2; round++)
+            for (int r = 0; r < IFleet.BOARD_SIZE; r++)
+                for (int c = 0; c < IFleet.BOARD_SIZE; c++)
+                    game.fire(pos(r, c));
+
+        assertEquals(IFleet.BOARD_SIZE * IFleet.BOARD_SIZE, game.getShots().size());
+        assertEquals(IFleet.BOARD_SIZE * IFleet.BOARD_SIZE, game.getRepeatedShots());
+    }
+
+    @Test
+    @DisplayName("getShots é só de leitura")
+    void getShotsIsReadOnly() {
+        assertThrows(UnsupportedOperationException.class, () -> game.getShots().add(pos(0, 0)));
+    }
+
     // ------------------------------------------------------------
     // hit mas navio ainda flutua
     // ------------------------------------------------------------
@@ -233,6 +286,253 @@ class GameTest {
         assertEquals(1, game.getRemainingShips());
     }
 
+    @Test
+    @DisplayName("Contagens da frota por categoria acompanham os afundamentos")
+    void fleetTalliesFollowSinks() {
+        initHitAndSinkCounters();
+
+        Caravel c = new Caravel(Compass.NORTH, pos(0, 0));
+        Barge b1 = new Barge(Compass.NORTH, pos(5, 5));
+        Barge b2 = new Barge(Compass.NORTH, pos(8, 8));
+        fleet.addShip(c);
+        fleet.addShip(b1);
+        fleet.addShip(b2);
+
+        game.fire(pos(5, 5));
+        game.fire(pos(0, 0));
+
+        assertEquals(2, fleet.getFloatingCount());
+        assertEquals(1, fleet.getSunkCount());
+        assertEquals(1, fleet.getFloatingCount("Barca"));
+        assertEquals(1, fleet.getSunkCount("Barca"));
+        assertEquals(1, fleet.getFloatingCount("Caravela"));
+
+        game.fire(pos(1, 0));
+
+        assertEquals(0, fleet.getFloatingCount("Caravela"));
+        assertEquals(1, fleet.getSunkCount("Caravela"));
+        assertEquals(1, game.getRemainingShips());
+        assertEquals(2, game.getSunkShips());
+    }
+
+    // ------------------------------------------------------------
+    // fire(row, column)
+    // ------------------------------------------------------------
+
+    @Test
+    @DisplayName("fire(row, column) devolve o resultado de cada tipo de tiro")
+    void firePrimitiveResults() {
+        Caravel c = new Caravel(Compass.EAST, pos(2, 2));
+        fleet.addShip(c);
+
+        assertEquals(ShotResult.INVALID, game.fire(-1, 0));
+        assertEquals(ShotResult.MISS, game.fire(0, 0));
+        assertEquals(ShotResult.REPEAT, game.fire(0, 0));
+        assertEquals(ShotResult.HIT, game.fire(2, 2));
+        assertNull(game.getLastSunkShip());
+        assertEquals(ShotResult.SUNK, game.fire(2, 3));
+        assertSame(c, game.getLastSunkShip());
+
+        assertEquals(1, game.getInvalidShots());
+        assertEquals(1, game.getRepeatedShots());
+        assertEquals(2, game.getHits());
+        assertEquals(1, game.getSunkShips());
+        assertEquals(3, game.getShots().size());
+        assertEquals(pos(2, 3), game.getShots().get(2));
+    }
+
+    @Test
+    @DisplayName("Contadores começam a zero sem inicialização externa")
+    void countersStartAtZero() {
+        assertEquals(0, game.getHits());
+        assertEquals(0, game.getSunkShips());
+
+        fleet.addShip(new Barge(Compass.NORTH, pos(4, 4)));
+        game.fire(pos(4, 4));
+
+        assertEquals(1, game.getHits());
+        assertEquals(1, game.getSunkShips());
+    }
+
+    @Test
+    @DisplayName("fire(row, column) não aloca memória depois de aquecido")
+    void firePrimitiveDoesNotAllocate() {
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().getId();
+
+        Game[] games = new Game[400];
+        for (int g = 0; g < games.length; g++) {
+            Fleet f = new Fleet();
+            f.addShip(new Galleon(Compass.NORTH, pos(0, 0)));
+            f.addShip(new Frigate(Compass.SOUTH, pos(4, 0)));
+            f.addShip(new Caravel(Compass.EAST, pos(9, 8)));
+            f.addShip(new Barge(Compass.NORTH, pos(5, 5)));
+            games[g] = new Game(f);
+        }
+
+        playAll(games, 0, games.length / 2);
+        threads.getThreadAllocatedBytes(thread);
+        long before = threads.getThreadAllocatedBytes(thread);
+        int shots = playAll(games, games.length / 2, games.length);
+        long allocated = threads.getThreadAllocatedBytes(thread) - before;
+
+        assertTrue(allocated < 1024, allocated + " bytes em " + shots + " tiros");
+    }
+
+    private static int playAll(Game[] games, int from, int to) {
+        int shots = 0;
+        for (int g = from; g < to; g++) {
+            for (int r = -1; r <= IFleet.BOARD_SIZE; r++)
+                for (int c = 0; c < IFleet.BOARD_SIZE; c++) {
+                    games[g].fire(r, c);
+                    games[g].fire(r, c);
+                    shots += 2;
+                }
+        }
+        return shots;
+    }
+
+    // ------------------------------------------------------------
+    // tabuleiros configuráveis
+    // ------------------------------------------------------------
+
+    @Test
+    @DisplayName("Game usa as dimensões do tabuleiro da frota")
+    void gameUsesFleetBoardSpec() {
+        Game big = new Game(new Fleet(new BoardSpec(100, 200, 50)));
+
+        big.fire(pos(99, 199));
+        big.fire(pos(100, 0));
+        big.fire(pos(0, 200));
+
+        assertEquals(1, big.getShots().size());
+        assertEquals(2, big.getInvalidShots());
+    }
+
+    @Test
+    @DisplayName("Game num tabuleiro esparso detecta tiros repetidos")
+    void sparseBoardRepeatedShots() {
+        Fleet fleet = new Fleet(BoardSpec.square(10_000, 1000));
+        Barge b = new Barge(Compass.NORTH, pos(5_000, 5_000));
+        fleet.addShip(b);
+        Game big = new Game(fleet);
+        initHitAndSinkCounters(big);
+
+        assertSame(b, big.fire(pos(5_000, 5_000)));
+        big.fire(pos(9_999, 0));
+        big.fire(pos(9_999, 0));
+
+        assertEquals(1, big.getRepeatedShots());
+        assertEquals(2, big.getShots().size());
+        assertEquals(1, big.getSunkShips());
+    }
+
+    // ------------------------------------------------------------
+    // makeShot / unmakeShot
+    // ------------------------------------------------------------
+
+    @Test
+    @DisplayName("unmakeShot repõe o estado anterior a cada makeShot")
+    void unmakeShotRestoresState() {
+        Barge barge = new Barge(Compass.NORTH, pos(0, 0));
+        Caravel caravel = new Caravel(Compass.EAST, pos(5, 5));
+        fleet.addShip(barge);
+        fleet.addShip(caravel);
+        game.fire(0, 0);
+
+        int[][] shots = {{5, 5}, {9, 9}, {5, 5}, {-1, 0}, {5, 6}};
+        ShotResult[] expected = {ShotResult.HIT, ShotResult.MISS, ShotResult.REPEAT, ShotResult.INVALID,
+                ShotResult.SUNK};
+        for (int i = 0; i < shots.length; i++)
+            assertEquals(expected[i], game.makeShot(shots[i][0], shots[i][1]));
+        assertSame(caravel, game.getLastSunkShip());
+        assertEquals(0, game.getRemainingShips());
+
+        for (int i = 0; i < shots.length; i++)
+            game.unmakeShot();
+
+        assertEquals(1, game.getShots().size());
+        assertEquals(1, game.getHits());
+        assertEquals(1, game.getSunkShips());
+        assertEquals(0, game.getRepeatedShots());
+        assertEquals(0, game.getInvalidShots());
+        assertSame(barge, game.getLastSunkShip());
+        assertEquals(1, game.getRemainingShips());
+        assertEquals(1, fleet.getFloatingCount("Caravela"));
+        for (IPosition p : caravel.getPositions())
+            assertFalse(p.isHit());
+        assertEquals(ShotResult.HIT, game.fire(5, 6));
+        assertThrows(IllegalStateException.class, game::unmakeShot);
+    }
+
+    @Test
+    @DisplayName("O hash da observação não depende da ordem dos tiros e é reposto por unmakeShot")
+    void observationHash() {
+        fleet.addShip(new Caravel(Compass.EAST, pos(5, 5)));
+        Fleet other = new Fleet();
+        other.addShip(new Caravel(Compass.EAST, pos(5, 5)));
+        Game reordered = new Game(other);
+        assertEquals(0, game.getObservationHash());
+
+        game.fire(0, 0);
+        game.fire(5, 5);
+        long hit = game.getObservationHash();
+        reordered.fire(5, 5);
+        reordered.fire(0, 0);
+        reordered.fire(0, 0);
+        reordered.fire(-1, 0);
+        assertEquals(hit, reordered.getObservationHash());
+
+        assertEquals(ShotResult.SUNK, game.makeShot(5, 6));
+        long sunk = game.getObservationHash();
+        assertNotEquals(hit, sunk);
+        assertEquals(hit ^ Zobrist.key(55, ShotResult.HIT) ^ Zobrist.key(55, ShotResult.SUNK)
+                ^ Zobrist.key(56, ShotResult.SUNK), sunk);
+
+        game.unmakeShot();
+        assertEquals(hit, game.getObservationHash());
+    }
+
+    @Test
+    @DisplayName("makeShot e unmakeShot não alocam memória depois de aquecidos")
+    void makeUnmakeDoesNotAllocate() {
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().getId();
+
+        Fleet f = new Fleet();
+        f.addShip(new Galleon(Compass.NORTH, pos(0, 0)));
+        f.addShip(new Frigate(Compass.SOUTH, pos(4, 0)));
+        f.addShip(new Barge(Compass.NORTH, pos(5, 5)));
+        Game g = new Game(f);
+
+        makeUnmakeAll(g, 20);
+        threads.getThreadAllocatedBytes(thread);
+        long before = threads.getThreadAllocatedBytes(thread);
+        int shots = makeUnmakeAll(g, 200);
+        long allocated = threads.getThreadAllocatedBytes(thread) - before;
+
+        assertTrue(allocated < 1024, allocated + " bytes em " + shots + " tiros");
+        assertEquals(0, g.getShots().size());
+        assertEquals(3, g.getRemainingShips());
+    }
+
+    private static int makeUnmakeAll(Game game, int rounds) {
+        int shots = 0;
+        for (int i = 0; i < rounds; i++) {
+            for (int r = -1; r <= IFleet.BOARD_SIZE; r++)
+                for (int c = 0; c < IFleet.BOARD_SIZE; c++) {
+                    game.makeShot(r, c);
+                    game.makeShot(r, c);
+                    shots += 2;
+                }
+            for (int s = 0; s < 2 * (IFleet.BOARD_SIZE + 2) * IFleet.BOARD_SIZE; s++)
+                game.unmakeShot();
+        }
+        return shots;
+    }
+
     // ------------------------------------------------------------
     // printing
     // ------------------------------------------------------------
@@ -265,4 +565,136 @@ class GameTest {
 
         assertDoesNotThrow(() -> game.printFleet());
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("printValidShots escreve o tabuleiro inteiro de uma vez, uma linha por fila")
+    void printValidShotsWritesTheWholeBoard() {
+        game.fire(pos(0, 1));
+        game.fire(pos(9, 9));
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        PrintStream out = System.out;
+        System.setOut(new PrintStream(bytes, true));
+        try {
+            game.printValidShots();
+        } finally {
+            System.setOut(out);
+        }
+
+        String[] lines = bytes.toString().split(System.lineSeparator());
+        assertEquals(IFleet.BOARD_SIZE, lines.length);
+        assertEquals(".X........", lines[0]);
+        assertEquals("..........", lines[5]);
+        assertEquals(".........X", lines[9]);
+    }
+
+    // ------------------------------------------------------------
+    // listeners
+    // ------------------------------------------------------------
+
+    @Test
+    @DisplayName("Um ouvinte é avisado de cada tiro, com o resultado e o navio atingido")
+    void listenerSeesEveryShot() {
+        fleet.addShip(new Barge(Compass.NORTH, pos(0, 0)));
+        fleet.addShip(new Caravel(Compass.EAST, pos(3, 3)));
+        StringBuilder events = new StringBuilder();
+        game.addListener((row, column, result, ship) ->
+                events.append(row).append(',').append(column).append(' ').append(result).append(' ')
+                        .append(ship).append(';'));
+
+        game.fire(-1, 0);
+        game.fire(5, 5);
+        game.fire(5, 5);
+        game.fire(3, 3);
+        game.fire(0, 0);
+        assertEquals("-1,0 INVALID -1;5,5 MISS -1;5,5 REPEAT -1;3,3 HIT 1;0,0 SUNK 0;", events.toString());
+    }
+
+    @Test
+    @DisplayName("Vários ouvintes são avisados pela ordem em que foram juntos, e podem sair")
+    void severalListeners() {
+        StringBuilder events = new StringBuilder();
+        IGameListener a = (row, column, result, ship) -> events.append('a');
+        IGameListener b = (row, column, result, ship) -> events.append('b');
+        IGameListener c = (row, column, result, ship) -> events.append('c');
+        game.addListener(a);
+        game.addListener(b);
+        game.addListener(c);
+        game.fire(1, 1);
+        game.removeListener(b);
+        game.fire(1, 2);
+        game.removeListener(a);
+        game.fire(1, 3);
+        game.removeListener(c);
+        game.fire(1, 4);
+        assertEquals("abcacc", events.toString());
+    }
+
+    @Test
+    @DisplayName("makeShot e unmakeShot avisam os ouvintes, pela ordem inversa ao desfazer")
+    void makeAndUnmakeShotAreReported() {
+        fleet.addShip(new Barge(Compass.NORTH, pos(4, 4)));
+        StringBuilder events = new StringBuilder();
+        game.addListener(new IGameListener() {
+            @Override
+            public void shotFired(int row, int column, ShotResult result, int ship) {
+                events.append("a+").append(row).append(',').append(column).append(' ').append(result).append(' ')
+                        .append(ship).append(';');
+            }
+
+            @Override
+            public void shotTakenBack(int row, int column, ShotResult result, int ship) {
+                events.append("a-").append(row).append(',').append(column).append(' ').append(result).append(' ')
+                        .append(ship).append(';');
+            }
+        });
+        game.addListener(new IGameListener() {
+            @Override
+            public void shotFired(int row, int column, ShotResult result, int ship) {
+                events.append("b+;");
+            }
+
+            @Override
+            public void shotTakenBack(int row, int column, ShotResult result, int ship) {
+                events.append("b-;");
+            }
+        });
+
+        game.makeShot(4, 4);
+        game.makeShot(4, 4);
+        game.makeShot(-1, 3);
+        game.unmakeShot();
+        game.unmakeShot();
+        game.unmakeShot();
+        assertEquals("a+4,4 SUNK 0;b+;a+4,4 REPEAT -1;b+;a+-1,3 INVALID -1;b+;"
+                + "b-;a--1,3 INVALID -1;b-;a-4,4 REPEAT -1;b-;a-4,4 SUNK 0;", events.toString());
+        assertEquals(1, fleet.getFloatingShips().size());
+    }
+
+    @Test
+    @DisplayName("Com um ouvinte, fire(row, column) continua sem alocar memória")
+    void fireWithListenerDoesNotAllocate() {
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().getId();
+        long[] hits = new long[1];
+        IGameListener counter = (row, column, result, ship) -> hits[0] += ship + 1;
+
+        Game[] games = new Game[400];
+        for (int g = 0; g < games.length; g++) {
+            Fleet f = new Fleet();
+            f.addShip(new Galleon(Compass.NORTH, pos(0, 0)));
+            f.addShip(new Barge(Compass.NORTH, pos(5, 5)));
+            games[g] = new Game(f);
+            games[g].addListener(counter);
+        }
+
+        playAll(games, 0, games.length / 2);
+        threads.getThreadAllocatedBytes(thread);
+        long before = threads.getThreadAllocatedBytes(thread);
+        int shots = playAll(games, games.length / 2, games.length);
+        long allocated = threads.getThreadAllocatedBytes(thread) - before;
+
+        assertTrue(allocated < 1024, allocated + " bytes em " + shots + " tiros");
+        assertEquals(games.length * (5 + 2), hits[0]);
+    }
+}
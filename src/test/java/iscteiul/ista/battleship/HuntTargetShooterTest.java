@@ -0,0 +1,54 @@
+package iscteiul.ista.battleship;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HuntTargetShooterTest {
+
+    @Test
+    @DisplayName("Depois de um acerto dispara nas células vizinhas")
+    void targetsNeighboursAfterHit() {
+        HuntTargetShooter shooter = new HuntTargetShooter();
+        shooter.newGame(BoardSpec.STANDARD, ShipKind.standardFleet(), new SplittableRandom(3));
+        shooter.shotFired(4, 4, ShotResult.HIT, null);
+
+        Set<Integer> next = new HashSet<>();
+        for (int i = 0; i < 4; i++) {
+            int cell = shooter.nextShot();
+            next.add(cell);
+            shooter.shotFired(BoardSpec.STANDARD.rowOf(cell), BoardSpec.STANDARD.columnOf(cell), ShotResult.MISS, null);
+        }
+
+        Set<Integer> expected = Set.of(BoardSpec.STANDARD.cell(3, 4), BoardSpec.STANDARD.cell(5, 4),
+                BoardSpec.STANDARD.cell(4, 3), BoardSpec.STANDARD.cell(4, 5));
+        assertEquals(expected, next);
+    }
+
+    @Test
+    @DisplayName("Nunca dispara duas vezes na mesma célula nem junto a um navio afundado")
+    void neverRepeatsNorTouchesSunkShips() {
+        BoardSpec spec = BoardSpec.STANDARD;
+        Fleet fleet = new FleetGenerator().generate(new SplittableRandom(11));
+        Game game = new Game(fleet);
+        HuntTargetShooter shooter = new HuntTargetShooter();
+        shooter.newGame(spec, ShipKind.standardFleet(), new SplittableRandom(11));
+
+        Set<Integer> fired = new HashSet<>();
+        while (game.getRemainingShips() > 0) {
+            int cell = shooter.nextShot();
+            assertTrue(fired.add(cell), "Célula repetida: " + cell);
+            int row = spec.rowOf(cell);
+            int column = spec.columnOf(cell);
+            ShotResult result = game.fire(row, column);
+            assertNotEquals(ShotResult.REPEAT, result);
+            shooter.shotFired(row, column, result, result == ShotResult.SUNK ? game.getLastSunkShip() : null);
+        }
+        assertTrue(fired.size() < spec.getCells());
+    }
+}
@@ -0,0 +1,82 @@
+package iscteiul.ista.battleship;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JournalReaderTest {
+
+    private static byte[] journal() throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (JournalWriter writer = new JournalWriter(Channels.newChannel(bytes), 64)) {
+            writer.writeHeader();
+            writer.startGame(new FleetGenerator().generate(new SplittableRandom(1)));
+            writer.shot(0, 0, ShotResult.MISS);
+            writer.shot(9, 9, ShotResult.MISS);
+        }
+        return bytes.toByteArray();
+    }
+
+    @Test
+    @DisplayName("Recusa o que não começa pelo cabeçalho")
+    void rejectsOtherFiles() {
+        assertThrows(IllegalStateException.class, () -> new JournalReader(ByteBuffer.wrap(new byte[]{'B', 'S'})));
+        assertThrows(IllegalStateException.class,
+                () -> new JournalReader(ByteBuffer.wrap(new byte[]{'B', 'S', 'J', 1})));
+    }
+
+    @Test
+    @DisplayName("Um diário cortado a meio de um registo está danificado")
+    void rejectsTruncatedJournals() throws Exception {
+        byte[] whole = journal();
+        JournalReader reader = new JournalReader(ByteBuffer.wrap(Arrays.copyOf(whole, 20)));
+        assertThrows(IllegalStateException.class, reader::next);
+    }
+
+    @Test
+    @DisplayName("Um tiro antes de qualquer jogo é um erro")
+    void rejectsShotsBeforeAGame() {
+        byte[] bytes = {'B', 'S', 'J', 2, (byte) ShotResult.MISS.ordinal()};
+        JournalReader reader = new JournalReader(ByteBuffer.wrap(bytes));
+        assertThrows(IllegalStateException.class, reader::next);
+    }
+
+    @Test
+    @DisplayName("Um tiro fora do tabuleiro do jogo é um erro")
+    void rejectsCellsOffTheBoard() throws Exception {
+        byte[] whole = journal();
+        // the last shot, from (0, 0) to (9, 9), becomes a step of 99 * 64
+        byte[] bytes = Arrays.copyOf(whole, whole.length + 1);
+        bytes[whole.length - 2] = (byte) 0x80;
+        bytes[whole.length - 1] = (byte) 0xC6;
+        bytes[whole.length] = 0x0C;
+        JournalReader reader = new JournalReader(ByteBuffer.wrap(bytes));
+        assertEquals(JournalReader.Record.GAME, reader.next());
+        assertEquals(JournalReader.Record.SHOT, reader.next());
+        assertThrows(IllegalStateException.class, reader::next);
+    }
+
+    @Test
+    @DisplayName("Um jogo com navios negativos ou a mais está danificado")
+    void rejectsDamagedGames() {
+        // a kind of -1, as a ten-byte varint
+        byte[] negative = {'B', 'S', 'J', 2, 7, 10, 10, 11, 1,
+                -1, -1, -1, -1, -1, -1, -1, -1, -1, 1, 0, 0, 0};
+        assertThrows(IllegalStateException.class, new JournalReader(ByteBuffer.wrap(negative))::next);
+
+        // 2^28 ships on a board that allows them, in a few bytes
+        byte[] many = {'B', 'S', 'J', 2, 7, -128, -128, 1, -128, -128, 1, -128, -128, -128, -128, 1,
+                -128, -128, -128, -128, 1, 0};
+        assertThrows(IllegalStateException.class, new JournalReader(ByteBuffer.wrap(many))::next);
+
+        byte[] tooMany = {'B', 'S', 'J', 2, 7, 10, 10, 1, 2, 0, 0, 0, 0, 0, 0, 0, 0};
+        assertThrows(IllegalStateException.class, new JournalReader(ByteBuffer.wrap(tooMany))::next);
+    }
+}
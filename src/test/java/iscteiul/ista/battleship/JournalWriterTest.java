@@ -0,0 +1,124 @@
+package iscteiul.ista.battleship;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JournalWriterTest {
+
+    private static Fleet fleet(long seed) {
+        return new FleetGenerator().generate(new SplittableRandom(seed));
+    }
+
+    @Test
+    @DisplayName("O que é escrito é lido de volta: frota, tiros e resultados")
+    void roundTrip() throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        Fleet fleet = fleet(3);
+        int[][] shots = {{0, 0}, {9, 9}, {0, 0}, {-1, 12}, {5, 4}, {4, 5}};
+        List<ShotResult> results = new ArrayList<>();
+        try (JournalWriter writer = new JournalWriter(Channels.newChannel(bytes), 64)) {
+            writer.writeHeader();
+            writer.startGame(fleet);
+            Game game = new Game(fleet);
+            for (int[] shot : shots) {
+                ShotResult result = game.fire(shot[0], shot[1]);
+                results.add(result);
+                writer.shot(shot[0], shot[1], result);
+            }
+            assertEquals(shots.length, writer.getShots());
+        }
+
+        JournalReader reader = new JournalReader(ByteBuffer.wrap(bytes.toByteArray()));
+        assertEquals(JournalReader.Record.GAME, reader.next());
+        assertEquals(BoardSpec.STANDARD, reader.getSpec());
+        Fleet copy = reader.buildFleet();
+        assertEquals(fleet.getShips().size(), copy.getShips().size());
+        for (int i = 0; i < fleet.getShips().size(); i++)
+            assertEquals(fleet.getShips().get(i).getPositions(), copy.getShips().get(i).getPositions());
+
+        for (int i = 0; i < shots.length; i++) {
+            assertEquals(JournalReader.Record.SHOT, reader.next());
+            assertEquals(i, reader.getShotIndex());
+            assertEquals(shots[i][0], reader.getRow());
+            assertEquals(shots[i][1], reader.getColumn());
+            assertEquals(results.get(i), reader.getResult());
+        }
+        assertNull(reader.next());
+    }
+
+    @Test
+    @DisplayName("Um jogo inteiro gasta menos de dois bytes por tiro")
+    void isCompact() throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        Simulator simulator = new Simulator(BoardSpec.STANDARD, ShipKind.standardFleet(), 1);
+        long shots;
+        try (JournalWriter writer = new JournalWriter(Channels.newChannel(bytes), 1 << 12)) {
+            simulator.record(new ProbabilityShooter(), 100, 1, writer);
+            shots = writer.getShots();
+        }
+        double perShot = (bytes.size() - 100 * 48.0) / shots;
+        assertTrue(perShot < 2, "bytes por tiro: " + perShot);
+    }
+
+    @Test
+    @DisplayName("Nada chega ao canal antes de o buffer encher ou de flush")
+    void flushesInGroups() throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        JournalWriter writer = new JournalWriter(Channels.newChannel(bytes), 1 << 12);
+        writer.writeHeader();
+        writer.startGame(fleet(1));
+        for (int i = 0; i < 100; i++)
+            writer.shot(i / 10, i % 10, ShotResult.MISS);
+        assertEquals(0, bytes.size());
+
+        writer.flush();
+        int flushed = bytes.size();
+        assertTrue(flushed > 100);
+        for (int i = 0; i < 10_000; i++)
+            writer.shot(i % 10, i / 10 % 10, ShotResult.REPEAT);
+        assertTrue(bytes.size() > flushed);
+        writer.close();
+    }
+
+    @Test
+    @DisplayName("Acrescentar a um diário existente não repete o cabeçalho")
+    void appendsToFiles(@TempDir Path directory) throws Exception {
+        Path file = directory.resolve("jogos.bsj");
+        for (int g = 0; g < 2; g++)
+            try (JournalWriter writer = JournalWriter.append(file)) {
+                writer.startGame(fleet(g));
+                writer.shot(g, g, ShotResult.MISS);
+            }
+        assertEquals('B', Files.readAllBytes(file)[0]);
+
+        JournalReader reader = JournalReader.open(file);
+        int games = 0;
+        int shots = 0;
+        for (JournalReader.Record record = reader.next(); record != null; record = reader.next())
+            if (record == JournalReader.Record.GAME)
+                games++;
+            else
+                shots++;
+        assertEquals(2, games);
+        assertEquals(2, shots);
+    }
+
+    @Test
+    @DisplayName("Rejeita buffers demasiado pequenos")
+    void rejectsTinyBuffers() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new JournalWriter(Channels.newChannel(new ByteArrayOutputStream()), 8));
+    }
+}
@@ -0,0 +1,80 @@
+package iscteiul.ista.battleship;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MonteCarloShooterTest {
+
+    private static List<Integer> play(IShooter shooter, BoardSpec spec, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        Game game = new Game(new FleetGenerator(spec, ShipKind.standardFleet()).generate(random));
+        shooter.newGame(spec, ShipKind.standardFleet(), random);
+        List<Integer> shots = new ArrayList<>();
+        while (game.getRemainingShips() > 0) {
+            int cell = shooter.nextShot();
+            shots.add(cell);
+            int row = spec.rowOf(cell);
+            int column = spec.columnOf(cell);
+            ShotResult result = game.fire(row, column);
+            assertNotEquals(ShotResult.REPEAT, result, "Tiro repetido");
+            shooter.shotFired(row, column, result, result == ShotResult.SUNK ? game.getLastSunkShip() : null);
+        }
+        return shots;
+    }
+
+    @Test
+    @DisplayName("Afunda a frota sem repetir tiros")
+    void sinksTheFleet() {
+        List<Integer> shots = play(new MonteCarloShooter(200, 0), BoardSpec.STANDARD, 3);
+        assertTrue(shots.size() < 100);
+    }
+
+    @Test
+    @DisplayName("Sem limite de tempo, os tiros não dependem do número de threads")
+    void sameShotsWithAnyParallelism() throws Exception {
+        List<Integer> alone = new ForkJoinPool(1)
+                .submit(() -> play(new MonteCarloShooter(300, 0), BoardSpec.STANDARD, 5)).get();
+        List<Integer> shared = new ForkJoinPool(4)
+                .submit(() -> play(new MonteCarloShooter(300, 0), BoardSpec.STANDARD, 5)).get();
+
+        assertEquals(alone, shared);
+        assertEquals(alone, play(new MonteCarloShooter(300, 0), BoardSpec.STANDARD, 5));
+    }
+
+    @Test
+    @DisplayName("Depois de um tiro certeiro num tabuleiro grande, dispara ao lado dele")
+    void targetsNextToAHit() {
+        BoardSpec spec = BoardSpec.square(1000, ShipKind.standardFleet().length);
+        MonteCarloShooter shooter = new MonteCarloShooter(100, 0);
+        shooter.newGame(spec, ShipKind.standardFleet(), new SplittableRandom(2));
+        shooter.shotFired(500, 500, ShotResult.HIT, null);
+
+        int cell = shooter.nextShot();
+        assertEquals(1, Math.abs(spec.rowOf(cell) - 500) + Math.abs(spec.columnOf(cell) - 500));
+    }
+
+    @Test
+    @DisplayName("Precisa de menos tiros do que caça e alvo")
+    void beatsHuntAndTarget() {
+        Simulator simulator = new Simulator(BoardSpec.STANDARD, ShipKind.standardFleet(), 1);
+        SimulationReport monteCarlo = simulator.run(() -> new MonteCarloShooter(200, 0), 30, 8);
+        SimulationReport huntTarget = simulator.run(HuntTargetShooter::new, 30, 8);
+
+        assertEquals(0, monteCarlo.getUnfinishedGames());
+        assertTrue(monteCarlo.getMeanShots() < huntTarget.getMeanShots());
+    }
+
+    @Test
+    @DisplayName("Rejeita amostras ou orçamentos inválidos")
+    void rejectsInvalidSettings() {
+        assertThrows(IllegalArgumentException.class, () -> new MonteCarloShooter(0, 0));
+        assertThrows(IllegalArgumentException.class, () -> new MonteCarloShooter(10, -1));
+    }
+}
@@ -0,0 +1,43 @@
+package iscteiul.ista.battleship;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PlacementCatalogTest {
+
+    @Test
+    @DisplayName("Há um catálogo por tamanho de tabuleiro")
+    void cachedPerBoardSize() {
+        PlacementCatalog a = PlacementCatalog.of(new BoardSpec(12, 13, 5));
+        PlacementCatalog b = PlacementCatalog.of(new BoardSpec(12, 13, 20));
+
+        assertSame(a, b);
+        assertNotSame(a, PlacementCatalog.of(new BoardSpec(13, 12, 5)));
+        assertEquals(12, a.getRows());
+        assertEquals(13, a.getColumns());
+    }
+
+    @Test
+    @DisplayName("As tabelas só são construídas quando pedidas")
+    void tablesAreLazy() {
+        PlacementCatalog catalog = new PlacementCatalog(10, 10);
+        assertEquals(0, catalog.memoryBytes());
+
+        ShipPlacements galleons = catalog.get(ShipKind.GALLEON);
+        long bytes = catalog.memoryBytes();
+        assertTrue(bytes > 0);
+        assertSame(galleons, catalog.get(ShipKind.GALLEON));
+        assertEquals(bytes, catalog.memoryBytes());
+
+        catalog.get(ShipKind.BARGE);
+        assertTrue(catalog.memoryBytes() > bytes);
+    }
+
+    @Test
+    @DisplayName("Rejeita tabuleiros demasiado grandes")
+    void rejectsLargeBoards() {
+        assertThrows(IllegalArgumentException.class, () -> PlacementCatalog.of(BoardSpec.square(1000, 10)));
+    }
+}
@@ -72,6 +72,7 @@ class PositionTest {
             @Override public boolean isAdjacentTo(IPosition other) { return false; }
             @Override public void occupy() {}
             @Override public void shoot() {}
+            @Override public void unshoot() {}
             @Override public boolean isOccupied() { return false; }
             @Override public boolean isHit() { return false; }
         };
@@ -90,6 +91,7 @@ class PositionTest {
             @Override public boolean isAdjacentTo(IPosition other) { return false; }
             @Override public void occupy() {}
             @Override public void shoot() {}
+            @Override public void unshoot() {}
             @Override public boolean isOccupied() { return false; }
             @Override public boolean isHit() { return false; }
         };
@@ -153,6 +155,29 @@ class PositionTest {
         assertTrue(p.isHit());
     }
 
+    @Test
+    @DisplayName("hashCode não muda quando a posição é ocupada ou atingida")
+    void hashCodeIgnoresFlags() {
+        Position p = new Position(3, 7);
+        int before = p.hashCode();
+
+        p.occupy();
+        p.shoot();
+
+        assertEquals(before, p.hashCode());
+        assertNotEquals(new Position(7, 3).hashCode(), p.hashCode());
+    }
+
+    @Test
+    @DisplayName("unshoot desfaz o tiro")
+    void unshootClearsHit() {
+        Position p = new Position(0, 0);
+        p.shoot();
+
+        p.unshoot();
+        assertFalse(p.isHit());
+    }
+
     @Test
     @DisplayName("toString contém coordenadas")
     void toStringContainsCoordinates() {
@@ -0,0 +1,113 @@
+package iscteiul.ista.battleship;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProbabilityShooterTest {
+
+    /**
+     * Counts by brute force, with real ships, the distinct placements of the
+     * fleet covering a cell of an empty board
+     */
+    private static int bruteForceDensity(BoardSpec spec, ShipKind[] fleet, int row, int column) {
+        int density = 0;
+        for (ShipKind kind : fleet) {
+            Set<Set<Integer>> footprints = new HashSet<>();
+            for (Compass bearing : new Compass[]{Compass.NORTH, Compass.SOUTH, Compass.EAST, Compass.WEST})
+                for (int r = -5; r < spec.getRows() + 5; r++)
+                    for (int c = -5; c < spec.getColumns() + 5; c++) {
+                        Set<Integer> cells = new HashSet<>();
+                        boolean inside = true;
+                        for (IPosition p : kind.build(bearing, r, c).getPositions()) {
+                            inside &= spec.isInside(p.getRow(), p.getColumn());
+                            cells.add(p.getRow() * spec.getColumns() + p.getColumn());
+                        }
+                        if (inside && cells.contains(row * spec.getColumns() + column))
+                            footprints.add(cells);
+                    }
+            density += footprints.size();
+        }
+        return density;
+    }
+
+    private static Game play(IShooter shooter, BoardSpec spec, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        Game game = new Game(new FleetGenerator(spec, ShipKind.standardFleet()).generate(random));
+        shooter.newGame(spec, ShipKind.standardFleet(), random);
+        while (game.getRemainingShips() > 0) {
+            int cell = shooter.nextShot();
+            int row = spec.rowOf(cell);
+            int column = spec.columnOf(cell);
+            ShotResult result = game.fire(row, column);
+            assertNotEquals(ShotResult.REPEAT, result, "Tiro repetido");
+            shooter.shotFired(row, column, result, result == ShotResult.SUNK ? game.getLastSunkShip() : null);
+        }
+        return game;
+    }
+
+    @Test
+    @DisplayName("A densidade inicial conta as colocações de cada navio da frota")
+    void initialDensity() {
+        ProbabilityShooter shooter = new ProbabilityShooter();
+        shooter.newGame(BoardSpec.STANDARD, ShipKind.standardFleet(), new SplittableRandom(1));
+
+        for (int[] cell : new int[][]{{0, 0}, {0, 5}, {4, 4}, {9, 1}, {2, 7}})
+            assertEquals(bruteForceDensity(BoardSpec.STANDARD, ShipKind.standardFleet(), cell[0], cell[1]),
+                    shooter.getDensity(cell[0], cell[1]));
+    }
+
+    @Test
+    @DisplayName("As atualizações incrementais dão as mesmas contagens que recontar tudo")
+    void incrementalMatchesRecount() {
+        BoardSpec spec = BoardSpec.STANDARD;
+        SplittableRandom random = new SplittableRandom(21);
+        Game game = new Game(new FleetGenerator().generate(random));
+        ProbabilityShooter incremental = new ProbabilityShooter(true);
+        ProbabilityShooter full = new ProbabilityShooter(false);
+        incremental.newGame(spec, ShipKind.standardFleet(), new SplittableRandom(5));
+        full.newGame(spec, ShipKind.standardFleet(), new SplittableRandom(5));
+
+        while (game.getRemainingShips() > 0) {
+            int cell = incremental.nextShot();
+            assertEquals(cell, full.nextShot());
+            int row = spec.rowOf(cell);
+            int column = spec.columnOf(cell);
+            ShotResult result = game.fire(row, column);
+            IShip sunk = result == ShotResult.SUNK ? game.getLastSunkShip() : null;
+            incremental.shotFired(row, column, result, sunk);
+            full.shotFired(row, column, result, sunk);
+
+            for (int r = 0; r < spec.getRows(); r++)
+                for (int c = 0; c < spec.getColumns(); c++)
+                    assertEquals(full.getDensity(r, c), incremental.getDensity(r, c));
+        }
+    }
+
+    @Test
+    @DisplayName("Afunda a frota sem repetir tiros, também em tabuleiros 100x100")
+    void sinksTheFleet() {
+        Game small = play(new ProbabilityShooter(), BoardSpec.STANDARD, 3);
+        assertTrue(small.getShots().size() < 100);
+
+        BoardSpec large = BoardSpec.square(100, ShipKind.standardFleet().length);
+        Game game = play(new ProbabilityShooter(), large, 4);
+        assertEquals(0, game.getRemainingShips());
+    }
+
+    @Test
+    @DisplayName("Precisa de menos tiros do que caça e alvo")
+    void beatsHuntAndTarget() {
+        Simulator simulator = new Simulator(BoardSpec.STANDARD, ShipKind.standardFleet(), 2);
+        SimulationReport density = simulator.run(ProbabilityShooter::new, 300, 8);
+        SimulationReport huntTarget = simulator.run(HuntTargetShooter::new, 300, 8);
+
+        assertEquals(0, density.getUnfinishedGames());
+        assertTrue(density.getMeanShots() < huntTarget.getMeanShots());
+    }
+}
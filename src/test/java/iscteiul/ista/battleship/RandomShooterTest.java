@@ -0,0 +1,39 @@
+package iscteiul.ista.battleship;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RandomShooterTest {
+
+    @Test
+    @DisplayName("Dispara em todas as células exatamente uma vez")
+    void firesEveryCellOnce() {
+        BoardSpec spec = new BoardSpec(7, 9, 3);
+        RandomShooter shooter = new RandomShooter();
+        shooter.newGame(spec, ShipKind.standardFleet(), new SplittableRandom(5));
+
+        boolean[] seen = new boolean[spec.getCells()];
+        for (int i = 0; i < spec.getCells(); i++) {
+            int cell = shooter.nextShot();
+            assertFalse(seen[cell], "Célula repetida: " + cell);
+            seen[cell] = true;
+            shooter.shotFired(spec.rowOf(cell), spec.columnOf(cell), ShotResult.MISS, null);
+        }
+    }
+
+    @Test
+    @DisplayName("A mesma semente produz a mesma sequência")
+    void sameSeedSameSequence() {
+        RandomShooter a = new RandomShooter();
+        RandomShooter b = new RandomShooter();
+        a.newGame(BoardSpec.STANDARD, ShipKind.standardFleet(), new SplittableRandom(42));
+        b.newGame(BoardSpec.STANDARD, ShipKind.standardFleet(), new SplittableRandom(42));
+
+        for (int i = 0; i < BoardSpec.STANDARD.getCells(); i++)
+            assertEquals(a.nextShot(), b.nextShot());
+    }
+}
@@ -0,0 +1,163 @@
+package iscteiul.ista.battleship;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReplayVerifierTest {
+
+    private static final int GAMES = 200;
+
+    private static Path archive(Path directory, String name, long seed) throws Exception {
+        Path file = directory.resolve(name);
+        try (JournalWriter writer = JournalWriter.append(file)) {
+            new Simulator(BoardSpec.STANDARD, ShipKind.standardFleet(), 1)
+                    .record(new HuntTargetShooter(), GAMES, seed, writer);
+        }
+        return file;
+    }
+
+    /**
+     * @return an archive of standard games with, after the first ones, a game
+     *         of 400 barges whose record takes some 1600 bytes
+     */
+    private static Path archiveWithLargeGame(Path directory, int before) throws Exception {
+        Path file = directory.resolve("grande" + before + ".bsj");
+        try (JournalWriter writer = JournalWriter.append(file)) {
+            Simulator simulator = new Simulator(BoardSpec.STANDARD, ShipKind.standardFleet(), 1);
+            simulator.record(new HuntTargetShooter(), before, 7, writer);
+            Fleet fleet = new Fleet(BoardSpec.square(100, 400));
+            for (int i = 0; i < 400; i++)
+                assertTrue(fleet.addShip(ShipKind.BARGE.build(Compass.NORTH, 2 * (i / 50), 2 * (i % 50))));
+            writer.startGame(fleet);
+            Game game = new Game(fleet);
+            for (int column = 0; column < 10; column++)
+                writer.shot(0, column, game.fire(0, column));
+            simulator.record(new HuntTargetShooter(), 10, 8, writer);
+        }
+        return file;
+    }
+
+    /**
+     * @return the offset of the token of a shot, and the shot's result
+     */
+    private static int[] findShot(byte[] bytes, long game, long shot) {
+        JournalReader reader = new JournalReader(ByteBuffer.wrap(bytes));
+        long games = -1;
+        while (true) {
+            int offset = reader.getPosition();
+            JournalReader.Record record = reader.next();
+            if (record == JournalReader.Record.GAME)
+                games++;
+            else if (games == game && reader.getShotIndex() == shot)
+                return new int[]{offset, reader.getResult().ordinal()};
+        }
+    }
+
+    @Test
+    @DisplayName("Arquivos escritos pelo motor não divergem")
+    void cleanArchivesPass(@TempDir Path directory) throws Exception {
+        List<Path> archives = List.of(archive(directory, "a.bsj", 1), archive(directory, "b.bsj", 2));
+        ReplayReport report = new ReplayVerifier(2).verify(archives);
+
+        assertEquals(2 * GAMES, report.getGames());
+        assertTrue(report.getShots() > 2 * GAMES * 20);
+        assertEquals(0, report.getDivergenceCount());
+        assertTrue(report.getBytes() > 0);
+    }
+
+    @Test
+    @DisplayName("Um resultado alterado é apontado pelo jogo e pelo índice do tiro")
+    void reportsTheDivergentShot(@TempDir Path directory) throws Exception {
+        Path file = archive(directory, "a.bsj", 3);
+        byte[] bytes = Files.readAllBytes(file);
+        int[] shot = findShot(bytes, 150, 17);
+        ShotResult recorded = ShotResult.values()[shot[1]];
+        assertNotEquals(ShotResult.INVALID, recorded);
+        // the outcome is in the three low bits of the first byte, the cell in the others
+        ShotResult forged = recorded == ShotResult.REPEAT ? ShotResult.HIT : ShotResult.REPEAT;
+        bytes[shot[0]] = (byte) ((bytes[shot[0]] & ~7) | forged.ordinal());
+        Files.write(file, bytes);
+
+        ReplayReport report = new ReplayVerifier(1, 1024, 512).verify(List.of(file));
+        assertEquals(1, report.getDivergenceCount());
+        ReplayReport.Divergence divergence = report.getDivergences().get(0);
+        assertEquals(150, divergence.getGame());
+        assertEquals(17, divergence.getShot());
+        assertEquals(forged, divergence.getRecorded());
+        assertEquals(recorded, divergence.getReplayed());
+        assertEquals(GAMES, report.getGames());
+    }
+
+    @Test
+    @DisplayName("Janelas e segmentos pequenos dão o mesmo resultado com 1 ou 4 threads")
+    void sameReportWithAnyWindowAndParallelism(@TempDir Path directory) throws Exception {
+        Path file = archive(directory, "a.bsj", 4);
+        byte[] bytes = Files.readAllBytes(file);
+        for (long game : new long[]{3, 77, 199}) {
+            int[] shot = findShot(bytes, game, 5);
+            bytes[shot[0]] = (byte) ((bytes[shot[0]] & ~7) | ShotResult.REPEAT.ordinal());
+        }
+        Files.write(file, bytes);
+
+        ReplayReport whole = new ReplayVerifier(1).verify(List.of(file));
+        ReplayReport pieces = new ReplayVerifier(4, 1024, 1000).verify(List.of(file));
+        assertEquals(whole.getGames(), pieces.getGames());
+        assertEquals(whole.getShots(), pieces.getShots());
+        assertEquals(3, whole.getDivergenceCount());
+        assertEquals(whole.getDivergences().toString(), pieces.getDivergences().toString());
+    }
+
+    @Test
+    @DisplayName("Um arquivo cortado é verificado até ao último jogo inteiro")
+    void truncatedArchives(@TempDir Path directory) throws Exception {
+        Path file = archive(directory, "a.bsj", 5);
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(bytes, bytes.length - 1));
+        Path other = Files.write(directory.resolve("b.txt"), new byte[]{'o', 'l', 'a'});
+
+        ReplayReport report = new ReplayVerifier(2, 4096, 0).verify(List.of(file, other));
+        assertEquals(GAMES - 1, report.getGames());
+        assertEquals(2, report.getDivergenceCount());
+        assertEquals(GAMES - 1, report.getDivergences().get(0).getGame());
+        assertEquals(-1, report.getDivergences().get(0).getShot());
+    }
+
+    @Test
+    @DisplayName("Um jogo maior do que a janela de leitura é apontado")
+    void gameLargerThanTheWindow(@TempDir Path directory) throws Exception {
+        Path file = archiveWithLargeGame(directory, 20);
+        ReplayReport report = new ReplayVerifier(1, 1024, 0).verify(List.of(file));
+
+        assertEquals(20, report.getGames());
+        assertEquals(1, report.getDivergenceCount());
+        assertEquals(20, report.getDivergences().get(0).getGame());
+        assertTrue(report.getDivergences().get(0).toString().contains("maior do que a janela"));
+    }
+
+    @Test
+    @DisplayName("Um jogo grande no fim de uma janela é lido da janela seguinte")
+    void largeGameAcrossWindows(@TempDir Path directory) throws Exception {
+        for (int before = 10; before <= 30; before += 2) {
+            Path file = archiveWithLargeGame(directory, before);
+            ReplayReport report = new ReplayVerifier(1, 4096, 1000).verify(List.of(file));
+
+            assertEquals(before + 11, report.getGames());
+            assertEquals(0, report.getDivergenceCount(), report.getDivergences().toString());
+        }
+    }
+
+    @Test
+    @DisplayName("Rejeita paralelismo inválido")
+    void rejectsInvalidParallelism() {
+        assertThrows(IllegalArgumentException.class, () -> new ReplayVerifier(0));
+    }
+}
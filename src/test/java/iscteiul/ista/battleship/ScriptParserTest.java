@@ -0,0 +1,100 @@
+package iscteiul.ista.battleship;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.InputMismatchException;
+import java.util.NoSuchElementException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ScriptParserTest {
+
+    private static ScriptParser parser(String script) {
+        return new ScriptParser(ByteBuffer.wrap(script.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    @DisplayName("Reconhece todos os comandos e os desconhecidos")
+    void readsCommands() {
+        ScriptParser parser = parser("nova rajada ver estado mapa desisto novas rajad ação");
+        for (ScriptCommand command : new ScriptCommand[]{ScriptCommand.NOVA, ScriptCommand.RAJADA,
+                ScriptCommand.VER, ScriptCommand.ESTADO, ScriptCommand.MAPA, ScriptCommand.DESISTO})
+            assertEquals(command, parser.nextCommand());
+        assertEquals(ScriptCommand.UNKNOWN, parser.nextCommand());
+        assertEquals(ScriptCommand.UNKNOWN, parser.nextCommand());
+        assertEquals(ScriptCommand.UNKNOWN, parser.nextCommand());
+        assertFalse(parser.hasNext());
+    }
+
+    @Test
+    @DisplayName("Lê navios, posições e rumos separados por qualquer espaço")
+    void readsShips() {
+        ScriptParser parser = parser("  galeao 3\t4 n\r\nbarca -1 +20 oeste\n\nnavio 0 0 x");
+        assertEquals(ShipKind.GALLEON, parser.nextKind());
+        assertEquals(3, parser.nextInt());
+        assertEquals(4, parser.nextInt());
+        assertEquals(Compass.NORTH, parser.nextBearing());
+        assertEquals(ShipKind.BARGE, parser.nextKind());
+        assertEquals(-1, parser.nextInt());
+        assertEquals(20, parser.nextInt());
+        assertEquals(Compass.WEST, parser.nextBearing());
+        assertNull(parser.nextKind());
+        parser.skipToken();
+        parser.skipToken();
+        assertEquals(Compass.UNKNOWN, parser.nextBearing());
+        assertThrows(NoSuchElementException.class, parser::nextCommand);
+    }
+
+    @Test
+    @DisplayName("Os números vão até aos limites de int e nada mais")
+    void readsIntsToTheLimits() {
+        ScriptParser parser = parser("2147483647 -2147483648 2147483648 -2147483649");
+        assertEquals(Integer.MAX_VALUE, parser.nextInt());
+        assertEquals(Integer.MIN_VALUE, parser.nextInt());
+        assertThrows(InputMismatchException.class, parser::nextInt);
+        parser.skipToken();
+        assertThrows(InputMismatchException.class, parser::nextInt);
+    }
+
+    @Test
+    @DisplayName("Um número inválido não é consumido, como no Scanner")
+    void mismatchLeavesTheToken() {
+        ScriptParser parser = parser("1x - rajada");
+        assertThrows(InputMismatchException.class, parser::nextInt);
+        parser.skipToken();
+        assertThrows(InputMismatchException.class, parser::nextInt);
+        parser.skipToken();
+        assertEquals(ScriptCommand.RAJADA, parser.nextCommand());
+    }
+
+    @Test
+    @DisplayName("Lê só entre a posição e o limite do buffer, sem a alterar")
+    void readsTheBufferInPlace() {
+        ByteBuffer buffer = ByteBuffer.wrap("ver mapa estado".getBytes(StandardCharsets.US_ASCII));
+        buffer.position(4).limit(8);
+        ScriptParser parser = new ScriptParser(buffer);
+
+        assertEquals(ScriptCommand.MAPA, parser.nextCommand());
+        assertFalse(parser.hasNext());
+        assertEquals(4, buffer.position());
+    }
+
+    @Test
+    @DisplayName("Lê um ficheiro mapeado em memória")
+    void readsMappedFiles(@TempDir Path directory) throws Exception {
+        Path file = directory.resolve("jogo.txt");
+        Files.writeString(file, "rajada 1 2\n");
+        ScriptParser parser = ScriptParser.open(file);
+
+        assertEquals(ScriptCommand.RAJADA, parser.nextCommand());
+        assertEquals(1, parser.nextInt());
+        assertEquals(2, parser.nextInt());
+        assertFalse(parser.hasNext());
+    }
+}
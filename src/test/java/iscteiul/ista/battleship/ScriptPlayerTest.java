@@ -0,0 +1,66 @@
+package iscteiul.ista.battleship;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.NoSuchElementException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ScriptPlayerTest {
+
+    /**
+     * A legal fleet of eleven ships, two of them lines that fail first
+     */
+    private static final String FLEET = "nova galeao 0 0 n fragata 0 5 e nau 4 0 e nau 6 0 e caravela 8 0 e "
+            + "navio 9 9 n caravela 2 5 e caravela 4 5 e barca 0 0 n barca 6 5 n barca 8 5 n barca 2 9 n "
+            + "barca 4 9 n ";
+
+    private static ScriptPlayer play(String script) {
+        ScriptPlayer player = new ScriptPlayer(
+                new ScriptParser(ByteBuffer.wrap(script.getBytes(StandardCharsets.UTF_8))), false);
+        player.play();
+        return player;
+    }
+
+    @Test
+    @DisplayName("Constrói a frota e conta os navios rejeitados")
+    void buildsTheFleet() {
+        ScriptPlayer player = play(FLEET + "estado mapa desisto");
+
+        assertEquals(Fleet.FLEET_SIZE + 1, player.getFleet().getShips().size());
+        assertEquals(2, player.getRejectedShips());
+        assertTrue(player.hasGivenUp());
+    }
+
+    @Test
+    @DisplayName("As rajadas disparam no jogo e os desconhecidos são contados")
+    void firesRounds() {
+        ScriptPlayer player = play(FLEET + "rajada 0 0 0 1 0 0 bla rajada 0 2 1 1 10 10 ver rajada 2 1 8 0 8 1");
+
+        IGame game = player.getGame();
+        assertEquals(7, game.getHits());
+        assertEquals(1, game.getRepeatedShots());
+        assertEquals(1, game.getInvalidShots());
+        assertEquals(2, game.getSunkShips());
+        assertEquals(Fleet.FLEET_SIZE - 1, game.getRemainingShips());
+        assertEquals(1, player.getUnknownCommands());
+        assertFalse(player.hasGivenUp());
+    }
+
+    @Test
+    @DisplayName("Pára no desisto e ignora o resto")
+    void stopsAtDesisto() {
+        ScriptPlayer player = play(FLEET + "desisto rajada 0 0");
+        assertEquals(0, player.getGame().getHits());
+    }
+
+    @Test
+    @DisplayName("Um guião cortado a meio de um comando é um erro")
+    void rejectsTruncatedScripts() {
+        assertThrows(NoSuchElementException.class, () -> play(FLEET + "rajada 0 0 0"));
+        assertThrows(NoSuchElementException.class, () -> play("nova galeao 0 0 e"));
+    }
+}
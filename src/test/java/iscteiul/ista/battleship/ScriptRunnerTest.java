@@ -0,0 +1,105 @@
+package iscteiul.ista.battleship;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ScriptRunnerTest {
+
+    private static final String FLEET = "nova galeao 0 0 n fragata 0 5 e nau 4 0 e nau 6 0 e caravela 8 0 e "
+            + "caravela 2 5 e caravela 4 5 e barca 6 5 n barca 8 5 n barca 2 9 n barca 4 9 n\n";
+
+    /**
+     * Rounds of shots at every cell of the board, and one past it
+     */
+    private static String everyCell() {
+        StringBuilder shots = new StringBuilder();
+        for (int cell = 0; cell < 102; cell += ScriptPlayer.NUMBER_SHOTS) {
+            shots.append("rajada");
+            for (int s = cell; s < cell + ScriptPlayer.NUMBER_SHOTS; s++)
+                shots.append(' ').append(s / 10).append(' ').append(s % 10);
+            shots.append('\n');
+        }
+        return shots.toString();
+    }
+
+    private static Path write(Path directory, String name, String script) throws Exception {
+        return Files.writeString(directory.resolve(name), script);
+    }
+
+    @Test
+    @DisplayName("Regista o resultado de cada guião, pela ordem dada")
+    void recordsEachScript(@TempDir Path directory) throws Exception {
+        write(directory, "a-ganho.txt", FLEET + everyCell() + "estado desisto");
+        write(directory, "b-parcial.txt", FLEET + "rajada 0 0 0 1 0 1 xpto rajada 0 2 1 1 10 10");
+        write(directory, "c-cortado.txt", FLEET + "rajada 0 0");
+        write(directory, "d-posicao.txt", FLEET + "rajada a b");
+        write(directory, "e-vazio.txt", "");
+
+        ScriptRunReport report = new ScriptRunner(2, false).run(ScriptRunner.scriptsIn(directory));
+        List<ScriptRunReport.Outcome> outcomes = report.getOutcomes();
+        assertEquals(5, outcomes.size());
+
+        ScriptRunReport.Outcome won = outcomes.get(0);
+        assertEquals("a-ganho.txt", won.getScript().getFileName().toString());
+        assertEquals(0, won.getRemainingShips());
+        assertEquals(Fleet.FLEET_SIZE + 1, won.getSunkShips());
+        assertEquals(2, won.getInvalidShots());
+        assertNull(won.getError());
+
+        ScriptRunReport.Outcome partial = outcomes.get(1);
+        assertEquals(4, partial.getHits());
+        assertEquals(1, partial.getRepeatedShots());
+        assertEquals(1, partial.getInvalidShots());
+        assertEquals(Fleet.FLEET_SIZE + 1, partial.getRemainingShips());
+        assertEquals(1, partial.getUnknownCommands());
+
+        assertEquals("guiao incompleto", outcomes.get(2).getError());
+        assertEquals(1, outcomes.get(2).getHits());
+        assertEquals("posicao invalida", outcomes.get(3).getError());
+        assertEquals(-1, outcomes.get(4).getRemainingShips());
+        assertNull(outcomes.get(4).getError());
+
+        assertEquals(1, report.getWonScripts());
+        assertEquals(2, report.getFailedScripts());
+    }
+
+    @Test
+    @DisplayName("Com uma ou várias threads, os resultados são os mesmos")
+    void sameOutcomesWithAnyParallelism(@TempDir Path directory) throws Exception {
+        for (int i = 0; i < 300; i++)
+            write(directory, String.format("%03d.txt", i), FLEET + everyCell().substring(0, 9 * i % 400 + 20));
+        List<Path> scripts = ScriptRunner.scriptsIn(directory);
+
+        List<ScriptRunReport.Outcome> one = new ScriptRunner(1, false).run(scripts).getOutcomes();
+        List<ScriptRunReport.Outcome> many = new ScriptRunner(4, false).run(scripts).getOutcomes();
+        for (int i = 0; i < scripts.size(); i++)
+            assertEquals(one.get(i).toString(), many.get(i).toString());
+    }
+
+    @Test
+    @DisplayName("A tabela tem uma linha por guião")
+    void writesTheTable(@TempDir Path directory) throws Exception {
+        write(directory, "um.txt", FLEET + "desisto");
+        write(directory, "dois.txt", FLEET + "rajada 0 0 0 1 0 2");
+        ScriptRunReport report = new ScriptRunner(1, false).run(ScriptRunner.scriptsIn(directory));
+
+        StringBuilder table = new StringBuilder();
+        report.writeTable(table);
+        assertEquals(3, table.toString().lines().count());
+        assertTrue(table.toString().contains("dois.txt"));
+        assertTrue(report.toString().contains("guioes=2"));
+    }
+
+    @Test
+    @DisplayName("Rejeita paralelismo inválido")
+    void rejectsInvalidParallelism() {
+        assertThrows(IllegalArgumentException.class, () -> new ScriptRunner(0, false));
+    }
+}
@@ -0,0 +1,42 @@
+package iscteiul.ista.battleship;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SeedsTest {
+
+    @Test
+    @DisplayName("O mesmo jogo da mesma corrida tem sempre o mesmo fluxo")
+    void sameGameSameStream() {
+        SplittableRandom first = Seeds.forGame(42, 7);
+        SplittableRandom second = Seeds.forGame(42, 7);
+        for (int i = 0; i < 100; i++)
+            assertEquals(first.nextLong(), second.nextLong());
+    }
+
+    @Test
+    @DisplayName("Jogos seguidos não repetem o fluxo do anterior desfasado")
+    void consecutiveGamesDoNotOverlap() {
+        Set<Long> seen = new HashSet<>();
+        for (long game = 0; game < 100; game++) {
+            SplittableRandom random = Seeds.forGame(1, game);
+            for (int i = 0; i < 100; i++)
+                assertTrue(seen.add(random.nextLong()), "Valor repetido no jogo " + game);
+        }
+    }
+
+    @Test
+    @DisplayName("Sementes de corrida diferentes dão jogos diferentes")
+    void runSeedsDiffer() {
+        Set<Long> seeds = new HashSet<>();
+        for (long run = 0; run < 64; run++)
+            for (long game = 0; game < 64; game++)
+                assertTrue(seeds.add(Seeds.derive(run, game)));
+    }
+}
@@ -0,0 +1,44 @@
+package iscteiul.ista.battleship;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShipKindTest {
+
+    @Test
+    @DisplayName("build cria o navio com a categoria e o tamanho do tipo")
+    void buildMatchesKind() {
+        for (ShipKind kind : ShipKind.values()) {
+            Ship ship = kind.build(Compass.EAST, 2, 1);
+
+            assertEquals(kind.getCategory(), ship.getCategory());
+            assertEquals(kind.getSize(), ship.getSize());
+            assertEquals(kind.getSize(), ship.getPositions().size());
+        }
+    }
+
+    @Test
+    @DisplayName("A frota padrão tem 11 navios, do maior para o menor")
+    void standardFleet() {
+        ShipKind[] fleet = ShipKind.standardFleet();
+
+        assertEquals(IFleet.FLEET_SIZE + 1, fleet.length);
+        for (int i = 1; i < fleet.length; i++)
+            assertTrue(fleet[i - 1].getSize() >= fleet[i].getSize());
+
+        fleet[0] = ShipKind.BARGE;
+        assertEquals(ShipKind.GALLEON, ShipKind.standardFleet()[0], "standardFleet devolve uma cópia");
+    }
+
+    @Test
+    @DisplayName("fromCategory e fromName encontram o tipo ou devolvem null")
+    void lookups() {
+        assertEquals(ShipKind.CARRACK,
+                ShipKind.fromCategory(new Carrack(Compass.NORTH, new Position(0, 0)).getCategory()));
+        assertEquals(ShipKind.GALLEON, ShipKind.fromName(ShipKind.GALLEON.getName()));
+        assertNull(ShipKind.fromCategory("Submarino"));
+        assertNull(ShipKind.fromName("submarino"));
+    }
+}
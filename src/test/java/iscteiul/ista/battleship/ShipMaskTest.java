@@ -0,0 +1,131 @@
+package iscteiul.ista.battleship;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShipMaskTest {
+
+    private static ShipMask maskOf(IShip s) {
+        ShipMask m = new ShipMask();
+        m.reset(s.getTopMostPos(), s.getLeftMostPos());
+        for (IPosition p : s.getPositions())
+            m.set(p.getRow(), p.getColumn());
+        return m;
+    }
+
+    @Test
+    @DisplayName("set e get marcam as células do navio")
+    void setAndGet() {
+        ShipMask m = maskOf(new Frigate(Compass.NORTH, new Position(2, 5)));
+
+        assertEquals(2, m.getTop());
+        assertEquals(4, m.getRows());
+        assertTrue(m.get(2, 5));
+        assertTrue(m.get(5, 5));
+        assertFalse(m.get(6, 5));
+        assertFalse(m.get(3, 6));
+    }
+
+    @Test
+    @DisplayName("fits diz se o navio e a sua auréola cabem na máscara")
+    void fits() {
+        assertTrue(ShipMask.fits(0, 0, 5, 0));
+        assertFalse(ShipMask.fits(1, 3, 7, 3));
+        assertTrue(ShipMask.fits(0, 1, 0, 61));
+        assertTrue(ShipMask.fits(0, 65, 0, 190));
+        assertFalse(ShipMask.fits(0, 65, 0, 191));
+        assertFalse(ShipMask.fits(2, 20, 2, 169));
+    }
+
+    @Test
+    @DisplayName("set lança IllegalArgumentException fora da janela da máscara")
+    void setOutsideWindowThrows() {
+        ShipMask m = new ShipMask();
+        m.reset(3, 3);
+
+        assertThrows(IllegalArgumentException.class, () -> m.set(2, 3));
+        assertThrows(IllegalArgumentException.class, () -> m.set(3 + ShipMask.MAX_ROWS, 3));
+        assertThrows(IllegalArgumentException.class, () -> m.set(3, 200));
+    }
+
+    @Test
+    @DisplayName("dilate acrescenta as oito vizinhas de cada célula")
+    void dilateAddsNeighbours() {
+        ShipMask m = maskOf(new Barge(Compass.NORTH, new Position(4, 4)));
+        ShipMask halo = new ShipMask();
+
+        m.dilate(halo, 10);
+
+        for (int r = 2; r <= 6; r++)
+            for (int c = 2; c <= 6; c++)
+                assertEquals(Math.abs(r - 4) <= 1 && Math.abs(c - 4) <= 1, halo.get(r, c), r + " " + c);
+    }
+
+    @Test
+    @DisplayName("dilate atravessa a fronteira entre palavras de 64 colunas")
+    void dilateCrossesWordBoundary() {
+        ShipMask m = new ShipMask();
+        m.reset(5, 63);
+        m.set(5, 63);
+        m.set(5, 64);
+        ShipMask halo = new ShipMask();
+
+        m.dilate(halo, 100);
+        Bitboard b = new Bitboard(100, 100);
+        halo.orInto(b);
+
+        assertEquals(12, b.cardinality());
+        assertTrue(b.get(4, 62));
+        assertTrue(b.get(6, 65));
+        assertFalse(b.get(5, 66));
+    }
+
+    @Test
+    @DisplayName("intersects e orInto usam o tabuleiro palavra a palavra")
+    void intersectsAndOrInto() {
+        Bitboard b = new Bitboard(10, 10);
+        ShipMask m = maskOf(new Carrack(Compass.EAST, new Position(3, 2)));
+
+        assertFalse(m.intersects(b));
+        m.orInto(b);
+        assertEquals(3, b.cardinality());
+        assertTrue(m.intersects(b));
+    }
+
+    @Test
+    @DisplayName("Halo dilatado dá o mesmo resultado que Ship.tooCloseTo")
+    void haloAgreesWithTooCloseTo() {
+        Random rnd = new Random(42);
+        String[] kinds = {"barca", "caravela", "nau", "fragata", "galeao"};
+        Compass[] bearings = {Compass.NORTH, Compass.SOUTH, Compass.EAST, Compass.WEST};
+
+        for (int n = 0; n < 2000; n++) {
+            Ship a = Ship.buildShip(kinds[rnd.nextInt(5)], bearings[rnd.nextInt(4)],
+                    new Position(rnd.nextInt(10), rnd.nextInt(10)));
+            Ship b = Ship.buildShip(kinds[rnd.nextInt(5)], bearings[rnd.nextInt(4)],
+                    new Position(rnd.nextInt(10), rnd.nextInt(10)));
+            if (!inside(a) || !inside(b))
+                continue;
+
+            ShipMask halo = new ShipMask();
+            maskOf(a).dilate(halo, 10);
+            Bitboard forbidden = new Bitboard(10, 10);
+            halo.orInto(forbidden);
+
+            assertEquals(a.tooCloseTo(b), maskOf(b).intersects(forbidden), a + " " + b);
+        }
+    }
+
+    private static boolean inside(IShip s) {
+        List<IPosition> ps = s.getPositions();
+        for (IPosition p : ps)
+            if (p.getRow() < 0 || p.getRow() >= 10 || p.getColumn() < 0 || p.getColumn() >= 10)
+                return false;
+        return true;
+    }
+}
@@ -0,0 +1,94 @@
+package iscteiul.ista.battleship;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShipPlacementsTest {
+
+    @Test
+    @DisplayName("Número de colocações de cada tipo num tabuleiro 10x10")
+    void countsOnStandardBoard() {
+        assertEquals(100, new ShipPlacements(ShipKind.BARGE, 10, 10).getCount());
+        assertEquals(180, new ShipPlacements(ShipKind.CARAVEL, 10, 10).getCount());
+        assertEquals(160, new ShipPlacements(ShipKind.CARRACK, 10, 10).getCount());
+        assertEquals(140, new ShipPlacements(ShipKind.FRIGATE, 10, 10).getCount());
+        assertEquals(256, new ShipPlacements(ShipKind.GALLEON, 10, 10).getCount());
+    }
+
+    @Test
+    @DisplayName("O navio construído ocupa exatamente as células da colocação")
+    void buildMatchesFootprint() {
+        BoardSpec spec = new BoardSpec(7, 9, 5);
+        for (ShipKind kind : ShipKind.values()) {
+            ShipPlacements table = new ShipPlacements(kind, spec.getRows(), spec.getColumns());
+            Set<Set<Integer>> distinct = new HashSet<>();
+            for (int p = 0; p < table.getCount(); p++) {
+                Set<Integer> cells = new HashSet<>();
+                for (IPosition pos : table.build(p).getPositions()) {
+                    assertTrue(spec.isInside(pos.getRow(), pos.getColumn()));
+                    cells.add(spec.cell(pos.getRow(), pos.getColumn()));
+                }
+                Set<Integer> footprint = new HashSet<>();
+                for (int i = 0; i < table.getSize(); i++)
+                    footprint.add(table.getFootprintCell(p, i));
+                assertEquals(cells, footprint);
+                assertTrue(distinct.add(footprint), "Colocação repetida");
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("O halo são as células vizinhas onde outro navio ficaria demasiado perto")
+    void haloMatchesTooCloseTo() {
+        BoardSpec spec = new BoardSpec(6, 6, 5);
+        ShipPlacements table = new ShipPlacements(ShipKind.GALLEON, 6, 6);
+        for (int p = 0; p < table.getCount(); p++) {
+            Ship ship = table.build(p);
+            Set<Integer> halo = new HashSet<>();
+            for (int i = 0; i < table.getHaloSize(p); i++) {
+                halo.add(table.getHaloCell(p, i));
+                if (i > 0)
+                    assertTrue(table.getHaloCell(p, i - 1) < table.getHaloCell(p, i));
+            }
+            for (int cell = 0; cell < spec.getCells(); cell++) {
+                Ship barge = ShipKind.BARGE.build(Compass.NORTH, spec.rowOf(cell), spec.columnOf(cell));
+                boolean onShip = ship.occupies(barge.getPosition());
+                assertEquals(!onShip && ship.tooCloseTo(barge), halo.contains(cell), "célula " + cell);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("O índice inverso lista as colocações que cobrem cada célula")
+    void coverIndex() {
+        ShipPlacements table = new ShipPlacements(ShipKind.FRIGATE, 10, 10);
+        int total = 0;
+        for (int cell = 0; cell < 100; cell++) {
+            for (int i = 0; i < table.getCoverCount(cell); i++) {
+                int p = table.getCoveringPlacement(cell, i);
+                boolean covers = false;
+                for (int j = 0; j < table.getSize(); j++)
+                    covers |= table.getFootprintCell(p, j) == cell;
+                assertTrue(covers);
+            }
+            total += table.getCoverCount(cell);
+        }
+        assertEquals(table.getCount() * table.getSize(), total);
+        assertEquals(2, table.getCoverCount(0));
+        assertEquals(8, table.getCoverCount(44));
+    }
+
+    @Test
+    @DisplayName("Tabuleiros menores do que o navio não têm colocações")
+    void tooSmallBoard() {
+        ShipPlacements table = new ShipPlacements(ShipKind.GALLEON, 2, 10);
+
+        assertEquals(0, table.getCount());
+        assertEquals(0, table.getCoverCount(5));
+    }
+}
@@ -144,6 +144,67 @@ class ShipTest {
         assertFalse(ship.stillFloating());
     }
 
+    @Test
+    @DisplayName("remainingCells desce apenas no primeiro tiro em cada célula")
+    void remainingCellsCountsFirstHitOnly() {
+        Ship ship = new Carrack(Compass.EAST, new Position(4, 4));
+        assertEquals(3, ship.remainingCells());
+
+        ship.shoot(new Position(4, 5));
+        ship.shoot(new Position(4, 5));
+        ship.shoot(new Position(0, 0));
+
+        assertEquals(2, ship.remainingCells());
+        assertTrue(ship.stillFloating());
+    }
+
+    @Test
+    @DisplayName("unshoot devolve a célula atingida e volta a pôr o navio a flutuar")
+    void unshootRestoresCell() {
+        Ship ship = new Barge(Compass.NORTH, new Position(2, 2));
+        ship.shoot(2, 2);
+        assertFalse(ship.stillFloating());
+
+        ship.unshoot(2, 2);
+        ship.unshoot(2, 2);
+        ship.unshoot(0, 0);
+
+        assertEquals(1, ship.remainingCells());
+        assertFalse(ship.getPositions().get(0).isHit());
+    }
+
+    @Test
+    @DisplayName("Navio afunda quando shoot atinge todas as células")
+    void shootAllCellsSinks() {
+        Ship ship = new Galleon(Compass.SOUTH, new Position(2, 5));
+
+        for (IPosition p : List.copyOf(ship.getPositions())) {
+            assertTrue(ship.stillFloating());
+            ship.shoot(new Position(p.getRow(), p.getColumn()));
+        }
+
+        assertEquals(0, ship.remainingCells());
+        assertFalse(ship.stillFloating());
+    }
+
+    @Test
+    @DisplayName("remainingCells tem em conta posições já atingidas antes do primeiro uso")
+    void remainingCellsStartsFromPositions() {
+        Position p1 = new Position(0, 0);
+        Position p2 = new Position(0, 1);
+        Position p3 = new Position(0, 2);
+        p2.shoot();
+
+        DummyShip ship = new DummyShip("Teste", Compass.EAST, p1, List.of(p1, p2, p3));
+
+        assertEquals(2, ship.remainingCells());
+        ship.shoot(new Position(0, 1));
+        assertEquals(2, ship.remainingCells());
+        ship.shoot(new Position(0, 0));
+        ship.shoot(new Position(0, 2));
+        assertFalse(ship.stillFloating());
+    }
+
     // ------------------------------------------------------------
     // top/bottom/left/right most
     // ------------------------------------------------------------
@@ -0,0 +1,62 @@
+package iscteiul.ista.battleship;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SimulationReportTest {
+
+    @Test
+    @DisplayName("Calcula média, desvio padrão, extremos e percentis")
+    void statistics() {
+        SimulationReport.Tally tally = new SimulationReport.Tally(200);
+        for (int shots = 41; shots <= 50; shots++)
+            tally.won(shots);
+        tally.gaveUp();
+
+        SimulationReport report = new SimulationReport("teste", tally, 1_000_000_000L);
+
+        assertEquals(11, report.getGames());
+        assertEquals(1, report.getUnfinishedGames());
+        assertEquals(45.5, report.getMeanShots(), 1e-9);
+        assertEquals(Math.sqrt(55.0 / 6), report.getStdDevShots(), 1e-9);
+        assertEquals(41, report.getMinShots());
+        assertEquals(50, report.getMaxShots());
+        assertEquals(45, report.getPercentile(0.5));
+        assertEquals(49, report.getPercentile(0.9));
+        assertEquals(11.0, report.getGamesPerSecond(), 1e-9);
+        assertEquals(1, report.getHistogram()[41]);
+    }
+
+    @Test
+    @DisplayName("Juntar contagens equivale a contar tudo num só")
+    void mergeMatchesSingleTally() {
+        SimulationReport.Tally all = new SimulationReport.Tally(100);
+        SimulationReport.Tally left = new SimulationReport.Tally(100);
+        SimulationReport.Tally right = new SimulationReport.Tally(100);
+        for (int shots = 20; shots < 80; shots++) {
+            all.won(shots);
+            (shots % 3 == 0 ? left : right).won(shots);
+        }
+        left.merge(right);
+
+        SimulationReport expected = new SimulationReport("a", all, 1);
+        SimulationReport merged = new SimulationReport("a", left, 1);
+        assertEquals(expected.getMeanShots(), merged.getMeanShots(), 1e-9);
+        assertEquals(expected.getMinShots(), merged.getMinShots());
+        assertEquals(expected.getMaxShots(), merged.getMaxShots());
+        assertArrayEquals(expected.getHistogram(), merged.getHistogram());
+    }
+
+    @Test
+    @DisplayName("Tabuleiros grandes agrupam o histograma")
+    void largeLimitUsesBuckets() {
+        SimulationReport.Tally tally = new SimulationReport.Tally(2_000_000);
+        tally.won(1_999_999);
+
+        SimulationReport report = new SimulationReport("a", tally, 1);
+        assertTrue(report.getBucketWidth() > 1);
+        assertTrue(report.getHistogram().length <= 4097);
+    }
+}
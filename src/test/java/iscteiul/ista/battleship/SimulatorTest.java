@@ -0,0 +1,62 @@
+package iscteiul.ista.battleship;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SimulatorTest {
+
+    @Test
+    @DisplayName("Todos os jogos terminam e as estatísticas são coerentes")
+    void allGamesFinish() {
+        Simulator simulator = new Simulator(BoardSpec.STANDARD, ShipKind.standardFleet(), 2);
+        SimulationReport report = simulator.run(HuntTargetShooter::new, 1000, 7);
+
+        assertEquals("caca-e-alvo", report.getStrategy());
+        assertEquals(1000, report.getGames());
+        assertEquals(0, report.getUnfinishedGames());
+        assertTrue(report.getMinShots() >= 27, "Pelo menos um tiro por célula de navio");
+        assertTrue(report.getMaxShots() <= 100);
+        assertTrue(report.getMeanShots() >= report.getMinShots() && report.getMeanShots() <= report.getMaxShots());
+        long total = 0;
+        for (long count : report.getHistogram())
+            total += count;
+        assertEquals(1000, total);
+    }
+
+    @Test
+    @DisplayName("A mesma semente dá o mesmo resultado com 1 ou várias threads")
+    void deterministicAcrossThreadCounts() {
+        SimulationReport one = new Simulator(BoardSpec.STANDARD, ShipKind.standardFleet(), 1)
+                .run(RandomShooter::new, 2000, 99);
+        SimulationReport many = new Simulator(BoardSpec.STANDARD, ShipKind.standardFleet(), 4)
+                .run(RandomShooter::new, 2000, 99);
+
+        assertArrayEquals(one.getHistogram(), many.getHistogram());
+        assertEquals(one.getMeanShots(), many.getMeanShots(), 0);
+    }
+
+    @Test
+    @DisplayName("Com 1 ou 64 threads, os resultados são iguais bit a bit")
+    void bitIdenticalWithManyThreads() {
+        SimulationReport one = new Simulator(BoardSpec.STANDARD, ShipKind.standardFleet(), 1)
+                .run(ProbabilityShooter::new, 600, 17);
+        SimulationReport many = new Simulator(BoardSpec.STANDARD, ShipKind.standardFleet(), 64)
+                .run(ProbabilityShooter::new, 600, 17);
+
+        assertArrayEquals(one.getHistogram(), many.getHistogram());
+        assertEquals(Double.doubleToRawLongBits(one.getMeanShots()), Double.doubleToRawLongBits(many.getMeanShots()));
+        assertEquals(Double.doubleToRawLongBits(one.getStdDevShots()),
+                Double.doubleToRawLongBits(many.getStdDevShots()));
+    }
+
+    @Test
+    @DisplayName("Rejeita frotas que não cabem e paralelismo inválido")
+    void constructorValidation() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new Simulator(new BoardSpec(10, 10, 2), ShipKind.standardFleet(), 1));
+        assertThrows(IllegalArgumentException.class,
+                () -> new Simulator(BoardSpec.STANDARD, ShipKind.standardFleet(), 0));
+    }
+}
@@ -0,0 +1,63 @@
+package iscteiul.ista.battleship;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SparseBitboardTest {
+
+    @Test
+    @DisplayName("Só são alocados os blocos com células marcadas")
+    void allocatesTilesOnDemand() {
+        SparseBitboard b = new SparseBitboard(10_000, 10_000);
+
+        assertEquals(0, b.allocatedTiles());
+        assertFalse(b.get(9_999, 9_999));
+
+        b.set(9_999, 9_999);
+        b.set(0, 0);
+        b.set(1, 1);
+
+        assertEquals(2, b.allocatedTiles());
+        assertTrue(b.get(9_999, 9_999));
+        assertTrue(b.get(1, 1));
+        assertFalse(b.get(1, 0));
+        assertEquals(3, b.cardinality());
+    }
+
+    @Test
+    @DisplayName("clear de uma célula e do tabuleiro inteiro")
+    void clearCells() {
+        SparseBitboard b = new SparseBitboard(1000, 1000);
+        b.set(500, 500);
+        b.set(10, 999);
+
+        b.clear(500, 500);
+        b.clear(700, 700);
+        assertFalse(b.get(500, 500));
+        assertEquals(1, b.cardinality());
+
+        b.clear();
+        assertEquals(0, b.cardinality());
+        assertEquals(0, b.allocatedTiles());
+    }
+
+    @Test
+    @DisplayName("word e orWord comportam-se como no bitboard denso")
+    void wordsMatchDenseBitboard() {
+        SparseBitboard sparse = new SparseBitboard(200, 130);
+        Bitboard dense = new Bitboard(200, 130);
+
+        for (IBitboard b : new IBitboard[]{sparse, dense}) {
+            b.orWord(150, 2, -1L);
+            b.orWord(3, 0, 0b1011L);
+            b.set(70, 64);
+        }
+
+        assertEquals(dense.cardinality(), sparse.cardinality());
+        for (int r = 0; r < 200; r++)
+            for (int w = 0; w < 4; w++)
+                assertEquals(dense.word(r, w), sparse.word(r, w), r + " " + w);
+    }
+}
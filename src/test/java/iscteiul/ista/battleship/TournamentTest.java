@@ -0,0 +1,127 @@
+package iscteiul.ista.battleship;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TournamentTest {
+
+    private static List<Contestant> contestants() {
+        return List.of(new Contestant(RandomShooter::new), new Contestant(HuntTargetShooter::new),
+                new Contestant(ProbabilityShooter::new));
+    }
+
+    private static Tournament tournament(Tournament.Format format, int rounds, int threads) {
+        return new Tournament(BoardSpec.STANDARD, ShipKind.standardFleet(), contestants(), format, rounds, 4, threads);
+    }
+
+    private static void assertSameStandings(TournamentReport expected, TournamentReport actual) {
+        assertEquals(expected.getRounds(), actual.getRounds());
+        for (TournamentReport.Entry entry : expected.getEntries()) {
+            TournamentReport.Entry other = actual.getEntry(entry.getName());
+            assertEquals(entry.getRating(), other.getRating());
+            assertEquals(entry.getWins(), other.getWins());
+            assertEquals(entry.getDraws(), other.getDraws());
+            assertEquals(entry.getLosses(), other.getLosses());
+            assertEquals(entry.getMeanShots(), other.getMeanShots());
+        }
+    }
+
+    @Test
+    @DisplayName("Todos contra todos: cada par joga os jogos de cada ronda")
+    void roundRobinPlaysEveryPairing() throws Exception {
+        TournamentReport report = tournament(Tournament.Format.ROUND_ROBIN, 2, 1).run(1, null);
+
+        assertEquals(2, report.getRounds());
+        assertEquals(2 * 3 * 4, report.getGames());
+        double total = 0;
+        for (TournamentReport.Entry entry : report.getEntries()) {
+            assertEquals(2 * 2 * 4, entry.getGames());
+            total += entry.getRating();
+        }
+        assertEquals(3 * Tournament.INITIAL_RATING, total, 1e-9);
+        assertTrue(report.getGamesPerSecond() > 0);
+    }
+
+    @Test
+    @DisplayName("As classificações não dependem do número de threads")
+    void sameRatingsWithAnyParallelism() throws Exception {
+        assertSameStandings(tournament(Tournament.Format.ROUND_ROBIN, 2, 1).run(7, null),
+                tournament(Tournament.Format.ROUND_ROBIN, 2, 3).run(7, null));
+    }
+
+    @Test
+    @DisplayName("Um torneio retomado do ponto de controlo acaba como um jogado de seguida")
+    void resumesFromCheckpoint(@TempDir Path directory) throws Exception {
+        Path checkpoint = directory.resolve("torneio.properties");
+        tournament(Tournament.Format.SWISS, 2, 2).run(3, checkpoint);
+        assertTrue(Files.exists(checkpoint));
+
+        TournamentReport resumed = tournament(Tournament.Format.SWISS, 4, 2).run(3, checkpoint);
+        TournamentReport straight = tournament(Tournament.Format.SWISS, 4, 2).run(3, null);
+
+        assertEquals(2 * 4, resumed.getGames());
+        assertSameStandings(straight, resumed);
+    }
+
+    @Test
+    @DisplayName("Recusa o ponto de controlo de outro torneio")
+    void rejectsForeignCheckpoint(@TempDir Path directory) throws Exception {
+        Path checkpoint = directory.resolve("torneio.properties");
+        tournament(Tournament.Format.ROUND_ROBIN, 1, 1).run(3, checkpoint);
+
+        assertThrows(IllegalStateException.class, () -> tournament(Tournament.Format.ROUND_ROBIN, 2, 1)
+                .run(4, checkpoint));
+        assertThrows(IllegalStateException.class, () -> tournament(Tournament.Format.SWISS, 2, 1)
+                .run(3, checkpoint));
+    }
+
+    @Test
+    @DisplayName("Suíço: ninguém repete adversário enquanto houver outros")
+    void swissAvoidsRematches() throws Exception {
+        List<Contestant> four = List.of(new Contestant("a", RandomShooter::new, RandomFleetPlacer::new),
+                new Contestant("b", RandomShooter::new, RandomFleetPlacer::new),
+                new Contestant("c", HuntTargetShooter::new, RandomFleetPlacer::new),
+                new Contestant("d", ProbabilityShooter::new, RandomFleetPlacer::new));
+        TournamentReport report = new Tournament(BoardSpec.STANDARD, ShipKind.standardFleet(), four,
+                Tournament.Format.SWISS, 3, 2, 1).run(5, null);
+
+        // three rounds of two pairings are a round-robin when nobody meets twice
+        assertEquals(3 * 2 * 2, report.getGames());
+        for (TournamentReport.Entry entry : report.getEntries())
+            assertEquals(3 * 2, entry.getGames());
+    }
+
+    @Test
+    @DisplayName("A estratégia de densidade fica à frente da aleatória")
+    void strongerStrategyRatesHigher() throws Exception {
+        TournamentReport report = new Tournament(BoardSpec.STANDARD, ShipKind.standardFleet(), contestants(),
+                Tournament.Format.ROUND_ROBIN, 2, 20, 1).run(11, null);
+
+        assertEquals("densidade", report.getEntries().get(0).getName());
+        TournamentReport.Entry random = report.getEntry("aleatorio");
+        assertTrue(random.getRating() < Tournament.INITIAL_RATING);
+        assertTrue(random.getScore() + random.getScoreMargin() < 0.5);
+        assertTrue(random.getShotsMargin() > 0);
+        assertTrue(report.toString().contains("densidade"));
+    }
+
+    @Test
+    @DisplayName("Rejeita torneios inválidos")
+    void rejectsInvalidTournaments() {
+        assertThrows(IllegalArgumentException.class, () -> new Tournament(BoardSpec.STANDARD,
+                ShipKind.standardFleet(), List.of(new Contestant(RandomShooter::new)),
+                Tournament.Format.ROUND_ROBIN, 1, 1, 1));
+        assertThrows(IllegalArgumentException.class, () -> new Tournament(BoardSpec.STANDARD,
+                ShipKind.standardFleet(), List.of(new Contestant(RandomShooter::new),
+                new Contestant(RandomShooter::new)), Tournament.Format.ROUND_ROBIN, 1, 1, 1));
+        assertThrows(IllegalArgumentException.class, () -> tournament(Tournament.Format.SWISS, 0, 1));
+        assertThrows(IllegalArgumentException.class, () -> tournament(Tournament.Format.SWISS, 1, 0));
+    }
+}
@@ -0,0 +1,55 @@
+package iscteiul.ista.battleship;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TranspositionCacheTest {
+
+    @Test
+    @DisplayName("Guarda e devolve valores pelo hash")
+    void storesAndFinds() {
+        TranspositionCache cache = new TranspositionCache(1000);
+        assertEquals(1024, cache.getCapacity());
+
+        cache.put(0, 17);
+        cache.put(Zobrist.key(3, ShotResult.MISS), -5);
+
+        assertEquals(17, cache.get(0, -1));
+        assertEquals(-5, cache.get(Zobrist.key(3, ShotResult.MISS), -1));
+        assertEquals(-1, cache.get(Zobrist.key(4, ShotResult.MISS), -1));
+    }
+
+    @Test
+    @DisplayName("Entradas vazias não correspondem a nenhum hash")
+    void emptySlotsNeverMatch() {
+        TranspositionCache cache = new TranspositionCache(4);
+
+        for (long hash : new long[]{0, -1, 1, 2, 3, ~1L, ~2L, ~3L, Long.MIN_VALUE})
+            assertEquals(99, cache.get(hash, 99));
+    }
+
+    @Test
+    @DisplayName("Um hash novo substitui o que ocupava a mesma entrada")
+    void replacesOnCollision() {
+        TranspositionCache cache = new TranspositionCache(16);
+
+        cache.put(5, 1);
+        cache.put(5 + 16, 2);
+
+        assertEquals(-1, cache.get(5, -1));
+        assertEquals(2, cache.get(5 + 16, -1));
+
+        cache.clear();
+        assertEquals(-1, cache.get(5 + 16, -1));
+    }
+
+    @Test
+    @DisplayName("Rejeita capacidades inválidas")
+    void rejectsInvalidCapacity() {
+        assertThrows(IllegalArgumentException.class, () -> new TranspositionCache(0));
+        assertThrows(IllegalArgumentException.class, () -> new TranspositionCache(TranspositionCache.MAX_CAPACITY + 1));
+        assertEquals(2, new TranspositionCache(1).getCapacity());
+    }
+}
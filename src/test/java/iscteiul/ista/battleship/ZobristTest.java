@@ -0,0 +1,39 @@
+package iscteiul.ista.battleship;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ZobristTest {
+
+    @Test
+    @DisplayName("As chaves são fixas e distintas por célula e estado")
+    void keysAreStableAndDistinct() {
+        Set<Long> keys = new HashSet<>();
+        ShotResult[] states = {ShotResult.MISS, ShotResult.HIT, ShotResult.SUNK};
+        for (int cell = 0; cell < 100_000; cell++)
+            for (ShotResult state : states)
+                assertTrue(keys.add(Zobrist.key(cell, state)));
+
+        assertEquals(Zobrist.key(42, ShotResult.HIT), Zobrist.key(42, ShotResult.HIT));
+        assertEquals(Zobrist.key(7, ShotResult.HIT) ^ Zobrist.key(7, ShotResult.SUNK), Zobrist.sink(7));
+    }
+
+    @Test
+    @DisplayName("Os bits das chaves estão equilibrados")
+    void keysAreBalanced() {
+        int[] ones = new int[64];
+        int n = 10_000;
+        for (int cell = 0; cell < n; cell++) {
+            long key = Zobrist.key(cell, ShotResult.MISS);
+            for (int b = 0; b < 64; b++)
+                ones[b] += (int) (key >>> b) & 1;
+        }
+        for (int b = 0; b < 64; b++)
+            assertTrue(Math.abs(ones[b] - n / 2) < n / 20, "bit " + b + ": " + ones[b]);
+    }
+}